@@ -39,6 +39,15 @@ corsEnabled=${CORS_ENABLED:-false}
 
 corsWhitelist=${CORS_WHITELIST:-http://domain1.com:port,http://domain2.com:port}
 
+#Number of audit evaluators run concurrently across requests - default is 8
+evaluatorThreads=${EVALUATOR_THREADS:-8}
+
+#Number of audit evaluators waiting for a thread, more are reported as timed out - default is 128
+evaluatorQueueSize=${EVALUATOR_QUEUE_SIZE:-128}
+
+#Time in milliseconds a dashboard review waits for its evaluators, 0 waits for all - default is 60000
+evaluatorTimeoutMillis=${EVALUATOR_TIMEOUT_MILLIS:-60000}
+
 feature.dynamicPipeline=${FEATURE_DYNAMIC_PIPELINE:-disabled}
 
 #Authentication Settings
@@ -24,6 +24,22 @@ public class ApiSettings {
     @Value("${maxDaysRangeForQuery:60}") // 60 days max
     private long maxDaysRangeForQuery;
     private boolean logRequest;
+    @Value("${requestLogQueueSize:10000}")
+    private int requestLogQueueSize;
+    @Value("${requestLogBatchSize:500}")
+    private int requestLogBatchSize;
+    @Value("${requestLogFlushIntervalMillis:1000}")
+    private long requestLogFlushIntervalMillis;
+    @Value("${requestLogMaxBodySize:65536}")
+    private int requestLogMaxBodySize;
+    @Value("${requestLogBodySampleRate:1.0}")
+    private double requestLogBodySampleRate;
+    @Value("${evaluatorThreads:8}")
+    private int evaluatorThreads;
+    @Value("${evaluatorQueueSize:128}")
+    private int evaluatorQueueSize;
+    @Value("${evaluatorTimeoutMillis:60000}") // 0 waits for every evaluator
+    private long evaluatorTimeoutMillis;
 
     private String featureIDPattern;
     @Value("${threshold:80}")
@@ -126,4 +142,67 @@ public class ApiSettings {
         this.commitLogIgnoreAuditRegEx = commitLogIgnoreAuditRegEx;
     }
 
-}
\ No newline at end of file
+    public int getRequestLogQueueSize() {
+        return requestLogQueueSize;
+    }
+
+    public void setRequestLogQueueSize(int requestLogQueueSize) {
+        this.requestLogQueueSize = requestLogQueueSize;
+    }
+
+    public int getRequestLogBatchSize() {
+        return requestLogBatchSize;
+    }
+
+    public void setRequestLogBatchSize(int requestLogBatchSize) {
+        this.requestLogBatchSize = requestLogBatchSize;
+    }
+
+    public long getRequestLogFlushIntervalMillis() {
+        return requestLogFlushIntervalMillis;
+    }
+
+    public void setRequestLogFlushIntervalMillis(long requestLogFlushIntervalMillis) {
+        this.requestLogFlushIntervalMillis = requestLogFlushIntervalMillis;
+    }
+
+    public int getRequestLogMaxBodySize() {
+        return requestLogMaxBodySize;
+    }
+
+    public void setRequestLogMaxBodySize(int requestLogMaxBodySize) {
+        this.requestLogMaxBodySize = requestLogMaxBodySize;
+    }
+
+    public double getRequestLogBodySampleRate() {
+        return requestLogBodySampleRate;
+    }
+
+    public void setRequestLogBodySampleRate(double requestLogBodySampleRate) {
+        this.requestLogBodySampleRate = requestLogBodySampleRate;
+    }
+
+    public int getEvaluatorThreads() {
+        return evaluatorThreads;
+    }
+
+    public void setEvaluatorThreads(int evaluatorThreads) {
+        this.evaluatorThreads = evaluatorThreads;
+    }
+
+    public int getEvaluatorQueueSize() {
+        return evaluatorQueueSize;
+    }
+
+    public void setEvaluatorQueueSize(int evaluatorQueueSize) {
+        this.evaluatorQueueSize = evaluatorQueueSize;
+    }
+
+    public long getEvaluatorTimeoutMillis() {
+        return evaluatorTimeoutMillis;
+    }
+
+    public void setEvaluatorTimeoutMillis(long evaluatorTimeoutMillis) {
+        this.evaluatorTimeoutMillis = evaluatorTimeoutMillis;
+    }
+}
@@ -0,0 +1,122 @@
+package com.capitalone.dashboard.common;
+
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.GitRequest;
+import com.capitalone.dashboard.repository.AuditCommitRepository;
+import com.capitalone.dashboard.repository.CommitRepository;
+import com.capitalone.dashboard.repository.GitRequestRepository;
+import com.capitalone.dashboard.repository.ServiceAccountRepository;
+import org.bson.types.ObjectId;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * The data of one code review audit.
+ * <p>
+ * The commits and merged pull requests of every collector item taking part in the audit are loaded
+ * once for the audit window and indexed by revision number, and the service accounts are loaded once,
+ * so evaluating each commit and pull request does not go back to the database.
+ * An instance is not thread safe and should not outlive the audit it was created for.
+ */
+public class CodeReviewAuditContext {
+    private final CommitRepository commitRepository;
+    private final GitRequestRepository gitRequestRepository;
+    private final AuditCommitRepository auditCommitRepository;
+    private final ServiceAccountRepository serviceAccountRepository;
+    private final long beginDt;
+    private final long endDt;
+
+    private final Map<ObjectId, List<GitRequest>> pullRequests = new HashMap<>();
+    private final Map<ObjectId, List<Commit>> commits = new HashMap<>();
+    private final Map<ObjectId, Map<String, Commit>> commitsByRevisionNumber = new HashMap<>();
+    private final Set<ObjectId> pullRequestCommitsLoaded = new HashSet<>();
+    private final Map<GitRequest, Boolean> approvedPullRequests = new IdentityHashMap<>();
+    private Map<String, String> serviceAccounts;
+
+    public CodeReviewAuditContext(CommitRepository commitRepository, GitRequestRepository gitRequestRepository,
+                                  AuditCommitRepository auditCommitRepository, ServiceAccountRepository serviceAccountRepository,
+                                  long beginDt, long endDt) {
+        this.commitRepository = commitRepository;
+        this.gitRequestRepository = gitRequestRepository;
+        this.auditCommitRepository = auditCommitRepository;
+        this.serviceAccountRepository = serviceAccountRepository;
+        this.beginDt = beginDt;
+        this.endDt = endDt;
+    }
+
+    /**
+     * @return the pull requests of the collector item merged in the audit window
+     */
+    public List<GitRequest> getPullRequests(ObjectId collectorItemId) {
+        return pullRequests.computeIfAbsent(collectorItemId,
+                id -> gitRequestRepository.findByCollectorItemIdAndMergedAtIsBetween(id, beginDt - 1, endDt + 1));
+    }
+
+    /**
+     * @return the commits of the collector item in the audit window
+     */
+    public List<Commit> getCommits(ObjectId collectorItemId) {
+        return commits.computeIfAbsent(collectorItemId,
+                id -> commitRepository.findByCollectorItemIdAndScmCommitTimestampIsBetween(id, beginDt - 1, endDt + 1));
+    }
+
+    /**
+     * Finds a commit of the collector item by revision number. The commits of the merged pull requests that
+     * fall outside the audit window are fetched in one query the first time one of them is asked for.
+     *
+     * @return the commit or null if the collector item has no such commit
+     */
+    public Commit getCommit(ObjectId collectorItemId, String scmRevisionNumber) {
+        Map<String, Commit> index = commitsByRevisionNumber.computeIfAbsent(collectorItemId, id -> {
+            Map<String, Commit> byRevisionNumber = new HashMap<>();
+            getCommits(id).forEach(commit -> byRevisionNumber.putIfAbsent(commit.getScmRevisionNumber(), commit));
+            return byRevisionNumber;
+        });
+        if (index.containsKey(scmRevisionNumber)) {
+            return index.get(scmRevisionNumber);
+        }
+
+        if (pullRequestCommitsLoaded.add(collectorItemId)) {
+            Set<String> missing = getPullRequests(collectorItemId).stream()
+                    .filter(pr -> pr.getCommits() != null)
+                    .flatMap(pr -> pr.getCommits().stream())
+                    .map(Commit::getScmRevisionNumber)
+                    .filter(revisionNumber -> !index.containsKey(revisionNumber))
+                    .collect(Collectors.toSet());
+            missing.add(scmRevisionNumber);
+            auditCommitRepository.findByCollectorItemIdAndScmRevisionNumberIn(collectorItemId, missing)
+                    .forEach(commit -> index.putIfAbsent(commit.getScmRevisionNumber(), commit));
+            missing.forEach(revisionNumber -> index.putIfAbsent(revisionNumber, null));
+            return index.get(scmRevisionNumber);
+        }
+
+        // not part of a pull request in the window, look it up on its own and remember the answer
+        Commit commit = commitRepository.findByCollectorItemIdAndScmRevisionNumber(collectorItemId, scmRevisionNumber);
+        index.put(scmRevisionNumber, commit);
+        return commit;
+    }
+
+    /**
+     * @return the whitelisted service accounts mapped to the files they may change
+     */
+    public Map<String, String> getServiceAccounts() {
+        if (serviceAccounts == null) {
+            serviceAccounts = CommonCodeReview.getServiceAccounts(serviceAccountRepository);
+        }
+        return serviceAccounts;
+    }
+
+    /**
+     * Evaluates whether a merged pull request passed its audit checks, once per pull request.
+     */
+    public boolean isApproved(GitRequest pullRequest, Predicate<GitRequest> check) {
+        return approvedPullRequests.computeIfAbsent(pullRequest, check::test);
+    }
+}
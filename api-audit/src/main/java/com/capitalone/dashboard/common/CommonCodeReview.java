@@ -22,6 +22,7 @@ import com.google.common.collect.Sets;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,15 +37,18 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class CommonCodeReview {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CommonCodeReview.class);
+    private static final int MAX_PATTERNS = 1000;
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
 
     /**
      * Calculates the peer review status for a given pull request
@@ -57,15 +61,34 @@ public class CommonCodeReview {
                                                   AuditReviewResponse<CodeReviewAuditStatus> auditReviewResponse,
                                                   List<Commit> commits,
                                                   CommitRepository commitRepository, ServiceAccountRepository serviceAccountRepository) {
+        return computePeerReviewStatus(pr, settings, auditReviewResponse, commits, getServiceAccounts(serviceAccountRepository),
+                commitRepository::findByCollectorItemIdAndScmRevisionNumber);
+    }
+
+    /**
+     * Calculates the peer review status for a given pull request using the data of the audit
+     *
+     * @param pr                  - pull request
+     * @param auditReviewResponse - audit review response
+     * @param context             - the commits and service accounts of the audit
+     * @return boolean fail or pass
+     */
+    public static boolean computePeerReviewStatus(GitRequest pr, ApiSettings settings,
+                                                  AuditReviewResponse<CodeReviewAuditStatus> auditReviewResponse,
+                                                  List<Commit> commits, CodeReviewAuditContext context) {
+        return computePeerReviewStatus(pr, settings, auditReviewResponse, commits, context.getServiceAccounts(), context::getCommit);
+    }
+
+    private static boolean computePeerReviewStatus(GitRequest pr, ApiSettings settings,
+                                                   AuditReviewResponse<CodeReviewAuditStatus> auditReviewResponse,
+                                                   List<Commit> commits, Map<String, String> accounts,
+                                                   BiFunction<ObjectId, String, Commit> commitLookup) {
         List<Review> reviews = pr.getReviews();
 
         List<CommitStatus> statuses = pr.getCommitStatuses();
 
         Map<String, String> actors = getActors(pr);
 
-        List<ServiceAccount> serviceAccounts = (List<ServiceAccount>) serviceAccountRepository.findAll();
-        Map<String,String> accounts =  serviceAccounts.stream().collect(Collectors.toMap(ServiceAccount :: getServiceAccountName, ServiceAccount::getFileNames));
-
         /**
          * Native Github Reviews take Higher priority so check for GHR, if not found check for LGTM.
          */
@@ -79,7 +102,7 @@ public class CommonCodeReview {
                     //review done using GitHub Review workflow
                     auditReviewResponse.addAuditStatus(CodeReviewAuditStatus.PEER_REVIEW_GHR);
                     if (!CollectionUtils.isEmpty(auditReviewResponse.getAuditStatuses()) &&
-                            !isPRReviewedInTimeScale(pr, auditReviewResponse, commits, commitRepository)) {
+                            !isPRReviewedInTimeScale(pr, auditReviewResponse, commits, commitLookup)) {
                         auditReviewResponse.addAuditStatus(CodeReviewAuditStatus.PEER_REVIEW_GHR_SELF_APPROVAL);
                         return Boolean.FALSE;
                     }
@@ -137,7 +160,7 @@ public class CommonCodeReview {
             if (lgtmAttempted) {
                 //if lgtm self-review, then no peer-review was done unless someone else looked at it
                 if (!CollectionUtils.isEmpty(auditReviewResponse.getAuditStatuses()) &&
-                        !isPRReviewedInTimeScale(pr, auditReviewResponse, commits, commitRepository)) {
+                        !isPRReviewedInTimeScale(pr, auditReviewResponse, commits, commitLookup)) {
                     auditReviewResponse.addAuditStatus(CodeReviewAuditStatus.PEER_REVIEW_LGTM_SELF_APPROVAL);
                     return false;
                 }
@@ -149,6 +172,14 @@ public class CommonCodeReview {
         return false;
     }
 
+    /**
+     * @return the whitelisted service accounts mapped to the files they may change
+     */
+    public static Map<String, String> getServiceAccounts(ServiceAccountRepository serviceAccountRepository) {
+        List<ServiceAccount> serviceAccounts = (List<ServiceAccount>) serviceAccountRepository.findAll();
+        return serviceAccounts.stream().collect(Collectors.toMap(ServiceAccount :: getServiceAccountName, ServiceAccount::getFileNames));
+    }
+
     /**
      * Check if the passed in account is a Service Account or not by comparing
      * against list of valid ServiceAccountOU in ApiSettings.
@@ -182,28 +213,19 @@ public class CommonCodeReview {
     }
 
     private static boolean isValidServiceAccount(String author, Map<String,String> allowedServiceAccounts,List<String> commitFiles) {
-
-        boolean isValidServiceAccount = false;
         if (MapUtils.isEmpty(allowedServiceAccounts)) return Boolean.FALSE;
-        for (String serviceAccount:allowedServiceAccounts.keySet()) {
-            String fileNames = allowedServiceAccounts.get(serviceAccount);
-            for (String s : fileNames.split(",")) {
-                if (serviceAccount.equalsIgnoreCase(author) && findFileMatch(s, commitFiles)){
-                    isValidServiceAccount = true;
-                }
-            }
-        }
-        return isValidServiceAccount;
+        return ServiceAccountMatcher.forAccounts(allowedServiceAccounts).isValidServiceAccount(author, commitFiles);
     }
 
-    private static boolean findFileMatch(String fileName, List<String> files){
-      if(fileName.contains("*")){
-          Optional<String> extension = getExtensionByStringHandling(fileName);
-            String EXT_PATTERN = "([^\\s]+(\\.(?i)("+extension.get()+"))$)";
-            java.util.function.Predicate<String> fileFilter = Pattern.compile(EXT_PATTERN).asPredicate();
-            List<String> filesFound = files.stream().filter(fileFilter).collect(Collectors.toList());
-            return filesFound.size()>0;
-        }else return files.parallelStream().anyMatch(file -> file.contains(fileName));
+    /**
+     * The patterns come from the settings, so there are few of them. Each is compiled once instead of once
+     * per commit.
+     */
+    private static Pattern getPattern(String regex) {
+        if (PATTERNS.size() >= MAX_PATTERNS) {
+            PATTERNS.clear();
+        }
+        return PATTERNS.computeIfAbsent(regex, Pattern::compile);
     }
 
     public static Optional<String> getExtensionByStringHandling(String filename) {
@@ -254,16 +276,18 @@ public class CommonCodeReview {
 
     private static boolean isPRReviewedInTimeScale(GitRequest pr,
                                                    AuditReviewResponse<CodeReviewAuditStatus> auditReviewResponse,
-                                                   List<Commit> commits, CommitRepository commitRepository) {
+                                                   List<Commit> commits, BiFunction<ObjectId, String, Commit> commitLookup) {
+        Map<String, Commit> commitsByRevisionNumber = new HashMap<>();
+        commits.forEach(c -> commitsByRevisionNumber.putIfAbsent(c.getScmRevisionNumber(), c));
+
         List<Commit> filteredPrCommits = new ArrayList<>();
         pr.getCommits().forEach(prC -> {
-            Optional<Commit> cOptionalCommit = commits.stream().filter(c -> Objects.equals(c.getScmRevisionNumber(), prC.getScmRevisionNumber())).findFirst();
-            Commit cCommit = cOptionalCommit.orElse(null);
+            Commit cCommit = commitsByRevisionNumber.get(prC.getScmRevisionNumber());
 
             //If not found in the list, it must be a commit in the PR from time beyond the evaluation time window.
             //In this case, look up from repository.
             if (cCommit == null) {
-                cCommit =  commitRepository.findByCollectorItemIdAndScmRevisionNumber(pr.getCollectorItemId(), prC.getScmRevisionNumber());
+                cCommit = commitLookup.apply(pr.getCollectorItemId(), prC.getScmRevisionNumber());
             }
 
             if (cCommit != null
@@ -340,8 +364,7 @@ public class CommonCodeReview {
 
     public static boolean matchIncrementVersionTag(String commitMessage,ApiSettings settings) {
         if (StringUtils.isEmpty(settings.getCommitLogIgnoreAuditRegEx())) return false;
-        Pattern pattern = Pattern.compile(settings.getCommitLogIgnoreAuditRegEx());
-        return pattern.matcher(commitMessage).matches();
+        return getPattern(settings.getCommitLogIgnoreAuditRegEx()).matcher(commitMessage).matches();
     }
 
 
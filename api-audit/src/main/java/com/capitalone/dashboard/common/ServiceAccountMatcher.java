@@ -0,0 +1,90 @@
+package com.capitalone.dashboard.common;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The whitelisted service accounts with the files each may change, compiled once per version of the accounts.
+ * The file names of an account are split once, its wildcard names (*.json) are combined in one extension
+ * pattern and its other names are kept for substring matching.
+ */
+public final class ServiceAccountMatcher {
+
+    private static volatile ServiceAccountMatcher lastMatcher;
+
+    private final Map<String, String> serviceAccounts;
+    private final Map<String, AccountFiles> filesByAccount = new HashMap<>();
+
+    private ServiceAccountMatcher(Map<String, String> serviceAccounts) {
+        this.serviceAccounts = serviceAccounts;
+        Map<String, List<String>> fileNamesByAccount = new HashMap<>();
+        serviceAccounts.forEach((account, fileNames) -> {
+            if (account != null && fileNames != null) {
+                List<String> names = fileNamesByAccount.computeIfAbsent(account.toLowerCase(Locale.ENGLISH), a -> new ArrayList<>());
+                for (String fileName : fileNames.split(",")) {
+                    names.add(fileName);
+                }
+            }
+        });
+        fileNamesByAccount.forEach((account, fileNames) -> filesByAccount.put(account, new AccountFiles(fileNames)));
+    }
+
+    /**
+     * @return the matcher of the service accounts, compiled again only when they changed since the last call
+     */
+    public static ServiceAccountMatcher forAccounts(Map<String, String> serviceAccounts) {
+        ServiceAccountMatcher matcher = lastMatcher;
+        if (matcher == null || !matcher.serviceAccounts.equals(serviceAccounts)) {
+            matcher = new ServiceAccountMatcher(new HashMap<>(serviceAccounts));
+            lastMatcher = matcher;
+        }
+        return matcher;
+    }
+
+    /**
+     * @return true if the author is a service account allowed to change one of the files
+     */
+    public boolean isValidServiceAccount(String author, List<String> commitFiles) {
+        if (author == null) return false;
+        AccountFiles accountFiles = filesByAccount.get(author.toLowerCase(Locale.ENGLISH));
+        return accountFiles != null && accountFiles.findFileMatch(commitFiles);
+    }
+
+    private static final class AccountFiles {
+        private final Pattern extensions;
+        private final List<String> fileNames;
+
+        AccountFiles(List<String> names) {
+            List<String> extensionNames = new ArrayList<>();
+            fileNames = new ArrayList<>();
+            for (String name : names) {
+                if (!name.contains("*")) {
+                    fileNames.add(name);
+                } else if (name.contains(".")) {
+                    extensionNames.add(name.substring(name.lastIndexOf('.') + 1));
+                }
+                // a wildcard without an extension matches nothing
+            }
+            extensions = extensionNames.isEmpty() ? null
+                    : Pattern.compile("([^\\s]+(\\.(?i)(" + extensionNames.stream().map(e -> "(" + e + ")").collect(Collectors.joining("|")) + "))$)");
+        }
+
+        boolean findFileMatch(List<String> files) {
+            if (CollectionUtils.isEmpty(files)) return false;
+            for (String file : files) {
+                if (extensions != null && extensions.matcher(file).find()) return true;
+                for (String fileName : fileNames) {
+                    if (file.contains(fileName)) return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.capitalone.dashboard.evaluator;
 
 import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.common.CodeReviewAuditContext;
 import com.capitalone.dashboard.common.CommonCodeReview;
 import com.capitalone.dashboard.model.AuditException;
 import com.capitalone.dashboard.model.Collector;
@@ -11,8 +12,8 @@ import com.capitalone.dashboard.model.CommitType;
 import com.capitalone.dashboard.model.Dashboard;
 import com.capitalone.dashboard.model.GitRequest;
 import com.capitalone.dashboard.model.SCM;
+import com.capitalone.dashboard.repository.AuditCommitRepository;
 import com.capitalone.dashboard.repository.CollectorRepository;
-import com.capitalone.dashboard.model.ServiceAccount;
 import com.capitalone.dashboard.repository.CommitRepository;
 import com.capitalone.dashboard.repository.GitRequestRepository;
 import com.capitalone.dashboard.response.CodeReviewAuditResponseV2;
@@ -29,10 +30,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -42,6 +45,7 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
         private final GitRequestRepository gitRequestRepository;
         private final CollectorRepository collectorRepository;
         private final ServiceAccountRepository serviceAccountRepository;
+        private final AuditCommitRepository auditCommitRepository;
 
         protected ApiSettings settings;
         private static final String BRANCH = "branch";
@@ -50,12 +54,13 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
     @Autowired
     public CodeReviewEvaluator(CommitRepository commitRepository, GitRequestRepository gitRequestRepository,
                                 CollectorRepository collectorRepository, ServiceAccountRepository serviceAccountRepository,
-                                ApiSettings settings) {
+                                AuditCommitRepository auditCommitRepository, ApiSettings settings) {
         this.commitRepository = commitRepository;
         this.gitRequestRepository = gitRequestRepository;
         this.collectorRepository = collectorRepository;
         this.settings = settings;
         this.serviceAccountRepository = serviceAccountRepository;
+        this.auditCommitRepository = auditCommitRepository;
     }
 
 
@@ -66,6 +71,8 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
         if (CollectionUtils.isEmpty(repoItems)) {
             throw new AuditException("No code repository configured", AuditException.NO_COLLECTOR_ITEM_CONFIGURED);
         }
+        // shared by the repos of the dashboard, pushed repos on the same url look at the same other branches
+        CodeReviewAuditContext context = newContext(beginDate, endDate);
 
         //making sure we have a goot url?
         repoItems.forEach(repoItem -> {
@@ -89,9 +96,9 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
                     collectorItemList.add(ci);
                 }
 
-                reviewResponse = evaluate(repoItem, collectorItemList, beginDate, endDate, null);
+                reviewResponse = getPeerReviewResponses(repoItem, collectorItemList, beginDate, endDate, context);
             } else {
-                reviewResponse = evaluate(repoItem, beginDate, endDate, null);
+                reviewResponse = getPeerReviewResponses(repoItem, new ArrayList<>(), beginDate, endDate, context);
             }
 
             reviewResponse.setUrl(parsedUrl);
@@ -104,11 +111,15 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
 
     @Override
     public CodeReviewAuditResponseV2 evaluate(CollectorItem collectorItem, long beginDate, long endDate, Map<?, ?> data) {
-        return getPeerReviewResponses(collectorItem, new ArrayList<>(), beginDate, endDate);
+        return getPeerReviewResponses(collectorItem, new ArrayList<>(), beginDate, endDate, newContext(beginDate, endDate));
     }
 
     protected CodeReviewAuditResponseV2 evaluate(CollectorItem collectorItem, List<CollectorItem> collectorItemList, long beginDate, long endDate, Map<?, ?> data) {
-        return getPeerReviewResponses(collectorItem, collectorItemList, beginDate, endDate);
+        return getPeerReviewResponses(collectorItem, collectorItemList, beginDate, endDate, newContext(beginDate, endDate));
+    }
+
+    private CodeReviewAuditContext newContext(long beginDate, long endDate) {
+        return new CodeReviewAuditContext(commitRepository, gitRequestRepository, auditCommitRepository, serviceAccountRepository, beginDate, endDate);
     }
 
     /**
@@ -132,7 +143,7 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
 
     private CodeReviewAuditResponseV2 getPeerReviewResponses(CollectorItem repoItem,
                                                              List<CollectorItem> collectorItemList,
-                                                             long beginDt, long endDt) {
+                                                             long beginDt, long endDt, CodeReviewAuditContext context) {
 
         CodeReviewAuditResponseV2 reviewAuditResponseV2 = new CodeReviewAuditResponseV2();
 
@@ -165,8 +176,8 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
             return reviewAuditResponseV2;
         }
 
-        List<GitRequest> pullRequests = gitRequestRepository.findByCollectorItemIdAndMergedAtIsBetween(repoItem.getId(), beginDt-1, endDt+1);
-        List<Commit> commits = commitRepository.findByCollectorItemIdAndScmCommitTimestampIsBetween(repoItem.getId(), beginDt-1, endDt+1);
+        List<GitRequest> pullRequests = new ArrayList<>(context.getPullRequests(repoItem.getId()));
+        List<Commit> commits = new ArrayList<>(context.getCommits(repoItem.getId()));
         commits.sort(Comparator.comparing(Commit::getScmCommitTimestamp).reversed());
         pullRequests.sort(Comparator.comparing(GitRequest::getMergedAt).reversed());
 
@@ -185,9 +196,9 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
         }
         reviewAuditResponseV2.setLastUpdated(repoItem.getLastUpdated());
 
-        List<String> allPrCommitShas = new ArrayList<>();
+        Set<String> allPrCommitShas = new HashSet<>();
         pullRequests.stream().filter(pr -> "merged".equalsIgnoreCase(pr.getState())).forEach(pr -> {
-            auditPullRequest(repoItem, pr, commits, allPrCommitShas, reviewAuditResponseV2);
+            auditPullRequest(repoItem, pr, commits, allPrCommitShas, reviewAuditResponseV2, context);
         });
 
         //check any commits not directly tied to pr
@@ -199,18 +210,18 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
         commits.forEach(commit -> {
             if (!checkPrCommitsAndCommitType(allPrCommitShas, commit)) { return; }
 
-            if ( isCommitEligibleForDirectCommitsForPushedRepo(repoItem, commit, collectorItemList, beginDt, endDt)
+            if ( isCommitEligibleForDirectCommitsForPushedRepo(repoItem, commit, collectorItemList, context)
                     || isCommitEligibleForDirectCommitsForPulledRepo(repoItem, commit) ) {
                 commitsNotDirectlyTiedToPr.add(commit);
                 // auditServiceAccountChecks includes - check for service account and increment version tag for service account on direct commits.
-                auditServiceAccountChecks(reviewAuditResponseV2, commit);
+                auditServiceAccountChecks(reviewAuditResponseV2, commit, context.getServiceAccounts());
             }
         });
 
         return reviewAuditResponseV2;
     }
 
-    private boolean checkPrCommitsAndCommitType(List<String> allPrCommitShas, Commit commit) {
+    private boolean checkPrCommitsAndCommitType(Set<String> allPrCommitShas, Commit commit) {
         if ( (!allPrCommitShas.contains(commit.getScmRevisionNumber()))
                 && (commit.getType() == CommitType.New) ) { return true; }
 
@@ -219,9 +230,9 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
 
     private boolean isCommitEligibleForDirectCommitsForPushedRepo(CollectorItem repoItem, Commit commit,
                                                                   List<CollectorItem> collectorItemList,
-                                                                  long beginDt, long endDt) {
+                                                                  CodeReviewAuditContext context) {
         if (repoItem.isPushed()
-                && !existsApprovedPROnAnotherBranch(repoItem, commit, collectorItemList, beginDt, endDt)) {
+                && !existsApprovedPROnAnotherBranch(repoItem, commit, collectorItemList, context)) {
             return true;
         }
         return false;
@@ -235,7 +246,8 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
     }
 
     protected void auditPullRequest(CollectorItem repoItem, GitRequest pr, List<Commit> commits,
-                                    List<String> allPrCommitShas, CodeReviewAuditResponseV2 reviewAuditResponseV2) {
+                                    Collection<String> allPrCommitShas, CodeReviewAuditResponseV2 reviewAuditResponseV2,
+                                    CodeReviewAuditContext context) {
         Commit mergeCommit = Optional.ofNullable(commits)
                                 .orElseGet(Collections::emptyList).stream()
                                 .filter(c -> Objects.equals(c.getScmRevisionNumber(), pr.getScmRevisionNumber()))
@@ -264,7 +276,7 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
 
         allPrCommitShas.addAll(commitsRelatedToPr.stream().map(SCM::getScmRevisionNumber).collect(Collectors.toList()));
 
-        boolean peerReviewed = CommonCodeReview.computePeerReviewStatus(pr, settings, pullRequestAudit, commits, commitRepository, serviceAccountRepository);
+        boolean peerReviewed = CommonCodeReview.computePeerReviewStatus(pr, settings, pullRequestAudit, commits, context);
         pullRequestAudit.addAuditStatus(peerReviewed ? CodeReviewAuditStatus.PULLREQ_REVIEWED_BY_PEER : CodeReviewAuditStatus.PULLREQ_NOT_PEER_REVIEWED);
         String sourceRepo = pr.getSourceRepo();
         String targetRepo = pr.getTargetRepo();
@@ -273,48 +285,43 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
     }
 
     protected boolean existsApprovedPROnAnotherBranch(CollectorItem repoItem, Commit commit, List<CollectorItem> collectorItemList,
-                                                      long beginDt, long endDt) {
+                                                      CodeReviewAuditContext context) {
         CollectorItem collectorItem = Optional.ofNullable(collectorItemList)
                                         .orElseGet(Collections::emptyList).stream()
-                                        .filter(ci -> existsApprovedPRForCollectorItem(repoItem, commit, ci, beginDt, endDt))
+                                        .filter(ci -> existsApprovedPRForCollectorItem(repoItem, commit, ci, context))
                                         .findFirst().orElse(null);
         return (collectorItem != null);
     }
 
     protected boolean existsApprovedPRForCollectorItem(CollectorItem repoItem, Commit commit, CollectorItem collectorItem,
-                                                       long beginDt, long endDt) {
-        List<GitRequest> mergedPullRequests
-                = gitRequestRepository.findByCollectorItemIdAndMergedAtIsBetween(collectorItem.getId(), beginDt-1, endDt+1);
+                                                       CodeReviewAuditContext context) {
+        List<GitRequest> mergedPullRequests = context.getPullRequests(collectorItem.getId());
 
-        List<Commit> commits
-                = commitRepository.findByCollectorItemIdAndScmCommitTimestampIsBetween(collectorItem.getId(), beginDt-1, endDt+1);
+        List<Commit> commits = context.getCommits(collectorItem.getId());
 
         GitRequest mergedPullRequestFound
                 = Optional.ofNullable(mergedPullRequests)
                 .orElseGet(Collections::emptyList).stream()
-                .filter(mergedPullRequest -> evaluateMergedPullRequest(repoItem, mergedPullRequest, commit, commits))
+                .filter(mergedPullRequest -> evaluateMergedPullRequest(repoItem, mergedPullRequest, commit, commits, context))
                 .findFirst().orElse(null);
 
         return (mergedPullRequestFound != null);
     }
 
     private boolean evaluateMergedPullRequest (CollectorItem repoItem, GitRequest mergedPullRequest,
-                                               Commit commit, List<Commit> commits) {
+                                               Commit commit, List<Commit> commits, CodeReviewAuditContext context) {
         Commit matchingCommit = findAMatchingCommit(mergedPullRequest, commit, commits);
         if (matchingCommit == null) { return false; }
 
-        List<String> allPrCommitShas = new ArrayList<>();
-        CodeReviewAuditResponseV2 reviewAuditResponseV2 = new CodeReviewAuditResponseV2();
-
-        // Matching commit found, now make sure the PR for the matching commit passes all the audit checks
-        auditPullRequest(repoItem, mergedPullRequest, commits, allPrCommitShas, reviewAuditResponseV2);
-        CodeReviewAuditResponseV2.PullRequestAudit pullRequestAudit = reviewAuditResponseV2.getPullRequests().get(0);
+        // Matching commit found, now make sure the PR for the matching commit passes all the audit checks.
+        // The outcome does not depend on the commit, so each PR is audited once.
+        return context.isApproved(mergedPullRequest, pr -> {
+            CodeReviewAuditResponseV2 reviewAuditResponseV2 = new CodeReviewAuditResponseV2();
+            auditPullRequest(repoItem, pr, commits, new ArrayList<>(), reviewAuditResponseV2, context);
+            CodeReviewAuditResponseV2.PullRequestAudit pullRequestAudit = reviewAuditResponseV2.getPullRequests().get(0);
 
-        if ((pullRequestAudit != null) && codeReviewAuditResponseCheck(pullRequestAudit)) {
-            return true;
-        }
-
-        return false;
+            return (pullRequestAudit != null) && codeReviewAuditResponseCheck(pullRequestAudit);
+        });
     }
 
     protected boolean codeReviewAuditResponseCheck(CodeReviewAuditResponseV2.PullRequestAudit pullRequestAudit) {
@@ -363,19 +370,23 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
         return false;
     }
 
-    private void auditServiceAccountChecks(CodeReviewAuditResponseV2 reviewAuditResponseV2, Commit commit) {
+    private void auditServiceAccountChecks(CodeReviewAuditResponseV2 reviewAuditResponseV2, Commit commit, Map<String, String> serviceAccounts) {
         if (StringUtils.isEmpty(commit.getScmAuthorLDAPDN())) {
             reviewAuditResponseV2.addAuditStatus(CodeReviewAuditStatus.SCM_AUTHOR_LOGIN_INVALID);
         }
 
-        auditDirectCommits(reviewAuditResponseV2, commit);
+        auditDirectCommits(reviewAuditResponseV2, commit, serviceAccounts);
     }
 
     protected void auditDirectCommits(CodeReviewAuditResponseV2 reviewAuditResponseV2, Commit commit) {
+        auditDirectCommits(reviewAuditResponseV2, commit, getAllServiceAccounts());
+    }
+
+    protected void auditDirectCommits(CodeReviewAuditResponseV2 reviewAuditResponseV2, Commit commit, Map<String, String> serviceAccounts) {
         Stream<String> combinedStream
                 = Stream.of(commit.getFilesAdded(), commit.getFilesModified(),commit.getFilesRemoved()).filter(Objects::nonNull).flatMap(Collection::stream);
         Collection<String> collectionCombined = combinedStream.collect(Collectors.toList());
-       if (CommonCodeReview.checkForServiceAccount(commit.getScmAuthorLDAPDN(), settings,getAllServiceAccounts(),commit.getScmAuthor(),collectionCombined.stream().collect(Collectors.toList()),true,reviewAuditResponseV2)) {
+       if (CommonCodeReview.checkForServiceAccount(commit.getScmAuthorLDAPDN(), settings,serviceAccounts,commit.getScmAuthor(),collectionCombined.stream().collect(Collectors.toList()),true,reviewAuditResponseV2)) {
             reviewAuditResponseV2.addAuditStatus(CodeReviewAuditStatus.COMMITAUTHOR_EQ_SERVICEACCOUNT);
             auditIncrementVersionTag(reviewAuditResponseV2, commit, CodeReviewAuditStatus.DIRECT_COMMIT_NONCODE_CHANGE_SERVICE_ACCOUNT);
         } else  if (StringUtils.isBlank(commit.getScmAuthorLDAPDN())) {
@@ -403,7 +414,6 @@ public class CodeReviewEvaluator extends Evaluator<CodeReviewAuditResponseV2> {
    }
 
     public Map<String,String> getAllServiceAccounts(){
-        List<ServiceAccount> serviceAccounts = (List<ServiceAccount>) serviceAccountRepository.findAll();
-        return serviceAccounts.stream().collect(Collectors.toMap(ServiceAccount :: getServiceAccountName, ServiceAccount::getFileNames));
+        return CommonCodeReview.getServiceAccounts(serviceAccountRepository);
     }
 }
\ No newline at end of file
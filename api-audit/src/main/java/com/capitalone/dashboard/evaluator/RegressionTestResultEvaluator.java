@@ -25,6 +25,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +34,7 @@ import java.util.HashMap;
 import java.util.Date;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -99,14 +102,15 @@ public class RegressionTestResultEvaluator extends Evaluator<TestResultsAuditRes
                 testResultsAuditResponse.setLastExecutionTime(testResult.getStartTime());
 
 
-                List<String> totalCompletedStories = this.getTotalCompletedStoriesInGivenDateRange(dashboard.getTitle(), beginDate-1, endDate+1);
+                StoryIndex storyIndex = new StoryIndex(getDashboardStories(dashboard.getTitle()), beginDate-1, endDate+1);
+                List<String> totalCompletedStories = storyIndex.getCompletedStories();
                 testResultsAuditResponse.setTotalCompletedStories(totalCompletedStories);
 
                 //Start: Audit status mapping to each story number between the start and end date.
                 HashMap<String, HashMap> totalStoriesMap = new HashMap<String, HashMap >();
-                List<String> totalStoresList = getTotalStoriesInGivenDateRange(dashboard.getTitle(), beginDate-1, endDate+1);
+                List<String> totalStoresList = storyIndex.getTotalStories();
 
-                HashMap<String, String> storyAuditStatusMap = getStoryAuditStatusInGivenDateRange(dashboard.getTitle(), beginDate-1,  endDate+1);
+                HashMap<String, String> storyAuditStatusMap = storyIndex.getStoryAuditStatus();
                 for (String storyNumber:totalStoresList){
                     HashMap<String, String> storyNumberStatusMap = new HashMap<String, String >();
                     storyNumberStatusMap.put("auditStatus",storyAuditStatusMap.get(storyNumber));
@@ -122,7 +126,7 @@ public class RegressionTestResultEvaluator extends Evaluator<TestResultsAuditRes
 
 
                 if (totalCompletedStories.size() > 0) {
-                    int percentTraceability = (getTotalStoryIndicators(dashboard, beginDate, endDate, testResults, testResultsAuditResponse, totalStoryIndicatorList).size() * 100) / totalCompletedStories.size();
+                    int percentTraceability = (getTotalStoryIndicators(storyIndex, testResults, testResultsAuditResponse, totalStoryIndicatorList).size() * 100) / totalCompletedStories.size();
                     testResultsAuditResponse.setPercentTraceability(percentTraceability);
                     if (traceabilityThreshold == 0) {
                         testResultsAuditResponse.addAuditStatus(TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_THRESHOLD_DEFAULT);
@@ -137,19 +141,24 @@ public class RegressionTestResultEvaluator extends Evaluator<TestResultsAuditRes
         return testResultsAuditResponse;
     }
 
-    private  List<StoryIndicator> getTotalStoryIndicators(Dashboard dashboard, long beginDate, long endDate, List<TestResult> testResults, TestResultsAuditResponse testResultsAuditResponse, List<StoryIndicator> totalStoryIndicatorList) {
+    private  List<StoryIndicator> getTotalStoryIndicators(StoryIndex storyIndex, List<TestResult> testResults, TestResultsAuditResponse testResultsAuditResponse, List<StoryIndicator> totalStoryIndicatorList) {
+        String featureIdRegex = settings.getFeatureIDPattern();
+        Pattern featureIdPattern = featureIdRegex == null ? null : Pattern.compile(featureIdRegex);
+        Set<String> storyNumbers = new HashSet<>();
+        totalStoryIndicatorList.forEach(sil -> storyNumbers.add(sil.getStoryNumber()));
+
         testResults.stream()
                 .map(TestResult::getTestCapabilities).flatMap(Collection::stream)
                 .map(TestCapability::getTestSuites).flatMap(Collection::stream)
                 .map(TestSuite::getTestCases).flatMap(Collection::stream)
                 .forEach(testCase -> {
-                    List<StoryIndicator> storyIndicatorList = this.getStoryIndicatorsInGivenDateRange(dashboard, testResultsAuditResponse, testCase, beginDate-1, endDate+1);
+                    List<StoryIndicator> storyIndicatorList = this.getStoryIndicators(storyIndex, featureIdPattern, testResultsAuditResponse, testCase);
                     testCase.setStoryIndicators(storyIndicatorList);
                     if (CollectionUtils.isEmpty(storyIndicatorList)) {
                         testResultsAuditResponse.addAuditStatus(TestResultAuditStatus.TEST_RESULT_AUDIT_MISSING);
                     }
                     storyIndicatorList.forEach(sil -> {
-                        if (!totalStoryIndicatorList.stream().anyMatch(o -> o.getStoryNumber().equals(sil.getStoryNumber()))) {
+                        if (storyNumbers.add(sil.getStoryNumber())) {
                             totalStoryIndicatorList.add(sil);
                         }
                     });
@@ -158,54 +167,42 @@ public class RegressionTestResultEvaluator extends Evaluator<TestResultsAuditRes
     }
 
     /**
-     * Gets list of Stories & Story details based on the cucumber tags in `REGEX_ANY_STRING_MATCHING_FEATURE_ID` Regex Pattern
+     * Gets list of Stories & Story details based on the cucumber tags matching the feature id pattern
      *
-     * @param dashboard
+     * @param storyIndex
+     * @param featureIdPattern
      * @param testResultsAuditResponse
      * @param testCase
-     * @param beginDate
-     * @param endDate
      * @return
      */
-    private List<StoryIndicator> getStoryIndicatorsInGivenDateRange(Dashboard dashboard, TestResultsAuditResponse testResultsAuditResponse, TestCase testCase, Long beginDate, Long endDate) {
+    private List<StoryIndicator> getStoryIndicators(StoryIndex storyIndex, Pattern featureIdPattern, TestResultsAuditResponse testResultsAuditResponse, TestCase testCase) {
 
-        final String REGEX_ANY_STRING_MATCHING_FEATURE_ID = settings.getFeatureIDPattern();
         List<StoryIndicator> storyIndicatorList = new ArrayList<>();
         Set<String> tags = testCase.getTags();
 
         if (CollectionUtils.isEmpty(tags)) {
             testResultsAuditResponse.addAuditStatus(TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_NOT_FOUND);
         } else {
-            Pattern p = Pattern.compile(REGEX_ANY_STRING_MATCHING_FEATURE_ID);
             tags.forEach(tag -> {
-                Matcher tagMatch = p.matcher(tag);
+                Matcher tagMatch = featureIdPattern.matcher(tag);
                 if (tagMatch.find()) {
-                    List<Feature> featureDetails = featureRepository.getStoryByNumber(tag.substring(1, tag.length()));
-
-                    if (this.getTotalCompletedStoriesInGivenDateRange(dashboard.getTitle(), beginDate, endDate).contains(tag.substring(1, tag.length()))) {
-                        featureDetails.stream()
-                                .forEach(feature -> {
-                                    if (this.getEpochChangeDate(feature) >= beginDate && this.getEpochChangeDate(feature) <= endDate) {
-                                        if (this.isValidStoryStatus(feature.getsStatus())) {
-
-                                            StoryIndicator storyIndicator = new StoryIndicator();
-
-                                            storyIndicator.setStoryId(feature.getsId());
-                                            storyIndicator.setStoryType(feature.getsTypeName());
-                                            storyIndicator.setStoryNumber(feature.getsNumber());
-                                            storyIndicator.setStoryName(feature.getsName());
-                                            storyIndicator.setEpicNumber(feature.getsEpicNumber());
-                                            storyIndicator.setEpicName(feature.getsEpicName());
-                                            storyIndicator.setProjectName(feature.getsProjectName());
-                                            storyIndicator.setTeamName(feature.getsTeamName());
-                                            storyIndicator.setSprintName(feature.getsSprintName());
-                                            storyIndicator.setStoryStatus(feature.getsStatus());
-                                            storyIndicator.setStoryState(feature.getsState());
-                                            storyIndicatorList.add(storyIndicator);
-                                        }
-                                    }
-                                });
-                    }
+                    storyIndex.getCompletedFeatures(tag.substring(1, tag.length()))
+                            .forEach(feature -> {
+                                StoryIndicator storyIndicator = new StoryIndicator();
+
+                                storyIndicator.setStoryId(feature.getsId());
+                                storyIndicator.setStoryType(feature.getsTypeName());
+                                storyIndicator.setStoryNumber(feature.getsNumber());
+                                storyIndicator.setStoryName(feature.getsName());
+                                storyIndicator.setEpicNumber(feature.getsEpicNumber());
+                                storyIndicator.setEpicName(feature.getsEpicName());
+                                storyIndicator.setProjectName(feature.getsProjectName());
+                                storyIndicator.setTeamName(feature.getsTeamName());
+                                storyIndicator.setSprintName(feature.getsSprintName());
+                                storyIndicator.setStoryStatus(feature.getsStatus());
+                                storyIndicator.setStoryState(feature.getsState());
+                                storyIndicatorList.add(storyIndicator);
+                            });
                 }
             });
         }
@@ -214,58 +211,22 @@ public class RegressionTestResultEvaluator extends Evaluator<TestResultsAuditRes
     }
 
     /**
-     * Gets total completed stories(ACCEPTED/DONE/RESOLVED/CLOSED) based on the change date
+     * Gets the stories of the teams on the team dashboard's feature widgets
      *
-     * @param dashboard
-     * @param beginDate
-     * @param endDate
+     * @param title
      * @return
      */
-    private  List<String> getTotalCompletedStoriesInGivenDateRange(String dashboard, Long beginDate, Long endDate) {
-
-        List<String> totalCompletedStories = new ArrayList<String>();
-        this.getDashboardDetails(dashboard, DashboardType.Team).getWidgets().forEach(widget ->
-        {
-            if (widget.getName().equals("feature")) {
-                List<Feature> featureDetails = featureRepository.getStoryByTeamID(widget.getOptions().get("teamId").toString());
-                featureDetails.stream()
-                        .forEach(feature -> {
-                            if (this.getEpochChangeDate(feature) >= beginDate && this.getEpochChangeDate(feature) <= endDate) {
-
-                                if (this.isValidStoryStatus(feature.getsStatus())) {
-                                    totalCompletedStories.add(feature.getsNumber());
-                                }
-                            }
-                        });
-            }
-        });
-
-        return totalCompletedStories;
-    }
+    private List<Feature> getDashboardStories(String title) {
 
-    /**
-     * Gets total stories(ALL STATUS) based on the change date
-     *
-     * @param dashboard
-     * @param beginDate
-     * @param endDate
-     * @return
-     */
-    private List<String> getTotalStoriesInGivenDateRange(String dashboard, Long beginDate, Long endDate) {
-
-        List<String> totalStories = new ArrayList<>();
-        this.getDashboardDetails(dashboard, DashboardType.Team).getWidgets().forEach(widget ->
+        List<Feature> stories = new ArrayList<>();
+        this.getDashboardDetails(title, DashboardType.Team).getWidgets().forEach(widget ->
         {
             if (widget.getName().equals("feature")) {
-                List<Feature> featureDetails = featureRepository.getStoryByTeamID(widget.getOptions().get("teamId").toString());
-                featureDetails.stream()
-                        .forEach(feature -> {
-                            totalStories.add(feature.getsNumber());
-                        });
+                stories.addAll(featureRepository.getStoryByTeamID(widget.getOptions().get("teamId").toString()));
             }
         });
 
-        return totalStories;
+        return stories;
     }
 
     /**
@@ -290,42 +251,6 @@ public class RegressionTestResultEvaluator extends Evaluator<TestResultsAuditRes
         return changeDate;
     }
 
-    /**
-     * Method to retrieve the audit status for a given story
-     * @param title Dashboard title
-     * @param beginDate dashboard begin date
-     * @param endDate dashboard end date
-     *
-     * @return HashMap
-     */
-    private HashMap<String, String> getStoryAuditStatusInGivenDateRange(String title,  Long beginDate, Long endDate) {
-
-        HashMap<String, String> storyAuditStatusMap = new HashMap<String,String>();
-
-        this.getDashboardDetails(title, DashboardType.Team).getWidgets().forEach(widget ->
-        {
-            if (widget.getName().equals("feature")) {
-                List<Feature> featureDetails = featureRepository.getStoryByTeamID(widget.getOptions().get("teamId").toString());
-                featureDetails.stream()
-                        .forEach(feature -> {
-                            if (this.getEpochChangeDate(feature) >= beginDate && this.getEpochChangeDate(feature) <= endDate) {
-                                if (this.isValidStoryStatus(feature.getsStatus())) {
-                                    storyAuditStatusMap.put(feature.getsNumber(), TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_MATCH.name());
-                                } else {
-                                    storyAuditStatusMap.put(feature.getsNumber(), TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_STATUS_INVALID.name());
-                                }
-                            }
-                            else{
-                                storyAuditStatusMap.put(feature.getsNumber(), TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_NOT_FOUND.name());
-                            }
-                        });
-            }
-        });
-
-        return storyAuditStatusMap;
-    }
-
-
     private boolean isValidStoryStatus(String storyStatus) {
         final List<String> validStatus = settings.getValidStoryStatus();
 
@@ -337,4 +262,79 @@ public class RegressionTestResultEvaluator extends Evaluator<TestResultsAuditRes
 
         return dashboardDetails;
     }
-}
\ No newline at end of file
+
+    private boolean isCompletedInRange(Feature feature, long beginDate, long endDate) {
+        long changeDate = getEpochChangeDate(feature);
+        return changeDate >= beginDate && changeDate <= endDate && isValidStoryStatus(feature.getsStatus());
+    }
+
+    /**
+     * The stories of a dashboard, loaded once per audit. The change date of each story is parsed once.
+     * A test case tag naming a completed story of the dashboard is resolved, as before, to every story
+     * with that number completed in the date range, whichever team it belongs to. Each story number is
+     * looked up once per audit.
+     */
+    private final class StoryIndex {
+        private final long beginDate;
+        private final long endDate;
+        private final List<String> totalStories = new ArrayList<>();
+        private final List<String> completedStories = new ArrayList<>();
+        private final Set<String> completedStoryNumbers = new HashSet<>();
+        private final Map<String, List<Feature>> completedFeaturesByNumber = new HashMap<>();
+        private final HashMap<String, String> storyAuditStatus = new HashMap<>();
+
+        private StoryIndex(List<Feature> features, long beginDate, long endDate) {
+            this.beginDate = beginDate;
+            this.endDate = endDate;
+            for (Feature feature : features) {
+                totalStories.add(feature.getsNumber());
+
+                long changeDate = getEpochChangeDate(feature);
+                if (changeDate >= beginDate && changeDate <= endDate) {
+                    if (isValidStoryStatus(feature.getsStatus())) {
+                        completedStories.add(feature.getsNumber());
+                        completedStoryNumbers.add(feature.getsNumber());
+                        storyAuditStatus.put(feature.getsNumber(), TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_MATCH.name());
+                    } else {
+                        storyAuditStatus.put(feature.getsNumber(), TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_STATUS_INVALID.name());
+                    }
+                } else {
+                    storyAuditStatus.put(feature.getsNumber(), TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_NOT_FOUND.name());
+                }
+            }
+        }
+
+        /**
+         * @return total stories(ALL STATUS)
+         */
+        private List<String> getTotalStories() {
+            return totalStories;
+        }
+
+        /**
+         * @return total completed stories(ACCEPTED/DONE/RESOLVED/CLOSED) based on the change date
+         */
+        private List<String> getCompletedStories() {
+            return completedStories;
+        }
+
+        /**
+         * @return the stories with the number completed in the date range, if the number is a completed story of the dashboard
+         */
+        private List<Feature> getCompletedFeatures(String storyNumber) {
+            if (!completedStoryNumbers.contains(storyNumber)) {
+                return Collections.emptyList();
+            }
+            return completedFeaturesByNumber.computeIfAbsent(storyNumber, number -> featureRepository.getStoryByNumber(number).stream()
+                    .filter(feature -> isCompletedInRange(feature, beginDate, endDate))
+                    .collect(Collectors.toList()));
+        }
+
+        /**
+         * @return the audit status of each story
+         */
+        private HashMap<String, String> getStoryAuditStatus() {
+            return storyAuditStatus;
+        }
+    }
+}
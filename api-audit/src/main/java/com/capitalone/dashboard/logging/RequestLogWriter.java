@@ -0,0 +1,218 @@
+package com.capitalone.dashboard.logging;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.model.RequestLog;
+import com.capitalone.dashboard.repository.RequestLogRepository;
+import com.mongodb.util.JSON;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes {@link RequestLog}s to the database off the servlet thread.
+ * <p>
+ * Logs are put on a bounded queue and a single background thread inserts them in batches.
+ * When the queue is full new logs are dropped and counted rather than blocking the request.
+ * Request and response bodies are parsed on the background thread, truncated to
+ * {@link ApiSettings#getRequestLogMaxBodySize()} and only kept for the fraction of requests
+ * given by {@link ApiSettings#getRequestLogBodySampleRate()}.
+ */
+@Component
+@Conditional(DatabaseLoggingCondition.class)
+public class RequestLogWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(RequestLogWriter.class);
+
+    private final RequestLogRepository requestLogRepository;
+    private final ApiSettings settings;
+    private final BlockingQueue<PendingRequestLog> queue;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    @Autowired
+    public RequestLogWriter(RequestLogRepository requestLogRepository, ApiSettings settings) {
+        this.requestLogRepository = requestLogRepository;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getRequestLogQueueSize()));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        // write whatever is left so a clean shutdown does not lose logs
+        while (flush() > 0) {
+            // keep flushing
+        }
+        LOGGER.info("Request log writer stopped. accepted=" + accepted.get() + " written=" + written.get()
+                + " dropped=" + dropped.get() + " failed=" + failed.get());
+    }
+
+    /**
+     * @return true if the bodies of the current request should be recorded
+     */
+    public boolean isBodySampled() {
+        double rate = settings.getRequestLogBodySampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * Queues a request log without blocking.
+     *
+     * @param requestLog    the log to write
+     * @param requestBody   the raw JSON request body or null if it should not be recorded
+     * @param responseBody  the raw JSON response body or null if it should not be recorded
+     * @return false if the queue was full and the log was dropped
+     */
+    public boolean write(RequestLog requestLog, String requestBody, String responseBody) {
+        if (queue.offer(new PendingRequestLog(requestLog, requestBody, responseBody))) {
+            accepted.incrementAndGet();
+            return true;
+        }
+
+        long count = dropped.incrementAndGet();
+        if (count == 1 || count % 1000 == 0) {
+            LOGGER.warn("Request log queue is full. " + count + " request logs dropped so far");
+        }
+        return false;
+    }
+
+    /**
+     * Writes up to one batch of queued logs.
+     *
+     * @return the number of logs taken off the queue
+     */
+    int flush() {
+        return flush(null);
+    }
+
+    private int flush(PendingRequestLog first) {
+        int batchSize = Math.max(1, settings.getRequestLogBatchSize());
+        List<PendingRequestLog> pending = new ArrayList<>(batchSize);
+        if (first != null) {
+            pending.add(first);
+        }
+        queue.drainTo(pending, batchSize - pending.size());
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<RequestLog> batch = new ArrayList<>(pending.size());
+        for (PendingRequestLog p : pending) {
+            batch.add(p.toRequestLog());
+        }
+
+        try {
+            requestLogRepository.save(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException re) {
+            failed.addAndGet(batch.size());
+            LOGGER.error("Unable to write " + batch.size() + " request logs", re);
+            batch.forEach(requestLog -> LOGGER.info(requestLog.toString()));
+        }
+        return pending.size();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                PendingRequestLog first = queue.poll(settings.getRequestLogFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    flush(first);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException re) {
+                LOGGER.error("Unexpected error writing request logs", re);
+            }
+        }
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private final class PendingRequestLog {
+        private final RequestLog requestLog;
+        private final String requestBody;
+        private final String responseBody;
+
+        private PendingRequestLog(RequestLog requestLog, String requestBody, String responseBody) {
+            this.requestLog = requestLog;
+            this.requestBody = requestBody;
+            this.responseBody = responseBody;
+        }
+
+        private RequestLog toRequestLog() {
+            if (requestBody != null) {
+                requestLog.setRequestBody(parseBody(requestBody));
+            }
+            if (responseBody != null) {
+                requestLog.setResponseBody(parseBody(responseBody));
+            }
+            return requestLog;
+        }
+
+        private Object parseBody(String body) {
+            int maxBodySize = settings.getRequestLogMaxBodySize();
+            if (maxBodySize > 0 && body.length() > maxBodySize) {
+                // a truncated document is no longer valid JSON so keep it as text
+                return body.substring(0, maxBodySize);
+            }
+            try {
+                return JSON.parse(body);
+            } catch (RuntimeException re) {
+                return body;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Commit;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AuditCommitRepository extends CrudRepository<Commit, ObjectId> {
+
+    List<Commit> findByCollectorItemIdAndScmRevisionNumberIn(ObjectId collectorItemId, Collection<String> scmRevisionNumbers);
+}
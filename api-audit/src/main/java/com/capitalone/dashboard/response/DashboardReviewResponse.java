@@ -4,8 +4,10 @@ import com.capitalone.dashboard.model.AuditType;
 import com.capitalone.dashboard.status.DashboardAuditStatus;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class DashboardReviewResponse<T extends AuditReviewResponse> extends AuditReviewResponse <DashboardAuditStatus> {
     private String dashboardTitle;
@@ -14,6 +16,9 @@ public class DashboardReviewResponse<T extends AuditReviewResponse> extends Audi
 
     private Map<AuditType, Collection<T>> review = new HashMap<>();
 
+    // audits that did not finish in time, so they have neither a review nor a status
+    private Set<AuditType> timedOutAuditTypes = EnumSet.noneOf(AuditType.class);
+
 
 	public String getBusinessService() {
 		return businessService;
@@ -55,4 +60,12 @@ public class DashboardReviewResponse<T extends AuditReviewResponse> extends Audi
 	public void setReview(Map<AuditType, Collection<T>> review) {
 		this.review = review;
 	}
+
+	public Set<AuditType> getTimedOutAuditTypes() {
+		return timedOutAuditTypes;
+	}
+
+	public void addTimedOutAuditType(AuditType type) {
+		timedOutAuditTypes.add(type);
+	}
 }
@@ -17,12 +17,28 @@ import com.capitalone.dashboard.response.DashboardReviewResponse;
 import com.capitalone.dashboard.status.DashboardAuditStatus;
 import com.google.common.collect.Sets;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 @Component
@@ -34,9 +50,9 @@ public class DashboardAuditServiceImpl implements DashboardAuditService {
     private final DashboardAuditModel auditModel;
     private final ApiSettings apiSettings;
     private final CollectorItemRepository collectorItemRepository;
+    private final ExecutorService evaluatorExecutor;
 
-
-//    private static final Log LOGGER = LogFactory.getLog(DashboardAuditServiceImpl.class);
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardAuditServiceImpl.class);
 
     @Autowired
     public DashboardAuditServiceImpl(DashboardRepository dashboardRepository, CmdbRepository cmdbRepository, DashboardAuditModel auditModel,
@@ -47,6 +63,29 @@ public class DashboardAuditServiceImpl implements DashboardAuditService {
         this.auditModel = auditModel;
         this.apiSettings = apiSettings;
         this.collectorItemRepository = collectorItemRepository;
+        this.evaluatorExecutor = newEvaluatorExecutor(Math.max(1, apiSettings.getEvaluatorThreads()),
+                Math.max(1, apiSettings.getEvaluatorQueueSize()));
+    }
+
+    /**
+     * The evaluators of all requests share a bounded pool. When the pool and its queue are full an
+     * evaluator is rejected, running it on the request thread could not be stopped at the deadline.
+     */
+    private static ExecutorService newEvaluatorExecutor(int threads, int queueSize) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "audit-evaluator-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void stop() {
+        evaluatorExecutor.shutdownNow();
     }
 
     /**
@@ -86,18 +125,58 @@ public class DashboardAuditServiceImpl implements DashboardAuditService {
             auditTypes.remove(AuditType.ALL);
         }
 
-        auditTypes.forEach(auditType -> {
-            Evaluator evaluator = auditModel.evaluatorMap().get(auditType);
+        // the evaluators are independent, run them concurrently and merge the results on this thread
+        Map<AuditType, Evaluator> evaluators = auditModel.evaluatorMap();
+        Map<AuditType, Future<Collection<AuditReviewResponse>>> futures = new LinkedHashMap<>();
+        long timeout = apiSettings.getEvaluatorTimeoutMillis();
+        long deadline = System.currentTimeMillis() + timeout;
+        for (AuditType auditType : auditTypes) {
+            Evaluator evaluator = evaluators.get(auditType);
+            Callable<Collection<AuditReviewResponse>> evaluation = () -> evaluator.evaluate(dashboard, beginDate, endDate, null);
             try {
-                Collection<AuditReviewResponse> auditResponse = evaluator.evaluate(dashboard, beginDate, endDate, null);
-                dashboardReviewResponse.addReview(auditType, auditResponse);
-                dashboardReviewResponse.addAuditStatus(auditModel.successStatusMap().get(auditType));
-            } catch (AuditException e) {
-                if (e.getErrorCode() == AuditException.NO_COLLECTOR_ITEM_CONFIGURED) {
-                    dashboardReviewResponse.addAuditStatus(auditModel.errorStatusMap().get(auditType));
+                futures.put(auditType, evaluatorExecutor.submit(evaluation));
+            } catch (RejectedExecutionException e) {
+                if (timeout > 0) {
+                    // the pool is saturated, it would not be evaluated before the deadline
+                    dashboardReviewResponse.addTimedOutAuditType(auditType);
+                    LOGGER.warn("Audit " + auditType + " of dashboard " + dashboard.getTitle() + " was not started, the evaluator pool is full");
+                } else {
+                    // without a deadline the request thread can wait for it
+                    FutureTask<Collection<AuditReviewResponse>> inline = new FutureTask<>(evaluation);
+                    inline.run();
+                    futures.put(auditType, inline);
+                }
+            }
+        }
+
+        try {
+            for (Map.Entry<AuditType, Future<Collection<AuditReviewResponse>>> entry : futures.entrySet()) {
+                AuditType auditType = entry.getKey();
+                try {
+                    Collection<AuditReviewResponse> auditResponse = timeout > 0
+                            ? entry.getValue().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)
+                            : entry.getValue().get();
+                    dashboardReviewResponse.addReview(auditType, auditResponse);
+                    dashboardReviewResponse.addAuditStatus(auditModel.successStatusMap().get(auditType));
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof AuditException)) {
+                        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+                    }
+                    if (((AuditException) e.getCause()).getErrorCode() == AuditException.NO_COLLECTOR_ITEM_CONFIGURED) {
+                        dashboardReviewResponse.addAuditStatus(auditModel.errorStatusMap().get(auditType));
+                    }
+                } catch (TimeoutException e) {
+                    // return what was evaluated in time rather than failing the whole review
+                    dashboardReviewResponse.addTimedOutAuditType(auditType);
+                    LOGGER.warn("Audit " + auditType + " of dashboard " + dashboard.getTitle() + " did not finish within " + timeout + "ms");
                 }
             }
-        });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuditException(e);
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+        }
         return dashboardReviewResponse;
     }
 
@@ -81,6 +81,17 @@ public class CommonCodeReviewTest {
     }
 
 
+    @Test
+    public void testMatchIncrementVersionTag() {
+        apiSettings.setCommitLogIgnoreAuditRegEx("(.)*(Increment_Version_Tag)(.)*");
+        Assert.assertTrue(CommonCodeReview.matchIncrementVersionTag("[Increment_Version_Tag] 1.0.1", apiSettings));
+        Assert.assertFalse(CommonCodeReview.matchIncrementVersionTag("Fix the build", apiSettings));
+
+        apiSettings.setCommitLogIgnoreAuditRegEx("(.)*(release)(.)*");
+        Assert.assertFalse(CommonCodeReview.matchIncrementVersionTag("[Increment_Version_Tag] 1.0.1", apiSettings));
+        Assert.assertTrue(CommonCodeReview.matchIncrementVersionTag("release 1.0.1", apiSettings));
+    }
+
     @Test
     public void testComputePeerReviewStatusForServiceAccount() {
         apiSettings.setServiceAccountOU(TestConstants.SERVICE_ACCOUNTS);
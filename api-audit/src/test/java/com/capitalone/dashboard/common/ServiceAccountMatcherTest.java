@@ -0,0 +1,68 @@
+package com.capitalone.dashboard.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ServiceAccountMatcherTest {
+
+    @Test
+    public void findFileMatchByExtension() {
+        ServiceAccountMatcher matcher = ServiceAccountMatcher.forAccounts(Collections.singletonMap("svc1", "*.json,*.YML"));
+
+        Assert.assertTrue(matcher.isValidServiceAccount("svc1", Arrays.asList("src/App.java", "config/app.JSON")));
+        Assert.assertTrue(matcher.isValidServiceAccount("svc1", Collections.singletonList("deploy/app.yml")));
+        Assert.assertFalse(matcher.isValidServiceAccount("svc1", Collections.singletonList("config/app.json.bak")));
+        Assert.assertFalse(matcher.isValidServiceAccount("svc1", Collections.singletonList("src/App.java")));
+        Assert.assertFalse(matcher.isValidServiceAccount("svc1", Collections.emptyList()));
+        Assert.assertFalse(matcher.isValidServiceAccount("svc1", null));
+    }
+
+    @Test
+    public void findFileMatchByName() {
+        ServiceAccountMatcher matcher = ServiceAccountMatcher.forAccounts(Collections.singletonMap("svc1", "pom.xml,version.txt"));
+
+        Assert.assertTrue(matcher.isValidServiceAccount("svc1", Arrays.asList("src/App.java", "module/pom.xml")));
+        Assert.assertTrue(matcher.isValidServiceAccount("svc1", Collections.singletonList("version.txt")));
+        Assert.assertFalse(matcher.isValidServiceAccount("svc1", Collections.singletonList("src/App.java")));
+    }
+
+    @Test
+    public void isValidServiceAccountOnlyForTheAuthorsOwnFiles() {
+        Map<String, String> accounts = new HashMap<>();
+        accounts.put("svc1", "*.json");
+        accounts.put("SVC2", "*.java");
+        accounts.put("svc3", "*");
+        ServiceAccountMatcher matcher = ServiceAccountMatcher.forAccounts(accounts);
+
+        Assert.assertTrue(matcher.isValidServiceAccount("Svc1", Collections.singletonList("app.json")));
+        Assert.assertTrue(matcher.isValidServiceAccount("svc2", Collections.singletonList("App.java")));
+        Assert.assertFalse(matcher.isValidServiceAccount("svc1", Collections.singletonList("App.java")));
+        // a wildcard without an extension matches no file
+        Assert.assertFalse(matcher.isValidServiceAccount("svc3", Collections.singletonList("App.java")));
+        Assert.assertFalse(matcher.isValidServiceAccount("user", Collections.singletonList("app.json")));
+        Assert.assertFalse(matcher.isValidServiceAccount(null, Collections.singletonList("app.json")));
+    }
+
+    @Test
+    public void compiledAgainOnlyWhenTheAccountsChange() {
+        Map<String, String> accounts = new HashMap<>();
+        accounts.put("svc1", "*.json");
+        ServiceAccountMatcher matcher = ServiceAccountMatcher.forAccounts(accounts);
+
+        Assert.assertSame(matcher, ServiceAccountMatcher.forAccounts(new HashMap<>(accounts)));
+
+        // changing the map passed in does not change the compiled matcher
+        accounts.put("svc1", "*.java");
+        Assert.assertTrue(matcher.isValidServiceAccount("svc1", Collections.singletonList("app.json")));
+
+        ServiceAccountMatcher changed = ServiceAccountMatcher.forAccounts(accounts);
+        Assert.assertNotSame(matcher, changed);
+        Assert.assertTrue(changed.isValidServiceAccount("svc1", Collections.singletonList("App.java")));
+        Assert.assertFalse(changed.isValidServiceAccount("svc1", Collections.singletonList("app.json")));
+    }
+}
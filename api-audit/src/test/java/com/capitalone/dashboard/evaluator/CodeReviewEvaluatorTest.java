@@ -9,6 +9,7 @@ import com.capitalone.dashboard.model.CommitType;
 import com.capitalone.dashboard.model.GitRequest;
 import com.capitalone.dashboard.model.Review;
 import com.capitalone.dashboard.model.ServiceAccount;
+import com.capitalone.dashboard.repository.AuditCommitRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
 import com.capitalone.dashboard.repository.GitRequestRepository;
 import com.capitalone.dashboard.repository.ServiceAccountRepository;
@@ -44,6 +45,8 @@ public class CodeReviewEvaluatorTest {
     private GitRequestRepository gitRequestRepository;
     @Mock
     private ServiceAccountRepository serviceAccountRepository;
+    @Mock
+    private AuditCommitRepository auditCommitRepository;
 
     @Mock
     private ApiSettings apiSettings;
@@ -152,6 +155,28 @@ public class CodeReviewEvaluatorTest {
         Assert.assertFalse(responseV2.getAuditStatuses().contains(CodeReviewAuditStatus.DIRECT_COMMITS_TO_BASE));
     }
 
+    @Test
+    public void evaluate_loadsEachCollectorItemOnce() {
+        CollectorItem repoItem = makeCollectorItem(1, "master");
+        repoItem.setId(ObjectId.get());
+        List<CollectorItem> collectorItemList = new ArrayList<>();
+        collectorItemList.add(makeCollectorItem(2, "feature"));
+        collectorItemList.add(makeCollectorItem(3, "develop"));
+        collectorItemList.forEach(item -> item.setId(ObjectId.get()));
+
+        when(gitRequestRepository.findByCollectorItemIdAndMergedAtIsBetween(any(ObjectId.class),any(Long.class), any(Long.class))).thenReturn(makePullRequests(true));
+        when(commitRepository.findByCollectorItemIdAndScmCommitTimestampIsBetween(any(ObjectId.class),any(Long.class), any(Long.class))).thenReturn(makeCommits());
+        when(serviceAccountRepository.findAll()).thenReturn(Stream.of(makeServiceAccount()).collect(Collectors.toList()));
+        codeReviewEvaluator.evaluate(repoItem, collectorItemList, 125634536, 6235263, null);
+
+        for (CollectorItem item : Arrays.asList(repoItem, collectorItemList.get(0), collectorItemList.get(1))) {
+            verify(gitRequestRepository).findByCollectorItemIdAndMergedAtIsBetween(item.getId(), 125634535, 6235264);
+            verify(commitRepository).findByCollectorItemIdAndScmCommitTimestampIsBetween(item.getId(), 125634535, 6235264);
+        }
+        verify(serviceAccountRepository, Mockito.atMost(1)).findAll();
+        verify(commitRepository, Mockito.never()).findByCollectorItemIdAndScmRevisionNumber(any(ObjectId.class), any(String.class));
+    }
+
     @Test
     public void existsApprovedPRForCollectorItemTest() {
         List<GitRequest> pullRequestList = makePullRequests(true);
@@ -0,0 +1,192 @@
+package com.capitalone.dashboard.evaluator;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardType;
+import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.model.StoryIndicator;
+import com.capitalone.dashboard.model.TestCapability;
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestSuite;
+import com.capitalone.dashboard.model.Widget;
+import com.capitalone.dashboard.repository.CollectorItemRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DashboardRepository;
+import com.capitalone.dashboard.repository.FeatureRepository;
+import com.capitalone.dashboard.repository.TestResultRepository;
+import com.capitalone.dashboard.response.TestResultsAuditResponse;
+import com.capitalone.dashboard.status.TestResultAuditStatus;
+import com.capitalone.dashboard.testutil.GsonUtil;
+import com.google.common.io.Resources;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.apache.commons.io.IOUtils;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the test result audit against the results the evaluator gave before the dashboard stories were
+ * indexed once per audit, on the dashboard, feature and test result fixtures.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RegressionTestResultEvaluatorTest {
+
+    private static final String TEAM_ID = "Team:26967234";
+    private static final String STORY_NUMBER = "B-1626822";
+
+    @Mock
+    private TestResultRepository testResultRepository;
+    @Mock
+    private FeatureRepository featureRepository;
+    @Mock
+    private ComponentRepository componentRepository;
+    @Mock
+    private DashboardRepository dashboardRepository;
+    @Mock
+    private CollectorItemRepository collectorItemRepository;
+
+    private RegressionTestResultEvaluator regressionTestResultEvaluator;
+    private Dashboard dashboard;
+    private List<TestResult> testResults;
+    private Feature otherTeamStory;
+    private long beginDate;
+    private long endDate;
+
+    @Before
+    public void setup() throws Exception {
+        Gson gson = GsonUtil.getGson();
+        dashboard = gson.fromJson(getJSON("./dashboard/dashboard.json"), Dashboard.class);
+        List<Feature> features = gson.fromJson(getJSON("./feature/feature.json"), new TypeToken<List<Feature>>(){}.getType());
+        testResults = gson.fromJson(getJSON("./test_results/test_results.json"), new TypeToken<List<TestResult>>(){}.getType());
+
+        // the same story number completed by another team
+        Feature dashboardStory = features.stream().filter(f -> STORY_NUMBER.equals(f.getsNumber())).findFirst().get();
+        otherTeamStory = gson.fromJson(gson.toJson(dashboardStory), Feature.class);
+        otherTeamStory.setsId("Story:99999999");
+        otherTeamStory.setsTeamID("Team:11111111");
+
+        ApiSettings settings = new ApiSettings();
+        settings.setFeatureIDPattern("((?<!([A-Za-z]{1,10})-?)[A-Z]+-\\d+)");
+        settings.setThreshold(80);
+        settings.setValidStoryStatus(Arrays.asList("ACCEPTED", "DONE", "RESOLVED", "CLOSED"));
+
+        regressionTestResultEvaluator = new RegressionTestResultEvaluator(testResultRepository, featureRepository);
+        regressionTestResultEvaluator.settings = settings;
+        regressionTestResultEvaluator.componentRepository = componentRepository;
+        regressionTestResultEvaluator.dashboardRepository = dashboardRepository;
+        regressionTestResultEvaluator.collectorItemRepository = collectorItemRepository;
+
+        CollectorItem testItem = new CollectorItem();
+        testItem.setId(new ObjectId("57f2a0193b55670a9e06d63a"));
+        Component component = new Component();
+        component.addCollectorItem(CollectorType.Test, testItem);
+        ObjectId componentId = dashboard.getWidgets().stream().map(Widget::getComponentId).findFirst().get();
+        when(componentRepository.findOne(componentId)).thenReturn(component);
+        when(collectorItemRepository.findAll(any(Iterable.class))).thenReturn(Collections.singletonList(testItem));
+        when(dashboardRepository.findByTitleAndType(dashboard.getTitle(), DashboardType.Team)).thenReturn(dashboard);
+        when(testResultRepository.findByCollectorItemIdAndTimestampIsBetweenOrderByTimestampDesc(any(ObjectId.class), any(Long.class), any(Long.class))).thenReturn(testResults);
+        when(featureRepository.getStoryByTeamID(TEAM_ID)).thenReturn(features);
+        when(featureRepository.getStoryByNumber(anyString())).thenReturn(Collections.emptyList());
+        when(featureRepository.getStoryByNumber(STORY_NUMBER)).thenReturn(Arrays.asList(dashboardStory, otherTeamStory));
+
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+        beginDate = sdf.parse("2016-09-01T00:00:00.000").getTime();
+        endDate = sdf.parse("2016-12-01T00:00:00.000").getTime();
+    }
+
+    @Test
+    public void evaluateMatchesStoriesAsBefore() throws Exception {
+        TestResultsAuditResponse response = evaluate();
+
+        assertEquals(Arrays.asList(STORY_NUMBER, "JIRA-11998"), response.getTotalCompletedStories());
+        assertEquals(2, response.getTotalStoryCount());
+
+        Map<String, String> storyAuditStatus = new HashMap<>();
+        storyAuditStatus.put(STORY_NUMBER, TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_MATCH.name());
+        storyAuditStatus.put("JIRA-11998", TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_MATCH.name());
+        storyAuditStatus.put("B-1488671", TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_STATUS_INVALID.name());
+        storyAuditStatus.put("B-1521515", TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_STORY_NOT_FOUND.name());
+        assertEquals(1, response.getTotalStories().size());
+        Map<?, ?> totalStories = response.getTotalStories().get(0);
+        assertEquals(storyAuditStatus.keySet(), totalStories.keySet());
+        storyAuditStatus.forEach((number, status) ->
+                assertEquals(Collections.singletonMap("auditStatus", status), totalStories.get(number)));
+
+        assertTrue(response.getAuditStatuses().contains(TestResultAuditStatus.TEST_RESULT_AUDIT_OK));
+        assertTrue(response.getAuditStatuses().contains(TestResultAuditStatus.TEST_RESULTS_TRACEABILITY_NOT_FOUND));
+        assertTrue(response.getAuditStatuses().contains(TestResultAuditStatus.TEST_RESULT_AUDIT_MISSING));
+        assertEquals(3, response.getAuditStatuses().size());
+
+        // one of the two completed stories is tagged
+        assertEquals(50.0, response.getPercentTraceability(), 0);
+    }
+
+    @Test
+    public void tagsResolveToTheStoryOfEveryTeam() throws Exception {
+        evaluate();
+
+        List<StoryIndicator> storyIndicators = taggedTestCase().getStoryIndicators();
+        assertEquals(Arrays.asList("Story:25440803", "Story:99999999"),
+                storyIndicators.stream().map(StoryIndicator::getStoryId).collect(Collectors.toList()));
+        storyIndicators.forEach(storyIndicator -> assertEquals(STORY_NUMBER, storyIndicator.getStoryNumber()));
+    }
+
+    @Test
+    public void tagsOfStoriesNotCompletedOnTheDashboardAreNotLookedUp() throws Exception {
+        taggedTestCase().getTags().add("@B-1521515");
+        taggedTestCase().getTags().add("@B-1488671");
+
+        evaluate();
+
+        assertEquals(2, taggedTestCase().getStoryIndicators().size());
+        verify(featureRepository, times(1)).getStoryByNumber(STORY_NUMBER);
+        verify(featureRepository, never()).getStoryByNumber("B-1521515");
+        verify(featureRepository, never()).getStoryByNumber("B-1488671");
+    }
+
+    private TestResultsAuditResponse evaluate() throws Exception {
+        Collection<TestResultsAuditResponse> responses = regressionTestResultEvaluator.evaluate(dashboard, beginDate, endDate, null);
+        assertEquals(1, responses.size());
+        return responses.iterator().next();
+    }
+
+    private TestCase taggedTestCase() {
+        return testResults.stream()
+                .map(TestResult::getTestCapabilities).flatMap(Collection::stream)
+                .map(TestCapability::getTestSuites).flatMap(Collection::stream)
+                .map(TestSuite::getTestCases).flatMap(Collection::stream)
+                .filter(testCase -> testCase.getTags().contains("@" + STORY_NUMBER))
+                .findFirst().get();
+    }
+
+    private static String getJSON(String fileName) throws IOException {
+        return IOUtils.toString(Resources.getResource(fileName));
+    }
+}
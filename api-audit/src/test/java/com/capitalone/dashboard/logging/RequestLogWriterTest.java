@@ -0,0 +1,99 @@
+package com.capitalone.dashboard.logging;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.model.RequestLog;
+import com.capitalone.dashboard.repository.RequestLogRepository;
+import com.mongodb.DBObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequestLogWriterTest {
+
+    @Mock
+    private RequestLogRepository requestLogRepository;
+    @Mock
+    private ApiSettings settings;
+
+    private RequestLogWriter writer;
+
+    @Before
+    public void setup() {
+        when(settings.getRequestLogQueueSize()).thenReturn(3);
+        when(settings.getRequestLogBatchSize()).thenReturn(2);
+        when(settings.getRequestLogMaxBodySize()).thenReturn(20);
+        when(settings.getRequestLogBodySampleRate()).thenReturn(1.0);
+
+        // the background thread is not started so batches are written with flush()
+        writer = new RequestLogWriter(requestLogRepository, settings);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void writesInBatches() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(writer.write(new RequestLog(), null, null));
+        }
+        verify(requestLogRepository, never()).save(anyListOf(RequestLog.class));
+
+        ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+        assertEquals(2, writer.flush());
+        assertEquals(1, writer.flush());
+        assertEquals(0, writer.flush());
+        verify(requestLogRepository, times(2)).save(batch.capture());
+
+        assertEquals(2, batch.getAllValues().get(0).size());
+        assertEquals(1, batch.getAllValues().get(1).size());
+        assertEquals(3, writer.getWrittenCount());
+    }
+
+    @Test
+    public void dropsWhenQueueIsFull() {
+        for (int i = 0; i < 3; i++) {
+            writer.write(new RequestLog(), null, null);
+        }
+
+        assertFalse(writer.write(new RequestLog(), null, null));
+        assertEquals(3, writer.getAcceptedCount());
+        assertEquals(1, writer.getDroppedCount());
+        assertEquals(3, writer.getQueueSize());
+    }
+
+    @Test
+    public void parsesAndTruncatesBodies() {
+        RequestLog small = new RequestLog();
+        RequestLog large = new RequestLog();
+        writer.write(small, null, "{\"a\":1}");
+        writer.write(large, null, "{\"a\":\"0123456789012345678901234567890\"}");
+
+        writer.flush();
+
+        assertTrue(small.getResponseBody() instanceof DBObject);
+        assertEquals("{\"a\":\"0123456789012", large.getResponseBody());
+    }
+
+    @Test
+    public void countsFailedBatches() {
+        when(requestLogRepository.save(anyListOf(RequestLog.class))).thenThrow(new RuntimeException("down"));
+        writer.write(new RequestLog(), null, null);
+
+        assertEquals(1, writer.flush());
+        assertEquals(1, writer.getFailedCount());
+        assertEquals(0, writer.getWrittenCount());
+    }
+}
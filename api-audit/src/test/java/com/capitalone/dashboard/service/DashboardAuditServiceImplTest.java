@@ -0,0 +1,165 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.evaluator.Evaluator;
+import com.capitalone.dashboard.model.AuditException;
+import com.capitalone.dashboard.model.AuditType;
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardAuditModel;
+import com.capitalone.dashboard.model.DashboardType;
+import com.capitalone.dashboard.repository.CmdbRepository;
+import com.capitalone.dashboard.repository.CollectorItemRepository;
+import com.capitalone.dashboard.repository.DashboardRepository;
+import com.capitalone.dashboard.response.AuditReviewResponse;
+import com.capitalone.dashboard.response.DashboardReviewResponse;
+import com.capitalone.dashboard.status.DashboardAuditStatus;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DashboardAuditServiceImplTest {
+
+    private static final long BEGIN = 1519728000000L;
+    private static final long END = 1523180525854L;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+    @Mock
+    private CmdbRepository cmdbRepository;
+    @Mock
+    private CollectorItemRepository collectorItemRepository;
+    @Mock
+    private DashboardAuditModel auditModel;
+    @Mock
+    private Dashboard dashboard;
+    @Mock
+    private Evaluator codeReviewEvaluator;
+    @Mock
+    private Evaluator codeQualityEvaluator;
+    @Mock
+    private Evaluator buildReviewEvaluator;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ApiSettings settings = new ApiSettings();
+    private DashboardAuditServiceImpl service;
+
+    @Before
+    public void setup() {
+        settings.setMaxDaysRangeForQuery(60);
+        settings.setEvaluatorThreads(2);
+        settings.setEvaluatorQueueSize(4);
+        settings.setEvaluatorTimeoutMillis(200);
+
+        Map<AuditType, Evaluator> evaluators = new HashMap<>();
+        evaluators.put(AuditType.CODE_REVIEW, codeReviewEvaluator);
+        evaluators.put(AuditType.CODE_QUALITY, codeQualityEvaluator);
+        evaluators.put(AuditType.BUILD_REVIEW, buildReviewEvaluator);
+        Map<AuditType, DashboardAuditStatus> success = new HashMap<>();
+        success.put(AuditType.CODE_REVIEW, DashboardAuditStatus.DASHBOARD_REPO_CONFIGURED);
+        success.put(AuditType.CODE_QUALITY, DashboardAuditStatus.DASHBOARD_CODEQUALITY_CONFIGURED);
+        Map<AuditType, DashboardAuditStatus> error = new HashMap<>();
+        error.put(AuditType.CODE_REVIEW, DashboardAuditStatus.DASHBOARD_REPO_NOT_CONFIGURED);
+        error.put(AuditType.CODE_QUALITY, DashboardAuditStatus.DASHBOARD_CODEQUALITY_NOT_CONFIGURED);
+        when(auditModel.evaluatorMap()).thenReturn(evaluators);
+        when(auditModel.successStatusMap()).thenReturn(success);
+        when(auditModel.errorStatusMap()).thenReturn(error);
+        when(dashboardRepository.findByTitleAndType("title", DashboardType.Team)).thenReturn(dashboard);
+
+        service = new DashboardAuditServiceImpl(dashboardRepository, cmdbRepository, auditModel, collectorItemRepository, settings);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        service.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void slowEvaluatorIsLeftOut() throws AuditException {
+        AuditReviewResponse review = new AuditReviewResponse();
+        when(codeReviewEvaluator.evaluate(any(Dashboard.class), anyLong(), anyLong(), any(Map.class))).thenAnswer(invocation -> {
+            release.await();
+            return Collections.singletonList(review);
+        });
+        when(codeQualityEvaluator.evaluate(any(Dashboard.class), anyLong(), anyLong(), any(Map.class)))
+                .thenReturn(Collections.singletonList(review));
+
+        DashboardReviewResponse response = service.getDashboardReviewResponse("title", DashboardType.Team, null, null, BEGIN, END,
+                Sets.newHashSet(AuditType.CODE_REVIEW, AuditType.CODE_QUALITY));
+
+        assertThat(response.getReview()).containsOnlyKeys(AuditType.CODE_QUALITY);
+        assertThat(response.getAuditStatuses()).containsOnly(DashboardAuditStatus.DASHBOARD_CODEQUALITY_CONFIGURED);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void slowEvaluatorIsReportedAsTimedOut() throws AuditException {
+        when(codeReviewEvaluator.evaluate(any(Dashboard.class), anyLong(), anyLong(), any(Map.class))).thenAnswer(invocation -> {
+            release.await();
+            return Collections.singletonList(new AuditReviewResponse());
+        });
+        when(codeQualityEvaluator.evaluate(any(Dashboard.class), anyLong(), anyLong(), any(Map.class)))
+                .thenThrow(new AuditException("none", AuditException.NO_COLLECTOR_ITEM_CONFIGURED));
+
+        DashboardReviewResponse response = service.getDashboardReviewResponse("title", DashboardType.Team, null, null, BEGIN, END,
+                Sets.newHashSet(AuditType.CODE_REVIEW, AuditType.CODE_QUALITY));
+
+        assertThat(response.getTimedOutAuditTypes()).containsOnly(AuditType.CODE_REVIEW);
+        assertThat(response.getAuditStatuses()).containsOnly(DashboardAuditStatus.DASHBOARD_CODEQUALITY_NOT_CONFIGURED);
+    }
+
+    @Test(timeout = 5000)
+    @SuppressWarnings("unchecked")
+    public void evaluatorRejectedByFullPoolIsReportedAsTimedOut() throws AuditException {
+        // one evaluator runs, one waits in the queue and the last one does not fit
+        service.stop();
+        settings.setEvaluatorThreads(1);
+        settings.setEvaluatorQueueSize(1);
+        service = new DashboardAuditServiceImpl(dashboardRepository, cmdbRepository, auditModel, collectorItemRepository, settings);
+        for (Evaluator evaluator : new Evaluator[] {codeReviewEvaluator, codeQualityEvaluator, buildReviewEvaluator}) {
+            when(evaluator.evaluate(any(Dashboard.class), anyLong(), anyLong(), any(Map.class))).thenAnswer(invocation -> {
+                release.await();
+                return Collections.singletonList(new AuditReviewResponse());
+            });
+        }
+
+        DashboardReviewResponse response = service.getDashboardReviewResponse("title", DashboardType.Team, null, null, BEGIN, END,
+                Sets.newHashSet(AuditType.CODE_REVIEW, AuditType.CODE_QUALITY, AuditType.BUILD_REVIEW));
+
+        assertThat(response.getTimedOutAuditTypes()).containsOnly(AuditType.CODE_REVIEW, AuditType.CODE_QUALITY, AuditType.BUILD_REVIEW);
+        assertThat(response.getReview()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void missingCollectorItemIsReported() throws AuditException {
+        when(codeReviewEvaluator.evaluate(any(Dashboard.class), anyLong(), anyLong(), any(Map.class)))
+                .thenThrow(new AuditException("none", AuditException.NO_COLLECTOR_ITEM_CONFIGURED));
+        when(codeQualityEvaluator.evaluate(any(Dashboard.class), anyLong(), anyLong(), any(Map.class)))
+                .thenReturn(Collections.singletonList(new AuditReviewResponse()));
+
+        DashboardReviewResponse response = service.getDashboardReviewResponse("title", DashboardType.Team, null, null, BEGIN, END,
+                Sets.newHashSet(AuditType.CODE_REVIEW, AuditType.CODE_QUALITY));
+
+        assertThat(response.getReview()).containsOnlyKeys(AuditType.CODE_QUALITY);
+        assertThat(response.getTimedOutAuditTypes()).isEmpty();
+        assertThat(response.getAuditStatuses()).containsOnly(DashboardAuditStatus.DASHBOARD_REPO_NOT_CONFIGURED,
+                DashboardAuditStatus.DASHBOARD_CODEQUALITY_CONFIGURED);
+    }
+}
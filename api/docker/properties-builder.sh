@@ -42,6 +42,13 @@ dbhostport=${SPRING_DATA_MONGODB_HOST}:${SPRING_DATA_MONGODB_PORT}
 key=${KEY:-}
 
 logRequest=${LOG_REQUEST:-false}
+# Request logs are queued and written in batches; logs are dropped when the queue is full
+requestLogQueueSize=${REQUEST_LOG_QUEUE_SIZE:-10000}
+requestLogBatchSize=${REQUEST_LOG_BATCH_SIZE:-500}
+# Bodies longer than this many characters are stored truncated and unparsed
+requestLogMaxBodySize=${REQUEST_LOG_MAX_BODY_SIZE:-65536}
+# Fraction of logged requests (0.0 - 1.0) whose request and response bodies are recorded
+requestLogBodySampleRate=${REQUEST_LOG_BODY_SAMPLE_RATE:-1.0}
 logSplunkRequest=${LOG_SPLUNK_REQUEST:-false}
 
 corsEnabled=${CORS_ENABLED:-false}
@@ -50,6 +57,20 @@ corsEnabled=${CORS_ENABLED:-false}
 
 feature.dynamicPipeline=${FEATURE_DYNAMIC_PIPELINE:-disabled}
 
+# Dynamic pipelines are updated with only the data that changed since the last poll and fully
+# recomputed every pipelineFullRefreshMinutes
+pipelineIncrementalUpdates=${PIPELINE_INCREMENTAL_UPDATES:-true}
+pipelineFullRefreshMinutes=${PIPELINE_FULL_REFRESH_MINUTES:-60}
+pipelineUpdateOverlapMinutes=${PIPELINE_UPDATE_OVERLAP_MINUTES:-60}
+
+# Successful API key checks are remembered for this many milliseconds (0 disables the cache), roles are read on every request
+apiTokenCacheTtlMillis=${API_TOKEN_CACHE_TTL_MILLIS:-60000}
+apiTokenCacheSize=${API_TOKEN_CACHE_SIZE:-10000}
+# Dashboard owners used for authorization are remembered for this many milliseconds (0 disables the cache)
+dashboardOwnerCacheTtlMillis=${DASHBOARD_OWNER_CACHE_TTL_MILLIS:-30000}
+# Largest page size a client may request from the dashboard list pages
+maxPageSize=${MAX_PAGE_SIZE:-1000}
+
 #Authentication Settings
 # JWT expiration time in milliseconds
 auth.expirationTime=${AUTH_EXPIRATION_TIME:-60000000}
@@ -6,22 +6,22 @@ import org.springframework.stereotype.Component;
 
 import com.capitalone.dashboard.auth.AuthenticationUtil;
 import com.capitalone.dashboard.model.AuthType;
-import com.capitalone.dashboard.model.Dashboard;
 import com.capitalone.dashboard.model.Owner;
-import com.capitalone.dashboard.repository.DashboardRepository;
+import com.capitalone.dashboard.service.DashboardOwnershipCache;
+import com.capitalone.dashboard.service.DashboardOwnershipCache.Ownership;
 
 @Component
 public class MethodLevelSecurityHandler {
 
-	private DashboardRepository dashboardRepository;
+	private DashboardOwnershipCache dashboardOwnershipCache;
 	
 	@Autowired
-	public MethodLevelSecurityHandler(DashboardRepository dashboardRepository) {
-		this.dashboardRepository = dashboardRepository;
+	public MethodLevelSecurityHandler(DashboardOwnershipCache dashboardOwnershipCache) {
+		this.dashboardOwnershipCache = dashboardOwnershipCache;
 	}
 	
 	public boolean isOwnerOfDashboard(ObjectId dashboardId) {
-		Dashboard dashboard = dashboardRepository.findOne(dashboardId);
+		Ownership dashboard = dashboardOwnershipCache.get(dashboardId);
 		if (dashboard == null) {
 			return false;
 		}
@@ -35,7 +35,7 @@ public class MethodLevelSecurityHandler {
 		}
 		
 		//Check list of owners of dashboard to see if it contains the authenticated user
-		if (null != dashboard.getOwners() && dashboard.getOwners().contains(new Owner(username, authType))) {
+		if (dashboard.getOwners().contains(new Owner(username, authType))) {
 			return true;
 		}
 		
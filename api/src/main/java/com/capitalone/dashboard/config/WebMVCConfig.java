@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 @EnableWebMvc
 @ComponentScan(basePackages = "com.capitalone.dashboard.rest")
 public class WebMVCConfig extends WebMvcConfigurerAdapter {
+
     @Override
     public void configureDefaultServletHandling(DefaultServletHandlerConfigurer configurer) {
         configurer.enable("api");
@@ -2,9 +2,7 @@ package com.capitalone.dashboard.logging;
 
 
 import com.capitalone.dashboard.model.RequestLog;
-import com.capitalone.dashboard.repository.RequestLogRepository;
 import com.capitalone.dashboard.settings.ApiSettings;
-import com.mongodb.util.JSON;
 import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
@@ -55,7 +53,7 @@ public class LoggingFilter implements Filter {
     private static final Logger LOGGER = Logger.getLogger(LoggingFilter.class);
 
     @Autowired
-    private RequestLogRepository requestLogRepository;
+    private RequestLogWriter requestLogWriter;
     @Autowired
     private ApiSettings settings;
 
@@ -90,15 +88,21 @@ public class LoggingFilter implements Filter {
 
             chain.doFilter(bufferedRequest, bufferedResponse);
             requestLog.setResponseContentType(httpServletResponse.getContentType());
-            try {
-                if ((httpServletRequest.getContentType() != null) && (new MimeType(httpServletRequest.getContentType()).match(new MimeType(APPLICATION_JSON_VALUE)))) {
-                    requestLog.setRequestBody(JSON.parse(bufferedRequest.getRequestBody()));
-                }
-                if ((bufferedResponse.getContentType() != null) && (new MimeType(bufferedResponse.getContentType()).match(new MimeType(APPLICATION_JSON_VALUE)))){
-                    requestLog.setResponseBody(JSON.parse(bufferedResponse.getContent()));
+
+            // bodies are parsed and stored by the writer so only the raw JSON is captured here
+            String requestBody = null;
+            String responseBody = null;
+            if (requestLogWriter.isBodySampled()) {
+                try {
+                    if ((httpServletRequest.getContentType() != null) && (new MimeType(httpServletRequest.getContentType()).match(new MimeType(APPLICATION_JSON_VALUE)))) {
+                        requestBody = bufferedRequest.getRequestBody();
+                    }
+                    if ((bufferedResponse.getContentType() != null) && (new MimeType(bufferedResponse.getContentType()).match(new MimeType(APPLICATION_JSON_VALUE)))){
+                        responseBody = bufferedResponse.getContent();
+                    }
+                } catch (MimeTypeParseException e) {
+                    LOGGER.error("Invalid MIME Type detected. Request MIME type=" + httpServletRequest.getContentType() + ". Response MIME Type=" + bufferedResponse.getContentType());
                 }
-            } catch (MimeTypeParseException e) {
-                LOGGER.error("Invalid MIME Type detected. Request MIME type=" + httpServletRequest.getContentType() + ". Response MIME Type=" + bufferedResponse.getContentType());
             }
             requestLog.setResponseSize(bufferedResponse.getContent().length());
 
@@ -106,11 +110,7 @@ public class LoggingFilter implements Filter {
             long endTime = System.currentTimeMillis();
             requestLog.setResponseTime(endTime - startTime);
             requestLog.setTimestamp(endTime);
-            try {
-                requestLogRepository.save(requestLog);
-            } catch (RuntimeException re) {
-                LOGGER.info(requestLog.toString());
-            }
+            requestLogWriter.write(requestLog, requestBody, responseBody);
 
         } else {
             if (settings.isCorsEnabled()) {
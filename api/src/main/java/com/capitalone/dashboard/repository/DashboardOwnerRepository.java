@@ -0,0 +1,15 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Dashboard;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Reads the ownership fields of dashboards without their widgets and application.
+ */
+public interface DashboardOwnerRepository extends CrudRepository<Dashboard, ObjectId> {
+
+    @Query(value = "{ '_id' : ?0 }", fields = "{ 'owner' : 1, 'owners' : 1, 'type' : 1 }")
+    Dashboard findOwnershipById(ObjectId id);
+}
@@ -0,0 +1,66 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Dashboard;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Counts and lists dashboards for the dashboard list views.
+ * <p>
+ * Listed dashboards only carry the fields shown in the list, without their widgets and components.
+ * Type and title arguments are case insensitive regular expressions and owners are matched on
+ * username and auth type.
+ */
+public interface DashboardSummaryRepository extends CrudRepository<Dashboard, ObjectId> {
+
+    String SUMMARY_FIELDS = "{ 'title' : 1, 'type' : 1, 'owner' : 1, 'owners' : 1, 'application.name' : 1, "
+            + "'configurationItemBusServName' : 1, 'configurationItemBusAppName' : 1, 'scoreEnabled' : 1, 'scoreDisplay' : 1 }";
+
+    @Query(value = "{ 'type' : { $regex : ?0, $options : 'i' } }", count = true)
+    long countByType(String type);
+
+    @Query(value = "{ 'title' : { $regex : ?0, $options : 'i' } }", count = true)
+    long countByTitle(String title);
+
+    @Query(value = "{ 'type' : { $regex : ?0, $options : 'i' }, 'title' : { $regex : ?1, $options : 'i' } }", count = true)
+    long countByTypeAndTitle(String type, String title);
+
+    @Query(value = "{ 'owners' : { $elemMatch : { 'username' : ?0, 'authType' : ?1 } } }", count = true)
+    long countByOwner(String username, String authType);
+
+    @Query(value = "{ 'owners' : { $elemMatch : { 'username' : ?0, 'authType' : ?1 } }, 'type' : { $regex : ?2, $options : 'i' } }", count = true)
+    long countByOwnerAndType(String username, String authType, String type);
+
+    @Query(value = "{ 'owners' : { $elemMatch : { 'username' : ?0, 'authType' : ?1 } }, 'title' : { $regex : ?2, $options : 'i' } }", count = true)
+    long countByOwnerAndTitle(String username, String authType, String title);
+
+    @Query(value = "{ 'owners' : { $elemMatch : { 'username' : ?0, 'authType' : ?1 } }, 'type' : { $regex : ?2, $options : 'i' }, 'title' : { $regex : ?3, $options : 'i' } }", count = true)
+    long countByOwnerAndTypeAndTitle(String username, String authType, String type, String title);
+
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    Page<Dashboard> findSummaries(Pageable pageable);
+
+    @Query(value = "{ 'type' : { $regex : ?0, $options : 'i' } }", fields = SUMMARY_FIELDS)
+    Page<Dashboard> findSummariesByType(String type, Pageable pageable);
+
+    @Query(value = "{ 'title' : { $regex : ?0, $options : 'i' } }", fields = SUMMARY_FIELDS)
+    Page<Dashboard> findSummariesByTitle(String title, Pageable pageable);
+
+    @Query(value = "{ 'type' : { $regex : ?0, $options : 'i' }, 'title' : { $regex : ?1, $options : 'i' } }", fields = SUMMARY_FIELDS)
+    Page<Dashboard> findSummariesByTypeAndTitle(String type, String title, Pageable pageable);
+
+    @Query(value = "{ 'owners' : { $elemMatch : { 'username' : ?0, 'authType' : ?1 } } }", fields = SUMMARY_FIELDS)
+    Page<Dashboard> findSummariesByOwner(String username, String authType, Pageable pageable);
+
+    @Query(value = "{ 'owners' : { $elemMatch : { 'username' : ?0, 'authType' : ?1 } }, 'type' : { $regex : ?2, $options : 'i' } }", fields = SUMMARY_FIELDS)
+    Page<Dashboard> findSummariesByOwnerAndType(String username, String authType, String type, Pageable pageable);
+
+    @Query(value = "{ 'owners' : { $elemMatch : { 'username' : ?0, 'authType' : ?1 } }, 'title' : { $regex : ?2, $options : 'i' } }", fields = SUMMARY_FIELDS)
+    Page<Dashboard> findSummariesByOwnerAndTitle(String username, String authType, String title, Pageable pageable);
+
+    @Query(value = "{ 'owners' : { $elemMatch : { 'username' : ?0, 'authType' : ?1 } }, 'type' : { $regex : ?2, $options : 'i' }, 'title' : { $regex : ?3, $options : 'i' } }", fields = SUMMARY_FIELDS)
+    Page<Dashboard> findSummariesByOwnerAndTypeAndTitle(String username, String authType, String type, String title, Pageable pageable);
+}
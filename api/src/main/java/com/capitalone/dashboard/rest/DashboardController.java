@@ -11,12 +11,14 @@ import java.util.List;
 
 import javax.validation.Valid;
 
+import com.capitalone.dashboard.settings.ApiSettings;
 import com.capitalone.dashboard.util.PaginationHeaderUtility;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -45,12 +47,14 @@ public class DashboardController {
     private static final Logger LOGGER = LoggerFactory.getLogger(DashboardController.class);
     private final DashboardService dashboardService;
     private PaginationHeaderUtility paginationHeaderUtility;
+    private final ApiSettings apiSettings;
 
 
     @Autowired
-    public DashboardController(DashboardService dashboardService, PaginationHeaderUtility paginationHeaderUtility) {
+    public DashboardController(DashboardService dashboardService, PaginationHeaderUtility paginationHeaderUtility, ApiSettings apiSettings) {
         this.dashboardService = dashboardService;
         this.paginationHeaderUtility = paginationHeaderUtility;
+        this.apiSettings = apiSettings;
     }
 
     @RequestMapping(value = "/dashboard", method = GET, produces = APPLICATION_JSON_VALUE)
@@ -346,7 +350,7 @@ public class DashboardController {
     public ResponseEntity<List<Dashboard>> dashboardByTitlePage(@RequestParam(value = "search", required = false, defaultValue = "") String search,
                                                                 @RequestParam(value = "type", required = false, defaultValue = "") String type,
                                                                 Pageable pageable) throws HygieiaException {
-        Page<Dashboard> pageDashboardItems = dashboardService.getDashboardByTitleWithFilter(search, type, pageable);
+        Page<Dashboard> pageDashboardItems = dashboardService.getDashboardByTitleWithFilter(search, type, capped(pageable));
         return ResponseEntity
                 .ok()
                 .headers(paginationHeaderUtility.buildPaginationHeaders(pageDashboardItems))
@@ -373,7 +377,7 @@ public class DashboardController {
     public ResponseEntity<List<Dashboard>> dashboardByPage(@RequestParam(value = "search", required = false, defaultValue = "") String search,
                                                            @RequestParam(value = "type", required = false, defaultValue = "") String type,
                                                            Pageable pageable) {
-        Page<Dashboard> pageDashboardItems = dashboardService.findDashboardsByPage(type, pageable);
+        Page<Dashboard> pageDashboardItems = dashboardService.findDashboardsByPage(type, capped(pageable));
         return ResponseEntity
                 .ok()
                 .headers(paginationHeaderUtility.buildPaginationHeaders(pageDashboardItems))
@@ -391,7 +395,7 @@ public class DashboardController {
     public ResponseEntity<List<Dashboard>> myDashboardByPage(@RequestParam(value = "username", required = false, defaultValue = "") String username,
                                                              @RequestParam(value = "type", required = false, defaultValue = "") String type,
                                                              Pageable pageable) {
-        Page<Dashboard> pageDashboardItems = dashboardService.findMyDashboardsByPage(type, pageable);
+        Page<Dashboard> pageDashboardItems = dashboardService.findMyDashboardsByPage(type, capped(pageable));
         return ResponseEntity
                 .ok()
                 .headers(paginationHeaderUtility.buildPaginationHeaders(pageDashboardItems))
@@ -427,10 +431,21 @@ public class DashboardController {
     public ResponseEntity<List<Dashboard>> myDashboardByTitlePage(@RequestParam(value = "search", required = false, defaultValue = "") String search,
                                                                   @RequestParam(value = "type", required = false, defaultValue = "") String type,
                                                                   Pageable pageable) throws HygieiaException {
-        Page<Dashboard> pageDashboardItems = dashboardService.getMyDashboardByTitleWithFilter(search, type, pageable);
+        Page<Dashboard> pageDashboardItems = dashboardService.getMyDashboardByTitleWithFilter(search, type, capped(pageable));
         return ResponseEntity
                 .ok()
                 .headers(paginationHeaderUtility.buildPaginationHeaders(pageDashboardItems))
                 .body(pageDashboardItems.getContent());
     }
+
+    /**
+     * Limits the page size a client may request from the dashboard list pages. Other pageable
+     * endpoints default to returning everything and are left uncapped.
+     */
+    private Pageable capped(Pageable pageable) {
+        if (pageable == null || pageable.getPageSize() <= apiSettings.getMaxPageSize()) {
+            return pageable;
+        }
+        return new PageRequest(pageable.getPageNumber(), apiSettings.getMaxPageSize(), pageable.getSort());
+    }
 }
@@ -8,10 +8,12 @@ import com.capitalone.dashboard.model.UserInfo;
 import com.capitalone.dashboard.model.UserRole;
 import com.capitalone.dashboard.repository.ApiTokenRepository;
 import com.capitalone.dashboard.repository.UserInfoRepository;
+import com.capitalone.dashboard.settings.ApiSettings;
 import com.capitalone.dashboard.util.Encryption;
 import com.capitalone.dashboard.util.EncryptionException;
 import com.capitalone.dashboard.util.UnsafeDeleteException;
 import com.google.common.collect.Sets;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.log4j.Logger;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +32,10 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class ApiTokenServiceImpl implements ApiTokenService {
@@ -40,10 +46,28 @@ public class ApiTokenServiceImpl implements ApiTokenService {
 
     private UserInfoRepository userInfoRepository;
 
+    private final ApiSettings settings;
+
+    /**
+     * Successful token checks keyed by api user and a digest of the key, so that clients posting
+     * data do not look up and check their tokens on every request. Entries are dropped when a token
+     * of the api user changes and never outlive the token they were granted by. Roles are not cached,
+     * they are read on every request so that revoking admin takes effect at once.
+     */
+    private final Map<String, CachedAuthentication> authentications = new ConcurrentHashMap<>();
+    /**
+     * Bumped for an api user whenever its tokens change, so a check that read the tokens before
+     * the change does not cache its now stale result.
+     */
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
     @Autowired
-    public ApiTokenServiceImpl(ApiTokenRepository apiTokenRepository,UserInfoRepository userInfoRepository) {
+    public ApiTokenServiceImpl(ApiTokenRepository apiTokenRepository,UserInfoRepository userInfoRepository, ApiSettings settings) {
         this.apiTokenRepository = apiTokenRepository;
         this.userInfoRepository = userInfoRepository;
+        this.settings = settings;
     }
 
 	public Collection<ApiToken> getApiTokens() {
@@ -58,6 +82,7 @@ public class ApiTokenServiceImpl implements ApiTokenService {
             apiKey = Encryption.getStringKey();
             apiToken = new ApiToken(apiUser, apiKey, expirationDt);
             apiTokenRepository.save(apiToken);
+            invalidate(apiUser);
         } else {
             SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yyyy HH:mm:ss");
             throw new HygieiaException("Token already exists for " + apiUser
@@ -69,21 +94,37 @@ public class ApiTokenServiceImpl implements ApiTokenService {
 
     @Override
     public org.springframework.security.core.Authentication authenticate(String username, String password) {
+        boolean cacheEnabled = settings.getApiTokenCacheTtlMillis() > 0;
+        String cacheKey = cacheEnabled ? cacheKey(username, password) : null;
+        if (cacheEnabled) {
+            CachedAuthentication cached = authentications.get(cacheKey);
+            if (cached != null && cached.isValid(System.currentTimeMillis())) {
+                cacheHits.incrementAndGet();
+                return new UsernamePasswordAuthenticationToken(username, password, getAuthorities(username));
+            }
+            if (cached != null) {
+                authentications.remove(cacheKey, cached);
+            }
+            long misses = cacheMisses.incrementAndGet();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Api token cache miss for " + username + " (hits: " + cacheHits.get()
+                        + ", misses: " + misses + ", size: " + authentications.size() + ")");
+            }
+        }
+
+        long generation = cacheEnabled ? generation(username).get() : 0;
         List<ApiToken> apiTokens = apiTokenRepository.findByApiUser(username);
-        UserInfo user = userInfoRepository.findByUsername(username);
         for(ApiToken apiToken : apiTokens) {
             if (username.equalsIgnoreCase(apiToken.getApiUser())) {
                 if (apiToken != null && apiToken.checkApiKey(password)) {
                     Date sysdate = Calendar.getInstance().getTime();
                     Date expDt = new Date(apiToken.getExpirationDt());
                     if (compareDates(sysdate, expDt) <= 0) {
-
-                        Collection<UserRole> roles = new ArrayList<>();
-                        roles.add(UserRole.ROLE_API);
-                        if(isUserAdmin(user))
-                            roles.add(UserRole.ROLE_ADMIN);
+                        if (cacheEnabled) {
+                            cache(cacheKey, username, generation, apiToken.getExpirationDt());
+                        }
                         return new UsernamePasswordAuthenticationToken(username,
-                            password, createAuthorities(roles));
+                            password, getAuthorities(username));
                     }
                 }
             }
@@ -92,6 +133,67 @@ public class ApiTokenServiceImpl implements ApiTokenService {
         throw new BadCredentialsException("Login Failed: Invalid credentials for user " + username);
     }
 
+    private Collection<? extends GrantedAuthority> getAuthorities(String username) {
+        Collection<UserRole> roles = new ArrayList<>();
+        roles.add(UserRole.ROLE_API);
+        if(isUserAdmin(userInfoRepository.findByUsername(username)))
+            roles.add(UserRole.ROLE_ADMIN);
+        return createAuthorities(roles);
+    }
+
+    private void cache(String cacheKey, String username, long generation, Long tokenExpirationDt) {
+        AtomicLong current = generation(username);
+        if (current.get() != generation) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (authentications.size() >= settings.getApiTokenCacheSize()) {
+            authentications.values().removeIf(cached -> !cached.isValid(now));
+            if (authentications.size() >= settings.getApiTokenCacheSize()) {
+                return;
+            }
+        }
+        long expiresAt = now + settings.getApiTokenCacheTtlMillis();
+        if (tokenExpirationDt != null) {
+            expiresAt = Math.min(expiresAt, tokenExpirationDt);
+        }
+        CachedAuthentication cached = new CachedAuthentication(username, expiresAt);
+        authentications.put(cacheKey, cached);
+        // the tokens may have changed between the check above and the put
+        if (current.get() != generation) {
+            authentications.remove(cacheKey, cached);
+        }
+    }
+
+    /**
+     * Forgets the cached authentications of an api user so token changes take effect on the next request
+     */
+    private void invalidate(String apiUser) {
+        generation(apiUser).incrementAndGet();
+        authentications.values().removeIf(cached -> cached.apiUser.equalsIgnoreCase(apiUser));
+    }
+
+    private AtomicLong generation(String apiUser) {
+        return generations.computeIfAbsent(apiUser.toLowerCase(Locale.ENGLISH), user -> new AtomicLong());
+    }
+
+    private static String cacheKey(String username, String password) {
+        // only a digest of the key is kept in memory
+        return username + ':' + DigestUtils.sha256Hex(String.valueOf(password));
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMissCount() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        return authentications.size();
+    }
+
     private boolean isUserAdmin(UserInfo user) {
         if(user==null) return false;
         return user.getAuthorities().stream().filter(userRole -> userRole.equals(UserRole.ROLE_ADMIN)).findFirst().isPresent();
@@ -105,6 +207,7 @@ public class ApiTokenServiceImpl implements ApiTokenService {
             throw new UnsafeDeleteException("Cannot delete token " + apiToken.getApiUser());
         }else{
             apiTokenRepository .delete(apiToken);
+            invalidate(apiToken.getApiUser());
         }
     }
     @Override
@@ -116,6 +219,7 @@ public class ApiTokenServiceImpl implements ApiTokenService {
 
             apiToken.setExpirationDt(expirationDt);
             apiTokenRepository.save(apiToken);
+            invalidate(apiToken.getApiUser());
         }
 
         return apiToken.getId().toString();
@@ -157,4 +261,18 @@ public class ApiTokenServiceImpl implements ApiTokenService {
 
         return retVal;
     }
-}
\ No newline at end of file
+
+    private static final class CachedAuthentication {
+        private final String apiUser;
+        private final long expiresAt;
+
+        private CachedAuthentication(String apiUser, long expiresAt) {
+            this.apiUser = apiUser;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isValid(long now) {
+            return now <= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardType;
+import com.capitalone.dashboard.model.Owner;
+import com.capitalone.dashboard.repository.DashboardOwnerRepository;
+import com.capitalone.dashboard.settings.ApiSettings;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the owners of dashboards for authorization checks.
+ * <p>
+ * Only the ownership fields are read from the database and they are kept for
+ * {@link ApiSettings#getDashboardOwnerCacheTtlMillis()}. {@link DashboardServiceImpl} drops the entry of a
+ * dashboard when it is saved or deleted; the time to live bounds how long a change made by another
+ * API instance can go unnoticed.
+ */
+@Component
+public class DashboardOwnershipCache {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    private final DashboardOwnerRepository dashboardOwnerRepository;
+    private final ApiSettings settings;
+    private final Map<ObjectId, Ownership> ownerships = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DashboardOwnershipCache(DashboardOwnerRepository dashboardOwnerRepository, ApiSettings settings) {
+        this.dashboardOwnerRepository = dashboardOwnerRepository;
+        this.settings = settings;
+    }
+
+    /**
+     * @return the ownership of the dashboard or null if there is no such dashboard
+     */
+    public Ownership get(ObjectId dashboardId) {
+        long ttl = settings.getDashboardOwnerCacheTtlMillis();
+        long now = System.currentTimeMillis();
+        Ownership ownership = ttl > 0 ? ownerships.get(dashboardId) : null;
+        if (ownership != null && now <= ownership.expiresAt) {
+            return ownership;
+        }
+
+        Dashboard dashboard = dashboardOwnerRepository.findOwnershipById(dashboardId);
+        if (dashboard == null) {
+            ownerships.remove(dashboardId);
+            return null;
+        }
+        ownership = new Ownership(dashboard, now + ttl);
+        if (ttl > 0) {
+            if (ownerships.size() >= MAX_ENTRIES) {
+                ownerships.values().removeIf(cached -> now > cached.expiresAt);
+            }
+            if (ownerships.size() < MAX_ENTRIES) {
+                ownerships.put(dashboardId, ownership);
+            }
+        }
+        return ownership;
+    }
+
+    /**
+     * Forgets the ownership of a dashboard that was saved or deleted
+     */
+    public void invalidate(ObjectId dashboardId) {
+        if (dashboardId != null) {
+            ownerships.remove(dashboardId);
+        }
+    }
+
+    public static final class Ownership {
+        private final List<Owner> owners;
+        private final String owner;
+        private final DashboardType type;
+        private final long expiresAt;
+
+        private Ownership(Dashboard dashboard, long expiresAt) {
+            this.owners = dashboard.getOwners() == null ? Collections.emptyList()
+                    : Collections.unmodifiableList(new ArrayList<>(dashboard.getOwners()));
+            this.owner = dashboard.getOwner();
+            this.type = dashboard.getType();
+            this.expiresAt = expiresAt;
+        }
+
+        public List<Owner> getOwners() {
+            return owners;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public DashboardType getType() {
+            return type;
+        }
+    }
+}
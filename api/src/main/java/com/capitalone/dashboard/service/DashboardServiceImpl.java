@@ -21,6 +21,7 @@ import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.CustomRepositoryQuery;
 import com.capitalone.dashboard.repository.DashboardRepository;
+import com.capitalone.dashboard.repository.DashboardSummaryRepository;
 import com.capitalone.dashboard.repository.PipelineRepository;
 import com.capitalone.dashboard.repository.ServiceRepository;
 import com.capitalone.dashboard.repository.UserInfoRepository;
@@ -47,12 +48,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class DashboardServiceImpl implements DashboardService {
     private static final Log LOG = LogFactory.getLog(DashboardServiceImpl.class);
     private final DashboardRepository dashboardRepository;
+    private final DashboardSummaryRepository dashboardSummaryRepository;
     private final ComponentRepository componentRepository;
     private final CollectorRepository collectorRepository;
     private final CollectorItemRepository collectorItemRepository;
@@ -64,6 +67,7 @@ public class DashboardServiceImpl implements DashboardService {
     private final UserInfoService userInfoService;
     private final ScoreDashboardService scoreDashboardService;
     private final CmdbService cmdbService;
+    private final DashboardOwnershipCache dashboardOwnershipCache;
     private final String UNDEFINED = "undefined";
     private final static EnumSet<CollectorType> QualityWidget = EnumSet.of(CollectorType.Test , CollectorType.StaticSecurityScan, CollectorType.CodeQuality, CollectorType.LibraryPolicy);
 
@@ -72,6 +76,7 @@ public class DashboardServiceImpl implements DashboardService {
 
     @Autowired
     public DashboardServiceImpl(DashboardRepository dashboardRepository,
+                                DashboardSummaryRepository dashboardSummaryRepository,
                                 ComponentRepository componentRepository,
                                 CollectorRepository collectorRepository,
                                 CollectorItemRepository collectorItemRepository,
@@ -82,8 +87,10 @@ public class DashboardServiceImpl implements DashboardService {
                                 UserInfoService userInfoService,
                                 CmdbService cmdbService,
                                 ScoreDashboardService scoreDashboardService,
+                                DashboardOwnershipCache dashboardOwnershipCache,
                                 ApiSettings settings) {
         this.dashboardRepository = dashboardRepository;
+        this.dashboardSummaryRepository = dashboardSummaryRepository;
         this.componentRepository = componentRepository;
         this.collectorRepository = collectorRepository;
         this.collectorItemRepository = collectorItemRepository;
@@ -94,6 +101,7 @@ public class DashboardServiceImpl implements DashboardService {
         this.userInfoService = userInfoService;
         this.cmdbService = cmdbService;
         this.scoreDashboardService = scoreDashboardService;
+        this.dashboardOwnershipCache = dashboardOwnershipCache;
         this.settings = settings;
     }
 
@@ -164,6 +172,7 @@ public class DashboardServiceImpl implements DashboardService {
         try {
             duplicateDashboardErrorCheck(dashboard);
             Dashboard savedDashboard = dashboardRepository.save(dashboard);
+            dashboardOwnershipCache.invalidate(dashboard.getId());
             CollectorItem scoreCollectorItem;
             if (isUpdate) {
                 scoreCollectorItem = this.scoreDashboardService.editScoreForDashboard(savedDashboard);
@@ -214,6 +223,7 @@ public class DashboardServiceImpl implements DashboardService {
          * Delete Dashboard. Then delete component. Then disable collector items if needed
          */
         dashboardRepository.delete(dashboard);
+        dashboardOwnershipCache.invalidate(id);
         componentRepository.delete(dashboard.getApplication().getComponents());
         handleCollectorItems(dashboard.getApplication().getComponents());
         if (dashboard.isScoreEnabled()) {
@@ -453,6 +463,7 @@ public class DashboardServiceImpl implements DashboardService {
     	Dashboard dashboard = dashboardRepository.findOne(dashboardId);
         dashboard.setOwners(Lists.newArrayList(owners));
         Dashboard result = dashboardRepository.save(dashboard);
+        dashboardOwnershipCache.invalidate(dashboardId);
 
         return result.getOwners();
     }
@@ -707,14 +718,10 @@ public class DashboardServiceImpl implements DashboardService {
      */
     @Override
     public Page<Dashboard> getDashboardByTitleWithFilter(String title, String type, Pageable pageable) {
-        Page<Dashboard> dashboardItems = null;
-        if ((type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type))) {
-            dashboardItems = dashboardRepository.findAllByTypeContainingIgnoreCaseAndTitleContainingIgnoreCase(type, title, pageable);
-        } else {
-            dashboardItems = dashboardRepository.findAllByTitleContainingIgnoreCase(title, pageable);
+        if (isTypeFilter(type)) {
+            return dashboardSummaryRepository.findSummariesByTypeAndTitle(containing(type), containing(title), pageable);
         }
-
-        return dashboardItems;
+        return dashboardSummaryRepository.findSummariesByTitle(containing(title), pageable);
     }
 
     /**
@@ -725,13 +732,13 @@ public class DashboardServiceImpl implements DashboardService {
      */
     @Override
     public Integer getAllDashboardsByTitleCount(String title, String type) {
-        List<Dashboard> dashboards = null;
-        if ((type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type))) {
-            dashboards = dashboardRepository.findAllByTypeContainingIgnoreCaseAndTitleContainingIgnoreCase(type, title);
+        long count;
+        if (isTypeFilter(type)) {
+            count = dashboardSummaryRepository.countByTypeAndTitle(containing(type), containing(title));
         } else {
-            dashboards = dashboardRepository.findAllByTitleContainingIgnoreCase(title);
+            count = dashboardSummaryRepository.countByTitle(containing(title));
         }
-        return dashboards != null ? dashboards.size() : 0;
+        return (int) count;
     }
 
     /**
@@ -742,8 +749,8 @@ public class DashboardServiceImpl implements DashboardService {
      */
     @Override
     public long count(String type) {
-        if ((type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type))) {
-            return dashboardRepository.countByTypeContainingIgnoreCase(type);
+        if (isTypeFilter(type)) {
+            return dashboardSummaryRepository.countByType(containing(type));
         } else {
             return dashboardRepository.count();
         }
@@ -757,10 +764,10 @@ public class DashboardServiceImpl implements DashboardService {
      */
     @Override
     public Page<Dashboard> findDashboardsByPage(String type, Pageable page) {
-        if ((type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type))) {
-            return dashboardRepository.findAllByTypeContainingIgnoreCase(type, page);
+        if (isTypeFilter(type)) {
+            return dashboardSummaryRepository.findSummariesByType(containing(type), page);
         }
-        return dashboardRepository.findAll(page);
+        return dashboardSummaryRepository.findSummaries(page);
     }
 
     /**
@@ -779,10 +786,10 @@ public class DashboardServiceImpl implements DashboardService {
         Owner owner = new Owner(AuthenticationUtil.getUsernameFromContext(), AuthenticationUtil.getAuthTypeFromContext());
         Page<Dashboard> ownersList = null;
 
-        if ((type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type))) {
-            ownersList = dashboardRepository.findByOwnersAndTypeContainingIgnoreCase(owner, type, page);
+        if (isTypeFilter(type)) {
+            ownersList = dashboardSummaryRepository.findSummariesByOwnerAndType(owner.getUsername(), authTypeName(owner), containing(type), page);
         } else {
-            ownersList = dashboardRepository.findByOwners(owner, page);
+            ownersList = dashboardSummaryRepository.findSummariesByOwner(owner.getUsername(), authTypeName(owner), page);
         }
         for (Dashboard dashboard: ownersList) {
             String appName = dashboard.getConfigurationItemBusServName();
@@ -795,35 +802,32 @@ public class DashboardServiceImpl implements DashboardService {
     @Override
     public long myDashboardsCount(String type){
         Owner owner = new Owner(AuthenticationUtil.getUsernameFromContext(), AuthenticationUtil.getAuthTypeFromContext());
-        List<Dashboard> ownersList = null;
-        if ((type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type))) {
-            ownersList = dashboardRepository.findByOwnersAndTypeContainingIgnoreCase(owner, type);
-        } else {
-            ownersList = dashboardRepository.findByOwners(owner);
+        if (isTypeFilter(type)) {
+            return dashboardSummaryRepository.countByOwnerAndType(owner.getUsername(), authTypeName(owner), containing(type));
         }
-        return ownersList!=null?ownersList.size():0;
+        return dashboardSummaryRepository.countByOwner(owner.getUsername(), authTypeName(owner));
     }
 
     @Override
     public int getMyDashboardsByTitleCount(String title, String type){
         Owner owner = new Owner(AuthenticationUtil.getUsernameFromContext(), AuthenticationUtil.getAuthTypeFromContext());
-        List<Dashboard> dashboards = null;
-        if ((type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type))) {
-            dashboards = dashboardRepository.findByOwnersAndTypeContainingIgnoreCaseAndTitleContainingIgnoreCase(owner,type,title);
+        long count;
+        if (isTypeFilter(type)) {
+            count = dashboardSummaryRepository.countByOwnerAndTypeAndTitle(owner.getUsername(), authTypeName(owner), containing(type), containing(title));
         } else {
-            dashboards = dashboardRepository.findByOwnersAndTitleContainingIgnoreCase(owner,title);
+            count = dashboardSummaryRepository.countByOwnerAndTitle(owner.getUsername(), authTypeName(owner), containing(title));
         }
-        return dashboards!=null?dashboards.size():0;
+        return (int) count;
     }
 
     @Override
     public Page<Dashboard> getMyDashboardByTitleWithFilter(String title, String type, Pageable pageable) {
         Owner owner = new Owner(AuthenticationUtil.getUsernameFromContext(), AuthenticationUtil.getAuthTypeFromContext());
         Page<Dashboard> ownersList = null;
-        if ((type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type))) {
-            ownersList = dashboardRepository.findByOwnersAndTypeContainingIgnoreCaseAndTitleContainingIgnoreCase(owner,type,title,pageable);
+        if (isTypeFilter(type)) {
+            ownersList = dashboardSummaryRepository.findSummariesByOwnerAndTypeAndTitle(owner.getUsername(), authTypeName(owner), containing(type), containing(title), pageable);
         } else {
-            ownersList = dashboardRepository.findByOwnersAndTitleContainingIgnoreCase(owner,title,pageable);
+            ownersList = dashboardSummaryRepository.findSummariesByOwnerAndTitle(owner.getUsername(), authTypeName(owner), containing(title), pageable);
         }
 
         for (Dashboard dashboard: ownersList) {
@@ -834,6 +838,21 @@ public class DashboardServiceImpl implements DashboardService {
         return ownersList;
     }
 
+    private boolean isTypeFilter(String type) {
+        return (type != null) && (!type.isEmpty()) && (!UNDEFINED.equalsIgnoreCase(type));
+    }
+
+    /**
+     * @return a regular expression matching values that contain the text
+     */
+    private static String containing(String text) {
+        return text == null ? "" : Pattern.quote(text);
+    }
+
+    private static String authTypeName(Owner owner) {
+        return owner.getAuthType() == null ? null : owner.getAuthType().name();
+    }
+
 
     @Override
     public Dashboard updateScoreSettings(ObjectId dashboardId, boolean scoreEnabled, ScoreDisplayType scoreDisplay) {
@@ -12,6 +12,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.ObjectUtils;
@@ -89,6 +92,9 @@ public class DynamicPipelineServiceImpl implements PipelineService {
     private final CommitService commitService;
 	private final DeployService deployService;
 	private final ApiSettings settings;
+	
+	private final Map<ObjectId, PipelineStateEntry> pipelineStates = new ConcurrentHashMap<>();
+	private final AtomicLong lastStateEviction = new AtomicLong(System.currentTimeMillis());
     
     @Autowired
     public DynamicPipelineServiceImpl(PipelineRepository pipelineRepository, DashboardRepository dashboardRepository,
@@ -108,21 +114,25 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 	@Override
 	public Iterable<PipelineResponse> search(PipelineSearchRequest searchRequest) {
         //sets the lower and upper bound for the prod bucket's commits.  uses constant for lower bound limit and today as default for upper bound
-        Long lowerBound = searchRequest.getBeginDate();
-        //if(lowerBound == null){
-        	// TODO get incremental updates working
-            lowerBound = getMinStart();
-        //}
+        Long lowerBound = getMinStart();
         Long upperBound = searchRequest.getEndDate() != null ? searchRequest.getEndDate() : new Date().getTime();
-		
+
+        // Only a window that ends now can be kept up to date by folding in new data
+        boolean incremental = settings.isPipelineIncrementalUpdates() && searchRequest.getEndDate() == null;
+
         List<PipelineResponse> pipelineResponses = new ArrayList<>();
         for(ObjectId collectorItemId : searchRequest.getCollectorItemId()){
             Pipeline pipeline = getOrCreatePipeline(collectorItemId);
-            pipeline = buildPipeline(pipeline, lowerBound, upperBound);
 
-            // This will make debugging much easier
-            pipelineRepository.save(pipeline);
-            
+            if (incremental) {
+            	pipeline = updatePipeline(pipeline, lowerBound, upperBound);
+            } else {
+            	pipeline = buildPipeline(pipeline, lowerBound, upperBound);
+
+            	// This will make debugging much easier
+            	pipelineRepository.save(pipeline);
+            }
+
             pipelineResponses.add(buildPipelineResponse(pipeline, lowerBound, upperBound));
             
         }
@@ -201,27 +211,130 @@ public class DynamicPipelineServiceImpl implements PipelineService {
      * @return				the <b>pipeline</b> passed in
      */
     protected Pipeline buildPipeline(Pipeline pipeline, Long lowerBound, Long upperBound) {
-        CollectorItem dashboardCollectorItem = collectorItemRepository.findOne(pipeline.getCollectorItemId());
-        Dashboard dashboard = dashboardRepository.findOne(new ObjectId((String)dashboardCollectorItem.getOptions().get("dashboardId")));
+    	return buildPipeline(pipeline, lowerBound, upperBound, new PipelineState(System.currentTimeMillis()));
+    }
 
+    private Pipeline buildPipeline(Pipeline pipeline, Long lowerBound, Long upperBound, PipelineState state) {
         // First gather information about our dashboard
-        
-        // TODO how should we handle multiple components?
-        Component component = dashboard.getApplication().getComponents().iterator().next();
+        Component component = getPipelineComponent(pipeline);
 
-        // Note - since other items link to commits we always need to pull all of our commit data
-        List<Commit> commits = getCommits(component, getMinStart(), upperBound);
-        List<Build> builds = getBuilds(component, lowerBound, upperBound);
-        List<Environment> environments = getEnvironments(component);
-        Map<Environment, Collection<ArtifactIdentifier>> environmentArtifactIdentifiers = getArtifactIdentifiers(environments);
-        Map<ArtifactIdentifier, Collection<BinaryArtifact>> artifacts = getBinaryArtifacts(
-        		environmentArtifactIdentifiers.values().stream().flatMap( coll -> coll.stream()).collect(Collectors.toList()));
-    	
     	// We only want builds that belong to our repo
     	RepoBranch repo = getComponentRepoBranch(component);
-    	builds = filterBuilds(builds, repo.getUrl(), repo.getBranch());
-    	artifacts = filterBinaryArtifacts(artifacts, repo.getUrl(), repo.getBranch());
-    	
+
+        // Note - since other items link to commits we always need to pull all of our commit data
+        state.addCommits(getCommits(component, getMinStart(), upperBound));
+        state.addBuilds(filterBuilds(getBuilds(component, lowerBound, upperBound), repo.getUrl(), repo.getBranch()));
+        state.setEnvironments(getEnvironments(component));
+        state.addArtifacts(filterBinaryArtifacts(getBinaryArtifacts(getArtifactIdentifierList(state.getEnvironments())),
+        		repo.getUrl(), repo.getBranch()));
+
+        computePipeline(pipeline, state);
+        
+        return pipeline;
+    }
+
+    /**
+     * Brings a pipeline up to date using the state retained from its previous computation.
+     * <p>
+     * Only commits and builds newer than the last ones seen (less a configurable overlap to pick up
+     * late arriving data) are fetched, along with any build that was still running when last seen
+     * so that its final status is picked up. Deployments are always
+     * fetched but binary artifacts are only looked up for deployed versions that have not been
+     * resolved before. The pipeline is only recomputed and saved when something actually changed.
+     * A full recomputation is done when there is no state yet or the state is older than the
+     * configured refresh interval.
+     * 
+     * @param pipeline		the pipeline to update
+     * @param lowerBound	the lower window bound for gathering statistics
+     * @param upperBound	the upper window bound for gathering statistics
+     * @return				the <b>pipeline</b> passed in
+     */
+    protected Pipeline updatePipeline(Pipeline pipeline, Long lowerBound, Long upperBound) {
+    	ObjectId collectorItemId = pipeline.getCollectorItemId();
+    	long now = System.currentTimeMillis();
+    	long fullRefreshMillis = TimeUnit.MINUTES.toMillis(settings.getPipelineFullRefreshMinutes());
+
+    	evictUnusedStates(now, fullRefreshMillis);
+
+    	// the entry is the lock of the collector item, it is touched atomically so it is not evicted while in use
+    	PipelineStateEntry entry = pipelineStates.compute(collectorItemId, (id, current) -> {
+    		PipelineStateEntry touched = (current == null) ? new PipelineStateEntry() : current;
+    		touched.lastUsedTimestamp = now;
+    		return touched;
+    	});
+
+    	synchronized (entry) {
+    		if (entry.state == null || now - entry.state.getCreatedTimestamp() >= fullRefreshMillis) {
+    			PipelineState state = new PipelineState(now);
+    			buildPipeline(pipeline, lowerBound, upperBound, state);
+    			pipelineRepository.save(pipeline);
+    			entry.state = state;
+    			return pipeline;
+    		}
+
+    		final PipelineState state = entry.state;
+    		Component component = getPipelineComponent(pipeline);
+    		RepoBranch repo = getComponentRepoBranch(component);
+    		long overlap = TimeUnit.MINUTES.toMillis(settings.getPipelineUpdateOverlapMinutes());
+    		long minCommitTimestamp = getMinStart();
+
+    		boolean changed = state.addCommits(getCommits(component,
+    				Math.max(minCommitTimestamp, state.getLastCommitTimestamp() - overlap), upperBound));
+    		long buildWindowStart = Math.min(state.getLastBuildTimestamp() - overlap, state.getEarliestRunningBuildTimestamp());
+    		changed |= state.addBuilds(filterBuilds(getBuilds(component,
+    				Math.max(lowerBound, buildWindowStart), upperBound), repo.getUrl(), repo.getBranch()));
+    		changed |= state.setEnvironments(getEnvironments(component));
+
+    		List<ArtifactIdentifier> deployed = getArtifactIdentifierList(state.getEnvironments());
+    		List<ArtifactIdentifier> unresolved = deployed.stream().filter(id -> !state.hasArtifacts(id)).collect(Collectors.toList());
+    		if (!unresolved.isEmpty()) {
+    			Map<ArtifactIdentifier, Collection<BinaryArtifact>> found =
+    					filterBinaryArtifacts(getBinaryArtifacts(unresolved), repo.getUrl(), repo.getBranch());
+    			changed |= !found.isEmpty();
+    			state.addArtifacts(found);
+    		}
+
+    		changed |= state.evict(minCommitTimestamp, lowerBound, deployed);
+
+    		if (changed) {
+    			computePipeline(pipeline, state);
+    			pipelineRepository.save(pipeline);
+    		} else if (logger.isDebugEnabled()) {
+    			logger.debug("Pipeline for collector item " + collectorItemId + " is up to date");
+    		}
+    	}
+
+    	return pipeline;
+    }
+
+    /**
+     * Drops the state of pipelines that were not updated during the last full refresh interval, such as
+     * those of deleted pipelines or collector items. Their state would be rebuilt on the next update anyway.
+     * Runs at most once per interval.
+     */
+    private void evictUnusedStates(long now, long fullRefreshMillis) {
+    	long last = lastStateEviction.get();
+    	if (now - last < fullRefreshMillis || !lastStateEviction.compareAndSet(last, now)) {
+    		return;
+    	}
+    	for (ObjectId collectorItemId : pipelineStates.keySet()) {
+    		pipelineStates.computeIfPresent(collectorItemId,
+    				(id, entry) -> (now - entry.lastUsedTimestamp >= fullRefreshMillis) ? null : entry);
+    	}
+    }
+
+    private Component getPipelineComponent(Pipeline pipeline) {
+        CollectorItem dashboardCollectorItem = collectorItemRepository.findOne(pipeline.getCollectorItemId());
+        Dashboard dashboard = dashboardRepository.findOne(new ObjectId((String)dashboardCollectorItem.getOptions().get("dashboardId")));
+
+        // TODO how should we handle multiple components?
+        return dashboard.getApplication().getComponents().iterator().next();
+    }
+
+    private void computePipeline(Pipeline pipeline, PipelineState state) {
+    	List<Commit> commits = state.getCommits();
+    	List<Build> builds = state.getBuilds();
+
     	// we assume all the builds belong to the same job
     	Collections.sort(builds, BUILD_NUMBER_COMPATATOR);
         
@@ -231,9 +344,8 @@ public class DynamicPipelineServiceImpl implements PipelineService {
         
         processCommits(pipeline, commits);
         processBuilds(pipeline, builds, commits);
-        processDeployments(pipeline, environments, artifacts, commits);
-        
-        return pipeline;
+        processDeployments(pipeline, state.getEnvironments(), state.getArtifacts(),
+        		state.getCommitsByRevisionNumber(), state.getCommitGraph());
     }
 
     /**
@@ -444,9 +556,12 @@ public class DynamicPipelineServiceImpl implements PipelineService {
     	}
     	
     	// Build commit graph - child : parents
-    	Map<String, Commit> commitsByRevisionNumber = buildRevisionNumberToCommitMap(commits);
-    	Map<String, Collection<String>> commitGraph = buildCommitGraph(commits);
+    	processDeployments(pipeline, environments, artifacts, buildRevisionNumberToCommitMap(commits), buildCommitGraph(commits));
+    }
 
+    private void processDeployments(Pipeline pipeline, List<Environment> environments,
+			Map<ArtifactIdentifier, Collection<BinaryArtifact>> artifacts, Map<String, Commit> commitsByRevisionNumber,
+			Map<String, Collection<String>> commitGraph) {
     	// iterate through this in case other maps ignore missing items
     	for (Environment env : environments) {
     		EnvironmentStage stage = new EnvironmentStage();
@@ -682,6 +797,10 @@ public class DynamicPipelineServiceImpl implements PipelineService {
 		return response.getResult() != null? response.getResult() : Collections.emptyList();
 	}
 	
+	private List<ArtifactIdentifier> getArtifactIdentifierList(List<Environment> environments) {
+		return getArtifactIdentifiers(environments).values().stream().flatMap(coll -> coll.stream()).collect(Collectors.toList());
+	}
+	
 	// this is here for future expansion
 	private Map<Environment, Collection<ArtifactIdentifier>> getArtifactIdentifiers(List<Environment> environments) {
 		Map<Environment, Collection<ArtifactIdentifier>> rt = new HashMap<>();
@@ -926,4 +1045,12 @@ public class DynamicPipelineServiceImpl implements PipelineService {
         return notPropagatedCommits;
     }
 
+    /**
+     * The pipeline state of a collector item and when it was last used. Updates of the collector item
+     * synchronize on the entry.
+     */
+    private static final class PipelineStateEntry {
+    	private PipelineState state;
+    	private long lastUsedTimestamp;
+    }
 }
@@ -0,0 +1,216 @@
+package com.capitalone.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+
+import com.capitalone.dashboard.model.ArtifactIdentifier;
+import com.capitalone.dashboard.model.BinaryArtifact;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.BuildStatus;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.deploy.DeployableUnit;
+import com.capitalone.dashboard.model.deploy.Environment;
+
+/**
+ * The data a dynamic pipeline was last computed from.
+ * <p>
+ * Kept between polls by {@link DynamicPipelineServiceImpl} so that only the commits, builds
+ * and deployments that changed since the previous computation need to be fetched and folded in.
+ * Callers are expected to synchronize on the instance while reading or updating it.
+ */
+class PipelineState {
+    private final long createdTimestamp;
+
+    private final Map<String, Commit> commitsByRevisionNumber = new LinkedHashMap<>();
+    private final Map<String, Collection<String>> commitGraph = new HashMap<>();
+    private final Map<ObjectId, Build> buildsById = new LinkedHashMap<>();
+    private final Map<ArtifactIdentifier, Collection<BinaryArtifact>> artifacts = new HashMap<>();
+    private Set<String> deploymentKeys = new HashSet<>();
+    private List<Environment> environments = new ArrayList<>();
+
+    private long lastCommitTimestamp;
+    private long lastBuildTimestamp;
+
+    PipelineState(long createdTimestamp) {
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    long getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    long getLastCommitTimestamp() {
+        return lastCommitTimestamp;
+    }
+
+    long getLastBuildTimestamp() {
+        return lastBuildTimestamp;
+    }
+
+    /**
+     * Builds that were still running when last seen need to be fetched again to pick up their final
+     * status, even if newer builds have started since.
+     *
+     * @return  the earliest start time of a build that has not finished, or {@link Long#MAX_VALUE} if there is none
+     */
+    long getEarliestRunningBuildTimestamp() {
+        long earliest = Long.MAX_VALUE;
+
+        for (Build build : buildsById.values()) {
+            if (build.getBuildStatus() == null || BuildStatus.InProgress.equals(build.getBuildStatus())) {
+                earliest = Math.min(earliest, build.getStartTime());
+            }
+        }
+
+        return earliest;
+    }
+
+    /**
+     * Adds commits that have not been seen before.
+     *
+     * @param commits   commits to fold in
+     * @return          true if at least one new revision was added
+     */
+    boolean addCommits(Collection<Commit> commits) {
+        boolean changed = false;
+
+        for (Commit commit : commits) {
+            String revisionNumber = commit.getScmRevisionNumber();
+
+            if (commitsByRevisionNumber.containsKey(revisionNumber)) {
+                continue;
+            }
+
+            commitsByRevisionNumber.put(revisionNumber, commit);
+            List<String> parents = commit.getScmParentRevisionNumbers();
+            commitGraph.put(revisionNumber, parents != null ? parents : new ArrayList<>());
+            lastCommitTimestamp = Math.max(lastCommitTimestamp, commit.getScmCommitTimestamp());
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    /**
+     * Adds new builds and replaces builds whose status changed since they were last seen.
+     *
+     * @param builds    builds to fold in
+     * @return          true if a build was added or changed
+     */
+    boolean addBuilds(Collection<Build> builds) {
+        boolean changed = false;
+
+        for (Build build : builds) {
+            Build previous = buildsById.put(build.getId(), build);
+
+            if (previous == null || !Objects.equals(previous.getBuildStatus(), build.getBuildStatus())) {
+                changed = true;
+            }
+
+            lastBuildTimestamp = Math.max(lastBuildTimestamp, build.getStartTime());
+        }
+
+        return changed;
+    }
+
+    void addArtifacts(Map<ArtifactIdentifier, Collection<BinaryArtifact>> found) {
+        artifacts.putAll(found);
+    }
+
+    /**
+     * Replaces the deployment snapshot.
+     *
+     * @param environments  the current deployment status of the component
+     * @return              true if any environment, unit, version or deployment time differs
+     */
+    boolean setEnvironments(List<Environment> environments) {
+        Set<String> keys = new HashSet<>();
+
+        for (Environment env : environments) {
+            keys.add(env.getName());
+
+            if (env.getUnits() != null) {
+                for (DeployableUnit du : env.getUnits()) {
+                    keys.add(env.getName() + '\u0000' + du.getName() + '\u0000' + du.getVersion() + '\u0000' + du.getLastUpdated());
+                }
+            }
+        }
+
+        boolean changed = !keys.equals(deploymentKeys);
+        this.deploymentKeys = keys;
+        this.environments = new ArrayList<>(environments);
+
+        return changed;
+    }
+
+    /**
+     * Drops commits and builds older than the window and artifacts no longer referenced by a deployment.
+     *
+     * @param minCommitTimestamp    the oldest commit timestamp to keep
+     * @param minBuildTimestamp     the oldest build start time to keep
+     * @param referencedArtifacts   the artifact identifiers currently deployed
+     * @return                      true if a commit or build was removed
+     */
+    boolean evict(long minCommitTimestamp, long minBuildTimestamp, Collection<ArtifactIdentifier> referencedArtifacts) {
+        boolean changed = false;
+
+        for (Iterator<Commit> it = commitsByRevisionNumber.values().iterator(); it.hasNext();) {
+            Commit commit = it.next();
+
+            if (commit.getScmCommitTimestamp() < minCommitTimestamp) {
+                it.remove();
+                commitGraph.remove(commit.getScmRevisionNumber());
+                changed = true;
+            }
+        }
+
+        for (Iterator<Build> it = buildsById.values().iterator(); it.hasNext();) {
+            if (it.next().getStartTime() < minBuildTimestamp) {
+                it.remove();
+                changed = true;
+            }
+        }
+
+        artifacts.keySet().retainAll(referencedArtifacts);
+
+        return changed;
+    }
+
+    boolean hasArtifacts(ArtifactIdentifier id) {
+        return artifacts.containsKey(id);
+    }
+
+    List<Commit> getCommits() {
+        return new ArrayList<>(commitsByRevisionNumber.values());
+    }
+
+    Map<String, Commit> getCommitsByRevisionNumber() {
+        return commitsByRevisionNumber;
+    }
+
+    Map<String, Collection<String>> getCommitGraph() {
+        return commitGraph;
+    }
+
+    List<Build> getBuilds() {
+        return new ArrayList<>(buildsById.values());
+    }
+
+    Map<ArtifactIdentifier, Collection<BinaryArtifact>> getArtifacts() {
+        return artifacts;
+    }
+
+    List<Environment> getEnvironments() {
+        return environments;
+    }
+}
@@ -17,10 +17,34 @@ public class ApiSettings {
     private boolean corsEnabled;
     private String corsWhitelist;
     private boolean logRequest;
+    @Value("${requestLogQueueSize:10000}")
+    private int requestLogQueueSize;
+    @Value("${requestLogBatchSize:500}")
+    private int requestLogBatchSize;
+    @Value("${requestLogFlushIntervalMillis:1000}")
+    private long requestLogFlushIntervalMillis;
+    @Value("${requestLogMaxBodySize:65536}")
+    private int requestLogMaxBodySize;
+    @Value("${requestLogBodySampleRate:1.0}")
+    private double requestLogBodySampleRate;
     @Value("${pageSize:10}")
     private int pageSize;
+    @Value("${maxPageSize:1000}")
+    private int maxPageSize;
     @Value("${lookupDashboardForBuildDataCreate:false}")
     private boolean lookupDashboardForBuildDataCreate;
+    @Value("${pipelineIncrementalUpdates:true}")
+    private boolean pipelineIncrementalUpdates;
+    @Value("${pipelineFullRefreshMinutes:60}")
+    private int pipelineFullRefreshMinutes;
+    @Value("${pipelineUpdateOverlapMinutes:60}")
+    private int pipelineUpdateOverlapMinutes;
+    @Value("${apiTokenCacheTtlMillis:60000}")
+    private long apiTokenCacheTtlMillis;
+    @Value("${apiTokenCacheSize:10000}")
+    private int apiTokenCacheSize;
+    @Value("${dashboardOwnerCacheTtlMillis:30000}")
+    private long dashboardOwnerCacheTtlMillis;
 
     private WebHookSettings webHook;
 
@@ -72,9 +96,108 @@ public class ApiSettings {
         this.pageSize = pageSize;
     }
 
+    /**
+     * @return the largest page a client may request from paged endpoints, larger requests are cut down to it
+     */
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
     public boolean isLookupDashboardForBuildDataCreate() { return lookupDashboardForBuildDataCreate; }
 
     public void setLookupDashboardForBuildDataCreate(boolean lookupDashboardForBuildDataCreate) {
         this.lookupDashboardForBuildDataCreate = lookupDashboardForBuildDataCreate;
     }
+
+    public boolean isPipelineIncrementalUpdates() {
+        return pipelineIncrementalUpdates;
+    }
+
+    public void setPipelineIncrementalUpdates(boolean pipelineIncrementalUpdates) {
+        this.pipelineIncrementalUpdates = pipelineIncrementalUpdates;
+    }
+
+    public int getPipelineFullRefreshMinutes() {
+        return pipelineFullRefreshMinutes;
+    }
+
+    public void setPipelineFullRefreshMinutes(int pipelineFullRefreshMinutes) {
+        this.pipelineFullRefreshMinutes = pipelineFullRefreshMinutes;
+    }
+
+    public int getPipelineUpdateOverlapMinutes() {
+        return pipelineUpdateOverlapMinutes;
+    }
+
+    public void setPipelineUpdateOverlapMinutes(int pipelineUpdateOverlapMinutes) {
+        this.pipelineUpdateOverlapMinutes = pipelineUpdateOverlapMinutes;
+    }
+
+    public long getApiTokenCacheTtlMillis() {
+        return apiTokenCacheTtlMillis;
+    }
+
+    public void setApiTokenCacheTtlMillis(long apiTokenCacheTtlMillis) {
+        this.apiTokenCacheTtlMillis = apiTokenCacheTtlMillis;
+    }
+
+    public int getApiTokenCacheSize() {
+        return apiTokenCacheSize;
+    }
+
+    public void setApiTokenCacheSize(int apiTokenCacheSize) {
+        this.apiTokenCacheSize = apiTokenCacheSize;
+    }
+
+    public long getDashboardOwnerCacheTtlMillis() {
+        return dashboardOwnerCacheTtlMillis;
+    }
+
+    public void setDashboardOwnerCacheTtlMillis(long dashboardOwnerCacheTtlMillis) {
+        this.dashboardOwnerCacheTtlMillis = dashboardOwnerCacheTtlMillis;
+    }
+
+    public int getRequestLogQueueSize() {
+        return requestLogQueueSize;
+    }
+
+    public void setRequestLogQueueSize(int requestLogQueueSize) {
+        this.requestLogQueueSize = requestLogQueueSize;
+    }
+
+    public int getRequestLogBatchSize() {
+        return requestLogBatchSize;
+    }
+
+    public void setRequestLogBatchSize(int requestLogBatchSize) {
+        this.requestLogBatchSize = requestLogBatchSize;
+    }
+
+    public long getRequestLogFlushIntervalMillis() {
+        return requestLogFlushIntervalMillis;
+    }
+
+    public void setRequestLogFlushIntervalMillis(long requestLogFlushIntervalMillis) {
+        this.requestLogFlushIntervalMillis = requestLogFlushIntervalMillis;
+    }
+
+    public int getRequestLogMaxBodySize() {
+        return requestLogMaxBodySize;
+    }
+
+    public void setRequestLogMaxBodySize(int requestLogMaxBodySize) {
+        this.requestLogMaxBodySize = requestLogMaxBodySize;
+    }
+
+    public double getRequestLogBodySampleRate() {
+        return requestLogBodySampleRate;
+    }
+
+    public void setRequestLogBodySampleRate(double requestLogBodySampleRate) {
+        this.requestLogBodySampleRate = requestLogBodySampleRate;
+    }
 }
@@ -3,6 +3,8 @@ package com.capitalone.dashboard.auth.access;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.capitalone.dashboard.model.*;
@@ -10,14 +12,15 @@ import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import com.capitalone.dashboard.auth.AuthenticationFixture;
 import com.capitalone.dashboard.auth.access.MethodLevelSecurityHandler;
-import com.capitalone.dashboard.repository.DashboardRepository;
+import com.capitalone.dashboard.repository.DashboardOwnerRepository;
+import com.capitalone.dashboard.service.DashboardOwnershipCache;
+import com.capitalone.dashboard.settings.ApiSettings;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,20 +33,23 @@ public class MethodLevelSecurityHandlerTest {
 	private static final String configItemAppName = "ASVTEST";
 	private static final String configItemComponentName = "BAPTEST";
 	
-	@InjectMocks
 	private MethodLevelSecurityHandler handler;
 	
 	@Mock
-	private DashboardRepository dashboardRepository;
+	private DashboardOwnerRepository dashboardOwnerRepository;
+
+	@Mock
+	private ApiSettings settings;
 	
 	@Before
 	public void setup() {
 		SecurityContextHolder.clearContext();
+		handler = new MethodLevelSecurityHandler(new DashboardOwnershipCache(dashboardOwnerRepository, settings));
 	}
 	
 	@Test
 	public void testIsOwnerOfDashboard_noDashFound() {
-		when(dashboardRepository.findOne(any(ObjectId.class))).thenReturn(null);
+		when(dashboardOwnerRepository.findOwnershipById(any(ObjectId.class))).thenReturn(null);
 		
 		assertFalse(handler.isOwnerOfDashboard(new ObjectId()));
 	}
@@ -54,7 +60,7 @@ public class MethodLevelSecurityHandlerTest {
 		List<String> activeWidgets = new ArrayList<>();
 		Dashboard dashboard = new Dashboard("team", "title", null, null, DashboardType.Team, configItemAppName,configItemComponentName,activeWidgets, false, ScoreDisplayType.HEADER);
 		dashboard.setOwner(USERNAME);
-		when(dashboardRepository.findOne(any(ObjectId.class))).thenReturn(dashboard);
+		when(dashboardOwnerRepository.findOwnershipById(any(ObjectId.class))).thenReturn(dashboard);
 		
 		assertTrue(handler.isOwnerOfDashboard(new ObjectId()));
 	}
@@ -66,7 +72,7 @@ public class MethodLevelSecurityHandlerTest {
 		List<Owner> owners = new ArrayList<>();
 		owners.add(new Owner(USERNAME, AuthType.STANDARD));
 		Dashboard dashboard = new Dashboard("team", "title", null, owners, DashboardType.Team, configItemAppName,configItemComponentName,activeWidgets, false, ScoreDisplayType.HEADER);
-		when(dashboardRepository.findOne(any(ObjectId.class))).thenReturn(dashboard);
+		when(dashboardOwnerRepository.findOwnershipById(any(ObjectId.class))).thenReturn(dashboard);
 		
 		assertTrue(handler.isOwnerOfDashboard(new ObjectId()));
 	}
@@ -77,11 +83,27 @@ public class MethodLevelSecurityHandlerTest {
 		List<String> activeWidgets = new ArrayList<>();
 		Dashboard dashboard = new Dashboard("team", "title", null, null, DashboardType.Team,configItemAppName,configItemComponentName,activeWidgets, false, ScoreDisplayType.HEADER);
 		dashboard.setOwner(SOME_OTHER_USER);
-		when(dashboardRepository.findOne(any(ObjectId.class))).thenReturn(dashboard);
+		when(dashboardOwnerRepository.findOwnershipById(any(ObjectId.class))).thenReturn(dashboard);
 		
 		assertFalse(handler.isOwnerOfDashboard(new ObjectId()));
 	}
 	
+	@Test
+	public void testIsOwnerOfDashboard_ownershipCached() {
+		initiateSecurityContext();
+		when(settings.getDashboardOwnerCacheTtlMillis()).thenReturn(60000L);
+		List<Owner> owners = new ArrayList<>();
+		owners.add(new Owner(USERNAME, AuthType.STANDARD));
+		Dashboard dashboard = new Dashboard("team", "title", null, owners, DashboardType.Team, configItemAppName,configItemComponentName,new ArrayList<>(), false, ScoreDisplayType.HEADER);
+		ObjectId dashboardId = new ObjectId();
+		when(dashboardOwnerRepository.findOwnershipById(dashboardId)).thenReturn(dashboard);
+
+		assertTrue(handler.isOwnerOfDashboard(dashboardId));
+		assertTrue(handler.isOwnerOfDashboard(dashboardId));
+
+		verify(dashboardOwnerRepository, times(1)).findOwnershipById(dashboardId);
+	}
+	
 	private void initiateSecurityContext() {
 		AuthenticationFixture.createAuthentication(USERNAME);
 	}
@@ -4,6 +4,7 @@ package com.capitalone.dashboard.config;
 import com.capitalone.dashboard.auth.AuthenticationResponseService;
 import com.capitalone.dashboard.repository.ApiTokenRepository;
 import com.capitalone.dashboard.repository.AuthenticationRepository;
+import com.capitalone.dashboard.repository.DashboardOwnerRepository;
 import com.capitalone.dashboard.repository.DashboardRepository;
 import com.capitalone.dashboard.repository.UserInfoRepository;
 
@@ -23,6 +24,7 @@ import com.capitalone.dashboard.service.CollectorService;
 import com.capitalone.dashboard.service.CommitService;
 import com.capitalone.dashboard.service.ConfigurationService;
 import com.capitalone.dashboard.service.DashboardRemoteService;
+import com.capitalone.dashboard.service.DashboardOwnershipCache;
 import com.capitalone.dashboard.service.DashboardService;
 import com.capitalone.dashboard.service.DefaultAuthenticationServiceImpl;
 import com.capitalone.dashboard.service.DeployService;
@@ -42,6 +44,7 @@ import com.capitalone.dashboard.service.TemplateService;
 import com.capitalone.dashboard.service.TestResultService;
 import com.capitalone.dashboard.service.UserInfoService;
 import com.capitalone.dashboard.service.UserInfoServiceImpl;
+import com.capitalone.dashboard.settings.ApiSettings;
 
 import com.capitalone.dashboard.service.*;
 
@@ -61,6 +64,16 @@ public class TestAuthConfig {
         return Mockito.mock(DashboardRepository.class);
     }
 
+    @Bean
+    public DashboardOwnerRepository dashboardOwnerRepository() {
+        return Mockito.mock(DashboardOwnerRepository.class);
+    }
+
+    @Bean
+    public DashboardOwnershipCache dashboardOwnershipCache() {
+        return new DashboardOwnershipCache(dashboardOwnerRepository(), new ApiSettings());
+    }
+
     @Bean
     public AuthenticationRepository authenticationRepository() {
         return Mockito.mock(AuthenticationRepository.class);
@@ -83,7 +96,7 @@ public class TestAuthConfig {
 
     @Bean
     public ApiTokenService apiTokenService() {
-        return new ApiTokenServiceImpl(apiTokenRepository(),userInfoRepository());
+        return new ApiTokenServiceImpl(apiTokenRepository(),userInfoRepository(), new ApiSettings());
     }
 
     @Bean
@@ -33,6 +33,7 @@ import com.capitalone.dashboard.service.TeamService;
 import com.capitalone.dashboard.service.TestResultService;
 import com.capitalone.dashboard.service.UserInfoService;
 
+import com.capitalone.dashboard.settings.ApiSettings;
 import com.capitalone.dashboard.util.PaginationHeaderUtility;
 
 
@@ -252,4 +253,11 @@ public class TestConfig {
     @Bean
     public ServiceAccountService serviceAccountService() {return Mockito.mock(ServiceAccountService.class);}
 
+    @Bean
+    public ApiSettings apiSettings() {
+        ApiSettings settings = new ApiSettings();
+        settings.setMaxPageSize(1000);
+        return settings;
+    }
+
 }
@@ -8,6 +8,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 
 import com.capitalone.dashboard.repository.AuthenticationRepository;
+import com.capitalone.dashboard.repository.DashboardOwnerRepository;
 import com.capitalone.dashboard.repository.DashboardRepository;
 import com.capitalone.dashboard.repository.UserInfoRepository;
 
@@ -24,6 +25,7 @@ import com.capitalone.dashboard.service.CollectorService;
 import com.capitalone.dashboard.service.CommitService;
 import com.capitalone.dashboard.service.ConfigurationService;
 import com.capitalone.dashboard.service.BusCompOwnerService;
+import com.capitalone.dashboard.service.DashboardOwnershipCache;
 import com.capitalone.dashboard.service.DashboardService;
 import com.capitalone.dashboard.service.DefaultAuthenticationServiceImpl;
 import com.capitalone.dashboard.service.DeployService;
@@ -37,6 +39,7 @@ import com.capitalone.dashboard.service.TeamService;
 import com.capitalone.dashboard.service.TestResultService;
 import com.capitalone.dashboard.service.UserInfoService;
 import com.capitalone.dashboard.service.UserInfoServiceImpl;
+import com.capitalone.dashboard.settings.ApiSettings;
 
 import com.capitalone.dashboard.util.PaginationHeaderUtility;
 
@@ -50,6 +53,16 @@ import com.capitalone.dashboard.util.PaginationHeaderUtility;
  		return Mockito.mock(DashboardRepository.class);
  	}
 
+ 	@Bean
+ 	public DashboardOwnerRepository dashboardOwnerRepository() {
+ 		return Mockito.mock(DashboardOwnerRepository.class);
+ 	}
+
+ 	@Bean
+ 	public DashboardOwnershipCache dashboardOwnershipCache() {
+ 		return new DashboardOwnershipCache(dashboardOwnerRepository(), new ApiSettings());
+ 	}
+
  	@Bean
  	public AuthenticationRepository authenticationRepository() {
  		return Mockito.mock(AuthenticationRepository.class);
@@ -72,7 +85,7 @@ import com.capitalone.dashboard.util.PaginationHeaderUtility;
 
 	 @Bean
 	 public ApiTokenService apiTokenService() {
-		 return new ApiTokenServiceImpl(apiTokenRepository(),userInfoRepository());
+		 return new ApiTokenServiceImpl(apiTokenRepository(),userInfoRepository(), new ApiSettings());
 	 }
  	
  	@Bean
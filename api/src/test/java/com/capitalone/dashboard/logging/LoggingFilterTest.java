@@ -22,14 +22,13 @@ import org.springframework.http.HttpMethod;
 
 import com.capitalone.dashboard.settings.ApiSettings;
 import com.capitalone.dashboard.model.RequestLog;
-import com.capitalone.dashboard.repository.RequestLogRepository;
 
 
 @RunWith(MockitoJUnitRunner.class)
 public class LoggingFilterTest {
 
     @Mock
-    private RequestLogRepository requestLogRepository;
+    private RequestLogWriter requestLogWriter;
 
     @Mock
     private Logger logger;
@@ -48,12 +47,12 @@ public class LoggingFilterTest {
         when(httpServletRequest.getRequestURI()).thenReturn("Success");
         when(httpServletRequest.getMethod()).thenReturn(HttpMethod.PUT.toString());
         
-        when(requestLogRepository.save(any(RequestLog.class))).thenReturn(new RequestLog());
+        when(requestLogWriter.isBodySampled()).thenReturn(true);
         when(httpServletRequest.getContentType()).thenReturn("application/json;charset=UTF-8");
         when(httpServletResponse.getContentType()).thenReturn("application/json;charset=UTF-8");
         loggingFilter.doFilter(httpServletRequest, httpServletResponse,
                 filterChain);
-        verify(requestLogRepository, times(1)).save(any(RequestLog.class));
+        verify(requestLogWriter, times(1)).write(any(RequestLog.class), any(String.class), any(String.class));
     }
 
 
@@ -65,13 +64,13 @@ public class LoggingFilterTest {
         when(httpServletRequest.getInputStream()).thenReturn(Mockito.mock(ServletInputStream.class));
         when(httpServletRequest.getRequestURI()).thenReturn("Success");
         when(httpServletRequest.getMethod()).thenReturn(HttpMethod.GET.toString());
-        when(requestLogRepository.save(any(RequestLog.class))).thenReturn(new RequestLog());
+        when(requestLogWriter.isBodySampled()).thenReturn(true);
         when(httpServletRequest.getContentType()).thenReturn("application/json;charset=UTF-8");
         when(httpServletResponse.getContentType()).thenReturn("application/json;charset=UTF-8");
         
         loggingFilter.doFilter(httpServletRequest, httpServletResponse,
                 filterChain);
-        verify(requestLogRepository, times(0)).save(any(RequestLog.class));
+        verify(requestLogWriter, times(0)).write(any(RequestLog.class), any(String.class), any(String.class));
     }
 
 
@@ -83,13 +82,13 @@ public class LoggingFilterTest {
         when(httpServletRequest.getInputStream()).thenReturn(Mockito.mock(ServletInputStream.class));
         when(httpServletRequest.getRequestURI()).thenReturn("Success");
         when(httpServletRequest.getMethod()).thenReturn(HttpMethod.POST.toString());
-        when(requestLogRepository.save(any(RequestLog.class))).thenReturn(new RequestLog());
+        when(requestLogWriter.isBodySampled()).thenReturn(true);
         when(httpServletRequest.getContentType()).thenReturn("application/json;charset=UTF-8");
         when(httpServletResponse.getContentType()).thenReturn("application/json;charset=UTF-8");
         
         loggingFilter.doFilter(httpServletRequest, httpServletResponse,
                 filterChain);
-        verify(requestLogRepository, times(1)).save(any(RequestLog.class));
+        verify(requestLogWriter, times(1)).write(any(RequestLog.class), any(String.class), any(String.class));
     }
 
 
@@ -102,13 +101,13 @@ public class LoggingFilterTest {
         when(httpServletRequest.getInputStream()).thenReturn(Mockito.mock(ServletInputStream.class));
         when(httpServletRequest.getRequestURI()).thenReturn("Success");
         when(httpServletRequest.getMethod()).thenReturn(HttpMethod.DELETE.toString());
-        when(requestLogRepository.save(any(RequestLog.class))).thenReturn(new RequestLog());
+        when(requestLogWriter.isBodySampled()).thenReturn(true);
         when(httpServletRequest.getContentType()).thenReturn("application/json;charset=UTF-8");
         when(httpServletResponse.getContentType()).thenReturn("application/json;charset=UTF-8");
         
         loggingFilter.doFilter(httpServletRequest, httpServletResponse,
                 filterChain);
-        verify(requestLogRepository, times(1)).save(any(RequestLog.class));
+        verify(requestLogWriter, times(1)).write(any(RequestLog.class), any(String.class), any(String.class));
     }
 
 }
\ No newline at end of file
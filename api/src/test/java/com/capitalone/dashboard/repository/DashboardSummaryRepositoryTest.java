@@ -0,0 +1,126 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.AuthType;
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardType;
+import com.capitalone.dashboard.model.Owner;
+import com.capitalone.dashboard.model.ScoreDisplayType;
+import com.capitalone.dashboard.model.Widget;
+import com.capitalone.dashboard.testutil.FongoConfig;
+import com.github.fakemongo.junit.FongoRule;
+import org.apache.commons.collections4.CollectionUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {FongoConfig.class})
+@DirtiesContext
+public class DashboardSummaryRepositoryTest {
+
+    @Rule
+    public FongoRule fongoRule = new FongoRule();
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Autowired
+    private DashboardSummaryRepository dashboardSummaryRepository;
+
+    private Dashboard teamAlpha;
+
+    @Before
+    public void setup() {
+        dashboardRepository.deleteAll();
+        teamAlpha = dashboardRepository.save(makeDashboard("Team Alpha", DashboardType.Team, new Owner("alice", AuthType.STANDARD)));
+        dashboardRepository.save(makeDashboard("alpha.beta", DashboardType.Team, new Owner("bob", AuthType.LDAP), new Owner("alice", AuthType.LDAP)));
+        dashboardRepository.save(makeDashboard("alphaXbeta", DashboardType.Product, new Owner("alice", AuthType.STANDARD)));
+    }
+
+    @Test
+    public void countsByTypeAndTitleIgnoringCase() {
+        assertEquals(3, dashboardSummaryRepository.countByTitle(Pattern.quote("ALPHA")));
+        assertEquals(2, dashboardSummaryRepository.countByType(Pattern.quote("team")));
+        assertEquals(1, dashboardSummaryRepository.countByTypeAndTitle(Pattern.quote("product"), Pattern.quote("beta")));
+        assertEquals(3, dashboardSummaryRepository.countByTitle(""));
+    }
+
+    @Test
+    public void quotedTitleMatchesLiterally() {
+        assertEquals(1, dashboardSummaryRepository.countByTitle(Pattern.quote("alpha.beta")));
+        assertEquals(0, dashboardSummaryRepository.countByTitle(Pattern.quote("alpha(")));
+        assertEquals(Arrays.asList("alpha.beta"), titles(dashboardSummaryRepository.findSummariesByTitle(Pattern.quote("a.b"), byTitle())));
+    }
+
+    @Test
+    public void ownerMatchesUsernameAndAuthTypeOfTheSameOwner() {
+        assertEquals(2, dashboardSummaryRepository.countByOwner("alice", AuthType.STANDARD.name()));
+        assertEquals(1, dashboardSummaryRepository.countByOwner("alice", AuthType.LDAP.name()));
+        assertEquals(0, dashboardSummaryRepository.countByOwner("bob", AuthType.STANDARD.name()));
+        assertEquals(1, dashboardSummaryRepository.countByOwnerAndType("alice", AuthType.STANDARD.name(), Pattern.quote("team")));
+        assertEquals(1, dashboardSummaryRepository.countByOwnerAndTitle("alice", AuthType.LDAP.name(), Pattern.quote("alpha")));
+        assertEquals(0, dashboardSummaryRepository.countByOwnerAndTypeAndTitle("alice", AuthType.STANDARD.name(), Pattern.quote("team"), Pattern.quote("beta")));
+
+        assertEquals(Arrays.asList("Team Alpha", "alphaXbeta"),
+                titles(dashboardSummaryRepository.findSummariesByOwner("alice", AuthType.STANDARD.name(), byTitle())));
+        assertEquals(Arrays.asList("alpha.beta"),
+                titles(dashboardSummaryRepository.findSummariesByOwnerAndTypeAndTitle("bob", AuthType.LDAP.name(), Pattern.quote("team"), "", byTitle())));
+    }
+
+    @Test
+    public void summariesArePagedWithoutWidgets() {
+        Page<Dashboard> page = dashboardSummaryRepository.findSummaries(new PageRequest(0, 2, new Sort("title")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(Arrays.asList("Team Alpha", "alpha.beta"), titles(page));
+
+        Dashboard summary = page.getContent().get(0);
+        assertEquals(teamAlpha.getId(), summary.getId());
+        assertEquals(DashboardType.Team, summary.getType());
+        assertEquals("alice", summary.getOwners().get(0).getUsername());
+        assertEquals("appName", summary.getConfigurationItemBusServName());
+        assertEquals(1, dashboardRepository.findOne(teamAlpha.getId()).getWidgets().size());
+        assertTrue(CollectionUtils.isEmpty(summary.getWidgets()));
+    }
+
+    @Test
+    public void summariesByType() {
+        assertEquals(Arrays.asList("alphaXbeta"), titles(dashboardSummaryRepository.findSummariesByType(Pattern.quote("PRODUCT"), byTitle())));
+        assertEquals(Arrays.asList("Team Alpha", "alpha.beta"),
+                titles(dashboardSummaryRepository.findSummariesByTypeAndTitle(Pattern.quote("team"), Pattern.quote("alpha"), byTitle())));
+    }
+
+    private static PageRequest byTitle() {
+        return new PageRequest(0, 10, new Sort("title"));
+    }
+
+    private static List<String> titles(Page<Dashboard> page) {
+        return page.getContent().stream().map(Dashboard::getTitle).collect(Collectors.toList());
+    }
+
+    private static Dashboard makeDashboard(String title, DashboardType type, Owner... owners) {
+        Dashboard dashboard = new Dashboard("template", title, null, new ArrayList<>(Arrays.asList(owners)), type,
+                "appName", "compName", new ArrayList<>(), false, ScoreDisplayType.HEADER);
+        Widget widget = new Widget();
+        widget.setName("build");
+        dashboard.getWidgets().add(widget);
+        return dashboard;
+    }
+}
@@ -24,8 +24,11 @@ import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -417,6 +420,22 @@ public class DashboardControllerTest {
           .andExpect(status().isOk());
     }
 
+    @Test
+    public void dashboardByPageCapsPageSize() throws Exception {
+        Dashboard d1 = makeDashboard("t1", "title", "app", "comp","amit", DashboardType.Team, configItemAppName, configItemComponentName);
+        when(dashboardService.findDashboardsByPage(Matchers.eq("team"), Matchers.any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(d1)));
+
+        mockMvc.perform(get("/dashboard/page?type=team&page=2&size=5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(dashboardService).findDashboardsByPage(Matchers.eq("team"), pageable.capture());
+        assertThat(pageable.getValue().getPageNumber(), is(2));
+        assertThat(pageable.getValue().getPageSize(), is(1000));
+    }
+
     
     private DashboardRequestTitle makeDashboardRequestTitle(String title) {
         DashboardRequestTitle request = new DashboardRequestTitle();
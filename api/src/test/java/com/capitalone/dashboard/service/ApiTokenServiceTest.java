@@ -1,17 +1,30 @@
 package com.capitalone.dashboard.service;
 
 import com.capitalone.dashboard.model.ApiToken;
+import com.capitalone.dashboard.model.UserInfo;
+import com.capitalone.dashboard.model.UserRole;
 import com.capitalone.dashboard.repository.ApiTokenRepository;
+import com.capitalone.dashboard.repository.UserInfoRepository;
+import com.capitalone.dashboard.settings.ApiSettings;
 import com.google.common.collect.Sets;
+import org.bson.types.ObjectId;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.util.Collection;
+import java.util.Collections;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -20,6 +33,12 @@ public class ApiTokenServiceTest {
     @Mock
     private ApiTokenRepository apiTokenRepository;
 
+    @Mock
+    private UserInfoRepository userInfoRepository;
+
+    @Mock
+    private ApiSettings settings;
+
     @InjectMocks
     private ApiTokenServiceImpl service;
 
@@ -35,4 +54,83 @@ public class ApiTokenServiceTest {
         assertTrue(result.contains(apiToken));
         assertTrue(result.size() == 1);
     }
+
+    @Test
+    public void shouldCacheAuthentication() {
+        enableCache();
+        ApiToken apiToken = apiToken("somesys", "key");
+
+        Authentication first = service.authenticate("somesys", "key");
+        Authentication second = service.authenticate("somesys", "key");
+
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        verify(apiTokenRepository, times(1)).findByApiUser("somesys");
+        verify(apiToken, times(1)).checkApiKey("key");
+        assertEquals(1, service.getCacheHitCount());
+        assertEquals(1, service.getCacheMissCount());
+    }
+
+    @Test
+    public void shouldReadRolesOnEveryRequest() {
+        enableCache();
+        apiToken("somesys", "key");
+        UserInfo user = mock(UserInfo.class);
+        when(user.getAuthorities()).thenReturn(Collections.singletonList(UserRole.ROLE_ADMIN), Collections.<UserRole>emptyList());
+        when(userInfoRepository.findByUsername("somesys")).thenReturn(user);
+
+        Authentication admin = service.authenticate("somesys", "key");
+        Authentication revoked = service.authenticate("somesys", "key");
+
+        assertTrue(admin.getAuthorities().contains(new SimpleGrantedAuthority(UserRole.ROLE_ADMIN.name())));
+        assertFalse(revoked.getAuthorities().contains(new SimpleGrantedAuthority(UserRole.ROLE_ADMIN.name())));
+        assertTrue(revoked.getAuthorities().contains(new SimpleGrantedAuthority(UserRole.ROLE_API.name())));
+        verify(apiTokenRepository, times(1)).findByApiUser("somesys");
+        assertEquals(1, service.getCacheHitCount());
+    }
+
+    @Test
+    public void shouldInvalidateCacheOnDelete() {
+        enableCache();
+        ApiToken apiToken = apiToken("somesys", "key");
+        ObjectId id = ObjectId.get();
+        when(apiTokenRepository.findOne(id)).thenReturn(apiToken);
+
+        service.authenticate("somesys", "key");
+        service.deleteToken(id);
+
+        assertEquals(0, service.getCacheSize());
+        service.authenticate("somesys", "key");
+        verify(apiTokenRepository, times(2)).findByApiUser("somesys");
+    }
+
+    @Test
+    public void shouldNotCacheWhenTokenChangesDuringCheck() {
+        enableCache();
+        ApiToken apiToken = apiToken("somesys", "key");
+        ObjectId id = ObjectId.get();
+        when(apiTokenRepository.findOne(id)).thenReturn(apiToken);
+        when(apiTokenRepository.findByApiUser("somesys")).thenAnswer(invocation -> {
+            // the token is deleted after it was read but before the check completes
+            service.deleteToken(id);
+            return Collections.singletonList(apiToken);
+        });
+
+        service.authenticate("somesys", "key");
+
+        assertEquals(0, service.getCacheSize());
+    }
+
+    private void enableCache() {
+        when(settings.getApiTokenCacheTtlMillis()).thenReturn(60000L);
+        when(settings.getApiTokenCacheSize()).thenReturn(10);
+    }
+
+    private ApiToken apiToken(String apiUser, String key) {
+        ApiToken apiToken = mock(ApiToken.class);
+        when(apiToken.getApiUser()).thenReturn(apiUser);
+        when(apiToken.checkApiKey(key)).thenReturn(true);
+        when(apiToken.getExpirationDt()).thenReturn(System.currentTimeMillis() + 3600000L);
+        when(apiTokenRepository.findByApiUser(apiUser)).thenReturn(Collections.singletonList(apiToken));
+        return apiToken;
+    }
 }
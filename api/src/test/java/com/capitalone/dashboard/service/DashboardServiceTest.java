@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -43,6 +44,7 @@ import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.CustomRepositoryQuery;
 import com.capitalone.dashboard.repository.DashboardRepository;
+import com.capitalone.dashboard.repository.DashboardSummaryRepository;
 import com.capitalone.dashboard.repository.ServiceRepository;
 import com.capitalone.dashboard.repository.UserInfoRepository;
 import com.google.common.collect.Iterables;
@@ -57,6 +59,8 @@ public class DashboardServiceTest {
     @Mock
     private DashboardRepository dashboardRepository;
     @Mock
+    private DashboardSummaryRepository dashboardSummaryRepository;
+    @Mock
     private ComponentRepository componentRepository;
     @Mock
     private CollectorRepository collectorRepository;
@@ -76,6 +80,8 @@ public class DashboardServiceTest {
     private Dashboard myDashboard;
     @Mock
     private ScoreDashboardService scoreDashboardService;
+    @Mock
+    private DashboardOwnershipCache dashboardOwnershipCache;
 
     @InjectMocks
     private DashboardServiceImpl dashboardService;
@@ -513,6 +519,7 @@ public class DashboardServiceTest {
         verify(serviceRepository).delete(services);
         verify(serviceRepository).save(depService);
         verify(dashboardRepository).delete(expected);
+        verify(dashboardOwnershipCache).invalidate(id);
 
         assertThat(depService.getDependedBy(), not(contains(id)));
     }
@@ -749,6 +756,7 @@ public class DashboardServiceTest {
     	
     	verify(dashboardRepository).findOne(eq(dashboard.getId()));
     	verify(dashboardRepository).save(eq(dashboard));
+    	verify(dashboardOwnershipCache).invalidate(dashboard.getId());
     }
     @Test
     public void updateDashboardBusinessItems() throws HygieiaException{
@@ -795,16 +803,28 @@ public class DashboardServiceTest {
     public void getDashboardByTitleWithFilter() throws HygieiaException{
         Dashboard myDashboard = makeTeamDashboard("template", "title", "appName", "amit",null, null, "comp1", "comp2");
         Page<Dashboard> pagedDashboards = new PageImpl<Dashboard>(Stream.of(myDashboard).collect(Collectors.toList()));
-        when(dashboardRepository.findAllByTitleContainingIgnoreCase(any(String.class),any(Pageable.class) )).thenReturn(pagedDashboards);
+        when(dashboardSummaryRepository.findSummariesByTitle(Pattern.quote("title"), null)).thenReturn(pagedDashboards);
         assertNotNull(dashboardService.getDashboardByTitleWithFilter("title", "", null));
     }
 
     @Test
     public void getAllDashboardsByTitleCount() throws HygieiaException{
-        Dashboard myDashboard = makeTeamDashboard("template", "title", "appName", "amit",null, null, "comp1", "comp2");
-        Page<Dashboard> pagedDashboards = new PageImpl<Dashboard>(Stream.of(myDashboard).collect(Collectors.toList()));
-        when(dashboardRepository.findAllByTitleContainingIgnoreCase(any(String.class))).thenReturn(Stream.of(myDashboard).collect(Collectors.toList()));
+        when(dashboardSummaryRepository.countByTitle(Pattern.quote("title"))).thenReturn(1L);
         assertEquals(new Integer(dashboardService.getAllDashboardsByTitleCount("title","")),new Integer(1));
+        verify(dashboardRepository, never()).findAllByTitleContainingIgnoreCase(any(String.class));
+    }
+
+    @Test
+    public void getAllDashboardsByTitleCount_escapesTitle() {
+        when(dashboardSummaryRepository.countByTypeAndTitle(Pattern.quote("Team"), Pattern.quote("a.b"))).thenReturn(2L);
+        assertEquals(new Integer(2), dashboardService.getAllDashboardsByTitleCount("a.b", "Team"));
+    }
+
+    @Test
+    public void count_escapesType() {
+        when(dashboardSummaryRepository.countByType(Pattern.quote("Team("))).thenReturn(3L);
+        assertEquals(3L, dashboardService.count("Team("));
+        verify(dashboardRepository, never()).count();
     }
 
     @Test
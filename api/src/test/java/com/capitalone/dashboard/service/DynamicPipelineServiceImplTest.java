@@ -18,6 +18,7 @@ import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -289,6 +290,123 @@ public class DynamicPipelineServiceImplTest {
 		assertNotNull(pcs.get("A"));
 	}
 
+	@Test
+	public void testSearchIncremental() {
+		CollectorItem pipelineCI = setupPipelineCollectorItem();
+		CollectorItem scmCI = setupScmCollectorItem();
+		Component component = setupComponent(scmCI);
+		Dashboard dashboard = setupDashboard(component);
+		Pipeline pipeline = createEmptyPipeline();
+
+		long now = System.currentTimeMillis();
+		List<Commit> commits = new ArrayList<>();
+		commits.add(createCommit("A", now - 3000));
+		commits.add(createCommit("B", now - 2000, "A"));
+		List<Build> builds = Collections.singletonList(createBuild("1", now - 1500, now - 1400, BuildStatus.Success, "B"));
+		List<Environment> environments = Collections.singletonList(createEnvironment(ENV_NAME1, ENV_URL1, "helloworld", "1.0.0", now - 1000));
+		BinaryArtifact binaryArtifact = createBinaryArtifact("helloworld", "1.0.0", "1", "B");
+
+		Mockito.when(apiSettings.isPipelineIncrementalUpdates()).thenReturn(true);
+		Mockito.when(apiSettings.getPipelineFullRefreshMinutes()).thenReturn(60);
+		Mockito.when(apiSettings.getPipelineUpdateOverlapMinutes()).thenReturn(0);
+		Mockito.when(pipelineRepository.findByCollectorItemId(Mockito.eq(COLLECTOR_ITEM_PIPELINE_ID))).thenReturn(pipeline);
+		Mockito.when(collectorItemRepository.findOne(Mockito.eq(COLLECTOR_ITEM_PIPELINE_ID))).thenReturn(pipelineCI);
+		Mockito.when(dashboardRepository.findOne(Mockito.eq(DASHBOARD_ID))).thenReturn(dashboard);
+		Mockito.when(commitService.search(Mockito.any(CommitRequest.class))).then(invocation -> {
+			CommitRequest request = (CommitRequest)invocation.getArguments()[0];
+			List<Commit> rt = new ArrayList<>();
+			commits.stream().filter(c -> c.getScmCommitTimestamp() >= request.getCommitDateBegins()).forEach(rt::add);
+			return new DataResponse<Iterable<Commit>>(rt, 0);
+		});
+		Mockito.when(buildService.search(Mockito.any(BuildSearchRequest.class))).thenReturn(new DataResponse<>(builds, 0));
+		Mockito.when(deployService.getDeployStatus(Mockito.eq(COMPONENT_ID))).thenReturn(new DataResponse<>(environments, 0));
+		Mockito.when(binaryArtifactService.search(Mockito.any(BinaryArtifactSearchRequest.class)))
+				.thenReturn(new DataResponse<>(Collections.singleton(binaryArtifact), 0));
+
+		PipelineSearchRequest request = new PipelineSearchRequest();
+		request.setCollectorItemId(Collections.singletonList(COLLECTOR_ITEM_PIPELINE_ID));
+
+		service.search(request);
+		Mockito.verify(pipelineRepository, Mockito.times(1)).save(pipeline);
+
+		// nothing changed so the pipeline is neither recomputed nor saved and artifacts are not looked up again
+		service.search(request);
+		Mockito.verify(pipelineRepository, Mockito.times(1)).save(pipeline);
+		Mockito.verify(binaryArtifactService, Mockito.times(1)).search(Mockito.any(BinaryArtifactSearchRequest.class));
+
+		commits.add(createCommit("C", now - 500, "B"));
+		PipelineResponse response = service.search(request).iterator().next();
+		Mockito.verify(pipelineRepository, Mockito.times(2)).save(pipeline);
+
+		ArgumentCaptor<CommitRequest> commitRequests = ArgumentCaptor.forClass(CommitRequest.class);
+		Mockito.verify(commitService, Mockito.times(3)).search(commitRequests.capture());
+		assertEquals(Long.valueOf(now - 2000), commitRequests.getValue().getCommitDateBegins());
+
+		Map<String, PipelineResponseCommit> prcMap = prcRevisionMap(response.getStageCommits(PipelineStage.COMMIT));
+		assertEquals(3, prcMap.size());
+		assertNotNull(prcMap.get("C"));
+
+		prcMap = prcRevisionMap(response.getStageCommits(PipelineStage.valueOf("dev")));
+		assertEquals(2, prcMap.size());
+		assertNotNull(prcMap.get("B"));
+	}
+
+	@Test
+	public void testSearchIncrementalRefetchesRunningBuilds() {
+		CollectorItem pipelineCI = setupPipelineCollectorItem();
+		CollectorItem scmCI = setupScmCollectorItem();
+		Component component = setupComponent(scmCI);
+		Dashboard dashboard = setupDashboard(component);
+		Pipeline pipeline = createEmptyPipeline();
+
+		long now = System.currentTimeMillis();
+		List<Commit> commits = new ArrayList<>();
+		commits.add(createCommit("A", now - 60000));
+		commits.add(createCommit("B", now - 50000, "A"));
+		Build running = createBuild("1", now - 40000, 0, BuildStatus.InProgress, "A");
+		List<Build> builds = new ArrayList<>();
+		builds.add(running);
+		builds.add(createBuild("2", now - 1000, now - 500, BuildStatus.Success, "B"));
+
+		Mockito.when(apiSettings.isPipelineIncrementalUpdates()).thenReturn(true);
+		Mockito.when(apiSettings.getPipelineFullRefreshMinutes()).thenReturn(60);
+		Mockito.when(apiSettings.getPipelineUpdateOverlapMinutes()).thenReturn(0);
+		Mockito.when(pipelineRepository.findByCollectorItemId(Mockito.eq(COLLECTOR_ITEM_PIPELINE_ID))).thenReturn(pipeline);
+		Mockito.when(collectorItemRepository.findOne(Mockito.eq(COLLECTOR_ITEM_PIPELINE_ID))).thenReturn(pipelineCI);
+		Mockito.when(dashboardRepository.findOne(Mockito.eq(DASHBOARD_ID))).thenReturn(dashboard);
+		Mockito.when(commitService.search(Mockito.any(CommitRequest.class))).thenReturn(new DataResponse<Iterable<Commit>>(commits, 0));
+		Mockito.when(buildService.search(Mockito.any(BuildSearchRequest.class))).then(invocation -> {
+			BuildSearchRequest request = (BuildSearchRequest)invocation.getArguments()[0];
+			List<Build> rt = new ArrayList<>();
+			builds.stream().filter(b -> b.getStartTime() >= request.getStartDateBegins()).forEach(rt::add);
+			return new DataResponse<Iterable<Build>>(rt, 0);
+		});
+		Mockito.when(deployService.getDeployStatus(Mockito.eq(COMPONENT_ID))).thenReturn(new DataResponse<>(Collections.emptyList(), 0));
+
+		PipelineSearchRequest request = new PipelineSearchRequest();
+		request.setCollectorItemId(Collections.singletonList(COLLECTOR_ITEM_PIPELINE_ID));
+
+		service.search(request);
+		Mockito.verify(pipelineRepository, Mockito.times(1)).save(pipeline);
+
+		// the older build finishes after the newer one started
+		Build finished = createBuild("1", now - 40000, now - 100, BuildStatus.Failure, "A");
+		finished.setId(running.getId());
+		builds.set(0, finished);
+		service.search(request);
+		Mockito.verify(pipelineRepository, Mockito.times(2)).save(pipeline);
+
+		ArgumentCaptor<BuildSearchRequest> buildRequests = ArgumentCaptor.forClass(BuildSearchRequest.class);
+		Mockito.verify(buildService, Mockito.times(2)).search(buildRequests.capture());
+		assertEquals(Long.valueOf(now - 40000), buildRequests.getValue().getStartDateBegins());
+
+		// once finished it is no longer fetched again
+		service.search(request);
+		Mockito.verify(pipelineRepository, Mockito.times(2)).save(pipeline);
+		Mockito.verify(buildService, Mockito.times(3)).search(buildRequests.capture());
+		assertEquals(Long.valueOf(now - 1000), buildRequests.getValue().getStartDateBegins());
+	}
+
 	// Basic test for processing the commit portion of the pipeline
 	@Test
 	public void testProcessCommitsForGit() {
@@ -111,6 +111,11 @@ cat >> $PROP_FILE <<EOF
 
 # Artifactory REST endpoint
 artifactory.endpoint=${ARTIFACTORY_ENDPOINT:-artifactory/}
+
+# Number of items fetched per AQL query, sorted by modified time, in repo based mode.
+# 0 fetches the new items of a repo in one query. Paging needs an Artifactory version that
+# allows sort, offset and limit together with the property fields.
+artifactory.aqlPageSize=${ARTIFACTORY_AQL_PAGE_SIZE:-0}
 EOF
 
 echo "
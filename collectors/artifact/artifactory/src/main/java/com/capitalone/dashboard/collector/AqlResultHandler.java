@@ -0,0 +1,108 @@
+package com.capitalone.dashboard.collector;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ContentHandler;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Parses an AQL response and hands each item of its {@code results} to a consumer as soon as the item is parsed,
+ * so the items never have to be held together in one tree.
+ */
+class AqlResultHandler implements ContentHandler {
+	private static final String RESULTS = "results";
+
+	private final Consumer<JSONObject> consumer;
+	// the objects and arrays being built, with the key of each object entry on top of its object
+	private final Deque<Object> stack = new ArrayDeque<>();
+	private JSONArray results;
+	private int count;
+
+	AqlResultHandler(Consumer<JSONObject> consumer) {
+		this.consumer = consumer;
+	}
+
+	/**
+	 * @return the number of items handed to the consumer
+	 */
+	int getCount() {
+		return count;
+	}
+
+	@Override
+	public void startJSON() {
+		stack.clear();
+		results = null;
+		count = 0;
+	}
+
+	@Override
+	public void endJSON() {
+		// nothing to do, the items were handed over as they were parsed
+	}
+
+	@Override
+	public boolean startObject() {
+		stack.push(new JSONObject());
+		return true;
+	}
+
+	@Override
+	public boolean endObject() {
+		add(stack.pop());
+		return true;
+	}
+
+	@Override
+	public boolean startObjectEntry(String key) {
+		stack.push(key);
+		return true;
+	}
+
+	@Override
+	public boolean endObjectEntry() {
+		return true;
+	}
+
+	@Override
+	public boolean startArray() {
+		JSONArray array = new JSONArray();
+		if (results == null && stack.size() == 2 && RESULTS.equals(stack.peek())) {
+			results = array;
+		}
+		stack.push(array);
+		return true;
+	}
+
+	@Override
+	public boolean endArray() {
+		add(stack.pop());
+		return true;
+	}
+
+	@Override
+	public boolean primitive(Object value) {
+		add(value);
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void add(Object value) {
+		if (stack.isEmpty()) {
+			return;
+		}
+		Object top = stack.peek();
+		if (top instanceof String) {
+			String key = (String) stack.pop();
+			((JSONObject) stack.peek()).put(key, value);
+		} else if (top == results && value instanceof JSONObject) {
+			count++;
+			consumer.accept((JSONObject) value);
+		} else if (top instanceof JSONArray) {
+			((JSONArray) top).add(value);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.capitalone.dashboard.collector;
 
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import com.capitalone.dashboard.model.ArtifactoryRepo;
 import com.capitalone.dashboard.model.BaseArtifact;
@@ -30,5 +31,20 @@ public interface ArtifactoryClient {
      */
     List<BinaryArtifact> getArtifacts(String instanceUrl, String repoName, long lastUpdated);
 
+    /**
+     * Pages through the artifacts of the given artifactory repo modified since the given time, oldest first.
+     * Each page is handed over as soon as it is parsed, together with the modified time of its latest item,
+     * so a collection that stops part way can resume from the last page handed over.
+     *
+     * @param instanceUrl  server url
+     * @param repoName     repo name
+     * @param lastModified modified time of the first items to fetch
+     * @param pageSize     number of items fetched per AQL query
+     * @param pageConsumer called with the artifacts of each page and the latest modified time seen so far
+     * @return false if a page could not be fetched or parsed
+     */
+    boolean getArtifacts(String instanceUrl, String repoName, long lastModified, int pageSize,
+                         BiConsumer<List<BinaryArtifact>, Long> pageConsumer);
+
     List<BaseArtifact> getArtifactItems(String instanceUrl, String repoName,String pattern, long lastUpdated);
 }
@@ -8,11 +8,11 @@ import com.capitalone.dashboard.model.BaseArtifact;
 import com.capitalone.dashboard.model.BinaryArtifact;
 import com.capitalone.dashboard.model.RepoAndPattern;
 import com.capitalone.dashboard.repository.ArtifactItemRepository;
+import com.capitalone.dashboard.repository.ArtifactoryBinaryArtifactRepository;
 import com.capitalone.dashboard.repository.ArtifactoryCollectorRepository;
 import com.capitalone.dashboard.repository.ArtifactoryRepoRepository;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.BinaryArtifactRepository;
-import com.google.common.collect.Iterables;
 import org.apache.commons.collections.map.HashedMap;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
@@ -40,6 +40,7 @@ public class ArtifactoryCollectorTask extends CollectorTask<ArtifactoryCollector
 	private final ArtifactoryClient artifactoryClient;
 	private final ArtifactorySettings artifactorySettings;
 	private final BinaryArtifactRepository binaryArtifactRepository;
+	private final ArtifactoryBinaryArtifactRepository artifactoryBinaryArtifactRepository;
 
 	@Autowired
 	public ArtifactoryCollectorTask(TaskScheduler taskScheduler,
@@ -47,7 +48,8 @@ public class ArtifactoryCollectorTask extends CollectorTask<ArtifactoryCollector
 									ArtifactoryRepoRepository artifactoryRepoRepository,
 									ArtifactItemRepository artifactItemRepository, BinaryArtifactRepository binaryArtifactRepository,
 									ArtifactoryClient artifactoryClient,
-									ArtifactorySettings artifactorySettings) {
+									ArtifactorySettings artifactorySettings,
+									ArtifactoryBinaryArtifactRepository artifactoryBinaryArtifactRepository) {
 		super(taskScheduler, "Artifactory");
 		this.artifactoryCollectorRepository = artifactoryCollectorRepository;
 		this.artifactoryRepoRepository = artifactoryRepoRepository;
@@ -55,6 +57,7 @@ public class ArtifactoryCollectorTask extends CollectorTask<ArtifactoryCollector
 		this.binaryArtifactRepository = binaryArtifactRepository;
 		this.artifactoryClient = artifactoryClient;
 		this.artifactorySettings = artifactorySettings;
+		this.artifactoryBinaryArtifactRepository = artifactoryBinaryArtifactRepository;
 	}
 
 	@Override
@@ -233,16 +236,17 @@ public class ArtifactoryCollectorTask extends CollectorTask<ArtifactoryCollector
      *
      * @param enabledRepos			list of enabled {@link ArtifactoryRepo}s
      */
-    private void addNewArtifacts(List<ArtifactoryRepo> enabledRepos) {
+    protected void addNewArtifacts(List<ArtifactoryRepo> enabledRepos) {
 		long start = System.currentTimeMillis();
 
 		int count = 0;
 		for (ArtifactoryRepo repo : enabledRepos) {
-			for (BinaryArtifact artifact : nullSafe(artifactoryClient.getArtifacts(repo.getInstanceUrl(), repo.getRepoName(), repo.getLastUpdated()))) {
-				if (artifact != null && isNewArtifact(repo, artifact)) {
-					artifact.setCollectorItemId(repo.getId());
-					binaryArtifactRepository.save(artifact);
-					count++;
+			if (artifactorySettings.getAqlPageSize() > 0) {
+				count += addNewArtifactsPaged(repo);
+			} else {
+				List<BinaryArtifact> artifacts = nullSafe(artifactoryClient.getArtifacts(repo.getInstanceUrl(), repo.getRepoName(), repo.getLastUpdated()));
+				if (!artifacts.isEmpty()) {
+					count += addNewArtifacts(repo, artifacts, existingArtifacts(repo));
 				}
 			}
 		}
@@ -257,6 +261,49 @@ public class ArtifactoryCollectorTask extends CollectorTask<ArtifactoryCollector
 	}
 
 
+	/**
+	 * Adds the new artifacts of the repo page by page, saving after each page the modified time
+	 * where the next collection of the repo starts
+	 *
+	 * @return the number of artifacts added
+	 */
+	private int addNewArtifactsPaged(ArtifactoryRepo repo) {
+		long lastModified = repo.getLastModified() > 0 ? repo.getLastModified() : repo.getLastUpdated();
+		int[] count = {0};
+		Set<List<String>> existing = existingArtifacts(repo);
+		boolean complete = artifactoryClient.getArtifacts(repo.getInstanceUrl(), repo.getRepoName(), lastModified,
+				artifactorySettings.getAqlPageSize(), (artifacts, pageModified) -> {
+					count[0] += addNewArtifacts(repo, artifacts, existing);
+					repo.setLastModified(pageModified);
+					artifactoryRepoRepository.save(repo);
+				});
+		if (!complete) {
+			LOGGER.warn("Collection of repo " + repo.getRepoName() + " stopped part way, it resumes from "
+					+ repo.getLastModified() + " on the next run");
+		}
+		return count[0];
+	}
+
+	/**
+	 * Saves in one insert the artifacts whose attributes are not in the existing set, and adds them to it
+	 *
+	 * @param existing	the attributes of the artifacts already stored for the repo
+	 * @return the number of artifacts added
+	 */
+	private int addNewArtifacts(ArtifactoryRepo repo, List<BinaryArtifact> artifacts, Set<List<String>> existing) {
+		List<BinaryArtifact> newArtifacts = new ArrayList<>();
+		for (BinaryArtifact artifact : artifacts) {
+			if (artifact != null && existing.add(attributes(artifact))) {
+				artifact.setCollectorItemId(repo.getId());
+				newArtifacts.add(artifact);
+			}
+		}
+		if (!newArtifacts.isEmpty()) {
+			binaryArtifactRepository.save(newArtifacts);
+		}
+		return newArtifacts.size();
+	}
+
 	/**
 	 * Add any new {@link ArtifactItem}s
 	 *
@@ -298,11 +345,22 @@ public class ArtifactoryCollectorTask extends CollectorTask<ArtifactoryCollector
 		return artifactoryRepoRepository.findEnabledArtifactoryRepos(collector.getId(), instanceUrl);
 	}
 
-    private boolean isNewArtifact(ArtifactoryRepo repo, BinaryArtifact artifact) {
-        return Iterables.size(binaryArtifactRepository.findByAttributes(repo.getId(),
-        		artifact.getArtifactGroupId(), artifact.getArtifactModule(), artifact.getArtifactVersion(), artifact.getArtifactName(),
-        		artifact.getArtifactClassifier(), artifact.getArtifactExtension())) == 0;
-    }
+	/**
+	 * @return the attributes of every artifact stored for the repo, read in one query
+	 */
+	private Set<List<String>> existingArtifacts(ArtifactoryRepo repo) {
+		return artifactoryBinaryArtifactRepository.findAttributesByCollectorItemId(repo.getId()).stream()
+				.map(ArtifactoryCollectorTask::attributes)
+				.collect(Collectors.toCollection(HashSet::new));
+	}
+
+	/**
+	 * @return the attributes that tell artifacts of a repo apart, the ones new artifacts used to be looked up by
+	 */
+	private static List<String> attributes(BinaryArtifact artifact) {
+		return Arrays.asList(artifact.getArtifactGroupId(), artifact.getArtifactModule(), artifact.getArtifactVersion(),
+				artifact.getArtifactName(), artifact.getArtifactClassifier(), artifact.getArtifactExtension());
+	}
 
 	private List<String> getRepos() {
        	List<String> repos = new ArrayList<>();
@@ -18,6 +18,7 @@ public class ArtifactorySettings {
     ArtifactoryCollectionMode mode;
     String endpoint;
     long offSet;
+    int aqlPageSize;
 
 
     public String getCron() {
@@ -61,5 +62,16 @@ public class ArtifactorySettings {
         this.offSet = offSet;
     }
 
+    /**
+     * @return the number of items fetched per AQL query in repo based mode, or 0 to fetch the new items of a repo in one query
+     */
+    public int getAqlPageSize() {
+        return aqlPageSize;
+    }
+
+    public void setAqlPageSize(int aqlPageSize) {
+        this.aqlPageSize = aqlPageSize;
+    }
+
 
 }
@@ -5,6 +5,7 @@ import com.capitalone.dashboard.model.ArtifactoryRepo;
 import com.capitalone.dashboard.model.BaseArtifact;
 import com.capitalone.dashboard.model.BinaryArtifact;
 import com.capitalone.dashboard.model.ServerSetting;
+import com.capitalone.dashboard.util.ArtifactPatternMatcher;
 import com.capitalone.dashboard.util.ArtifactUtil;
 import com.capitalone.dashboard.util.Supplier;
 import org.apache.commons.codec.binary.Base64;
@@ -27,12 +28,15 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestOperations;
 
 import java.nio.charset.StandardCharsets;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -42,13 +46,16 @@ public class DefaultArtifactoryClient implements ArtifactoryClient {
 
 	private static final String REPOS_URL_SUFFIX = "api/repositories";
 	private static final String AQL_URL_SUFFIX = "api/search/aql";
+	private static final String ARTIFACT_FIELDS = "\"repo\", \"name\", \"path\", \"created\", \"modified\", \"property\"";
 
-	private final DateFormat FULL_DATE = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSX");
+	private static final DateTimeFormatter FULL_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+			.withZone(ZoneOffset.UTC);
 
 	private final ArtifactorySettings artifactorySettings;
 	private final RestOperations restOperations;
 
 	private final List<Pattern> artifactPatterns;
+	private final ArtifactPatternMatcher artifactPatternMatcher;
 
 	@Autowired
 	public DefaultArtifactoryClient(ArtifactorySettings artifactorySettings, Supplier<RestOperations> restOperationsSupplier) {
@@ -74,6 +81,7 @@ public class DefaultArtifactoryClient implements ArtifactoryClient {
 		if (artifactPatterns.isEmpty()) {
 			throw new IllegalStateException("No valid artifact patterns configured. Aborting.");
 		}
+		this.artifactPatternMatcher = new ArtifactPatternMatcher(artifactPatterns);
 	}
 
 	private List<String> getPatterns(){
@@ -119,13 +127,14 @@ public class DefaultArtifactoryClient implements ArtifactoryClient {
 	public List<BaseArtifact> getArtifactItems(String instanceUrl, String repoName,String pattern, long lastUpdated) {
 		List<BaseArtifact> baseArtifacts = new ArrayList<>();
 		if (StringUtils.isNotEmpty(instanceUrl) && StringUtils.isNotEmpty(repoName)) {
-			String body = "items.find({\"created\" : {\"$gt\" : \"" + FULL_DATE.format(new Date(lastUpdated))
+			String body = "items.find({\"created\" : {\"$gt\" : \"" + FULL_DATE.format(Instant.ofEpochMilli(lastUpdated))
 					+ "\"},\"repo\":{\"$eq\":\"" + repoName
 					+ "\"}}).include(\"*\")";
 
 			ResponseEntity<String> responseEntity = makeRestPost(instanceUrl, AQL_URL_SUFFIX, MediaType.TEXT_PLAIN, body);
 			String returnJSON = responseEntity.getBody();
 			JSONParser parser = new JSONParser();
+			Pattern p = Pattern.compile(pattern);
 			try {
 				JSONObject json = (JSONObject) parser.parse(returnJSON);
 				JSONArray jsonArtifacts = getJsonArray(json, "results");
@@ -138,7 +147,6 @@ public class DefaultArtifactoryClient implements ArtifactoryClient {
 					String artifactPath = getString(jsonArtifact, "path");
 					String fullPath = artifactPath + "/" + artifactCanonicalName;
 
-					Pattern p = Pattern.compile(pattern);
 					BinaryArtifact result = ArtifactUtil.parse(p, fullPath);
 					String artName="";
 					String artPath = artifactPath;
@@ -159,17 +167,8 @@ public class DefaultArtifactoryClient implements ArtifactoryClient {
 					if (sTimestamp == null) {
 						sTimestamp = getString(jsonArtifact, "created");
 					}
-					long timestamp = 0;
-					if (sTimestamp != null) {
-						try {
-							Date date = FULL_DATE.parse(sTimestamp);
-							timestamp = date.getTime();
-						} catch (java.text.ParseException e) {
-							LOGGER.error("Parsing artifact timestamp: " + sTimestamp, e);
-						}
-					}
 					// create artifactInfo
-					BinaryArtifact ba = createArtifact(artifactCanonicalName, artifactPath, timestamp, jsonArtifact);
+					BinaryArtifact ba = createArtifact(artifactCanonicalName, artifactPath, timestamp(sTimestamp), jsonArtifact);
 					if (ba != null) {
 						baseArtifact.setBinaryArtifact(ba);
 					}
@@ -189,43 +188,21 @@ public class DefaultArtifactoryClient implements ArtifactoryClient {
 		List<BinaryArtifact> result = new ArrayList<>();
 		// get the list of artifacts
 		if (StringUtils.isNotEmpty(instanceUrl) && StringUtils.isNotEmpty(repoName)) {
-			String body = "items.find({\"created\" : {\"$gt\" : \"" + FULL_DATE.format(new Date(lastUpdated))
+			String body = "items.find({\"created\" : {\"$gt\" : \"" + FULL_DATE.format(Instant.ofEpochMilli(lastUpdated))
 					+ "\"},\"repo\":{\"$eq\":\"" + repoName
-					+ "\"}}).include(\"repo\", \"name\", \"path\", \"created\", \"modified\", \"property\")";
+					+ "\"}}).include(" + ARTIFACT_FIELDS + ")";
 
 			ResponseEntity<String> responseEntity = makeRestPost(instanceUrl, AQL_URL_SUFFIX, MediaType.TEXT_PLAIN, body);
 			String returnJSON = responseEntity.getBody();
 			JSONParser parser = new JSONParser();
 
 			try {
-				JSONObject json = (JSONObject) parser.parse(returnJSON);
-				JSONArray jsonArtifacts = getJsonArray(json, "results");
-				for (Object artifact : jsonArtifacts) {
-					JSONObject jsonArtifact = (JSONObject) artifact;
-
-					final String artifactCanonicalName = getString(jsonArtifact, "name");
-					String artifactPath = getString(jsonArtifact, "path");
-					if (artifactPath.charAt(artifactPath.length()-1) == '/') {
-						artifactPath = artifactPath.substring(0, artifactPath.length()-1);
-					}
-					String sTimestamp = getString(jsonArtifact, "modified");
-					if (sTimestamp == null) {
-						sTimestamp = getString(jsonArtifact, "created");
-					}
-					long timestamp = 0;
-					if (sTimestamp != null) {
-						try {
-							Date date = FULL_DATE.parse(sTimestamp);
-							timestamp = date.getTime();
-						} catch (java.text.ParseException e) {
-							LOGGER.error("Parsing artifact timestamp: " + sTimestamp, e);
-						}
-					}
-					BinaryArtifact ba = createArtifact(artifactCanonicalName, artifactPath, timestamp, jsonArtifact);
+				parser.parse(returnJSON, new AqlResultHandler(jsonArtifact -> {
+					BinaryArtifact ba = toArtifact(jsonArtifact);
 					if (ba != null) {
 						result.add(ba);
 					}
-				}
+				}));
 			} catch (ParseException e) {
 				LOGGER.error("Parsing artifacts on instance: " + instanceUrl + " and repo: " + repoName, e);
 			}
@@ -234,6 +211,70 @@ public class DefaultArtifactoryClient implements ArtifactoryClient {
 		return result;
 	}
 
+	public boolean getArtifacts(String instanceUrl, String repoName, long lastModified, int pageSize,
+								BiConsumer<List<BinaryArtifact>, Long> pageConsumer) {
+		if (StringUtils.isEmpty(instanceUrl) || StringUtils.isEmpty(repoName)) {
+			return true;
+		}
+		String query = "items.find({\"modified\" : {\"$gte\" : \"" + FULL_DATE.format(Instant.ofEpochMilli(lastModified))
+				+ "\"},\"repo\":{\"$eq\":\"" + repoName
+				+ "\"}}).include(" + ARTIFACT_FIELDS + ").sort({\"$asc\" : [\"modified\"]})";
+
+		for (int offset = 0; ; offset += pageSize) {
+			String body = query + ".offset(" + offset + ").limit(" + pageSize + ")";
+			ResponseEntity<String> responseEntity = makeRestPost(instanceUrl, AQL_URL_SUFFIX, MediaType.TEXT_PLAIN, body);
+			if (responseEntity == null) {
+				return false;
+			}
+
+			List<BinaryArtifact> page = new ArrayList<>();
+			long[] pageModified = {lastModified};
+			AqlResultHandler handler = new AqlResultHandler(jsonArtifact -> {
+				pageModified[0] = Math.max(pageModified[0], timestamp(getString(jsonArtifact, "modified")));
+				BinaryArtifact ba = toArtifact(jsonArtifact);
+				if (ba != null) {
+					page.add(ba);
+				}
+			});
+			try {
+				new JSONParser().parse(responseEntity.getBody(), handler);
+			} catch (ParseException e) {
+				LOGGER.error("Parsing artifacts on instance: " + instanceUrl + " and repo: " + repoName, e);
+				return false;
+			}
+
+			pageConsumer.accept(page, pageModified[0]);
+			if (handler.getCount() < pageSize) {
+				return true;
+			}
+		}
+	}
+
+	private BinaryArtifact toArtifact(JSONObject jsonArtifact) {
+		final String artifactCanonicalName = getString(jsonArtifact, "name");
+		String artifactPath = getString(jsonArtifact, "path");
+		if (artifactPath.charAt(artifactPath.length()-1) == '/') {
+			artifactPath = artifactPath.substring(0, artifactPath.length()-1);
+		}
+		String sTimestamp = getString(jsonArtifact, "modified");
+		if (sTimestamp == null) {
+			sTimestamp = getString(jsonArtifact, "created");
+		}
+		return createArtifact(artifactCanonicalName, artifactPath, timestamp(sTimestamp), jsonArtifact);
+	}
+
+	private long timestamp(String sTimestamp) {
+		long timestamp = 0;
+		if (sTimestamp != null) {
+			try {
+				timestamp = OffsetDateTime.parse(sTimestamp, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+			} catch (DateTimeParseException e) {
+				LOGGER.error("Parsing artifact timestamp: " + sTimestamp, e);
+			}
+		}
+		return timestamp;
+	}
+
 	/**
 	 * Creates an artifact given its canonical name and path.
 	 * Artifacts are created by supplied pattern configurations. By default three are supplied:
@@ -252,34 +293,27 @@ public class DefaultArtifactoryClient implements ArtifactoryClient {
 	 * @return
 	 */
 	private BinaryArtifact createArtifact(String artifactCanonicalName, String artifactPath, long timestamp, JSONObject jsonArtifact) {
-		BinaryArtifact result = null;
 		String fullPath = artifactPath + "/" + artifactCanonicalName;
 
-		int idx = 0;
-		for (Pattern pattern : artifactPatterns) {
-			result = ArtifactUtil.parse(pattern, fullPath);
-
-			if (result != null) {
-				if (LOGGER.isDebugEnabled()) {
-					LOGGER.debug("Artifact at " + fullPath + " matched pattern " + idx);
-				}
-
-				result.setType(getString(jsonArtifact, "type"));
-				result.setCreatedTimeStamp(getString(jsonArtifact, "created"));
-				result.setCreatedBy(getString(jsonArtifact, "created_by"));
-				result.setModifiedTimeStamp(getString(jsonArtifact, "modified"));
-				result.setModifiedBy(getString(jsonArtifact, "modified_by"));
-				result.setActual_md5(getString(jsonArtifact, "actual_md5"));
-				result.setActual_sha1(getString(jsonArtifact, "actual_sha1"));
-				result.setCanonicalName(artifactCanonicalName);
-				result.setTimestamp(timestamp);
-				addMetadataToArtifact(result, jsonArtifact);
-
+		BinaryArtifact result = artifactPatternMatcher.parse(fullPath);
 
-				return result;
+		if (result != null) {
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Artifact at " + fullPath + " matched a pattern");
 			}
 
-			idx++;
+			result.setType(getString(jsonArtifact, "type"));
+			result.setCreatedTimeStamp(getString(jsonArtifact, "created"));
+			result.setCreatedBy(getString(jsonArtifact, "created_by"));
+			result.setModifiedTimeStamp(getString(jsonArtifact, "modified"));
+			result.setModifiedBy(getString(jsonArtifact, "modified_by"));
+			result.setActual_md5(getString(jsonArtifact, "actual_md5"));
+			result.setActual_sha1(getString(jsonArtifact, "actual_sha1"));
+			result.setCanonicalName(artifactCanonicalName);
+			result.setTimestamp(timestamp);
+			addMetadataToArtifact(result, jsonArtifact);
+
+			return result;
 		}
 
 		if (LOGGER.isDebugEnabled()) {
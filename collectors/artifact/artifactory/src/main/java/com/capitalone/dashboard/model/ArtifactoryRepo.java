@@ -8,6 +8,9 @@ public class ArtifactoryRepo extends CollectorItem {
     protected static final String REPO_NAME = "repoName";
     protected static final String REPO_URL = "repoUrl";
 
+    // modified time of the latest artifact collected with paged queries, where the next collection starts
+    private long lastModified;
+
     public String getInstanceUrl() {
         return (String) getOptions().get(INSTANCE_URL);
     }
@@ -32,6 +35,14 @@ public class ArtifactoryRepo extends CollectorItem {
         getOptions().put(REPO_URL, repoUrl);
     }
 
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
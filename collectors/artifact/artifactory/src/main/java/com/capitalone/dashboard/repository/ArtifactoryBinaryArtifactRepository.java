@@ -0,0 +1,18 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.BinaryArtifact;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+
+public interface ArtifactoryBinaryArtifactRepository extends CrudRepository<BinaryArtifact, ObjectId> {
+
+    /**
+     * @return the artifacts of the collector item, only the attributes that identify an artifact are read
+     */
+    @Query(value = "{ 'collectorItemId' : ?0 }", fields = "{ 'artifactGroupId' : 1, 'artifactModule' : 1, 'artifactVersion' : 1, "
+            + "'artifactName' : 1, 'artifactClassifier' : 1, 'artifactExtension' : 1 }")
+    List<BinaryArtifact> findAttributesByCollectorItemId(ObjectId collectorItemId);
+}
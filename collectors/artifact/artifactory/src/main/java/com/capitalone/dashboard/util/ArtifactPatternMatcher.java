@@ -0,0 +1,149 @@
+package com.capitalone.dashboard.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.capitalone.dashboard.model.BinaryArtifact;
+
+/**
+ * Matches artifact paths against the configured artifact patterns in a single pass.
+ * <p>
+ * Each pattern is classified once by the literal text every matching path must start with and the literal
+ * extension it must end with. A path is then only tried against the patterns whose prefix lies on its way
+ * through a trie of those prefixes and whose extension it ends with, in the configured order, so the first
+ * pattern to match wins as before. The named groups of each pattern are also resolved once instead of on
+ * every match. An instance is immutable and may be shared between threads.
+ */
+public class ArtifactPatternMatcher {
+	private static final String QUANTIFIERS = "*+?{";
+	private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+	private static final Pattern EXTENSION = Pattern.compile("(?<!\\\\)\\\\\\.(?:\\(\\?<ext>([A-Za-z0-9_-]+)\\)|([A-Za-z0-9_-]+))\\$?$");
+
+	private final Pattern[] patterns;
+	private final List<Set<String>> groups = new ArrayList<>();
+	private final String[] suffixes;
+	private final Node root = new Node();
+
+	public ArtifactPatternMatcher(List<Pattern> patterns) {
+		this.patterns = patterns.toArray(new Pattern[patterns.size()]);
+		this.suffixes = new String[this.patterns.length];
+		for (int i = 0; i < this.patterns.length; i++) {
+			String regex = this.patterns[i].pattern();
+			// flags such as case insensitivity make the literal text of the regex unreliable
+			boolean literal = this.patterns[i].flags() == 0;
+			groups.add(ArtifactUtil.groupsOf(this.patterns[i]));
+			suffixes[i] = literal ? literalSuffix(regex) : null;
+
+			Node node = root;
+			for (char c : (literal ? literalPrefix(regex) : "").toCharArray()) {
+				node = node.children.computeIfAbsent(c, key -> new Node());
+			}
+			node.patterns.set(i);
+		}
+	}
+
+	/**
+	 * Creates an artifact from the first pattern that matches the path
+	 *
+	 * @return the artifact or null if no pattern matches
+	 */
+	public BinaryArtifact parse(String path) {
+		BitSet candidates = candidates(path);
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			if (suffixes[i] != null && !path.endsWith(suffixes[i])) {
+				continue;
+			}
+			Matcher matcher = patterns[i].matcher(path);
+			if (matcher.matches()) {
+				return ArtifactUtil.toArtifact(matcher, groups.get(i));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the indexes of the patterns whose literal prefix the path starts with
+	 */
+	BitSet candidates(String path) {
+		BitSet candidates = new BitSet(patterns.length);
+		Node node = root;
+		candidates.or(node.patterns);
+		for (int i = 0; i < path.length(); i++) {
+			node = node.children.get(path.charAt(i));
+			if (node == null) {
+				break;
+			}
+			candidates.or(node.patterns);
+		}
+		return candidates;
+	}
+
+	/**
+	 * @return the text every path matching the regex starts with, or an empty string if that can not be told
+	 */
+	static String literalPrefix(String regex) {
+		if (regex.contains("|") || hasInlineFlags(regex)) {
+			// alternation or inline flags may change what the start of the regex means
+			return "";
+		}
+		StringBuilder prefix = new StringBuilder();
+		int i = regex.startsWith("^") ? 1 : 0;
+		while (i < regex.length()) {
+			char c = regex.charAt(i);
+			int next;
+			char literal;
+			if (c == '\\') {
+				if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+					break;
+				}
+				literal = regex.charAt(i + 1);
+				next = i + 2;
+			} else if (METACHARACTERS.indexOf(c) >= 0) {
+				break;
+			} else {
+				literal = c;
+				next = i + 1;
+			}
+			if (next < regex.length() && QUANTIFIERS.indexOf(regex.charAt(next)) >= 0) {
+				// the quantified character may not be there
+				break;
+			}
+			prefix.append(literal);
+			i = next;
+		}
+		return prefix.toString();
+	}
+
+	/**
+	 * @return the extension, with its dot, that every path matching the regex ends with, or null if there is none
+	 */
+	static String literalSuffix(String regex) {
+		if (regex.contains("|") || hasInlineFlags(regex)) {
+			// alternation or inline flags may change what the end of the regex means
+			return null;
+		}
+		Matcher matcher = EXTENSION.matcher(regex);
+		if (!matcher.find()) {
+			return null;
+		}
+		return "." + (matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+	}
+
+	/**
+	 * @return true if the regex has a group other than a named or non capturing one, such as inline flags
+	 */
+	private static boolean hasInlineFlags(String regex) {
+		return regex.contains("(?") && regex.replace("(?<", "").replace("(?:", "").contains("(?");
+	}
+
+	private static final class Node {
+		private final Map<Character, Node> children = new HashMap<>();
+		private final BitSet patterns = new BitSet();
+	}
+}
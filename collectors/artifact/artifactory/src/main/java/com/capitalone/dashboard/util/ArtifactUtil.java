@@ -1,5 +1,7 @@
 package com.capitalone.dashboard.util;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,55 +14,77 @@ public class ArtifactUtil {
 	private static final String VERSION_REGEX_GROUP = "version";
 	private static final String CLASSIFIER_REGEX_GROUP = "classifier";
 	private static final String EXT_REGEX_GROUP = "ext";
+	private static final String[] REGEX_GROUPS = {ORG_REGEX_GROUP, MODULE_REGEX_GROUP, ARTIFACT_REGEX_GROUP,
+			VERSION_REGEX_GROUP, CLASSIFIER_REGEX_GROUP, EXT_REGEX_GROUP};
 
 	public static final BinaryArtifact parse(Pattern pattern, String path) {
 		Matcher matcher = pattern.matcher(path);
 		
 		if (matcher.matches()) {
-			String org = null;
-			String module = null;
-			String version = null;
-			String artifact = null;
-			String classifier = null;
-			String ext = null;
-			
-			if (pattern.pattern().contains("<" + ORG_REGEX_GROUP + ">")) {
-				org = matcher.group(ORG_REGEX_GROUP);
-				
-				org = org.replace('/', '.');
-			}
-			
-			if (pattern.pattern().contains("<" + MODULE_REGEX_GROUP + ">")) {
-				module = matcher.group(MODULE_REGEX_GROUP);
-			}
-			
-			if (pattern.pattern().contains("<" + VERSION_REGEX_GROUP + ">")) {
-				version = matcher.group(VERSION_REGEX_GROUP);
-			}
-			
-			if (pattern.pattern().contains("<" + ARTIFACT_REGEX_GROUP + ">")) {
-				artifact = matcher.group(ARTIFACT_REGEX_GROUP);
-			}
-			
-			if (pattern.pattern().contains("<" + CLASSIFIER_REGEX_GROUP + ">")) {
-				classifier = matcher.group(CLASSIFIER_REGEX_GROUP);
-			}
-			
-			if (pattern.pattern().contains("<" + EXT_REGEX_GROUP + ">")) {
-				ext = matcher.group(EXT_REGEX_GROUP);
-			}
-			
-			BinaryArtifact ba = new BinaryArtifact();
-			ba.setArtifactGroupId(org);
-			ba.setArtifactModule(module);
-			ba.setArtifactVersion(version);
-			ba.setArtifactName(artifact);
-			ba.setArtifactClassifier(classifier);
-			ba.setArtifactExtension(ext);
-			
-			return ba;
+			return toArtifact(matcher, groupsOf(pattern));
 		} else {
 			return null;
 		}
 	}
+
+	/**
+	 * @return the names of the artifact groups the pattern captures
+	 */
+	static Set<String> groupsOf(Pattern pattern) {
+		Set<String> groups = new HashSet<>();
+		for (String group : REGEX_GROUPS) {
+			if (pattern.pattern().contains("<" + group + ">")) {
+				groups.add(group);
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * Creates an artifact from a successful match, reading only the given groups
+	 */
+	static BinaryArtifact toArtifact(Matcher matcher, Set<String> groups) {
+		String org = null;
+		String module = null;
+		String version = null;
+		String artifact = null;
+		String classifier = null;
+		String ext = null;
+		
+		if (groups.contains(ORG_REGEX_GROUP)) {
+			org = matcher.group(ORG_REGEX_GROUP);
+			
+			org = org.replace('/', '.');
+		}
+		
+		if (groups.contains(MODULE_REGEX_GROUP)) {
+			module = matcher.group(MODULE_REGEX_GROUP);
+		}
+		
+		if (groups.contains(VERSION_REGEX_GROUP)) {
+			version = matcher.group(VERSION_REGEX_GROUP);
+		}
+		
+		if (groups.contains(ARTIFACT_REGEX_GROUP)) {
+			artifact = matcher.group(ARTIFACT_REGEX_GROUP);
+		}
+		
+		if (groups.contains(CLASSIFIER_REGEX_GROUP)) {
+			classifier = matcher.group(CLASSIFIER_REGEX_GROUP);
+		}
+		
+		if (groups.contains(EXT_REGEX_GROUP)) {
+			ext = matcher.group(EXT_REGEX_GROUP);
+		}
+		
+		BinaryArtifact ba = new BinaryArtifact();
+		ba.setArtifactGroupId(org);
+		ba.setArtifactModule(module);
+		ba.setArtifactVersion(version);
+		ba.setArtifactName(artifact);
+		ba.setArtifactClassifier(classifier);
+		ba.setArtifactExtension(ext);
+		
+		return ba;
+	}
 }
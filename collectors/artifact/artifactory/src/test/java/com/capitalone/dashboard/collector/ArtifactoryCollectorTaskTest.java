@@ -0,0 +1,180 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.ArtifactoryRepo;
+import com.capitalone.dashboard.model.BinaryArtifact;
+import com.capitalone.dashboard.repository.ArtifactItemRepository;
+import com.capitalone.dashboard.repository.ArtifactoryBinaryArtifactRepository;
+import com.capitalone.dashboard.repository.ArtifactoryCollectorRepository;
+import com.capitalone.dashboard.repository.ArtifactoryRepoRepository;
+import com.capitalone.dashboard.repository.BinaryArtifactRepository;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ArtifactoryCollectorTaskTest {
+	private static final String INSTANCE_URL = "http://localhost:8081/artifactory/";
+	private static final String REPO_NAME = "libs-release";
+
+	@Mock private TaskScheduler taskScheduler;
+	@Mock private ArtifactoryCollectorRepository artifactoryCollectorRepository;
+	@Mock private ArtifactoryRepoRepository artifactoryRepoRepository;
+	@Mock private ArtifactItemRepository artifactItemRepository;
+	@Mock private BinaryArtifactRepository binaryArtifactRepository;
+	@Mock private ArtifactoryClient artifactoryClient;
+	@Mock private ArtifactoryBinaryArtifactRepository artifactoryBinaryArtifactRepository;
+
+	private ArtifactorySettings settings;
+	private ArtifactoryCollectorTask task;
+	private ArtifactoryRepo repo;
+
+	@Before
+	public void init() {
+		settings = new ArtifactorySettings();
+		task = new ArtifactoryCollectorTask(taskScheduler, artifactoryCollectorRepository, artifactoryRepoRepository,
+				artifactItemRepository, binaryArtifactRepository, artifactoryClient, settings, artifactoryBinaryArtifactRepository);
+
+		repo = new ArtifactoryRepo();
+		repo.setId(ObjectId.get());
+		repo.setInstanceUrl(INSTANCE_URL);
+		repo.setRepoName(REPO_NAME);
+	}
+
+	@Test
+	public void storedArtifactsAreSkipped() {
+		when(artifactoryBinaryArtifactRepository.findAttributesByCollectorItemId(repo.getId()))
+				.thenReturn(Collections.singletonList(artifact("1.0.0")));
+		when(artifactoryClient.getArtifacts(eq(INSTANCE_URL), eq(REPO_NAME), anyLong()))
+				.thenReturn(Arrays.asList(artifact("1.0.0"), artifact("1.1.0")));
+
+		task.addNewArtifacts(Collections.singletonList(repo));
+
+		assertThat(versions(savedArtifacts(1).get(0)), contains("1.1.0"));
+	}
+
+	@Test
+	public void duplicatesInOnePageAreInsertedOnce() {
+		when(artifactoryBinaryArtifactRepository.findAttributesByCollectorItemId(repo.getId())).thenReturn(new ArrayList<>());
+		when(artifactoryClient.getArtifacts(eq(INSTANCE_URL), eq(REPO_NAME), anyLong()))
+				.thenReturn(Arrays.asList(artifact("1.0.0"), artifact("1.1.0"), artifact("1.0.0")));
+
+		task.addNewArtifacts(Collections.singletonList(repo));
+
+		List<BinaryArtifact> saved = savedArtifacts(1).get(0);
+		assertThat(versions(saved), contains("1.0.0", "1.1.0"));
+		saved.forEach(artifact -> assertThat(artifact.getCollectorItemId(), is(repo.getId())));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void duplicatesAcrossPagesAreInsertedOnce() {
+		settings.setAqlPageSize(2);
+		when(artifactoryBinaryArtifactRepository.findAttributesByCollectorItemId(repo.getId()))
+				.thenReturn(Collections.singletonList(artifact("0.9.0")));
+		doAnswer(invocation -> {
+			BiConsumer<List<BinaryArtifact>, Long> pages = (BiConsumer<List<BinaryArtifact>, Long>) invocation.getArguments()[4];
+			pages.accept(Arrays.asList(artifact("0.9.0"), artifact("1.0.0")), 10L);
+			pages.accept(Arrays.asList(artifact("1.0.0"), artifact("1.1.0")), 20L);
+			return true;
+		}).when(artifactoryClient).getArtifacts(eq(INSTANCE_URL), eq(REPO_NAME), anyLong(), eq(2), any(BiConsumer.class));
+
+		task.addNewArtifacts(Collections.singletonList(repo));
+
+		List<List<BinaryArtifact>> saved = savedArtifacts(2);
+		assertThat(versions(saved.get(0)), contains("1.0.0"));
+		assertThat(versions(saved.get(1)), contains("1.1.0"));
+		// the stored artifacts are read once for all the pages
+		verify(artifactoryBinaryArtifactRepository, times(1)).findAttributesByCollectorItemId(repo.getId());
+		verify(artifactoryClient, never()).getArtifacts(any(String.class), any(String.class), anyLong());
+	}
+
+	/**
+	 * The stored artifacts are read with a projection, so each projected field must tell artifacts apart and
+	 * an artifact differing only in a field left out of the projection must count as stored.
+	 */
+	@Test
+	public void projectedFieldsAreTheComparedAttributes() throws Exception {
+		Query query = ArtifactoryBinaryArtifactRepository.class.getMethod("findAttributesByCollectorItemId", ObjectId.class)
+				.getAnnotation(Query.class);
+		List<String> fields = new ArrayList<>();
+		Matcher matcher = Pattern.compile("'(\\w+)'\\s*:\\s*1").matcher(query.fields());
+		while (matcher.find()) {
+			fields.add(matcher.group(1));
+		}
+		assertThat(fields.size(), is(6));
+
+		BinaryArtifact stored = artifact("1.0.0");
+		List<BinaryArtifact> collected = new ArrayList<>();
+		for (String field : fields) {
+			BinaryArtifact differing = artifact("1.0.0");
+			new BeanWrapperImpl(differing).setPropertyValue(field, "other");
+			collected.add(differing);
+		}
+		BinaryArtifact differingOutsideProjection = artifact("1.0.0");
+		differingOutsideProjection.setCanonicalName("other.jar");
+		differingOutsideProjection.setTimestamp(42L);
+		collected.add(differingOutsideProjection);
+
+		when(artifactoryBinaryArtifactRepository.findAttributesByCollectorItemId(repo.getId())).thenReturn(Collections.singletonList(stored));
+		when(artifactoryClient.getArtifacts(eq(INSTANCE_URL), eq(REPO_NAME), anyLong())).thenReturn(collected);
+
+		task.addNewArtifacts(Collections.singletonList(repo));
+
+		List<BinaryArtifact> saved = savedArtifacts(1).get(0);
+		assertThat(saved.size(), is(fields.size()));
+		assertThat(saved.contains(differingOutsideProjection), is(false));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<List<BinaryArtifact>> savedArtifacts(int saves) {
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(binaryArtifactRepository, times(saves)).save(captor.capture());
+		List<List<BinaryArtifact>> saved = new ArrayList<>();
+		captor.getAllValues().forEach(artifacts -> saved.add((List<BinaryArtifact>) artifacts));
+		return saved;
+	}
+
+	private static List<String> versions(List<BinaryArtifact> artifacts) {
+		List<String> versions = new ArrayList<>();
+		artifacts.forEach(artifact -> versions.add(artifact.getArtifactVersion()));
+		return versions;
+	}
+
+	private static BinaryArtifact artifact(String version) {
+		BinaryArtifact artifact = new BinaryArtifact();
+		artifact.setArtifactGroupId("com.mycompany");
+		artifact.setArtifactModule("myapp");
+		artifact.setArtifactVersion(version);
+		artifact.setArtifactName("myapp");
+		artifact.setArtifactClassifier("sources");
+		artifact.setArtifactExtension("jar");
+		return artifact;
+	}
+}
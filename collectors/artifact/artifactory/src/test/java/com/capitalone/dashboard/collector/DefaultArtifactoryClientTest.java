@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -31,6 +32,8 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -182,6 +185,30 @@ public class DefaultArtifactoryClientTest {
     	assertThat(artifacts.get(1).getTimestamp(), is(FULL_DATE.parse("2016-10-13T05:10:49.209-04:00").getTime()));
     }
     
+    @Test
+    public void testGetArtifactsPaged() throws Exception {
+    	String instanceUrl = "http://localhost:8081/artifactory/";
+    	String aqlUrl = "http://localhost:8081/artifactory/api/search/aql";
+    	String repoName = "release";
+
+    	when(rest.exchange(eq(aqlUrl), eq(HttpMethod.POST), Matchers.any(HttpEntity.class), eq(String.class)))
+    		.thenReturn(new ResponseEntity<>(getJson("ivyArtifacts.json"), HttpStatus.OK))
+    		.thenReturn(new ResponseEntity<>(getJson("emptyArtifacts.json"), HttpStatus.OK));
+    	List<List<BinaryArtifact>> pages = new ArrayList<>();
+    	List<Long> lastModified = new ArrayList<>();
+    	boolean complete = defaultArtifactoryClient.getArtifacts(instanceUrl, repoName, 0, 2, (artifacts, modified) -> {
+    		pages.add(artifacts);
+    		lastModified.add(modified);
+    	});
+
+    	assertThat(complete, is(true));
+    	assertThat(pages.size(), is(2));
+    	assertThat(pages.get(0).size(), is(2));
+    	assertThat(pages.get(1).size(), is(0));
+    	assertThat(lastModified.get(1), is(FULL_DATE.parse("2016-10-13T05:10:49.209-04:00").getTime()));
+    	verify(rest, times(2)).exchange(eq(aqlUrl), eq(HttpMethod.POST), Matchers.any(HttpEntity.class), eq(String.class));
+    }
+
     private String getJson(String fileName) throws IOException {
         InputStream inputStream = DefaultArtifactoryClient.class.getResourceAsStream(fileName);
         return IOUtils.toString(inputStream);
@@ -0,0 +1,110 @@
+package com.capitalone.dashboard.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.capitalone.dashboard.model.BinaryArtifact;
+
+/**
+ * Compares trying every artifact pattern in turn with {@link ArtifactPatternMatcher} over a synthetic corpus of
+ * artifact paths. Run it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.capitalone.dashboard.util.ArtifactPatternMatcherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactPatternMatcherBenchmark {
+	private static final String[] PATTERNS = {
+			"libs/release\\.local/(?<artifact>[^/]+)-(?<version>[^/]+)\\.(?<ext>war)",
+			ArtifactUtilTest.IVY_PATTERN1,
+			ArtifactUtilTest.MISC_PATTERN1,
+			ArtifactUtilTest.MISC_PATTERN2,
+			ArtifactUtilTest.IVY_ARTIFACT_PATTERN1,
+			ArtifactUtilTest.MAVEN_PATTERN1};
+	private static final int CORPUS_SIZE = 1000;
+
+	private List<Pattern> patterns;
+	private ArtifactPatternMatcher matcher;
+	private List<String> paths;
+
+	@Setup
+	public void setup() {
+		patterns = new ArrayList<>();
+		Arrays.stream(PATTERNS).forEach(regex -> patterns.add(Pattern.compile(regex)));
+		matcher = new ArtifactPatternMatcher(patterns);
+
+		Random random = new Random(42);
+		paths = new ArrayList<>(CORPUS_SIZE);
+		for (int i = 0; i < CORPUS_SIZE; i++) {
+			String group = "com/mycompany/team" + random.nextInt(20);
+			String module = "module" + random.nextInt(200);
+			String version = random.nextInt(5) + "." + random.nextInt(20) + "." + random.nextInt(100);
+			switch (random.nextInt(6)) {
+				case 0:
+					paths.add("libs/release.local/" + module + "-" + version + ".war");
+					break;
+				case 1:
+					paths.add(group + "/" + module + "/" + version + "/ivy-" + version + ".xml");
+					break;
+				case 2:
+					paths.add(group + "/" + random.nextInt(1000) + "/dist/" + module + "-" + version + ".zip");
+					break;
+				case 3:
+					paths.add(group + "/" + module + "/" + version + "/jars/" + module + "-" + version + ".jar");
+					break;
+				case 4:
+					paths.add(group + "/" + module + "/" + version + "/" + module + "-" + version + "-sources.jar");
+					break;
+				default:
+					paths.add(group + "/" + module + "/" + version + "/README");
+			}
+		}
+	}
+
+	@Benchmark
+	public void eachPatternInTurn(Blackhole blackhole) {
+		for (String path : paths) {
+			BinaryArtifact result = null;
+			for (Pattern pattern : patterns) {
+				result = ArtifactUtil.parse(pattern, path);
+				if (result != null) {
+					break;
+				}
+			}
+			blackhole.consume(result);
+		}
+	}
+
+	@Benchmark
+	public void patternMatcher(Blackhole blackhole) {
+		for (String path : paths) {
+			blackhole.consume(matcher.parse(path));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ArtifactPatternMatcherBenchmark.class.getSimpleName()).build()).run();
+	}
+}
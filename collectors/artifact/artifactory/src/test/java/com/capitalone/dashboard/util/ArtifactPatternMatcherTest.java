@@ -0,0 +1,115 @@
+package com.capitalone.dashboard.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.capitalone.dashboard.model.BinaryArtifact;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ArtifactPatternMatcherTest {
+	private static final String LIBS_PATTERN = "libs/release\\.local/(?<artifact>[^/]+)-(?<version>[^/]+)\\.(?<ext>war)";
+
+	@Test
+	public void testLiteralPrefix() {
+		assertEquals("", ArtifactPatternMatcher.literalPrefix(ArtifactUtilTest.IVY_PATTERN1));
+		assertEquals("libs/release.local/", ArtifactPatternMatcher.literalPrefix(LIBS_PATTERN));
+		assertEquals("ab", ArtifactPatternMatcher.literalPrefix("^abc?d"));
+		assertEquals("", ArtifactPatternMatcher.literalPrefix("libs/a|docs/b"));
+	}
+
+	@Test
+	public void testLiteralSuffix() {
+		assertEquals(".xml", ArtifactPatternMatcher.literalSuffix(ArtifactUtilTest.IVY_PATTERN1));
+		assertEquals(".zip", ArtifactPatternMatcher.literalSuffix(ArtifactUtilTest.MISC_PATTERN1));
+		assertEquals(".war", ArtifactPatternMatcher.literalSuffix(LIBS_PATTERN));
+		assertNull(ArtifactPatternMatcher.literalSuffix(ArtifactUtilTest.MAVEN_PATTERN1));
+		assertNull(ArtifactPatternMatcher.literalSuffix("(?<artifact>.+)\\\\.jar"));
+		assertNull(ArtifactPatternMatcher.literalSuffix("(?i).*\\.JAR"));
+	}
+
+	@Test
+	public void testInlineFlags() {
+		ArtifactPatternMatcher matcher = new ArtifactPatternMatcher(compile("(?i)(?<artifact>[^/]+)\\.(?<ext>JAR)"));
+
+		BinaryArtifact ba = matcher.parse("myapp.jar");
+		assertNotNull(ba);
+		assertEquals("myapp", ba.getArtifactName());
+		assertEquals("jar", ba.getArtifactExtension());
+	}
+
+	@Test
+	public void testCandidates() {
+		ArtifactPatternMatcher matcher = new ArtifactPatternMatcher(compile(LIBS_PATTERN, ArtifactUtilTest.MAVEN_PATTERN1));
+
+		BitSet candidates = matcher.candidates("libs/release.local/myapp-1.0.0.war");
+		assertEquals(2, candidates.cardinality());
+
+		candidates = matcher.candidates("com/mycompany/myapp/1.0.0/myapp-1.0.0.jar");
+		assertEquals(1, candidates.cardinality());
+		assertEquals(1, candidates.nextSetBit(0));
+	}
+
+	@Test
+	public void testFirstMatchingPatternWins() {
+		ArtifactPatternMatcher matcher = new ArtifactPatternMatcher(compile(ArtifactUtilTest.IVY_PATTERN1,
+				ArtifactUtilTest.MAVEN_PATTERN1, ArtifactUtilTest.ARTIFACT_PATTERN));
+
+		BinaryArtifact ba = matcher.parse("com/mycompany/myapp/1.0.0/myapp-1.0.0-sources.jar");
+		assertNotNull(ba);
+		assertEquals("com.mycompany", ba.getArtifactGroupId());
+		assertEquals("myapp", ba.getArtifactModule());
+		assertEquals("1.0.0", ba.getArtifactVersion());
+		assertEquals("myapp", ba.getArtifactName());
+		assertEquals("sources", ba.getArtifactClassifier());
+		assertEquals("jar", ba.getArtifactExtension());
+
+		ba = matcher.parse("com/my/group/mymodule/1.0.0/ivy-1.0.0.xml");
+		assertNotNull(ba);
+		assertEquals("ivy", ba.getArtifactName());
+		assertEquals("mymodule", ba.getArtifactModule());
+	}
+
+	@Test
+	public void testSameAsArtifactUtil() {
+		List<Pattern> patterns = compile(LIBS_PATTERN, ArtifactUtilTest.IVY_PATTERN1, ArtifactUtilTest.MISC_PATTERN1,
+				ArtifactUtilTest.MAVEN_PATTERN1);
+		ArtifactPatternMatcher matcher = new ArtifactPatternMatcher(patterns);
+		String[] paths = {"libs/release.local/myapp-2.1.war", "com/my/group/mymodule/1.0.0/ivy-1.0.0.xml",
+				"com/mycompany/myapp/1.0.0/myapp-1.0.0.jar", "com/mycompany/dist/myapp-1.0.0.zip", "nomatch"};
+
+		for (String path : paths) {
+			BinaryArtifact expected = null;
+			for (Pattern pattern : patterns) {
+				expected = ArtifactUtil.parse(pattern, path);
+				if (expected != null) {
+					break;
+				}
+			}
+			BinaryArtifact actual = matcher.parse(path);
+			if (expected == null) {
+				assertNull(path, actual);
+			} else {
+				assertNotNull(path, actual);
+				assertEquals(path, expected.getArtifactGroupId(), actual.getArtifactGroupId());
+				assertEquals(path, expected.getArtifactName(), actual.getArtifactName());
+				assertEquals(path, expected.getArtifactVersion(), actual.getArtifactVersion());
+				assertEquals(path, expected.getArtifactExtension(), actual.getArtifactExtension());
+			}
+		}
+	}
+
+	private static List<Pattern> compile(String... regexes) {
+		return Arrays.stream(regexes).map(Pattern::compile).collect(Collectors.toList());
+	}
+}
@@ -51,6 +51,9 @@ nfrr.cron=${NFRR_CRON:-0 0/30 * * * *}
 # Audit number of days - begin date
 nfrr.days=${NFRR_DAYS:-30}
 
+# Number of dashboards audited concurrently, spread across the configured servers
+nfrr.threads=${NFRR_THREADS:-10}
+
 #nfrr server (required) - Can provide multiple
 #nfrr.servers[0]=http://nfrr.company.com
 #nfrr.environments[0]=[DEV,QA,INT,PERF,PROD]
@@ -8,19 +8,33 @@ import com.capitalone.dashboard.model.DashboardType;
 import com.capitalone.dashboard.repository.DashboardRepository;
 import com.capitalone.dashboard.repository.AuditResultRepository;
 import com.capitalone.dashboard.repository.AuditCollectorRepository;
+import com.capitalone.dashboard.repository.AuditResultKeyRepository;
 import com.capitalone.dashboard.repository.CmdbRepository;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
+import com.google.common.collect.Lists;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
 
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 /**
  * <h1>AuditCollectorTask</h1>
@@ -43,16 +57,19 @@ public class AuditCollectorTask extends CollectorTask<AuditCollector> {
     private AuditSettings settings;
     @Autowired
     private CmdbRepository cmdbRepository;
+    @Autowired
+    private AuditResultKeyRepository auditResultKeyRepository;
 
     @Autowired
     public AuditCollectorTask(TaskScheduler taskScheduler, DashboardRepository dashboardRepository,
                               AuditResultRepository auditResultRepository, AuditCollectorRepository auditCollectorRepository,
-                              AuditSettings settings) {
+                              AuditSettings settings, AuditResultKeyRepository auditResultKeyRepository) {
         super(taskScheduler, "AuditCollector");
         this.dashboardRepository = dashboardRepository;
         this.auditResultRepository = auditResultRepository;
         this.auditCollectorRepository = auditCollectorRepository;
         this.settings = settings;
+        this.auditResultKeyRepository = auditResultKeyRepository;
     }
 
     public AuditCollectorTask (TaskScheduler taskScheduler) {
@@ -62,37 +79,120 @@ public class AuditCollectorTask extends CollectorTask<AuditCollector> {
     @Override
     public void collect(AuditCollector collector) {
         LOGGER.info("NFRR Audit Collector pulls all the team dashboards");
-        Iterable<Dashboard> dashboards = dashboardRepository.findAllByType(DashboardType.Team);
-
-        List<AuditResult> auditResults = getAuditResults(dashboards);
-        if (auditResults.isEmpty()){
+        List<Dashboard> dashboards = Lists.newArrayList(dashboardRepository.findAllByType(DashboardType.Team));
+        if (CollectionUtils.isEmpty(settings.getServers())) {
+            LOGGER.error("No Server Found to run NoFearRelease audit collector");
             return;
         }
-        AuditCollectorUtil.clearAuditResultRepo(auditResultRepository);
-        auditResultRepository.save(auditResults);
-        AuditCollectorUtil.clearAuditResults();
-        LOGGER.info("NFRR Audit Collector executed successfully");
-        }
+
+        Map<String, AuditResult> existingResults = getExistingAuditResults();
+        int count = collectAuditResults(dashboards, existingResults);
+        removeStaleAuditResults(dashboards, existingResults.values());
+        LOGGER.info("NFRR Audit Collector executed successfully, " + count + " audit results saved");
+    }
 
     /**
-     * Get audit statuses for the dashboards
+     * Get audit statuses for the dashboards and save them as they complete.
+     * <p>
+     * The /dashboardReview calls are spread across the configured servers and run on a bounded pool.
+     * A dashboard whose audit fails keeps its previously collected results.
      *
      * @param dashboards
+     * @param existingResults existing audit result keys by dashboard and audit type
+     * @return the number of audit results saved
      */
-    protected List<AuditResult> getAuditResults(Iterable<Dashboard> dashboards) {
+    protected int collectAuditResults(List<Dashboard> dashboards, Map<String, AuditResult> existingResults) {
         int numberOfAuditDays = settings.getDays();
         long auditBeginDateTimeStamp = Instant.now().minus(Duration.ofDays(numberOfAuditDays)).toEpochMilli();
         long auditEndDateTimeStamp = Instant.now().toEpochMilli();
         LOGGER.info("NFRR Audit Collector audits with begin,end timestamps as " + auditBeginDateTimeStamp + "," + auditEndDateTimeStamp);
+        if (dashboards.isEmpty()) {
+            return 0;
+        }
 
-        dashboards.forEach((Dashboard dashboard) -> {
-                Map<AuditType, Audit> auditMap = AuditCollectorUtil.getAudit(dashboard, settings,
-                        auditBeginDateTimeStamp, auditEndDateTimeStamp);
+        int serverCount = settings.getServers().size();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(settings.getThreads(), dashboards.size())));
+        CompletionService<List<AuditResult>> completionService = new ExecutorCompletionService<>(executor);
+        int count = 0;
+        try {
+            for (int i = 0; i < dashboards.size(); i++) {
+                Dashboard dashboard = dashboards.get(i);
+                int serverIndex = i % serverCount;
+                completionService.submit(() -> getAuditResults(dashboard, serverIndex, auditBeginDateTimeStamp, auditEndDateTimeStamp));
+            }
+            for (int i = 0; i < dashboards.size(); i++) {
+                try {
+                    List<AuditResult> auditResults = completionService.take().get();
+                    count += saveAuditResults(auditResults, existingResults);
+                } catch (ExecutionException e) {
+                    LOGGER.error("NFRR Audit Collector failed to audit a dashboard", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.error("NFRR Audit Collector interrupted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return count;
+    }
+
+    /**
+     * Audit one dashboard on the given server
+     *
+     * @return the audit results of the dashboard, empty if the audit failed
+     */
+    protected List<AuditResult> getAuditResults(Dashboard dashboard, int serverIndex, long begin, long end) {
+        try {
+            Map<AuditType, Audit> auditMap = AuditCollectorUtil.getAudit(dashboard, settings, serverIndex, begin, end);
+
+            LOGGER.info("NFRR Audit Collector adding audit results for the dashboard : " + dashboard.getTitle());
+            return AuditCollectorUtil.getAuditResults(dashboard, auditMap, cmdbRepository, end);
+        } catch (RuntimeException e) {
+            LOGGER.error("NFRR Audit Collector failed to audit the dashboard : " + dashboard.getTitle(), e);
+            return Collections.emptyList();
+        }
+    }
 
-                LOGGER.info("NFRR Audit Collector adding audit results for the dashboard : " + dashboard.getTitle());
-                AuditCollectorUtil.addAuditResultByAuditType(dashboard, auditMap, cmdbRepository, auditEndDateTimeStamp);
+    /**
+     * Upsert the audit results of a dashboard over the results previously collected for it
+     */
+    private int saveAuditResults(List<AuditResult> auditResults, Map<String, AuditResult> existingResults) {
+        if (auditResults.isEmpty()) {
+            return 0;
+        }
+        auditResults.forEach(auditResult -> {
+            AuditResult existing = existingResults.get(getKey(auditResult));
+            if (existing != null) {
+                auditResult.setId(existing.getId());
+            }
         });
-        return AuditCollectorUtil.getAuditResults();
+        auditResultRepository.save(auditResults);
+        return auditResults.size();
+    }
+
+    /**
+     * Remove the results of dashboards that are no longer team dashboards
+     */
+    private void removeStaleAuditResults(List<Dashboard> dashboards, Collection<AuditResult> existingResults) {
+        Set<ObjectId> dashboardIds = dashboards.stream().map(Dashboard::getId).collect(Collectors.toSet());
+        List<AuditResult> stale = existingResults.stream()
+                .filter(auditResult -> !dashboardIds.contains(auditResult.getDashboardId()))
+                .collect(Collectors.toList());
+        if (!stale.isEmpty()) {
+            LOGGER.info("NFRR Audit Collector removes " + stale.size() + " audit results of deleted dashboards");
+            auditResultRepository.delete(stale);
+        }
+    }
+
+    private Map<String, AuditResult> getExistingAuditResults() {
+        Map<String, AuditResult> existingResults = new HashMap<>();
+        auditResultKeyRepository.findAllKeys().forEach(auditResult -> existingResults.put(getKey(auditResult), auditResult));
+        return existingResults;
+    }
+
+    private static String getKey(AuditResult auditResult) {
+        return auditResult.getDashboardId() + ":" + auditResult.getAuditType();
     }
 
     @Override
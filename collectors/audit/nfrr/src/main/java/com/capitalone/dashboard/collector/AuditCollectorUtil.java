@@ -8,7 +8,6 @@ import com.capitalone.dashboard.model.AuditResult;
 import com.capitalone.dashboard.model.Dashboard;
 import com.capitalone.dashboard.model.Cmdb;
 
-import com.capitalone.dashboard.repository.AuditResultRepository;
 import com.capitalone.dashboard.repository.CmdbRepository;
 import com.capitalone.dashboard.status.CodeReviewAuditStatus;
 import com.capitalone.dashboard.status.DashboardAuditStatus;
@@ -51,7 +50,7 @@ public class AuditCollectorUtil {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AuditCollectorUtil.class);
     private static final String HYGIEIA_AUDIT_URL = "/dashboardReview";
-    private static List<AuditResult> auditResults = new ArrayList<>();
+    private static final RestTemplate REST_TEMPLATE = new RestTemplate();
     private static final String AUDITTYPES_PARAM  = "CODE_REVIEW,CODE_QUALITY,STATIC_SECURITY_ANALYSIS,LIBRARY_POLICY,TEST_RESULT,PERF_TEST";
     private enum AUDIT_PARAMS {title,businessService,businessApplication,beginDate,endDate,auditType};
 
@@ -387,12 +386,19 @@ public class AuditCollectorUtil {
     /**
      * Get all audit results
      */
-    @SuppressWarnings("PMD")
     public static Map<AuditType, Audit> getAudit(Dashboard dashboard, AuditSettings settings, long begin, long end) {
+        return getAudit(dashboard, settings, 0, begin, end);
+    }
+
+    /**
+     * Get all audit results from the configured server at the given index
+     */
+    @SuppressWarnings("PMD")
+    public static Map<AuditType, Audit> getAudit(Dashboard dashboard, AuditSettings settings, int serverIndex, long begin, long end) {
         Map<AuditType, Audit> audits = new HashMap<>();
 
-        String url = getAuditAPIUrl(dashboard, settings, begin, end);
-        JSONObject auditResponseObj = parseObject(url, settings);
+        String url = getAuditAPIUrl(dashboard, settings, serverIndex, begin, end);
+        JSONObject auditResponseObj = parseObject(url, settings, serverIndex);
         if(auditResponseObj == null){
             return audits;
         }
@@ -429,11 +435,17 @@ public class AuditCollectorUtil {
      * Make audit api rest call and parse response
      */
     protected static JSONObject parseObject(String url, AuditSettings settings){
+        return parseObject(url, settings, 0);
+    }
+
+    /**
+     * Make audit api rest call with the credentials of the server at the given index and parse response
+     */
+    protected static JSONObject parseObject(String url, AuditSettings settings, int serverIndex){
         LOGGER.info("NFRR Audit Collector Audit API Call");
-        RestTemplate restTemplate = new RestTemplate();
         JSONObject responseObj = null;
         try {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, getHeaders(settings), String.class);
+            ResponseEntity<String> response = REST_TEMPLATE.exchange(url, HttpMethod.GET, getHeaders(settings, serverIndex), String.class);
             JSONParser jsonParser = new JSONParser();
             responseObj = (JSONObject) jsonParser.parse(response.getBody());
         } catch (Exception e) {
@@ -446,13 +458,20 @@ public class AuditCollectorUtil {
      * Construct audit api url
      */
     protected static String getAuditAPIUrl(Dashboard dashboard, AuditSettings settings, long beginDate, long endDate) {
+        return getAuditAPIUrl(dashboard, settings, 0, beginDate, endDate);
+    }
+
+    /**
+     * Construct audit api url for the server at the given index
+     */
+    protected static String getAuditAPIUrl(Dashboard dashboard, AuditSettings settings, int serverIndex, long beginDate, long endDate) {
         LOGGER.info("NFRR Audit Collector creates Audit API URL");
         if (CollectionUtils.isEmpty(settings.getServers())) {
             LOGGER.error("No Server Found to run NoFearRelease audit collector");
             throw new MBeanServerNotFoundException("No Server Found to run NoFearRelease audit collector");
         }
         URIBuilder auditURI = new URIBuilder();
-        auditURI.setPath(settings.getServers().get(0) + HYGIEIA_AUDIT_URL);
+        auditURI.setPath(settings.getServers().get(serverIndex % settings.getServers().size()) + HYGIEIA_AUDIT_URL);
         auditURI.addParameter(AUDIT_PARAMS.title.name(), dashboard.getTitle());
         auditURI.addParameter(AUDIT_PARAMS.businessService.name(), dashboard.getConfigurationItemBusServName());
         auditURI.addParameter(AUDIT_PARAMS.businessApplication.name(), dashboard.getConfigurationItemBusAppName());
@@ -467,21 +486,32 @@ public class AuditCollectorUtil {
      * Get api authentication headers
      */
     protected static HttpEntity getHeaders(AuditSettings auditSettings) {
+        return getHeaders(auditSettings, 0);
+    }
+
+    /**
+     * Get api authentication headers for the server at the given index, falling back to the first credentials
+     */
+    protected static HttpEntity getHeaders(AuditSettings auditSettings, int serverIndex) {
         HttpHeaders headers = new HttpHeaders();
-        if (!CollectionUtils.isEmpty(auditSettings.getUsernames()) && !CollectionUtils.isEmpty(auditSettings.getApiKeys())) {
-            headers.set(STR_APIUSER, auditSettings.getUsernames().iterator().next());
-            headers.set(STR_AUTHORIZATION, STR_APITOKENSPACE + auditSettings.getApiKeys().iterator().next());
+        List<String> usernames = auditSettings.getUsernames();
+        List<String> apiKeys = auditSettings.getApiKeys();
+        if (!CollectionUtils.isEmpty(usernames) && !CollectionUtils.isEmpty(apiKeys)) {
+            int index = (serverIndex < usernames.size() && serverIndex < apiKeys.size()) ? serverIndex : 0;
+            headers.set(STR_APIUSER, usernames.get(index));
+            headers.set(STR_AUTHORIZATION, STR_APITOKENSPACE + apiKeys.get(index));
         }
         return new HttpEntity<>(headers);
     }
 
     /**
-     * Add audit result by audit type
+     * Get audit results by audit type for a dashboard
      */
     @SuppressWarnings("PMD.NPathComplexity")
-    public static void addAuditResultByAuditType(Dashboard dashboard, Map<AuditType, Audit> auditMap, CmdbRepository cmdbRepository, long timestamp) {
+    public static List<AuditResult> getAuditResults(Dashboard dashboard, Map<AuditType, Audit> auditMap, CmdbRepository cmdbRepository, long timestamp) {
 
-        if(CollectionUtils.isEmpty(auditMap)){ return; }
+        List<AuditResult> auditResults = new ArrayList<>();
+        if(CollectionUtils.isEmpty(auditMap)){ return auditResults; }
         Cmdb cmdb = cmdbRepository.findByConfigurationItem(dashboard.getConfigurationItemBusServName());
         ObjectId dashboardId = dashboard.getId();
         String dashboardTitle = dashboard.getTitle();
@@ -500,27 +530,6 @@ public class AuditCollectorUtil {
                 auditResults.add(auditResult);
             }
         });
-    }
-
-    /**
-     * Get audit results collection
-     */
-    protected static List<AuditResult> getAuditResults() {
         return auditResults;
     }
-
-    /**
-     * Clear audit results repository
-     */
-    public static void clearAuditResultRepo(AuditResultRepository auditResultRepository) {
-        LOGGER.info("NFRR Audit Collector clears last collected audit results from database");
-        auditResultRepository.deleteAll();
-    }
-
-    /**
-     * Clear audit results collection
-     */
-    public static void clearAuditResults() {
-        auditResults.clear();
-    }
 }
@@ -19,6 +19,7 @@ public class AuditSettings {
     private List<String> apiKeys;
     private String dockerLocalHostIP; //null if not running in docker on http://localhost
     private int days;
+    private int threads = 10;
 
     public int getDays() {
         return days;
@@ -28,6 +29,14 @@ public class AuditSettings {
         this.days = days;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     public String getCron() {
         return cron;
     }
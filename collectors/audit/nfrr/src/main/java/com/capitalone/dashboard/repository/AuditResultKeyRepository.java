@@ -0,0 +1,14 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.AuditResult;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+
+public interface AuditResultKeyRepository extends CrudRepository<AuditResult, ObjectId> {
+
+    @Query(value = "{}", fields = "{'dashboardId' : 1, 'auditType' : 1}")
+    List<AuditResult> findAllKeys();
+}
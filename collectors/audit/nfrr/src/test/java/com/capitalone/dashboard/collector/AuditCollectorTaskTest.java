@@ -8,16 +8,20 @@ import com.capitalone.dashboard.model.AuditType;
 import com.capitalone.dashboard.model.Audit;
 import com.capitalone.dashboard.model.AuditStatus;
 import com.capitalone.dashboard.model.DataStatus;
+import com.capitalone.dashboard.model.DashboardType;
+import com.capitalone.dashboard.repository.AuditResultKeyRepository;
 import com.capitalone.dashboard.repository.AuditResultRepository;
 import com.capitalone.dashboard.repository.DashboardRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.CollectorItemRepository;
+import com.capitalone.dashboard.repository.CmdbRepository;
 import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -29,9 +33,14 @@ import java.util.Set;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -47,6 +56,10 @@ public class AuditCollectorTaskTest {
     private CollectorRepository collectorRepository;
     @Autowired
     private CollectorItemRepository collectorItemRepository;
+    @Autowired
+    private CmdbRepository cmdbRepository;
+    @Autowired
+    private AuditResultKeyRepository auditResultKeyRepository;
 
     AuditSettings settings = new AuditSettings();
     private static final long BEGIN_DATE = 1537824736000L;
@@ -59,6 +72,7 @@ public class AuditCollectorTaskTest {
         TestUtils.loadComponent(componentRepository);
         TestUtils.loadCollectorItems(collectorItemRepository);
         settings = new TestConfig().settings();
+        mockstatusRepository.deleteAll();
     }
     @Test
     public void getCollectAuditStatusData(){
@@ -81,7 +95,7 @@ public class AuditCollectorTaskTest {
                 auditCQ.setAuditStatus(AuditStatus.OK);
                 auditCQ.setDataStatus(DataStatus.OK);
                 auditMap1.put(AuditType.CODE_QUALITY, auditCQ);
-                AuditResult auditResult = AuditCollectorUtil.getAuditResults().get(0);
+                AuditResult auditResult = AuditCollectorUtil.getAuditResults(dashboard, auditMap, cmdbRepository, END_DATE).get(0);
                 Mockito.when(AuditCollectorUtil.getAudit(dashboard,settings,BEGIN_DATE,END_DATE)).thenReturn(auditMap1);
                 assertNotNull(auditResult.getDashboardId());
                 assertNotNull(auditResult.getDashboardTitle());
@@ -108,4 +122,82 @@ public class AuditCollectorTaskTest {
             }
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void secondRunUpdatesResultsInPlace() {
+        List<Dashboard> dashboards = Arrays.asList(makeDashboard(), makeDashboard());
+        newTask(dashboards, Collections.emptySet()).collect(null);
+        Map<ObjectId, String> firstRun = getStoredResults();
+
+        newTask(dashboards, Collections.emptySet()).collect(null);
+        Map<ObjectId, String> secondRun = getStoredResults();
+
+        assertEquals(4, firstRun.size());
+        assertEquals(firstRun, secondRun);
+    }
+
+    @Test
+    public void resultsOfRemovedDashboardsAreDeleted() {
+        Dashboard kept = makeDashboard();
+        Dashboard removed = makeDashboard();
+        newTask(Arrays.asList(kept, removed), Collections.emptySet()).collect(null);
+
+        newTask(Collections.singletonList(kept), Collections.emptySet()).collect(null);
+
+        Set<ObjectId> dashboardIds = new HashSet<>();
+        mockstatusRepository.findAll().forEach(auditResult -> dashboardIds.add(auditResult.getDashboardId()));
+        assertEquals(Collections.singleton(kept.getId()), dashboardIds);
+        assertEquals(2, getStoredResults().size());
+    }
+
+    @Test
+    public void failingDashboardKeepsItsResultsAndOthersAreSaved() {
+        Dashboard failing = makeDashboard();
+        Dashboard audited = makeDashboard();
+        newTask(Arrays.asList(failing, audited), Collections.emptySet()).collect(null);
+        Map<ObjectId, String> firstRun = getStoredResults();
+
+        Dashboard added = makeDashboard();
+        newTask(Arrays.asList(failing, audited, added), Collections.singleton(failing.getId())).collect(null);
+        Map<ObjectId, String> secondRun = getStoredResults();
+
+        assertEquals(6, secondRun.size());
+        assertTrue(secondRun.entrySet().containsAll(firstRun.entrySet()));
+        assertEquals(2, secondRun.values().stream().filter(key -> key.startsWith(added.getId().toString())).count());
+    }
+
+    private AuditCollectorTask newTask(List<Dashboard> dashboards, Set<ObjectId> failingDashboards) {
+        DashboardRepository teamDashboards = Mockito.mock(DashboardRepository.class);
+        Mockito.when(teamDashboards.findAllByType(DashboardType.Team)).thenReturn(dashboards);
+        return new AuditCollectorTask(Mockito.mock(TaskScheduler.class), teamDashboards, mockstatusRepository, null,
+                settings, auditResultKeyRepository) {
+            @Override
+            protected List<AuditResult> getAuditResults(Dashboard dashboard, int serverIndex, long begin, long end) {
+                if (failingDashboards.contains(dashboard.getId())) {
+                    throw new IllegalStateException("Audit of " + dashboard.getId() + " failed");
+                }
+                return Arrays.asList(makeAuditResult(dashboard, AuditType.CODE_QUALITY, end),
+                        makeAuditResult(dashboard, AuditType.CODE_REVIEW, end));
+            }
+        };
+    }
+
+    /**
+     * @return the dashboard and audit type of each stored audit result by its id
+     */
+    private Map<ObjectId, String> getStoredResults() {
+        return StreamSupport.stream(mockstatusRepository.findAll().spliterator(), false)
+                .collect(Collectors.toMap(AuditResult::getId, auditResult -> auditResult.getDashboardId() + ":" + auditResult.getAuditType()));
+    }
+
+    private Dashboard makeDashboard() {
+        Dashboard dashboard = dashboardRepository.findAll().iterator().next();
+        dashboard.setId(ObjectId.get());
+        return dashboard;
+    }
+
+    private static AuditResult makeAuditResult(Dashboard dashboard, AuditType auditType, long timestamp) {
+        return new AuditResult(dashboard.getId(), dashboard.getTitle(), "CARD", "ASVC", "BAP", "Owner", null,
+                auditType, "OK", "OK", null, null, new HashMap(), timestamp);
+    }
+}
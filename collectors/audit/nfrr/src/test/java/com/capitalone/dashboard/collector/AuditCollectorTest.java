@@ -3,6 +3,7 @@ package com.capitalone.dashboard.collector;
 import com.capitalone.dashboard.collector.config.TestConfig;
 import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.repository.AuditCollectorRepository;
+import com.capitalone.dashboard.repository.AuditResultKeyRepository;
 import com.capitalone.dashboard.repository.AuditResultRepository;
 import com.capitalone.dashboard.repository.DashboardRepository;
 import org.assertj.core.api.AssertionsForInterfaceTypes;
@@ -30,7 +31,7 @@ public class AuditCollectorTest {
         dashboardRepository = mock(DashboardRepository.class);
         auditSettings = new TestConfig().settings();
         this.taskToTest = new AuditCollectorTask(taskScheduler, dashboardRepository, auditResultRepository,
-                auditCollectorRepository, auditSettings);
+                auditCollectorRepository, auditSettings, mock(AuditResultKeyRepository.class));
     }
 
     @Test
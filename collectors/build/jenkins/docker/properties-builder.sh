@@ -81,6 +81,15 @@ jenkins.pageSize=${JENKINS_PAGE_SIZE:-1000}
 # The folder depth - default is 10
 jenkins.folderDepth=${JENKINS_FOLDER_DEPTH:-10}
 
+# The number of build details fetched concurrently from each server - default is 4
+jenkins.buildDetailThreads=${JENKINS_BUILD_DETAIL_THREADS:-4}
+
+# The number of servers collected concurrently - default is 10
+jenkins.serverThreads=${JENKINS_SERVER_THREADS:-10}
+
+# The number of job pages fetched concurrently from each server - default is 2
+jenkins.pageThreads=${JENKINS_PAGE_THREADS:-2}
+
 #Jenkins server (required) - Can provide multiple
 #jenkins.servers[0]=http://jenkins.company.com
 #jenkins.niceNames[0]=[YourJenkins]
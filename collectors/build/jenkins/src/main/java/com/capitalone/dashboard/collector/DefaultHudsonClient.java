@@ -36,8 +36,10 @@ import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -46,6 +48,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
@@ -106,64 +113,118 @@ public class DefaultHudsonClient implements HudsonClient {
 
     @Override
     public Map<HudsonJob, Map<jobData, Set<BaseModel>>> getInstanceJobs(String instanceUrl) {
-        LOG.debug("Enter getInstanceJobs");
-        //Map<HudsonJob, Set<Build>> result = new LinkedHashMap<>();
         Map<HudsonJob, Map<jobData, Set<BaseModel>>> result = new LinkedHashMap<>();
-        
+        getInstanceJobs(instanceUrl, result::putAll);
+        return result;
+    }
+
+    @Override
+    public void getInstanceJobs(String instanceUrl, Consumer<Map<HudsonJob, Map<jobData, Set<BaseModel>>>> pageConsumer) {
+        LOG.debug("Enter getInstanceJobs");
+
         int jobsCount = getJobsCount(instanceUrl);
         LOG.debug("Number of jobs " + jobsCount);
         
-        int i = 0, pageSize = settings.getPageSize();
+        int pageSize = settings.getPageSize();
         // Default pageSize to 1000 for backward compatibility of settings when pageSize defaults to 0
         if (pageSize <= 0) {
         	pageSize = 1000;
         }
-        while (i < jobsCount) {
-        	LOG.info("Fetching jobs " + i + "/" + jobsCount + " pageSize " + settings.getPageSize() + "...");
-        	
-	        try {
-                String url = joinURL(instanceUrl, new String[]{API_SUFFIX + buildJobQueryString() + URLEncoder.encode("{" + i + "," + (i + pageSize) + "}", "UTF-8")});
-	            ResponseEntity<String> responseEntity = makeRestCall(url);
-	            if (responseEntity == null) {
-	            	break;
-	            }
-	            String returnJSON = responseEntity.getBody();
-	            if (StringUtils.isEmpty(returnJSON)) {
-	            	break;	            	
-	            }
-	            JSONParser parser = new JSONParser();
-	            
-	            try {
-	                JSONObject object = (JSONObject) parser.parse(returnJSON);
-	                JSONArray jobs = getJsonArray(object, "jobs");
-	                if (jobs.size() == 0) {
-	                	break;
-	                }
-	                
-	                for (Object job : jobs) {
-	                    JSONObject jsonJob = (JSONObject) job;
-	
-	                    final String jobName = getString(jsonJob, "name");
-	                    final String jobURL = getString(jsonJob, "url");
-                        final String jobClass = getString(jsonJob, "_class");
-
-                        LOG.debug("Process jobName " + jobName + " jobURL " + jobURL + " jobClass " + jobClass);
-
-	                    recursiveGetJobDetails(jsonJob, jobName, jobURL, instanceUrl, parser, result);
-	                }
-	            } catch (ParseException e) {
-	                LOG.error("Parsing jobs details on instance: " + instanceUrl, e);
-	            }
-	        } catch (RestClientException rce) {
-	            LOG.error("client exception loading jobs details", rce);
-	            throw rce;
-	        } catch (UnsupportedEncodingException uee) {
-	        	LOG.error("unsupported encoding for loading jobs details", uee);
-			} catch (URISyntaxException e1) {
-			    LOG.error("wrong syntax url for loading jobs details", e1);
+        int pageThreads = Math.max(1, settings.getPageThreads());
+        ExecutorService executor = Executors.newFixedThreadPool(pageThreads);
+        // pages are handed over in order and only pageThreads of them are fetched ahead
+        Deque<Future<Map<HudsonJob, Map<jobData, Set<BaseModel>>>>> pages = new ArrayDeque<>();
+        try {
+            int i = 0;
+            boolean lastPage = false;
+            while (!lastPage || !pages.isEmpty()) {
+                while (!lastPage && i < jobsCount && pages.size() < pageThreads) {
+                    int from = i;
+                    int to = i + pageSize;
+                    pages.add(executor.submit(() -> getJobsPage(instanceUrl, from, to, jobsCount)));
+                    i = to;
+                }
+                if (pages.isEmpty()) {
+                    break;
+                }
+                Map<HudsonJob, Map<jobData, Set<BaseModel>>> page = getPage(pages.poll());
+                if (page == null) {
+                    // no more jobs on the instance, the pages fetched ahead are not needed
+                    lastPage = true;
+                    pages.forEach(future -> future.cancel(true));
+                    pages.clear();
+                } else {
+                    pageConsumer.accept(page);
+                }
+            }
+        } catch (InterruptedException ie) {
+            LOG.error("interrupted loading jobs details on instance: " + instanceUrl, ie);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<HudsonJob, Map<jobData, Set<BaseModel>>> getPage(Future<Map<HudsonJob, Map<jobData, Set<BaseModel>>>> page) throws InterruptedException {
+        try {
+            return page.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Fetches the jobs {from,to} of an instance.
+     *
+     * @return the jobs of the page, or null if the instance has no more jobs
+     */
+    private Map<HudsonJob, Map<jobData, Set<BaseModel>>> getJobsPage(String instanceUrl, int from, int to, int jobsCount) {
+        LOG.info("Fetching jobs " + from + "/" + jobsCount + " pageSize " + settings.getPageSize() + "...");
+        Map<HudsonJob, Map<jobData, Set<BaseModel>>> result = new LinkedHashMap<>();
+
+        try {
+            String url = joinURL(instanceUrl, new String[]{API_SUFFIX + buildJobQueryString() + URLEncoder.encode("{" + from + "," + to + "}", "UTF-8")});
+            ResponseEntity<String> responseEntity = makeRestCall(url);
+            if (responseEntity == null) {
+                return null;
             }
-	        
-	        i += pageSize;
+            String returnJSON = responseEntity.getBody();
+            if (StringUtils.isEmpty(returnJSON)) {
+                return null;
+            }
+            JSONParser parser = new JSONParser();
+
+            try {
+                JSONObject object = (JSONObject) parser.parse(returnJSON);
+                JSONArray jobs = getJsonArray(object, "jobs");
+                if (jobs.size() == 0) {
+                    return null;
+                }
+
+                for (Object job : jobs) {
+                    JSONObject jsonJob = (JSONObject) job;
+
+                    final String jobName = getString(jsonJob, "name");
+                    final String jobURL = getString(jsonJob, "url");
+                    final String jobClass = getString(jsonJob, "_class");
+
+                    LOG.debug("Process jobName " + jobName + " jobURL " + jobURL + " jobClass " + jobClass);
+
+                    recursiveGetJobDetails(jsonJob, jobName, jobURL, instanceUrl, parser, result);
+                }
+            } catch (ParseException e) {
+                LOG.error("Parsing jobs details on instance: " + instanceUrl, e);
+            }
+        } catch (RestClientException rce) {
+            LOG.error("client exception loading jobs details", rce);
+            throw rce;
+        } catch (UnsupportedEncodingException uee) {
+            LOG.error("unsupported encoding for loading jobs details", uee);
+        } catch (URISyntaxException e1) {
+            LOG.error("wrong syntax url for loading jobs details", e1);
         }
         return result;
     }
@@ -6,6 +6,7 @@ import com.capitalone.dashboard.model.HudsonJob;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Client for fetching job and build information from Hudson
@@ -24,6 +25,15 @@ public interface HudsonClient {
      */
     Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> getInstanceJobs(String instanceUrl);
 
+    /**
+     * Finds all of the configured jobs for a given instance a page at a time. Pages may be
+     * fetched concurrently but are handed to the consumer one at a time, in order.
+     *
+     * @param instanceUrl the URL for the Hudson instance
+     * @param pageConsumer receives a summary of every build for each job of a page
+     */
+    void getInstanceJobs(String instanceUrl, Consumer<Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>> pageConsumer);
+
     /**
      * Fetch full populated build information for a build.
      *
@@ -4,11 +4,20 @@ package com.capitalone.dashboard.collector;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.bson.types.ObjectId;
@@ -31,6 +40,7 @@ import com.capitalone.dashboard.repository.BuildRepository;
 import com.capitalone.dashboard.repository.CollItemConfigHistoryRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.ConfigurationRepository;
+import com.capitalone.dashboard.repository.HudsonBuildRepository;
 import com.capitalone.dashboard.repository.HudsonCollectorRepository;
 import com.capitalone.dashboard.repository.HudsonJobRepository;
 import com.google.common.collect.Lists;
@@ -47,6 +57,7 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
     private final HudsonCollectorRepository hudsonCollectorRepository;
     private final HudsonJobRepository hudsonJobRepository;
     private final BuildRepository buildRepository;
+    private final HudsonBuildRepository hudsonBuildRepository;
     private final CollItemConfigHistoryRepository configRepository;
     private final HudsonClient hudsonClient;
     private final HudsonSettings hudsonSettings;
@@ -57,7 +68,8 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
     public HudsonCollectorTask(TaskScheduler taskScheduler,
                                HudsonCollectorRepository hudsonCollectorRepository,
                                HudsonJobRepository hudsonJobRepository,
-                               BuildRepository buildRepository, CollItemConfigHistoryRepository configRepository, HudsonClient hudsonClient,
+                               BuildRepository buildRepository, HudsonBuildRepository hudsonBuildRepository,
+                               CollItemConfigHistoryRepository configRepository, HudsonClient hudsonClient,
                                HudsonSettings hudsonSettings,
                                ComponentRepository dbComponentRepository, 
                                ConfigurationRepository configurationRepository) {
@@ -65,6 +77,7 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
         this.hudsonCollectorRepository = hudsonCollectorRepository;
         this.hudsonJobRepository = hudsonJobRepository;
         this.buildRepository = buildRepository;
+        this.hudsonBuildRepository = hudsonBuildRepository;
         this.configRepository = configRepository;
         this.hudsonClient = hudsonClient;
         this.hudsonSettings = hudsonSettings;
@@ -114,33 +127,71 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
         Set<ObjectId> udId = new HashSet<>();
         udId.add(collector.getId());
         List<HudsonJob> existingJobs = hudsonJobRepository.findByCollectorIdIn(udId);
-        List<HudsonJob> activeJobs = new ArrayList<>();
-        List<String> activeServers = new ArrayList<>();
-        activeServers.addAll(collector.getBuildServers());
+        Set<HudsonJob> activeJobs = ConcurrentHashMap.newKeySet();
+        List<String> activeServers = new CopyOnWriteArrayList<>(collector.getBuildServers());
 
         clean(collector, existingJobs);
+        Map<HudsonJob, HudsonJob> existingByJob = indexJobs(existingJobs);
 
-        for (String instanceUrl : collector.getBuildServers()) {
-            logBanner(instanceUrl);
+        List<String> servers = collector.getBuildServers();
+        if (!CollectionUtils.isEmpty(servers)) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(hudsonSettings.getServerThreads(), servers.size())));
+            List<Future<?>> futures = new ArrayList<>(servers.size());
             try {
-                Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob = hudsonClient
-                        .getInstanceJobs(instanceUrl);
-                log("Fetched jobs", start);
-                activeJobs.addAll(dataByJob.keySet());
-                addNewJobs(dataByJob.keySet(), existingJobs, collector);
-                addNewBuilds(enabledJobs(collector, instanceUrl), dataByJob);
-                addNewConfigs(enabledJobs(collector, instanceUrl), dataByJob);
-                log("Finished", start);
-            } catch (RestClientException rce) {
-                activeServers.remove(instanceUrl); // since it was a rest exception, we will not delete this job  and wait for
-                // rest exceptions to clear up at a later run.
-                log("Error getting jobs for: " + instanceUrl, start);
+                for (String instanceUrl : servers) {
+                    futures.add(executor.submit(() -> collectInstance(collector, instanceUrl, existingByJob, activeJobs, activeServers)));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        futures.get(i).get();
+                    } catch (ExecutionException e) {
+                        // keep the jobs of a server that failed unexpectedly, as for rest exceptions
+                        activeServers.remove(servers.get(i));
+                        log("Error collecting " + servers.get(i) + ": " + e.getCause(), start);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log("Interrupted", start);
+                return;
+            } finally {
+                executor.shutdownNow();
             }
         }
         // Delete jobs that will be no longer collected because servers have moved etc.
         deleteUnwantedJobs(activeJobs, existingJobs, activeServers, collector);
     }
 
+    /**
+     * Collects the jobs of one server. The jobs are reconciled a page at a time as they are fetched.
+     * The build details of all pages of the server are fetched on one pool of
+     * {@link HudsonSettings#getBuildDetailThreads()} threads, so each server is limited on its own.
+     */
+    private void collectInstance(HudsonCollector collector, String instanceUrl, Map<HudsonJob, HudsonJob> existingByJob,
+                                 Set<HudsonJob> activeJobs, List<String> activeServers) {
+        long start = System.currentTimeMillis();
+        logBanner(instanceUrl);
+        ExecutorService buildDetailExecutor = Executors.newFixedThreadPool(Math.max(1, hudsonSettings.getBuildDetailThreads()));
+        try {
+            // new jobs are added disabled, so the enabled jobs do not change while the pages are processed
+            List<HudsonJob> enabledJobs = enabledJobs(collector, instanceUrl);
+            hudsonClient.getInstanceJobs(instanceUrl, dataByJob -> {
+                activeJobs.addAll(dataByJob.keySet());
+                addNewJobs(dataByJob.keySet(), existingByJob, collector);
+                List<HudsonJob> pageEnabledJobs = enabledJobs.stream().filter(dataByJob::containsKey).collect(Collectors.toList());
+                addNewBuilds(pageEnabledJobs, dataByJob, buildDetailExecutor);
+                addNewConfigs(pageEnabledJobs, dataByJob);
+            });
+            log("Finished " + instanceUrl, start);
+        } catch (RestClientException rce) {
+            activeServers.remove(instanceUrl); // since it was a rest exception, we will not delete this job  and wait for
+            // rest exceptions to clear up at a later run.
+            log("Error getting jobs for: " + instanceUrl, start);
+        } finally {
+            buildDetailExecutor.shutdownNow();
+        }
+    }
+
     /**
      * Clean up unused hudson/jenkins collector items
      *
@@ -186,7 +237,7 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
      * @param activeServers
      * @param collector
      */
-    private void deleteUnwantedJobs(List<HudsonJob> activeJobs, List<HudsonJob> existingJobs, List<String> activeServers, HudsonCollector collector) {
+    private void deleteUnwantedJobs(Set<HudsonJob> activeJobs, List<HudsonJob> existingJobs, List<String> activeServers, HudsonCollector collector) {
 
         List<HudsonJob> deleteJobList = new ArrayList<>();
         for (HudsonJob job : existingJobs) {
@@ -215,45 +266,108 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 
     /**
      * Iterates over the enabled build jobs and adds new builds to the database.
+     * <p>
+     * The builds already collected for a job are found with one query. Build details are fetched
+     * concurrently on the executor of the instance, at most {@link HudsonSettings#getBuildDetailThreads()}
+     * at a time, and the builds of each job are saved together.
      *
      * @param enabledJobs list of enabled {@link HudsonJob}s
      * @param dataByJob maps a {@link HudsonJob} to a map of data with {@link Build}s.
+     * @param buildDetailExecutor fetches the build details
      */
     private void addNewBuilds(List<HudsonJob> enabledJobs,
-                              Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob) {
+                              Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob,
+                              ExecutorService buildDetailExecutor) {
         long start = System.currentTimeMillis();
         int count = 0;
 
+        Map<HudsonJob, List<Build>> newBuildsByJob = new LinkedHashMap<>();
         for (HudsonJob job : enabledJobs) {
             if (job.isPushed()) continue;
-            // process new builds in the order of their build numbers - this has implication to handling of commits in BuildEventListener
 
             Map<HudsonClient.jobData, Set<BaseModel>> jobDataSetMap = dataByJob.get(job);
             if (jobDataSetMap == null) {
                 continue;
             }
-            Set<BaseModel> buildsSet = jobDataSetMap.get(HudsonClient.jobData.BUILD);
-
-            ArrayList<BaseModel> builds = Lists.newArrayList(nullSafe(buildsSet));
+            List<Build> newBuilds = getNewBuilds(job, jobDataSetMap.get(HudsonClient.jobData.BUILD));
+            if (!newBuilds.isEmpty()) {
+                newBuildsByJob.put(job, newBuilds);
+            }
+        }
+        if (newBuildsByJob.isEmpty()) {
+            log("New builds", start, count);
+            return;
+        }
 
-            builds.sort(Comparator.comparingInt(b -> Integer.valueOf(((Build) b).getNumber())));
-            for (BaseModel buildSummary : builds) {
-                if (isNewBuild(job, (Build)buildSummary)) {
-                    Build build = hudsonClient.getBuildDetails(((Build)buildSummary)
-                            .getBuildUrl(), job.getInstanceUrl());
-                    job.setLastUpdated(System.currentTimeMillis());
-                    hudsonJobRepository.save(job);
+        List<HudsonJob> updatedJobs = new ArrayList<>();
+        Map<HudsonJob, List<Future<Build>>> detailsByJob = new LinkedHashMap<>();
+        try {
+            newBuildsByJob.forEach((job, builds) -> detailsByJob.put(job, builds.stream()
+                    .map(build -> buildDetailExecutor.submit(() -> hudsonClient.getBuildDetails(build.getBuildUrl(), job.getInstanceUrl())))
+                    .collect(Collectors.toList())));
+
+            for (Map.Entry<HudsonJob, List<Future<Build>>> entry : detailsByJob.entrySet()) {
+                HudsonJob job = entry.getKey();
+                // save new builds in the order of their build numbers - this has implication to handling of commits in BuildEventListener
+                List<Build> builds = new ArrayList<>();
+                for (Future<Build> details : entry.getValue()) {
+                    Build build = getBuildDetails(details);
                     if (build != null) {
                         build.setCollectorItemId(job.getId());
-                        buildRepository.save(build);
-                        count++;
+                        builds.add(build);
                     }
                 }
+                job.setLastUpdated(System.currentTimeMillis());
+                updatedJobs.add(job);
+                if (!builds.isEmpty()) {
+                    buildRepository.save(builds);
+                    count += builds.size();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log("Interrupted fetching build details", start);
+        } finally {
+            // the executor is shared by the pages of the instance, only the details of this page that are left over are cancelled
+            detailsByJob.values().forEach(details -> details.forEach(future -> future.cancel(true)));
+            if (!updatedJobs.isEmpty()) {
+                hudsonJobRepository.save(updatedJobs);
             }
         }
         log("New builds", start, count);
     }
 
+    /**
+     * @return the builds of the job that are not in the database yet, sorted by build number
+     */
+    private List<Build> getNewBuilds(HudsonJob job, Set<BaseModel> buildSummaries) {
+        List<Build> builds = nullSafe(buildSummaries).stream()
+                .map(Build.class::cast)
+                .sorted(Comparator.comparingInt(b -> Integer.valueOf(b.getNumber())))
+                .collect(Collectors.toList());
+        if (builds.isEmpty()) {
+            return builds;
+        }
+
+        Set<String> numbers = builds.stream().map(Build::getNumber).collect(Collectors.toSet());
+        Set<String> existingNumbers = hudsonBuildRepository.findNumbers(job.getId(), numbers).stream()
+                .map(Build::getNumber).collect(Collectors.toSet());
+        builds.removeIf(build -> existingNumbers.contains(build.getNumber()));
+        return builds;
+    }
+
+    private static Build getBuildDetails(Future<Build> details) throws InterruptedException {
+        try {
+            return details.get();
+        } catch (ExecutionException e) {
+            // let client errors end the instance as they did when details were fetched inline
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     private void addNewConfigs(List<HudsonJob> enabledJobs,
                               Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> dataByJob) {
         long start = System.currentTimeMillis();
@@ -293,20 +407,18 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
     /**
      * Adds new {@link HudsonJob}s to the database as disabled jobs.
      *
-     * @param jobs         list of {@link HudsonJob}s
-     * @param existingJobs
-     * @param collector    the {@link HudsonCollector}
+     * @param jobs          list of {@link HudsonJob}s
+     * @param existingByJob the existing jobs, see {@link #indexJobs(List)}
+     * @param collector     the {@link HudsonCollector}
      */
-    private void addNewJobs(Set<HudsonJob> jobs, List<HudsonJob> existingJobs, HudsonCollector collector) {
+    private void addNewJobs(Set<HudsonJob> jobs, Map<HudsonJob, HudsonJob> existingByJob, HudsonCollector collector) {
         long start = System.currentTimeMillis();
         int count = 0;
 
         List<HudsonJob> newJobs = new ArrayList<>();
+        List<HudsonJob> updatedJobs = new ArrayList<>();
         for (HudsonJob job : jobs) {
-            HudsonJob existing = null;
-            if (!CollectionUtils.isEmpty(existingJobs) && (existingJobs.contains(job))) {
-                existing = existingJobs.get(existingJobs.indexOf(job));
-            }
+            HudsonJob existing = existingByJob.get(job);
 
             String niceName = getNiceName(job, collector);
             String environment = getEnvironment(job, collector);
@@ -323,20 +435,27 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
                 newJobs.add(job);
                 count++;
             } else {
+                boolean updated = false;
                 if (StringUtils.isEmpty(existing.getNiceName()) && StringUtils.isNotEmpty(niceName)) {
                     existing.setNiceName(niceName);
-                    hudsonJobRepository.save(existing);
+                    updated = true;
                 }
                 if (StringUtils.isEmpty(existing.getEnvironment()) && StringUtils.isNotEmpty(environment)) {
                     existing.setEnvironment(environment);
-                    hudsonJobRepository.save(existing);
+                    updated = true;
                 }
                 if (StringUtils.isEmpty(existing.getInstanceUrl())) {
                     existing.setInstanceUrl(job.getInstanceUrl());
-                    hudsonJobRepository.save(existing);
+                    updated = true;
+                }
+                if (updated) {
+                    updatedJobs.add(existing);
                 }
             }
         }
+        if (!CollectionUtils.isEmpty(updatedJobs)) {
+            hudsonJobRepository.save(updatedJobs);
+        }
         //save all in one shot
         if (!CollectionUtils.isEmpty(newJobs)) {
             hudsonJobRepository.save(newJobs);
@@ -344,6 +463,22 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
         log("New jobs", start, count);
     }
 
+    /**
+     * Indexes the existing jobs by job name and url so the jobs from the servers can be matched with a lookup
+     */
+    private static Map<HudsonJob, HudsonJob> indexJobs(List<HudsonJob> existingJobs) {
+        Map<HudsonJob, HudsonJob> existingByJob = new HashMap<>();
+        if (!CollectionUtils.isEmpty(existingJobs)) {
+            for (HudsonJob existing : existingJobs) {
+                // a job without a name or url can never match a job from the server
+                if (existing.getJobUrl() != null && existing.getJobName() != null) {
+                    existingByJob.putIfAbsent(existing, existing);
+                }
+            }
+        }
+        return existingByJob;
+    }
+
     private String getNiceName(HudsonJob job, HudsonCollector collector) {
         if (CollectionUtils.isEmpty(collector.getBuildServers())) return "";
         List<String> servers = collector.getBuildServers();
@@ -382,11 +517,6 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
                 job.getInstanceUrl(), job.getJobName());
     }
 
-    private boolean isNewBuild(HudsonJob job, Build build) {
-        return buildRepository.findByCollectorItemIdAndNumber(job.getId(),
-                build.getNumber()) == null;
-    }
-
     private boolean isNewConfig(HudsonJob job, CollectorItemConfigHistory config) {
         return configRepository.findByCollectorItemIdAndTimestamp(job.getId(),config.getTimestamp()) == null;
     }
@@ -26,6 +26,9 @@ public class HudsonSettings {
     private int pageSize;
     @Value("${folderDepth:10}")
     private int folderDepth;
+    private int buildDetailThreads = 4;
+    private int serverThreads = 10;
+    private int pageThreads = 2;
 
     public String getCron() {
         return cron;
@@ -115,4 +118,28 @@ public class HudsonSettings {
     public int getFolderDepth() {
         return folderDepth;
     }
+
+    public int getBuildDetailThreads() {
+        return buildDetailThreads;
+    }
+
+    public void setBuildDetailThreads(int buildDetailThreads) {
+        this.buildDetailThreads = buildDetailThreads;
+    }
+
+    public int getServerThreads() {
+        return serverThreads;
+    }
+
+    public void setServerThreads(int serverThreads) {
+        this.serverThreads = serverThreads;
+    }
+
+    public int getPageThreads() {
+        return pageThreads;
+    }
+
+    public void setPageThreads(int pageThreads) {
+        this.pageThreads = pageThreads;
+    }
 }
@@ -0,0 +1,18 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Build;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lookups of the builds already collected for a job
+ */
+public interface HudsonBuildRepository extends CrudRepository<Build, ObjectId> {
+
+    @Query(value = "{ 'collectorItemId' : ?0, 'number' : { $in : ?1 } }", fields = "{ 'number' : 1 }")
+    List<Build> findNumbers(ObjectId collectorItemId, Collection<String> numbers);
+}
@@ -7,6 +7,7 @@ import com.capitalone.dashboard.model.HudsonCollector;
 import com.capitalone.dashboard.model.HudsonJob;
 import com.capitalone.dashboard.repository.BuildRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.HudsonBuildRepository;
 import com.capitalone.dashboard.repository.HudsonCollectorRepository;
 import com.capitalone.dashboard.repository.HudsonJobRepository;
 import com.google.common.collect.Sets;
@@ -17,16 +18,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.client.RestClientException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -46,6 +56,8 @@ public class HudsonCollectorTaskTests {
     @Mock
     private BuildRepository buildRepository;
     @Mock
+    private HudsonBuildRepository hudsonBuildRepository;
+    @Mock
     private HudsonClient hudsonClient;
     @Mock
     private HudsonSettings hudsonSettings;
@@ -56,6 +68,7 @@ public class HudsonCollectorTaskTests {
     private HudsonCollectorTask task;
 
     private static final String SERVER1 = "server1";
+    private static final String SERVER2 = "server2";
     private static final String NICENAME1 = "niceName1";
     private static final String ENVIONMENT1 = "DEV";
 
@@ -68,36 +81,38 @@ public class HudsonCollectorTaskTests {
 
     @Test
     public void collect_noJobsOnServer_nothingAdded() {
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(new HashMap<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>());
+        instanceJobs(SERVER1, new HashMap<>());
         when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collectorWithOneServer());
 
-        verify(hudsonClient).getInstanceJobs(SERVER1);
+        verify(hudsonClient).getInstanceJobs(eq(SERVER1), any(Consumer.class));
         verifyNoMoreInteractions(hudsonClient, buildRepository);
     }
 
     @Test
     public void collect_twoJobs_jobsAdded() {
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(twoJobsWithTwoBuilds(SERVER1, NICENAME1));
+        instanceJobs(SERVER1, twoJobsWithTwoBuilds(SERVER1, NICENAME1));
         when(dbComponentRepository.findAll()).thenReturn(components());
         List<HudsonJob> hudsonJobs = new ArrayList<>();
         HudsonJob hudsonJob = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
         hudsonJobs.add(hudsonJob);
         when(hudsonJobRepository.findEnabledJobs(null, "server1")).thenReturn(hudsonJobs);
         task.collect(collectorWithOneServer());
-        verify(hudsonJobRepository, times(1)).save(anyListOf(HudsonJob.class));
+        // the new jobs, then the enabled job whose builds were checked
+        verify(hudsonJobRepository, times(2)).save(anyListOf(HudsonJob.class));
     }
 
     @Test
     public void collect_twoJobs_jobsAdded_random_order() {
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(twoJobsWithTwoBuilds(SERVER1, NICENAME1));
+        instanceJobs(SERVER1, twoJobsWithTwoBuilds(SERVER1, NICENAME1));
         when(dbComponentRepository.findAll()).thenReturn(components());
         List<HudsonJob> hudsonJobs = new ArrayList<>();
         HudsonJob hudsonJob = hudsonJob("2", SERVER1, "JOB2_URL", NICENAME1);
         hudsonJobs.add(hudsonJob);
         when(hudsonJobRepository.findEnabledJobs(null, "server1")).thenReturn(hudsonJobs);
         task.collect(collectorWithOneServer());
-        verify(hudsonJobRepository, times(1)).save(anyListOf(HudsonJob.class));
+        // the new jobs, then the enabled job whose builds were checked
+        verify(hudsonJobRepository, times(2)).save(anyListOf(HudsonJob.class));
     }
 
 
@@ -105,7 +120,7 @@ public class HudsonCollectorTaskTests {
     public void collect_oneJob_exists_notAdded() {
         HudsonCollector collector = collectorWithOneServer();
         HudsonJob job = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job));
+        instanceJobs(SERVER1, oneJobWithBuilds(job));
         when(hudsonJobRepository.findJob(collector.getId(), SERVER1, job.getJobName()))
                 .thenReturn(job);
         when(dbComponentRepository.findAll()).thenReturn(components());
@@ -129,7 +144,7 @@ public class HudsonCollectorTaskTests {
         jobs.add(job2);
         Set<ObjectId> udId = new HashSet<>();
         udId.add(collector.getId());
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job1));
+        instanceJobs(SERVER1, oneJobWithBuilds(job1));
         when(hudsonJobRepository.findByCollectorIdIn(udId)).thenReturn(jobs);
         when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
@@ -148,7 +163,7 @@ public class HudsonCollectorTaskTests {
         jobs.add(job1);
         Set<ObjectId> udId = new HashSet<>();
         udId.add(collector.getId());
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job1));
+        instanceJobs(SERVER1, oneJobWithBuilds(job1));
         when(hudsonJobRepository.findByCollectorIdIn(udId)).thenReturn(jobs);
         when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
@@ -161,11 +176,11 @@ public class HudsonCollectorTaskTests {
         HudsonJob job = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
         Build build = build("1", "JOB1_1_URL");
 
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
+        instanceJobs(SERVER1, oneJobWithBuilds(job, build));
         when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
-        verify(buildRepository, never()).save(build);
+        verify(buildRepository, never()).save(anyListOf(Build.class));
     }
 
     @Test
@@ -174,14 +189,15 @@ public class HudsonCollectorTaskTests {
         HudsonJob job = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
         Build build = build("1", "JOB1_1_URL");
 
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
+        instanceJobs(SERVER1, oneJobWithBuilds(job, build));
         when(hudsonJobRepository.findEnabledJobs(collector.getId(), SERVER1))
                 .thenReturn(Arrays.asList(job));
-        when(buildRepository.findByCollectorItemIdAndNumber(job.getId(), build.getNumber())).thenReturn(build);
+        when(hudsonBuildRepository.findNumbers(job.getId(), Collections.singleton(build.getNumber()))).thenReturn(Collections.singletonList(build));
         when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
-        verify(buildRepository, never()).save(build);
+        verify(buildRepository, never()).save(anyListOf(Build.class));
+        verify(hudsonClient, never()).getBuildDetails(build.getBuildUrl(), job.getInstanceUrl());
     }
 
     @Test
@@ -190,15 +206,109 @@ public class HudsonCollectorTaskTests {
         HudsonJob job = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
         Build build = build("1", "JOB1_1_URL");
 
-        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
+        instanceJobs(SERVER1, oneJobWithBuilds(job, build));
         when(hudsonJobRepository.findEnabledJobs(collector.getId(), SERVER1))
                 .thenReturn(Arrays.asList(job));
-        when(buildRepository.findByCollectorItemIdAndNumber(job.getId(), build.getNumber())).thenReturn(null);
+        when(hudsonBuildRepository.findNumbers(job.getId(), Collections.singleton(build.getNumber()))).thenReturn(new ArrayList<>());
         when(hudsonClient.getBuildDetails(build.getBuildUrl(), job.getInstanceUrl())).thenReturn(build);
         when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
-        verify(buildRepository, times(1)).save(build);
+        verify(buildRepository, times(1)).save(Collections.singletonList(build));
+        assertTrue(job.getLastUpdated() > 0);
+    }
+
+    @Test
+    public void collect_jobEnabled_newBuilds_savedInBuildNumberOrder() {
+        HudsonCollector collector = collectorWithOneServer();
+        HudsonJob job = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
+        Build build2 = build("2", "JOB1_2_URL");
+        Build build10 = build("10", "JOB1_10_URL");
+        Build build9 = build("9", "JOB1_9_URL");
+
+        instanceJobs(SERVER1, oneJobWithBuilds(job, build10, build2, build9));
+        when(hudsonJobRepository.findEnabledJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        when(hudsonBuildRepository.findNumbers(job.getId(), Sets.newHashSet("2", "9", "10"))).thenReturn(Collections.singletonList(build9));
+        when(hudsonSettings.getBuildDetailThreads()).thenReturn(3);
+        when(hudsonClient.getBuildDetails(build2.getBuildUrl(), job.getInstanceUrl())).thenReturn(build2);
+        when(hudsonClient.getBuildDetails(build10.getBuildUrl(), job.getInstanceUrl())).thenReturn(build10);
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        task.collect(collector);
+
+        verify(buildRepository, times(1)).save(Arrays.asList(build2, build10));
+        verify(hudsonClient, never()).getBuildDetails(build9.getBuildUrl(), job.getInstanceUrl());
+    }
+
+    @Test
+    public void collect_existingJob_updatedOnce() {
+        HudsonCollector collector = collectorWithOneServer();
+        collector.setId(ObjectId.get());
+        HudsonJob existing = hudsonJob("1", null, "JOB1_URL", null);
+        existing.setCollectorId(collector.getId());
+        Set<ObjectId> udId = new HashSet<>();
+        udId.add(collector.getId());
+        when(hudsonJobRepository.findByCollectorIdIn(udId)).thenReturn(Collections.singletonList(existing));
+        instanceJobs(SERVER1, oneJobWithBuilds(hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1)));
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        task.collect(collector);
+
+        verify(hudsonJobRepository, times(1)).save(Collections.singletonList(existing));
+        assertEquals(NICENAME1, existing.getNiceName());
+        assertEquals(ENVIONMENT1, existing.getEnvironment());
+        assertEquals(SERVER1, existing.getInstanceUrl());
+    }
+
+    @Test
+    public void collect_jobsOnTwoPages_noneDeleted() {
+        HudsonCollector collector = collectorWithOneServer();
+        collector.setId(ObjectId.get());
+        HudsonJob existing = hudsonJob("2", SERVER1, "JOB2_URL", NICENAME1);
+        existing.setCollectorId(collector.getId());
+        Set<ObjectId> udId = new HashSet<>();
+        udId.add(collector.getId());
+        when(hudsonJobRepository.findByCollectorIdIn(udId)).thenReturn(Collections.singletonList(existing));
+        instanceJobs(SERVER1, oneJobWithBuilds(hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1)),
+                oneJobWithBuilds(hudsonJob("2", SERVER1, "JOB2_URL", NICENAME1)));
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        task.collect(collector);
+
+        verify(hudsonJobRepository, never()).delete(anyListOf(HudsonJob.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void collect_serverDown_jobsKept() {
+        HudsonCollector collector = HudsonCollector.prototype(Arrays.asList(SERVER1, SERVER2), Arrays.asList(NICENAME1, NICENAME1),
+                Arrays.asList(ENVIONMENT1, ENVIONMENT1));
+        collector.setId(ObjectId.get());
+        HudsonJob gone = hudsonJob("1", SERVER1, "JOB1_URL", NICENAME1);
+        gone.setCollectorId(collector.getId());
+        HudsonJob unreachable = hudsonJob("2", SERVER2, "JOB2_URL", NICENAME1);
+        unreachable.setCollectorId(collector.getId());
+        Set<ObjectId> udId = new HashSet<>();
+        udId.add(collector.getId());
+        when(hudsonJobRepository.findByCollectorIdIn(udId)).thenReturn(Arrays.asList(gone, unreachable));
+        instanceJobs(SERVER1, new HashMap<>());
+        doThrow(new RestClientException("down")).when(hudsonClient).getInstanceJobs(eq(SERVER2), any(Consumer.class));
+        when(hudsonSettings.getServerThreads()).thenReturn(2);
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        task.collect(collector);
+
+        verify(hudsonJobRepository).delete(Collections.singletonList(gone));
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private final void instanceJobs(String server, Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>... pages) {
+        doAnswer(invocation -> {
+            Consumer<Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>> consumer =
+                    (Consumer<Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>>>) invocation.getArguments()[1];
+            for (Map<HudsonJob, Map<HudsonClient.jobData, Set<BaseModel>>> page : pages) {
+                consumer.accept(page);
+            }
+            return null;
+        }).when(hudsonClient).getInstanceJobs(eq(server), any(Consumer.class));
     }
 
     private HudsonCollector collectorWithOneServer() {
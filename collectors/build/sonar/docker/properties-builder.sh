@@ -26,6 +26,9 @@ sonar.metrics[0]=${SONAR_METRICS:-ncloc,line_coverage,violations,critical_violat
 #Sonar Version - see above for semantics between version/metrics
 sonar.versions[0]=${SONAR_VERSION}
 
+#Number of servers collected at the same time
+sonar.serverThreads=${SONAR_SERVER_THREADS:-4}
+
 EOF
 
 echo "
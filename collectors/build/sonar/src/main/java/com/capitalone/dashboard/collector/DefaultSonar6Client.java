@@ -29,7 +29,9 @@ import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class DefaultSonar6Client implements SonarClient {
@@ -37,6 +39,7 @@ public class DefaultSonar6Client implements SonarClient {
 
     private static final String URL_RESOURCES = "/api/components/search?qualifiers=TRK&ps=500";
     private static final String URL_RESOURCE_DETAILS = "/api/measures/component?format=json&componentId=%s&metricKeys=%s&includealerts=true";
+    private static final String URL_MEASURES_SEARCH = "/api/measures/search?projectKeys=%s&metricKeys=%s";
     private static final String URL_PROJECT_ANALYSES = "/api/project_analyses/search?project=%s";
     private static final String URL_QUALITY_PROFILES = "/api/qualityprofiles/search";
     private static final String URL_QUALITY_PROFILE_PROJECT_DETAILS = "/api/qualityprofiles/projects?key=";
@@ -64,6 +67,10 @@ public class DefaultSonar6Client implements SonarClient {
     private static final String DAYS_FORMAT = "%sd";
     private static final int HOURS_IN_DAY = 8;
     private static final int PAGE_SIZE=500;
+    // the most project keys the measures search accepts
+    private static final int MEASURES_SEARCH_PAGE_SIZE = 100;
+    // the most changelog events the server returns per page
+    private static final int CHANGELOG_PAGE_SIZE = 500;
 
     @Autowired
     public DefaultSonar6Client(Supplier<RestOperations> restOperationsSupplier, SonarSettings settings) {
@@ -88,6 +95,7 @@ public class DefaultSonar6Client implements SonarClient {
                 project.setInstanceUrl(instanceUrl);
                 project.setProjectId(str(prjData, ID));
                 project.setProjectName(str(prjData, NAME));
+                project.setProjectKey(str(prjData, KEY));
                 projects.add(project);
             }
 
@@ -154,20 +162,7 @@ public class DefaultSonar6Client implements SonarClient {
                 JSONArray jsonArray = parseAsArray(url, key);
                 getProjectAnalysis(codeQuality, jsonArray);
                 for (Object metricObj : (JSONArray) prjData.get(MSR)) {
-                    JSONObject metricJson = (JSONObject) metricObj;
-
-                    CodeQualityMetric metric = new CodeQualityMetric(str(metricJson, METRIC));
-                    metric.setValue(str(metricJson, VALUE));
-                    if (metric.getName().equals("sqale_index")) {
-                        metric.setFormattedValue(format(str(metricJson, VALUE)));
-                    } else if (strSafe(metricJson, VALUE).indexOf(".") > 0) {
-                        metric.setFormattedValue(str(metricJson, VALUE) + "%" );
-                    } else if (strSafe(metricJson, VALUE).matches("\\d+")) {
-                        metric.setFormattedValue(String.format("%,d", integer(metricJson, VALUE)));
-                    } else {
-                        metric.setFormattedValue(str(metricJson, VALUE));
-                    }
-                    codeQuality.getMetrics().add(metric);
+                    codeQuality.getMetrics().add(metric((JSONObject) metricObj));
                 }
 
                 return codeQuality;
@@ -182,6 +177,93 @@ public class DefaultSonar6Client implements SonarClient {
         return null;
     }
 
+    /**
+     * Searches the measures of up to {@link #MEASURES_SEARCH_PAGE_SIZE} projects per call instead of
+     * one call per project. Only the latest analysis is still read per project, for its date and version.
+     * Projects without a key, which are only known once the server has listed them, are fetched one by one.
+     */
+    @Override
+    public Map<SonarProject, CodeQuality> currentCodeQuality(List<SonarProject> projects, String metrics) {
+        Map<SonarProject, CodeQuality> codeQualities = new LinkedHashMap<>();
+        Map<String, Map<String, SonarProject>> projectsByInstance = new LinkedHashMap<>();
+        for (SonarProject project : projects) {
+            if (StringUtils.isEmpty(project.getProjectKey())) {
+                CodeQuality codeQuality = currentCodeQuality(project, metrics);
+                if (codeQuality != null) {
+                    codeQualities.put(project, codeQuality);
+                }
+            } else {
+                projectsByInstance.computeIfAbsent(project.getInstanceUrl(), instanceUrl -> new LinkedHashMap<>())
+                        .put(project.getProjectKey(), project);
+            }
+        }
+
+        projectsByInstance.forEach((instanceUrl, projectsByKey) -> {
+            List<String> keys = new ArrayList<>(projectsByKey.keySet());
+            for (int from = 0; from < keys.size(); from += MEASURES_SEARCH_PAGE_SIZE) {
+                List<String> page = keys.subList(from, Math.min(keys.size(), from + MEASURES_SEARCH_PAGE_SIZE));
+                searchCodeQuality(instanceUrl, page, projectsByKey, metrics, codeQualities);
+            }
+        });
+        return codeQualities;
+    }
+
+    private void searchCodeQuality(String instanceUrl, List<String> keys, Map<String, SonarProject> projectsByKey,
+                                   String metrics, Map<SonarProject, CodeQuality> codeQualities) {
+        String url = String.format(instanceUrl + URL_MEASURES_SEARCH, String.join(",", keys), metrics);
+        Map<String, CodeQuality> codeQualitiesByKey = new LinkedHashMap<>();
+        try {
+            for (Object metricObj : parseAsArray(url, MSR)) {
+                JSONObject metricJson = (JSONObject) metricObj;
+                String key = str(metricJson, "component");
+                SonarProject project = projectsByKey.get(key);
+                if (project == null) {
+                    continue;
+                }
+                codeQualitiesByKey.computeIfAbsent(key, k -> {
+                    CodeQuality codeQuality = new CodeQuality();
+                    codeQuality.setType(CodeQualityType.StaticAnalysis);
+                    codeQuality.setName(project.getProjectName());
+                    codeQuality.setUrl(new SonarDashboardUrl(instanceUrl, k).toString());
+                    return codeQuality;
+                }).getMetrics().add(metric(metricJson));
+            }
+        } catch (ParseException e) {
+            LOG.error("Could not parse response from: " + url, e);
+            return;
+        } catch (RestClientException rce) {
+            LOG.error("Rest Client Exception: " + url + ":" + rce.getMessage());
+            return;
+        }
+
+        for (Map.Entry<String, CodeQuality> entry : codeQualitiesByKey.entrySet()) {
+            url = String.format(instanceUrl + URL_PROJECT_ANALYSES, entry.getKey());
+            try {
+                getProjectAnalysis(entry.getValue(), parseAsArray(url, "analyses"));
+                codeQualities.put(projectsByKey.get(entry.getKey()), entry.getValue());
+            } catch (ParseException e) {
+                LOG.error("Could not parse response from: " + url, e);
+            } catch (RestClientException rce) {
+                LOG.error("Rest Client Exception: " + url + ":" + rce.getMessage());
+            }
+        }
+    }
+
+    private CodeQualityMetric metric(JSONObject metricJson) {
+        CodeQualityMetric metric = new CodeQualityMetric(str(metricJson, METRIC));
+        metric.setValue(str(metricJson, VALUE));
+        if (metric.getName().equals("sqale_index")) {
+            metric.setFormattedValue(format(str(metricJson, VALUE)));
+        } else if (strSafe(metricJson, VALUE).indexOf(".") > 0) {
+            metric.setFormattedValue(str(metricJson, VALUE) + "%" );
+        } else if (strSafe(metricJson, VALUE).matches("\\d+")) {
+            metric.setFormattedValue(String.format("%,d", integer(metricJson, VALUE)));
+        } else {
+            metric.setFormattedValue(str(metricJson, VALUE));
+        }
+        return metric;
+    }
+
     private void getProjectAnalysis(CodeQuality codeQuality, JSONArray jsonArray) {
         if(jsonArray!=null && !jsonArray.isEmpty()) {
             JSONObject prjLatestData = (JSONObject) jsonArray.get(0);
@@ -233,10 +315,21 @@ public class DefaultSonar6Client implements SonarClient {
     	}
     }
     
-    public JSONArray getQualityProfileConfigurationChanges(String instanceUrl,String qualityProfile) throws ParseException{
-    	String url = instanceUrl + URL_QUALITY_PROFILE_CHANGES + qualityProfile;
+    public JSONArray getQualityProfileConfigurationChanges(String instanceUrl,String qualityProfile, long since) throws ParseException{
+    	String url = instanceUrl + URL_QUALITY_PROFILE_CHANGES + qualityProfile + "&ps=" + CHANGELOG_PAGE_SIZE + SonarClient.changelogSince(since);
     	try {
-    		JSONArray qualityProfileConfigChanges = this.parseAsArray(url, "events");
+    		JSONArray qualityProfileConfigChanges = new JSONArray();
+    		for (int page = 1; ; page++) {
+    			JSONObject response = getResponse(url + "&p=" + page);
+    			JSONArray events = (JSONArray) response.get("events");
+    			if (CollectionUtils.isEmpty(events)) {
+    				break;
+    			}
+    			qualityProfileConfigChanges.addAll(events);
+    			if (events.size() < CHANGELOG_PAGE_SIZE || qualityProfileConfigChanges.size() >= changelogTotal(response)) {
+    				break;
+    			}
+    		}
     		return qualityProfileConfigChanges;
     	} catch (ParseException e) {
     		LOG.error("Could not parse response from: " + url, e);
@@ -247,6 +340,14 @@ public class DefaultSonar6Client implements SonarClient {
     	}
     }
 
+    private long changelogTotal(JSONObject response) {
+        Object total = response.get("total");
+        if (total == null && response.get("paging") != null) {
+            total = ((JSONObject) response.get("paging")).get("total");
+        }
+        return total == null ? Long.MAX_VALUE : Long.parseLong(total.toString());
+    }
+
     private JSONArray parseAsArray(String url, String key) throws ParseException {
         JSONObject jsonObject = getResponse(url);
         return (JSONArray) jsonObject.get(key);
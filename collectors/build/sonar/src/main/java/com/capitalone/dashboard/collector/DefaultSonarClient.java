@@ -54,6 +54,8 @@ public class DefaultSonarClient implements SonarClient {
     protected static final String STATUS_WARN = "WARN";
     protected static final String STATUS_ALERT = "ALERT";
     protected static final String DATE = "date";
+    // the most changelog events the server returns per page
+    protected static final int CHANGELOG_PAGE_SIZE = 500;
 
     protected final RestOperations rest;
     protected final HttpEntity<String> httpHeaders;
@@ -171,10 +173,22 @@ public class DefaultSonarClient implements SonarClient {
     	}
     }
     
-   public JSONArray getQualityProfileConfigurationChanges(String instanceUrl,String qualityProfile) throws ParseException{
-	   String url = instanceUrl + URL_QUALITY_PROFILE_CHANGES + qualityProfile;
+   public JSONArray getQualityProfileConfigurationChanges(String instanceUrl,String qualityProfile, long since) throws ParseException{
+	   String url = instanceUrl + URL_QUALITY_PROFILE_CHANGES + qualityProfile + "&ps=" + CHANGELOG_PAGE_SIZE + SonarClient.changelogSince(since);
 	   try {
-		   JSONArray qualityProfileConfigChanges = this.parseAsArray(url, "events");
+		   JSONArray qualityProfileConfigChanges = new JSONArray();
+		   for (int page = 1; ; page++) {
+			   JSONObject response = parseAsObject(url + "&p=" + page);
+			   JSONArray events = (JSONArray) response.get("events");
+			   if (CollectionUtils.isEmpty(events)) {
+				   break;
+			   }
+			   qualityProfileConfigChanges.addAll(events);
+			   Object total = response.get("total");
+			   if (events.size() < CHANGELOG_PAGE_SIZE || (total != null && qualityProfileConfigChanges.size() >= Long.parseLong(total.toString()))) {
+				   break;
+			   }
+		   }
 		   return qualityProfileConfigChanges;
 	   } catch (ParseException e) {
 		   LOG.error("Could not parse response from: " + url, e);
@@ -190,6 +204,12 @@ public class DefaultSonarClient implements SonarClient {
         return (JSONArray) new JSONParser().parse(response.getBody());
     }
 
+    protected JSONObject parseAsObject(String url) throws ParseException {
+        ResponseEntity<String> response = rest.exchange(url, HttpMethod.GET, this.httpHeaders, String.class);
+        LOG.debug(url);
+        return (JSONObject) new JSONParser().parse(response.getBody());
+    }
+
     protected JSONArray parseAsArray(String url, String key) throws ParseException {
         ResponseEntity<String> response = rest.exchange(url, HttpMethod.GET, this.httpHeaders, String.class);
         JSONParser jsonParser = new JSONParser();
@@ -3,7 +3,12 @@ package com.capitalone.dashboard.collector;
 import com.capitalone.dashboard.model.CodeQuality;
 import com.capitalone.dashboard.model.SonarProject;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.json.simple.JSONArray;
 import org.json.simple.parser.ParseException;
@@ -12,8 +17,43 @@ public interface SonarClient {
 
     List<SonarProject> getProjects(String instanceUrl);
     CodeQuality currentCodeQuality(SonarProject project, String metrics);
+
+    /**
+     * Fetches the current code quality of several projects of one server.
+     * Clients that cannot search the measures of several projects at once fetch them one by one.
+     *
+     * @return the code quality of each project that has one
+     */
+    default Map<SonarProject, CodeQuality> currentCodeQuality(List<SonarProject> projects, String metrics) {
+        Map<SonarProject, CodeQuality> codeQualities = new LinkedHashMap<>();
+        for (SonarProject project : projects) {
+            CodeQuality codeQuality = currentCodeQuality(project, metrics);
+            if (codeQuality != null) {
+                codeQualities.put(project, codeQuality);
+            }
+        }
+        return codeQualities;
+    }
     JSONArray getQualityProfiles(String instanceUrl) throws ParseException;
     List<String> retrieveProfileAndProjectAssociation(String instanceUrl,String qualityProfile) throws ParseException;
-    JSONArray getQualityProfileConfigurationChanges(String instanceUrl,String qualityProfile) throws ParseException; 
+
+    /**
+     * Fetches the changelog of a quality profile, page by page.
+     *
+     * @param since the time of the latest change already collected, or 0 for the whole changelog.
+     *              Changes from the day before are fetched again since the server only filters by date.
+     */
+    JSONArray getQualityProfileConfigurationChanges(String instanceUrl,String qualityProfile, long since) throws ParseException;
+
+    /**
+     * @return the query parameter bounding a changelog request to the changes since the given time, or an empty string
+     */
+    static String changelogSince(long since) {
+        if (since <= 0) {
+            return "";
+        }
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        return "&since=" + format.format(new Date(since - TimeUnit.DAYS.toMillis(1)));
+    }
 
 }
@@ -10,6 +10,7 @@ import com.capitalone.dashboard.model.SonarProject;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CodeQualityRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.SonarCodeQualityRepository;
 import com.capitalone.dashboard.repository.SonarCollectorRepository;
 import com.capitalone.dashboard.repository.SonarProfileRepostory;
 import com.capitalone.dashboard.repository.SonarProjectRepository;
@@ -28,11 +29,17 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 @Component
 public class SonarCollectorTask extends CollectorTask<SonarCollector> {
@@ -46,6 +53,7 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
     private final SonarClientSelector sonarClientSelector;
     private final SonarSettings sonarSettings;
     private final ComponentRepository dbComponentRepository;
+    private final SonarCodeQualityRepository sonarCodeQualityRepository;
 
     @Autowired
     public SonarCollectorTask(TaskScheduler taskScheduler,
@@ -55,7 +63,8 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
                               SonarProfileRepostory sonarProfileRepostory,
                               SonarSettings sonarSettings,
                               SonarClientSelector sonarClientSelector,
-                              ComponentRepository dbComponentRepository) {
+                              ComponentRepository dbComponentRepository,
+                              SonarCodeQualityRepository sonarCodeQualityRepository) {
         super(taskScheduler, "Sonar");
         this.sonarCollectorRepository = sonarCollectorRepository;
         this.sonarProjectRepository = sonarProjectRepository;
@@ -64,11 +73,18 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
         this.sonarSettings = sonarSettings;
         this.sonarClientSelector = sonarClientSelector;
         this.dbComponentRepository = dbComponentRepository;
+        this.sonarCodeQualityRepository = sonarCodeQualityRepository;
     }
 
     @Override
     public SonarCollector getCollector() {
-        return SonarCollector.prototype(sonarSettings.getServers(), sonarSettings.getVersions(), sonarSettings.getMetrics(),sonarSettings.getNiceNames());
+        SonarCollector collector = SonarCollector.prototype(sonarSettings.getServers(), sonarSettings.getVersions(), sonarSettings.getMetrics(),sonarSettings.getNiceNames());
+        // carry over the latest quality profile changes collected, so only newer ones are fetched
+        SonarCollector existing = sonarCollectorRepository.findByName(collector.getName());
+        if (existing != null) {
+            collector.setQualityProfileChangeTimes(existing.getQualityProfileChangeTimes());
+        }
+        return collector;
     }
 
     @Override
@@ -91,39 +107,72 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
         List<SonarProject> latestProjects = new ArrayList<>();
         clean(collector, existingProjects);
 
+        boolean failed = false;
         if (!CollectionUtils.isEmpty(collector.getSonarServers())) {
-            
-            for (int i = 0; i < collector.getSonarServers().size(); i++) {
-
-                String instanceUrl = collector.getSonarServers().get(i);
-                Double version = collector.getSonarVersions().get(i);
-                String metrics = collector.getSonarMetrics().get(i);
-
-                logBanner(instanceUrl);
-                SonarClient sonarClient = sonarClientSelector.getSonarClient(version);
-                List<SonarProject> projects = sonarClient.getProjects(instanceUrl);
-                latestProjects.addAll(projects);
-
-                int projSize = ((CollectionUtils.isEmpty(projects)) ? 0 : projects.size());
-                log("Fetched projects   " + projSize, start);
-
-                addNewProjects(projects, existingProjects, collector);
-
-                refreshData(enabledProjects(collector, instanceUrl), sonarClient,metrics);
-                
-                // Changelog apis do not exist for sonarqube versions under version 5.0
-                if (version >= 5.0) {
-                  try {
-                     fetchQualityProfileConfigChanges(collector,instanceUrl,sonarClient);
-                   } catch (Exception e) {
-                     LOG.error(e);
+            int servers = collector.getSonarServers().size();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(sonarSettings.getServerThreads(), servers)));
+            try {
+                List<Future<List<SonarProject>>> futures = new ArrayList<>(servers);
+                for (int i = 0; i < servers; i++) {
+                    int server = i;
+                    futures.add(executor.submit(() -> collectServer(collector, server, existingProjects, start)));
+                }
+                for (Future<List<SonarProject>> future : futures) {
+                    try {
+                        latestProjects.addAll(future.get());
+                    } catch (ExecutionException e) {
+                        // the other servers are still collected, but the projects of a server that failed
+                        // are unknown so none are deleted in this run
+                        LOG.error("Failed to collect sonar server", e.getCause());
+                        failed = true;
                     }
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        if (!failed) {
+            deleteUnwantedJobs(latestProjects, existingProjects, collector);
+        }
+    }
 
-                log("Finished", start);
+    /**
+     * Collects the projects, code quality and quality profile changes of one of the collector's servers
+     *
+     * @return the projects listed by the server
+     */
+    private List<SonarProject> collectServer(SonarCollector collector, int server, List<SonarProject> existingProjects, long start) {
+        String instanceUrl = collector.getSonarServers().get(server);
+        Double version = collector.getSonarVersions().get(server);
+        String metrics = collector.getSonarMetrics().get(server);
+
+        logBanner(instanceUrl);
+        SonarClient sonarClient = sonarClientSelector.getSonarClient(version);
+        List<SonarProject> projects = sonarClient.getProjects(instanceUrl);
+        if (projects == null) {
+            projects = Collections.emptyList();
+        }
+
+        log("Fetched projects   " + projects.size(), start);
+
+        addNewProjects(projects, existingProjects, collector);
+
+        refreshData(enabledProjects(collector, instanceUrl), projects, sonarClient, metrics);
+
+        // Changelog apis do not exist for sonarqube versions under version 5.0
+        if (version >= 5.0) {
+            try {
+                fetchQualityProfileConfigChanges(collector, instanceUrl, sonarClient);
+            } catch (Exception e) {
+                LOG.error(e);
             }
         }
-        deleteUnwantedJobs(latestProjects, existingProjects, collector);
+
+        log("Finished", start);
+        return projects;
     }
 
 	/**
@@ -184,27 +233,54 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
         }
     }
 
-    private void refreshData(List<SonarProject> sonarProjects, SonarClient sonarClient, String metrics) {
+    private void refreshData(List<SonarProject> sonarProjects, List<SonarProject> latestProjects, SonarClient sonarClient, String metrics) {
         long start = System.currentTimeMillis();
-        int count = 0;
 
-        for (SonarProject project : sonarProjects) {
-            CodeQuality codeQuality = sonarClient.currentCodeQuality(project, metrics);
-            if (codeQuality != null && isNewQualityData(project, codeQuality)) {
+        // the keys are only known from the projects listed by the server
+        Map<String, String> projectKeys = new HashMap<>();
+        latestProjects.forEach(project -> projectKeys.put(project.getProjectId(), project.getProjectKey()));
+        sonarProjects.forEach(project -> project.setProjectKey(projectKeys.get(project.getProjectId())));
+
+        Map<SonarProject, CodeQuality> codeQualities = sonarClient.currentCodeQuality(sonarProjects, metrics);
+        if (codeQualities == null || codeQualities.isEmpty()) {
+            log("Updated", start, 0);
+            return;
+        }
+
+        Set<String> stored = storedQualityData(codeQualities);
+        List<SonarProject> updatedProjects = new ArrayList<>();
+        List<CodeQuality> newCodeQualities = new ArrayList<>();
+        codeQualities.forEach((project, codeQuality) -> {
+            if (!stored.contains(project.getId() + ":" + codeQuality.getTimestamp())) {
                 project.setLastUpdated(System.currentTimeMillis());
-                sonarProjectRepository.save(project);
+                updatedProjects.add(project);
                 codeQuality.setCollectorItemId(project.getId());
-                codeQualityRepository.save(codeQuality);
-                count++;
+                newCodeQualities.add(codeQuality);
             }
+        });
+        if (!newCodeQualities.isEmpty()) {
+            sonarProjectRepository.save(updatedProjects);
+            codeQualityRepository.save(newCodeQualities);
         }
-        log("Updated", start, count);
+        log("Updated", start, newCodeQualities.size());
+    }
+
+    /**
+     * Looks up which of the collected analyses are already stored with one query
+     *
+     * @return the collector item id and timestamp of each stored analysis
+     */
+    private Set<String> storedQualityData(Map<SonarProject, CodeQuality> codeQualities) {
+        Set<ObjectId> collectorItemIds = codeQualities.keySet().stream().map(SonarProject::getId).collect(Collectors.toSet());
+        Set<Long> timestamps = codeQualities.values().stream().map(CodeQuality::getTimestamp).collect(Collectors.toSet());
+        return sonarCodeQualityRepository.findTimestampsByCollectorItemIdInAndTimestampIn(collectorItemIds, timestamps).stream()
+                .map(codeQuality -> codeQuality.getCollectorItemId() + ":" + codeQuality.getTimestamp())
+                .collect(Collectors.toSet());
     }
     
     @SuppressWarnings("PMD.AvoidDeeplyNestedIfStmts")
     private void fetchQualityProfileConfigChanges(SonarCollector collector,String instanceUrl,SonarClient sonarClient) throws org.json.simple.parser.ParseException{
     	JSONArray qualityProfiles = sonarClient.getQualityProfiles(instanceUrl);   
-    	JSONArray sonarProfileConfigurationChanges = new JSONArray();
         
     	for (Object qualityProfile : qualityProfiles ) {      	
     		JSONObject qualityProfileJson = (JSONObject) qualityProfile;
@@ -212,14 +288,30 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
 
     		List<String> sonarProjects = sonarClient.retrieveProfileAndProjectAssociation(instanceUrl,qualityProfileKey);
     		if (sonarProjects != null){
-    			sonarProfileConfigurationChanges = sonarClient.getQualityProfileConfigurationChanges(instanceUrl,qualityProfileKey);
-    			addNewConfigurationChanges(collector,sonarProfileConfigurationChanges);
+    			// only the changes since the latest one collected from this profile are fetched,
+    			// the collector is saved with the new time once the run is over
+    			long since = collector.getQualityProfileChangeTime(instanceUrl, qualityProfileKey);
+    			JSONArray sonarProfileConfigurationChanges = sonarClient.getQualityProfileConfigurationChanges(instanceUrl,qualityProfileKey,since);
+    			long latest = addNewConfigurationChanges(collector,sonarProfileConfigurationChanges);
+    			if (latest > since) {
+    				collector.setQualityProfileChangeTime(instanceUrl, qualityProfileKey, latest);
+    			}
     		}
     	}
     }
     
-    private void addNewConfigurationChanges(SonarCollector collector,JSONArray sonarProfileConfigurationChanges){
-    	ArrayList<CollectorItemConfigHistory> profileConfigChanges = new ArrayList();
+    /**
+     * Stores the changes that are not stored yet, checked against the stored changes with one query
+     *
+     * @return the time of the latest change
+     */
+    private long addNewConfigurationChanges(SonarCollector collector,JSONArray sonarProfileConfigurationChanges){
+    	if (CollectionUtils.isEmpty(sonarProfileConfigurationChanges)) {
+    		return 0;
+    	}
+    	ArrayList<CollectorItemConfigHistory> profileConfigChanges = new ArrayList<>();
+    	long earliest = Long.MAX_VALUE;
+    	long latest = 0;
     	
     	for (Object configChange : sonarProfileConfigurationChanges) {		
     		JSONObject configChangeJson = (JSONObject) configChange;
@@ -239,17 +331,25 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
 				
     		long timestamp = convertToTimestamp((String) configChangeJson.get("date"));
     		profileConfigChange.setTimestamp(timestamp);
-    		
-    		if (isNewConfig(collector.getId(),(String) configChangeJson.get("authorLogin"),operation,timestamp)) {
-    			profileConfigChanges.add(profileConfigChange);
-    		}
+    		earliest = Math.min(earliest, timestamp);
+    		latest = Math.max(latest, timestamp);
+    		profileConfigChanges.add(profileConfigChange);
+    	}
+
+    	Set<String> stored = new HashSet<>();
+    	sonarProfileRepostory.findProfileConfigChangesSince(collector.getId(), earliest)
+    			.forEach(storedConfig -> stored.add(configChangeKey(storedConfig)));
+    	List<CollectorItemConfigHistory> newConfigChanges = profileConfigChanges.stream()
+    			.filter(profileConfigChange -> stored.add(configChangeKey(profileConfigChange)))
+    			.collect(Collectors.toList());
+    	if (!newConfigChanges.isEmpty()) {
+    		sonarProfileRepostory.save(newConfigChanges);
     	}
-    	sonarProfileRepostory.save(profileConfigChanges);
+    	return latest;
     }
     
-    private Boolean isNewConfig(ObjectId collectorId,String authorLogin,ConfigHistOperationType operation,long timestamp) {
-    	List<CollectorItemConfigHistory> storedConfigs = sonarProfileRepostory.findProfileConfigChanges(collectorId, authorLogin,operation,timestamp);
-    	return storedConfigs.isEmpty();
+    private static String configChangeKey(CollectorItemConfigHistory configChange) {
+    	return configChange.getUserID() + ':' + configChange.getOperation() + ':' + configChange.getTimestamp();
     }
     
     private List<SonarProject> enabledProjects(SonarCollector collector, String instanceUrl) {
@@ -310,11 +410,6 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
                 collector.getId(), application.getInstanceUrl(), application.getProjectId()) == null;
     }
 
-    private boolean isNewQualityData(SonarProject project, CodeQuality codeQuality) {
-        return codeQualityRepository.findByCollectorItemIdAndTimestamp(
-                project.getId(), codeQuality.getTimestamp()) == null;
-    }
-    
     private long convertToTimestamp(String date) {
     	
     	DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ssZ");
@@ -18,6 +18,7 @@ public class SonarSettings {
     private List<Double> versions;
     private List<String> metrics;
     private List<String> niceNames;
+    private int serverThreads = 4;
 
     public String getCron() {
         return cron;
@@ -75,4 +76,15 @@ public class SonarSettings {
         this.niceNames = niceNames;
     }
 
+    /**
+     * @return the number of servers collected at the same time
+     */
+    public int getServerThreads() {
+        return serverThreads;
+    }
+
+    public void setServerThreads(int serverThreads) {
+        this.serverThreads = serverThreads;
+    }
+
 }
@@ -13,6 +13,7 @@ public class SonarCollector extends Collector {
     private List<Double> sonarVersions = new ArrayList<>();
     private List<String> sonarMetrics = new ArrayList<>();
     private List<String> niceNames = new ArrayList<>();
+    private Map<String, Long> qualityProfileChangeTimes = new HashMap<>();
     private static final String NICE_NAME = "niceName";
     private static final String PROJECT_NAME = "options.projectName";
 
@@ -36,6 +37,31 @@ public class SonarCollector extends Collector {
         this.niceNames = niceNames;
     }
 
+    /**
+     * @return the time of the latest change collected from the quality profile's changelog, or 0 if none was
+     */
+    public synchronized long getQualityProfileChangeTime(String instanceUrl, String qualityProfile) {
+        Long time = qualityProfileChangeTimes.get(qualityProfileChangeKey(instanceUrl, qualityProfile));
+        return time == null ? 0 : time;
+    }
+
+    public synchronized void setQualityProfileChangeTime(String instanceUrl, String qualityProfile, long time) {
+        qualityProfileChangeTimes.put(qualityProfileChangeKey(instanceUrl, qualityProfile), time);
+    }
+
+    public synchronized Map<String, Long> getQualityProfileChangeTimes() {
+        return new HashMap<>(qualityProfileChangeTimes);
+    }
+
+    public synchronized void setQualityProfileChangeTimes(Map<String, Long> qualityProfileChangeTimes) {
+        this.qualityProfileChangeTimes = qualityProfileChangeTimes == null ? new HashMap<>() : new HashMap<>(qualityProfileChangeTimes);
+    }
+
+    // map keys are stored as field names, which cannot contain dots
+    private static String qualityProfileChangeKey(String instanceUrl, String qualityProfile) {
+        return (instanceUrl + '|' + qualityProfile).replace('.', '_');
+    }
+
     public static SonarCollector prototype(List<String> servers, List<Double> versions, List<String> metrics,List<String> niceNames) {
         SonarCollector protoType = new SonarCollector();
         protoType.setName("Sonar");
@@ -1,10 +1,18 @@
 package com.capitalone.dashboard.model;
 
+import org.springframework.data.annotation.Transient;
+
 public class SonarProject extends CollectorItem {
     protected static final String INSTANCE_URL = "instanceUrl";
     protected static final String PROJECT_NAME = "projectName";
     protected static final String PROJECT_ID = "projectId";
 
+    /**
+     * The key of the project as listed by the server in this run, not stored
+     */
+    @Transient
+    private String projectKey;
+
     public String getInstanceUrl() {
         return (String) getOptions().get(INSTANCE_URL);
     }
@@ -29,6 +37,14 @@ public class SonarProject extends CollectorItem {
         getOptions().put(PROJECT_NAME, name);
     }
 
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
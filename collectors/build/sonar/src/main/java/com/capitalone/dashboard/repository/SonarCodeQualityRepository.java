@@ -0,0 +1,19 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CodeQuality;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SonarCodeQualityRepository extends CrudRepository<CodeQuality, ObjectId> {
+
+    /**
+     * @return the code quality of the collector items at any of the timestamps, only their collector item ids
+     * and timestamps are read
+     */
+    @Query(value = "{ 'collectorItemId' : { $in : ?0 }, 'timestamp' : { $in : ?1 } }", fields = "{ 'collectorItemId' : 1, 'timestamp' : 1 }")
+    List<CodeQuality> findTimestampsByCollectorItemIdInAndTimestampIn(Collection<ObjectId> collectorItemIds, Collection<Long> timestamps);
+}
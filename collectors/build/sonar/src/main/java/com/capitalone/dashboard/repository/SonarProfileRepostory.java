@@ -12,4 +12,10 @@ public interface SonarProfileRepostory extends CollItemConfigHistoryRepository {
 	@Query(value="{ 'collectorItemId' : ?0, userID : ?1, operation: ?2, timestamp : ?3}")
 	List<CollectorItemConfigHistory> findProfileConfigChanges(ObjectId collectorId,String authorLogin,ConfigHistOperationType operation,long timestamp);
 
+	/**
+	 * @return the changes stored for the collector since the given time, only their authors, operations and timestamps are read
+	 */
+	@Query(value="{ 'collectorItemId' : ?0, timestamp : { $gte : ?1 } }", fields="{ userID : 1, operation : 1, timestamp : 1 }")
+	List<CollectorItemConfigHistory> findProfileConfigChangesSince(ObjectId collectorId, long timestamp);
+
 }
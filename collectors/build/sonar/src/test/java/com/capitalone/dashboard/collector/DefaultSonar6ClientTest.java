@@ -5,6 +5,7 @@ import com.capitalone.dashboard.model.CodeQualityType;
 import com.capitalone.dashboard.model.SonarProject;
 import com.capitalone.dashboard.util.Supplier;
 import org.apache.commons.io.IOUtils;
+import org.json.simple.JSONArray;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -19,8 +20,13 @@ import org.springframework.web.client.RestOperations;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
@@ -40,6 +46,7 @@ public class DefaultSonar6ClientTest {
 
     private static final String URL_RESOURCES = "/api/components/search?qualifiers=TRK&ps=500";
     private static final String URL_RESOURCE_DETAILS = "/api/measures/component?format=json&componentId=%s&metricKeys=%s&includealerts=true";
+    private static final String URL_MEASURES_SEARCH = "/api/measures/search?projectKeys=%s&metricKeys=%s";
     private static final String URL_PROJECT_ANALYSES = "/api/project_analyses/search?project=%s";
     private static final String SONAR_URL = "http://sonar.com";
     private static final String METRICS = "ncloc,violations,new_vulnerabilities,critical_violations,major_violations,blocker_violations,tests,test_success_density,test_errors,test_failures,coverage,line_coverage,sqale_index,alert_status,quality_gate_details";
@@ -63,6 +70,7 @@ public class DefaultSonar6ClientTest {
         assertThat(projects.get(1).getProjectName(), is("com.capitalone.test:AnotherTestProject"));
         assertThat(projects.get(0).getProjectId(), is("AVu3b-MAphY78UZXuYHp"));
         assertThat(projects.get(1).getProjectId(), is("BVx3b-MAphY78UZXuYHp"));
+        assertThat(projects.get(0).getProjectKey(), is("com.capitalone.test:TestProject"));
     }
 
     @Test
@@ -120,6 +128,41 @@ public class DefaultSonar6ClientTest {
     }
 
 
+    @Test
+    public void currentCodeQualityOfSeveralProjects() throws Exception {
+        SonarProject project = getProject();
+        project.setProjectKey("com.capitalone.test:TestProject");
+        SonarProject another = new SonarProject();
+        another.setInstanceUrl(SONAR_URL);
+        another.setProjectName("com.capitalone.test:AnotherTestProject");
+        another.setProjectId("BVx3b-MAphY78UZXuYHp");
+        another.setProjectKey("com.capitalone.test:AnotherTestProject");
+        String measuresUrl = String.format(SONAR_URL + URL_MEASURES_SEARCH,
+                "com.capitalone.test:TestProject,com.capitalone.test:AnotherTestProject", METRICS);
+        doReturn(new ResponseEntity<>(getJson("sonar6measuressearch.json"), HttpStatus.OK)).when(rest).exchange(eq(measuresUrl), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        doReturn(new ResponseEntity<>(getJson("sonar6analyses.json"), HttpStatus.OK)).when(rest).exchange(eq(String.format(SONAR_URL + URL_PROJECT_ANALYSES, project.getProjectKey())), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        doReturn(new ResponseEntity<>(getJson("sonar6analysesNull.json"), HttpStatus.OK)).when(rest).exchange(eq(String.format(SONAR_URL + URL_PROJECT_ANALYSES, another.getProjectKey())), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+
+        Map<SonarProject, CodeQuality> qualities = defaultSonar6Client.currentCodeQuality(Arrays.asList(project, another), METRICS);
+
+        assertThat(qualities.size(), is(2));
+        assertThat(qualities.get(project).getMetrics().size(), is(3));
+        assertThat(qualities.get(project).getVersion(), is("2.0.0"));
+        assertThat(qualities.get(another).getMetrics().size(), is(1));
+        assertThat(qualities.get(another).getName(), is("com.capitalone.test:AnotherTestProject"));
+    }
+
+    @Test
+    public void getQualityProfileConfigurationChangesSince() throws Exception {
+        String changelogJson = "{\"total\":1,\"p\":1,\"ps\":500,\"events\":[{\"date\":\"2017-10-05T13:57:40+0000\",\"action\":\"ACTIVATED\"}]}";
+        String sinceDate = new SimpleDateFormat("yyyy-MM-dd").format(new Date(1507211860000L - TimeUnit.DAYS.toMillis(1)));
+        String changelogUrl = SONAR_URL + "/api/qualityprofiles/changelog?profileKey=profile&ps=500&since=" + sinceDate + "&p=1";
+        doReturn(new ResponseEntity<>(changelogJson, HttpStatus.OK)).when(rest).exchange(eq(changelogUrl), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+
+        JSONArray changes = defaultSonar6Client.getQualityProfileConfigurationChanges(SONAR_URL, "profile", 1507211860000L);
+
+        assertThat(changes.size(), is(1));
+    }
 
     private String getJson(String fileName) throws IOException {
         InputStream inputStream = DefaultSonar6ClientTest.class.getResourceAsStream(fileName);
@@ -1,10 +1,14 @@
 package com.capitalone.dashboard.collector;
 
+import com.capitalone.dashboard.model.CodeQuality;
+import com.capitalone.dashboard.model.CollectorItemConfigHistory;
 import com.capitalone.dashboard.model.Component;
 import com.capitalone.dashboard.model.ConfigHistOperationType;
 import com.capitalone.dashboard.model.SonarCollector;
+import com.capitalone.dashboard.model.SonarProject;
 import com.capitalone.dashboard.repository.CodeQualityRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.SonarCodeQualityRepository;
 import com.capitalone.dashboard.repository.SonarCollectorRepository;
 import com.capitalone.dashboard.repository.SonarProfileRepostory;
 import com.capitalone.dashboard.repository.SonarProjectRepository;
@@ -24,7 +28,14 @@ import org.mockito.stubbing.OngoingStubbing;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -37,6 +48,7 @@ public class SonarCollectorTaskTest {
     @Mock private SonarProjectRepository sonarProjectRepository;
     @Mock private CodeQualityRepository codeQualityRepository;
     @Mock private SonarProfileRepostory sonarProfileRepostory;
+    @Mock private SonarCodeQualityRepository sonarCodeQualityRepository;
  
 
     @Mock private SonarSettings sonarSettings;
@@ -75,13 +87,13 @@ public class SonarCollectorTaskTest {
     	
     	Mockito.doReturn(qualityProfiles).when(defaultSonarClient).getQualityProfiles(SERVER1);
     	
-    	Mockito.doReturn(profileConfigurationChanges).when(defaultSonarClient).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE);                                                 
+    	Mockito.doReturn(profileConfigurationChanges).when(defaultSonarClient).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE, 0L);                                                 
 
     	Mockito.doReturn(qualityProfiles).when(defaultSonar6Client).getQualityProfiles(SERVER1);
     	Mockito.doReturn(qualityProfiles).when(defaultSonar6Client).getQualityProfiles(SERVER2);
 
-    	Mockito.doReturn(profileConfigurationChanges).when(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE);                                                 
-    	Mockito.doReturn(profileConfigurationChanges).when(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER2, QUALITYPROFILE);
+    	Mockito.doReturn(profileConfigurationChanges).when(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE, 0L);                                                 
+    	Mockito.doReturn(profileConfigurationChanges).when(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER2, QUALITYPROFILE, 0L);
     	
     }
 
@@ -109,7 +121,7 @@ public class SonarCollectorTaskTest {
         verify(sonarClientSelector).getSonarClient(VERSION54);
         verify(defaultSonar6Client).getQualityProfiles(SERVER1);
         verify(defaultSonar6Client).retrieveProfileAndProjectAssociation(SERVER1, QUALITYPROFILE);
-        verify(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE);
+        verify(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE, 0L);
     }
 
 
@@ -121,7 +133,7 @@ public class SonarCollectorTaskTest {
         verify(sonarClientSelector).getSonarClient(VERSION63);
         verify(defaultSonar6Client).getQualityProfiles(SERVER1);
         verify(defaultSonar6Client).retrieveProfileAndProjectAssociation(SERVER1, QUALITYPROFILE);
-        verify(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE);
+        verify(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE, 0L);
     }
 
 
@@ -136,10 +148,123 @@ public class SonarCollectorTaskTest {
         
         verify(defaultSonar6Client).getQualityProfiles(SERVER2);
         verify(defaultSonar6Client).retrieveProfileAndProjectAssociation(SERVER2, QUALITYPROFILE);
-        verify(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER2, QUALITYPROFILE);
+        verify(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER2, QUALITYPROFILE, 0L);
         
     }
 
+    @Test
+    public void collectOtherServersWhenOneFails() throws Exception {
+        SonarProject stored = project("1");
+        stored.setId(new ObjectId());
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        when(sonarProjectRepository.findByCollectorIdIn(anySetOf(ObjectId.class))).thenReturn(Collections.singletonList(stored));
+        when(sonarClientSelector.getSonarClient(VERSION43)).thenReturn(defaultSonarClient);
+        when(sonarClientSelector.getSonarClient(VERSION54)).thenReturn(defaultSonar6Client);
+        when(defaultSonarClient.getProjects(SERVER1)).thenThrow(new RuntimeException("server1 is down"));
+
+        task.collect(collectorWithOnTwoServers(VERSION43, VERSION54));
+
+        verify(defaultSonar6Client).getProjects(SERVER2);
+        verify(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER2, QUALITYPROFILE, 0L);
+        verify(sonarProjectRepository, never()).delete(anyListOf(SonarProject.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void collectOnlyNewCodeQualityInOneSave() throws Exception {
+        SonarProject listed = project("1");
+        listed.setProjectKey("key1");
+        SonarProject stored = project("1");
+        stored.setId(new ObjectId());
+        SonarProject unchanged = project("2");
+        unchanged.setId(new ObjectId());
+        CodeQuality newQuality = codeQuality(200L);
+        CodeQuality storedQuality = codeQuality(100L);
+        storedQuality.setCollectorItemId(unchanged.getId());
+        Map<SonarProject, CodeQuality> qualities = new LinkedHashMap<>();
+        qualities.put(stored, newQuality);
+        qualities.put(unchanged, storedQuality);
+
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        when(sonarClientSelector.getSonarClient(VERSION63)).thenReturn(defaultSonar6Client);
+        when(defaultSonar6Client.getProjects(SERVER1)).thenReturn(Collections.singletonList(listed));
+        when(sonarProjectRepository.findEnabledProjects(null, SERVER1)).thenReturn(Arrays.asList(stored, unchanged));
+        when(defaultSonar6Client.currentCodeQuality(anyListOf(SonarProject.class), eq(METRICS1))).thenReturn(qualities);
+        when(sonarCodeQualityRepository.findTimestampsByCollectorItemIdInAndTimestampIn(anySetOf(ObjectId.class), anySetOf(Long.class)))
+                .thenReturn(Collections.singletonList(storedQuality));
+
+        task.collect(collectorWithOneServer(VERSION63));
+
+        assertEquals("key1", stored.getProjectKey());
+        verify(codeQualityRepository).save(Collections.singletonList(newQuality));
+        assertEquals(stored.getId(), newQuality.getCollectorItemId());
+    }
+
+    @Test
+    public void collectProfileChangesSinceLatestCollected() throws Exception {
+        long changeTime = 1507211860000L;
+        SonarCollector collector = collectorWithOneServer(VERSION63);
+        collector.setQualityProfileChangeTime(SERVER1, QUALITYPROFILE, changeTime - 1000);
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        when(sonarClientSelector.getSonarClient(VERSION63)).thenReturn(defaultSonar6Client);
+        Mockito.doReturn(profileConfigurationChanges).when(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE, changeTime - 1000);
+
+        task.collect(collector);
+
+        verify(sonarProfileRepostory).save(anyListOf(CollectorItemConfigHistory.class));
+        assertEquals(changeTime, collector.getQualityProfileChangeTime(SERVER1, QUALITYPROFILE));
+    }
+
+    @Test
+    public void collectProfileChangesSinceLatestStored() throws Exception {
+        long changeTime = 1507211860000L;
+        SonarCollector stored = collectorWithOneServer(VERSION63);
+        stored.setQualityProfileChangeTime(SERVER1, QUALITYPROFILE, changeTime - 1000);
+        when(sonarCollectorRepository.findByName("Sonar")).thenReturn(stored);
+        when(sonarSettings.getServers()).thenReturn(Collections.singletonList(SERVER1));
+        when(sonarSettings.getVersions()).thenReturn(Collections.singletonList(VERSION63));
+        when(sonarSettings.getMetrics()).thenReturn(Collections.singletonList(METRICS1));
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        when(sonarClientSelector.getSonarClient(VERSION63)).thenReturn(defaultSonar6Client);
+        Mockito.doReturn(profileConfigurationChanges).when(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE, changeTime - 1000);
+
+        SonarCollector collector = task.getCollector();
+        task.collect(collector);
+
+        verify(defaultSonar6Client).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE, changeTime - 1000);
+        verify(defaultSonar6Client, never()).getQualityProfileConfigurationChanges(SERVER1, QUALITYPROFILE, 0L);
+        assertEquals(changeTime, collector.getQualityProfileChangeTime(SERVER1, QUALITYPROFILE));
+    }
+
+    @Test
+    public void storedProfileChangesAreNotSavedAgain() throws Exception {
+        CollectorItemConfigHistory stored = new CollectorItemConfigHistory();
+        stored.setUserID("bar");
+        stored.setOperation(ConfigHistOperationType.DELETED);
+        stored.setTimestamp(1507211860000L);
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        when(sonarClientSelector.getSonarClient(VERSION63)).thenReturn(defaultSonar6Client);
+        when(sonarProfileRepostory.findProfileConfigChangesSince(null, 1507211860000L)).thenReturn(Collections.singletonList(stored));
+
+        task.collect(collectorWithOneServer(VERSION63));
+
+        verify(sonarProfileRepostory, never()).save(anyListOf(CollectorItemConfigHistory.class));
+    }
+
+    private SonarProject project(String projectId) {
+        SonarProject project = new SonarProject();
+        project.setInstanceUrl(SERVER1);
+        project.setProjectId(projectId);
+        project.setProjectName("project" + projectId);
+        return project;
+    }
+
+    private CodeQuality codeQuality(long timestamp) {
+        CodeQuality codeQuality = new CodeQuality();
+        codeQuality.setTimestamp(timestamp);
+        return codeQuality;
+    }
+
     private ArrayList<com.capitalone.dashboard.model.Component> components() {
         ArrayList<com.capitalone.dashboard.model.Component> cArray = new ArrayList<>();
         com.capitalone.dashboard.model.Component c = new Component();
@@ -1,8 +1,9 @@
 package com.capitalone.dashboard.collector;
 
-import com.amazonaws.services.autoscaling.AmazonAutoScalingClient;
-import com.amazonaws.services.cloudwatch.AmazonCloudWatchClient;
-import com.amazonaws.services.ec2.AmazonEC2Client;
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.autoscaling.AmazonAutoScaling;
+import com.amazonaws.services.cloudwatch.AmazonCloudWatch;
+import com.amazonaws.services.ec2.AmazonEC2;
 import com.capitalone.dashboard.model.CloudInstance;
 import com.capitalone.dashboard.model.CloudSubNetwork;
 import com.capitalone.dashboard.model.CloudVirtualNetwork;
@@ -11,6 +12,7 @@ import com.capitalone.dashboard.repository.CloudInstanceRepository;
 import com.capitalone.dashboard.repository.CloudSubNetworkRepository;
 import com.capitalone.dashboard.repository.CloudVirtualNetworkRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -26,25 +28,55 @@ public interface AWSCloudClient {
     Map<String, List<CloudVolumeStorage>> getCloudVolumes(Map<String, String> instanceToAccountMap);
     Double get24HourInstanceEstimatedCharge();
 
-    void setEc2Client(AmazonEC2Client ec2Client);
-    void setCloudWatchClient(AmazonCloudWatchClient cloudWatchClient);
+    void setEc2Client(AmazonEC2 ec2Client);
+    void setCloudWatchClient(AmazonCloudWatch cloudWatchClient);
 
-    void setAutoScalingClient(AmazonAutoScalingClient autoScalingClient) ;
+    void setAutoScalingClient(AmazonAutoScaling autoScalingClient) ;
 
-    /* Averages CPUUtil every minute for the last hour */
+    /**
+     * Averages CPUUtil every minute for the last hour
+     * @deprecated only looks in the first configured region, use {@link #getInstanceMetrics(Regions, Collection)}
+     */
+    @Deprecated
     @SuppressWarnings("PMD.UnusedFormalParameter")
     Double getInstanceCPUSinceLastRun(String instanceId, long lastUpdated);
 
-    /* Averages CPUUtil every minute for the last hour */
+    /**
+     * Averages NetworkIn every minute for the last hour
+     * @deprecated only looks in the first configured region, use {@link #getInstanceMetrics(Regions, Collection)}
+     */
+    @Deprecated
     Double getLastHourInstanceNetworkIn(String instanceId,
                                         long lastUpdated);
 
-    /* Averages CPUUtil every minute for the last hour */
+    /**
+     * Averages NetworkOut every minute for the last hour
+     * @deprecated only looks in the first configured region, use {@link #getInstanceMetrics(Regions, Collection)}
+     */
+    @Deprecated
     Double getLastHourIntanceNetworkOut(String instanceId, long lastUpdated);
 
-    /* Averages CPUUtil every minute for the last hour */
+    /**
+     * Averages DiskReadBytes every minute for the last hour
+     * @deprecated only looks in the first configured region, use {@link #getInstanceMetrics(Regions, Collection)}
+     */
+    @Deprecated
     Double getLastHourInstanceDiskRead(String instanceId,
                                        long lastUpdated);
 
+    /**
+     * Averages DiskWriteBytes for the last hour
+     * @deprecated only looks in the first configured region, use {@link #getInstanceMetrics(Regions, Collection)}
+     */
+    @Deprecated
     Double getLastInstanceHourDiskWrite(String instanceId);
+
+    /**
+     * Hourly averages of the CPU, network and disk metrics of many instances in few calls
+     *
+     * @param region      the configured region of the instances, null if the collector has no region configured
+     * @param instanceIds the ids of the instances
+     * @throws IllegalArgumentException if the region is not one the collector is configured for
+     */
+    Map<String, InstanceMetrics> getInstanceMetrics(Regions region, Collection<String> instanceIds);
 }
@@ -25,6 +25,7 @@ import com.capitalone.dashboard.model.CloudSubNetwork;
 import com.capitalone.dashboard.model.CloudVirtualNetwork;
 import com.capitalone.dashboard.model.CloudVolumeStorage;
 import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.repository.AWSCloudInstanceRepository;
 import com.capitalone.dashboard.repository.AWSConfigRepository;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CloudInstanceHistoryRepository;
@@ -32,18 +33,20 @@ import com.capitalone.dashboard.repository.CloudInstanceRepository;
 import com.capitalone.dashboard.repository.CloudSubNetworkRepository;
 import com.capitalone.dashboard.repository.CloudVirtualNetworkRepository;
 import com.capitalone.dashboard.repository.CloudVolumeRepository;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Collects {@link AWSCloudCollector} data from feature content source system.
@@ -57,6 +60,7 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
     private final CloudSubNetworkRepository cloudSubNetworkRepository;
     private final CloudVolumeRepository cloudVolumeRepository;
     private final CloudInstanceHistoryRepository cloudInstanceHistoryRepository;
+    private final AWSCloudInstanceRepository awsCloudInstanceRepository;
 
 
     private final AWSCloudSettings awsSetting;
@@ -76,6 +80,7 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
      * @param cloudSubNetworkRepository      Cloud Subnet Repository
      * @param cloudVolumeRepository          Cloud Volume Repository
      * @param cloudInstanceHistoryRepository Cloud Instance History Repository
+     * @param awsCloudInstanceRepository     Cloud Instance Repository for reconciling instances
      */
     @Autowired
     public AWSCloudCollectorTask(TaskScheduler taskScheduler,
@@ -86,7 +91,8 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
                                  CloudVirtualNetworkRepository cloudVirtualNetworkRepository,
                                  CloudSubNetworkRepository cloudSubNetworkRepository,
                                  CloudVolumeRepository cloudVolumeRepository,
-                                 CloudInstanceHistoryRepository cloudInstanceHistoryRepository) {
+                                 CloudInstanceHistoryRepository cloudInstanceHistoryRepository,
+                                 AWSCloudInstanceRepository awsCloudInstanceRepository) {
         super(taskScheduler, "AWSCloud");
         this.collectorRepository = collectorRepository;
         this.awsClient = cloudClient;
@@ -97,6 +103,7 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
         this.cloudSubNetworkRepository = cloudSubNetworkRepository;
         this.cloudVolumeRepository = cloudVolumeRepository;
         this.cloudInstanceHistoryRepository = cloudInstanceHistoryRepository;
+        this.awsCloudInstanceRepository = awsCloudInstanceRepository;
     }
 
     public AWSCloudCollector getCollector() {
@@ -137,24 +144,48 @@ public class AWSCloudCollectorTask extends CollectorTask<AWSCloudCollector> {
         Map<String, List<CloudInstance>> cloudInstanceMap = awsClient.getCloudInstances(cloudInstanceRepository);
         for (String account : cloudInstanceMap.keySet()) {
             Collection<CloudInstance> collectedInstances = cloudInstanceMap.get(account);
-            Set<CloudInstance> saveList = new HashSet<>();
-            Collection<CloudInstance> deleteList = cloudInstanceRepository.findByAccountNumber(account); //Potential Delete List
+            Set<String> collectedIds = collectedInstances.stream().map(CloudInstance::getInstanceId).collect(Collectors.toSet());
+
+            // one query for the instances still in use and the ones of the account that are gone
+            Map<String, CloudInstance> existingInstances = new HashMap<>();
+            List<ObjectId> deleteList = new ArrayList<>();
+            for (CloudInstance existing : awsCloudInstanceRepository.findExistingByAccountNumberOrInstanceIdIn(account, collectedIds)) {
+                if (!collectedIds.contains(existing.getInstanceId())) {
+                    deleteList.add(existing.getId());
+                    continue;
+                }
+                // an instance in use keeps one copy, the account's own if there is one, whatever order they are read in
+                CloudInstance kept = existingInstances.get(existing.getInstanceId());
+                if (kept == null) {
+                    existingInstances.put(existing.getInstanceId(), existing);
+                } else if (!account.equals(kept.getAccountNumber()) && account.equals(existing.getAccountNumber())) {
+                    deleteList.add(kept.getId());
+                    existingInstances.put(existing.getInstanceId(), existing);
+                } else {
+                    deleteList.add(existing.getId());
+                }
+            }
+
+            List<CloudInstance> newInstances = new ArrayList<>();
+            List<CloudInstance> updatedInstances = new ArrayList<>();
             for (CloudInstance current : collectedInstances) {
-                CloudInstance existing = cloudInstanceRepository.findByInstanceId(current.getInstanceId());
-                if (existing != null) {  // if it is a still in-use instance, do not delete it
-                    if (!CollectionUtils.isEmpty(deleteList)) {
-                        deleteList.remove(existing);
-                    }
-                    saveList.add(updateWithExisting(existing, current));
+                CloudInstance existing = existingInstances.get(current.getInstanceId());
+                if (existing == null) {
+                    newInstances.add(current);
+                } else {
+                    updatedInstances.add(updateWithExisting(existing, current));
                 }
-                saveList.add(current);
             }
 
-            if (!CollectionUtils.isEmpty(saveList)) {
-                cloudInstanceRepository.save(saveList);
+            // new instances go in one insert, which saving them together with the updated ones would prevent
+            if (!CollectionUtils.isEmpty(newInstances)) {
+                cloudInstanceRepository.save(newInstances);
+            }
+            if (!CollectionUtils.isEmpty(updatedInstances)) {
+                cloudInstanceRepository.save(updatedInstances);
             }
             if (!CollectionUtils.isEmpty(deleteList)) {
-                cloudInstanceRepository.delete(deleteList);
+                awsCloudInstanceRepository.deleteByIdIn(deleteList);
             }
             saveAggregatedHistory(account, cloudInstanceMap.get(account));
         }
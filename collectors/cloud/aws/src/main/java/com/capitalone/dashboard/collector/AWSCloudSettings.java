@@ -4,6 +4,7 @@ import com.amazonaws.regions.Regions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +32,11 @@ public class AWSCloudSettings {
 
     private Regions region;
 
+    // the regions to collect, the region above is collected when none are listed
+    private List<Regions> regions = new ArrayList<>();
+
+    private int regionThreads = 4;
+
     public List<String> getValidTagKey() {
 		return validTagKey;
 	}
@@ -106,4 +112,20 @@ public class AWSCloudSettings {
     public void setRegion(Regions region) {
         this.region = region;
     }
+
+    public List<Regions> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(List<Regions> regions) {
+        this.regions = regions;
+    }
+
+    public int getRegionThreads() {
+        return regionThreads;
+    }
+
+    public void setRegionThreads(int regionThreads) {
+        this.regionThreads = regionThreads;
+    }
 }
@@ -1,19 +1,34 @@
 package com.capitalone.dashboard.collector;
 
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.AWSCredentialsProviderChain;
 import com.amazonaws.auth.InstanceProfileCredentialsProvider;
 import com.amazonaws.auth.profile.ProfileCredentialsProvider;
-import com.amazonaws.services.autoscaling.AmazonAutoScalingClient;
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.autoscaling.AmazonAutoScaling;
+import com.amazonaws.services.autoscaling.AmazonAutoScalingClientBuilder;
 import com.amazonaws.services.autoscaling.model.AutoScalingInstanceDetails;
+import com.amazonaws.services.autoscaling.model.DescribeAutoScalingInstancesRequest;
 import com.amazonaws.services.autoscaling.model.DescribeAutoScalingInstancesResult;
-import com.amazonaws.services.cloudwatch.AmazonCloudWatchClient;
+import com.amazonaws.services.cloudwatch.AmazonCloudWatch;
+import com.amazonaws.services.cloudwatch.AmazonCloudWatchClientBuilder;
 import com.amazonaws.services.cloudwatch.model.Datapoint;
 import com.amazonaws.services.cloudwatch.model.Dimension;
+import com.amazonaws.services.cloudwatch.model.GetMetricDataRequest;
+import com.amazonaws.services.cloudwatch.model.GetMetricDataResult;
 import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsRequest;
 import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsResult;
-import com.amazonaws.services.ec2.AmazonEC2Client;
+import com.amazonaws.services.cloudwatch.model.Metric;
+import com.amazonaws.services.cloudwatch.model.MetricDataQuery;
+import com.amazonaws.services.cloudwatch.model.MetricDataResult;
+import com.amazonaws.services.cloudwatch.model.MetricStat;
+import com.amazonaws.services.cloudwatch.model.ScanBy;
+import com.amazonaws.services.ec2.AmazonEC2;
+import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.amazonaws.services.ec2.model.DescribeInstancesRequest;
 import com.amazonaws.services.ec2.model.DescribeInstancesResult;
+import com.amazonaws.services.ec2.model.DescribeVolumesRequest;
 import com.amazonaws.services.ec2.model.DescribeVolumesResult;
 import com.amazonaws.services.ec2.model.Filter;
 import com.amazonaws.services.ec2.model.GroupIdentifier;
@@ -41,11 +56,20 @@ import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Collects the instance specific data from AWS.
@@ -56,10 +80,15 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(AWSCloudCollectorTask.class);
     private static final long ONE_DAY_MILLI_SECOND = TimeUnit.DAYS.toMillis(1);
     private final AWSCloudSettings settings;
-    private static AmazonEC2Client ec2Client;
-    private static AmazonCloudWatchClient cloudWatchClient;
-    private static AmazonAutoScalingClient autoScalingClient;
+    // the clients of each region to collect, in the configured order
+    private final Map<String, RegionClients> regionClients = new LinkedHashMap<>();
     private static final String NO_ACCOUNT = "NOACCOUNT";
+    private static final String DEFAULT_REGION = "default";
+    // the metrics of an instance, in the order of the metric index of their query ids
+    private static final String[] INSTANCE_METRICS = {"CPUUtilization", "NetworkIn", "NetworkOut", "DiskReadBytes", "DiskWriteBytes"};
+    // the most queries CloudWatch takes in one GetMetricData call
+    static final int MAX_METRIC_DATA_QUERIES = 500;
+    private static final int MAX_DESCRIBE_RESULTS = 1000;
 
 
     @Autowired
@@ -76,73 +105,94 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
         System.getProperties().put("https.proxyPort", settings.getProxyPort());
         System.getProperties().put("http.nonProxyHosts", settings.getNonProxy());
 
-        ec2Client = new AmazonEC2Client(new AWSCredentialsProviderChain(new ProfileCredentialsProvider(settings.getProfile()),
-                new InstanceProfileCredentialsProvider()));
-        cloudWatchClient = new AmazonCloudWatchClient(new AWSCredentialsProviderChain(new ProfileCredentialsProvider(settings.getProfile()),
-                new InstanceProfileCredentialsProvider()));
-        autoScalingClient = new AmazonAutoScalingClient(new AWSCredentialsProviderChain(new ProfileCredentialsProvider(settings.getProfile()),
-                new InstanceProfileCredentialsProvider()));
-
-        if (null != settings.getRegion()) {
-            ec2Client.withRegion(settings.getRegion());
-            cloudWatchClient.withRegion(settings.getRegion());
-            autoScalingClient.withRegion(settings.getRegion());
+        List<Regions> regions = new ArrayList<>();
+        if (CollectionUtils.isEmpty(settings.getRegions())) {
+            regions.add(settings.getRegion());
+        } else {
+            regions.addAll(settings.getRegions());
+        }
+
+        regionClients.clear();
+        for (Regions region : regions) {
+            AWSCredentialsProvider credentials = new AWSCredentialsProviderChain(new ProfileCredentialsProvider(settings.getProfile()),
+                    InstanceProfileCredentialsProvider.getInstance());
+            // the builders need a region, without one the clients used to go to the US East endpoints
+            Regions clientRegion = region == null ? Regions.US_EAST_1 : region;
+            AmazonEC2 ec2Client = AmazonEC2ClientBuilder.standard()
+                    .withCredentials(credentials).withRegion(clientRegion).build();
+            AmazonCloudWatch cloudWatchClient = AmazonCloudWatchClientBuilder.standard()
+                    .withCredentials(credentials).withRegion(clientRegion).build();
+            AmazonAutoScaling autoScalingClient = AmazonAutoScalingClientBuilder.standard()
+                    .withCredentials(credentials).withRegion(clientRegion).build();
+
+            String name = region == null ? DEFAULT_REGION : region.getName();
+            regionClients.put(name, new RegionClients(name, ec2Client, cloudWatchClient, autoScalingClient));
         }
     }
 
+    /* The names of the regions that are collected, in the configured order */
+    Set<String> getRegionNames() {
+        return regionClients.keySet();
+    }
+
     /**
-     * Calls AWS API and collects instance details.
+     * Calls AWS API and collects instance details of every region, the regions concurrently.
      *
      * @param repository
      * @return List of CloudInstance
      */
     @Override
     public Map<String, List<CloudInstance>> getCloudInstances(CloudInstanceRepository repository) {
-        DescribeInstancesResult instanceResult;
-        if (null == settings.getFilters() || settings.getFilters().isEmpty() ) {
-            instanceResult = ec2Client.describeInstances();
-        } else {
-            instanceResult = ec2Client.describeInstances(buildFilterRequest(settings.getFilters()));
+        Map<String, List<CloudInstance>> returnList = new HashMap<>();
+        for (Map<String, List<CloudInstance>> regionInstances : inEachRegion(this::getRegionInstances)) {
+            regionInstances.forEach((account, instances) ->
+                    returnList.computeIfAbsent(account, key -> new ArrayList<>()).addAll(instances));
         }
-        DescribeAutoScalingInstancesResult autoScaleResult = autoScalingClient.describeAutoScalingInstances();
-        List<AutoScalingInstanceDetails> autoScalingInstanceDetails = autoScaleResult.getAutoScalingInstances();
+        return returnList;
+    }
+
+    /**
+     * Collects the instance details of one region, following every page of the EC2 and AutoScaling results.
+     *
+     * @return the instances of the region by account
+     */
+    private Map<String, List<CloudInstance>> getRegionInstances(RegionClients clients) {
+        long start = System.currentTimeMillis();
         Map<String, String> autoScaleMap = new HashMap<>();
-        for (AutoScalingInstanceDetails ai : autoScalingInstanceDetails) {
-            autoScaleMap.put(ai.getInstanceId(), ai.getAutoScalingGroupName());
-        }
+        DescribeAutoScalingInstancesRequest autoScaleRequest = new DescribeAutoScalingInstancesRequest();
+        do {
+            DescribeAutoScalingInstancesResult autoScaleResult = clients.autoScaling.describeAutoScalingInstances(autoScaleRequest);
+            for (AutoScalingInstanceDetails ai : autoScaleResult.getAutoScalingInstances()) {
+                autoScaleMap.put(ai.getInstanceId(), ai.getAutoScalingGroupName());
+            }
+            autoScaleRequest.setNextToken(autoScaleResult.getNextToken());
+        } while (autoScaleRequest.getNextToken() != null);
 
         Map<String, List<Instance>> ownerInstanceMap = new HashMap<>();
-
-        List<Instance> instanceList = new ArrayList<>();
-        List<Reservation> reservations = instanceResult.getReservations();
-        for (Reservation currRes : reservations) {
-            List<Instance> currInstanceList = currRes.getInstances();
-            if (CollectionUtils.isEmpty(ownerInstanceMap.get(currRes.getOwnerId()))) {
-                ownerInstanceMap.put(currRes.getOwnerId(), currRes.getInstances());
-            } else {
-                ownerInstanceMap.get(currRes.getOwnerId()).addAll(currRes.getInstances());
+        List<String> instanceIds = new ArrayList<>();
+        DescribeInstancesRequest instancesRequest = buildFilterRequest(settings.getFilters());
+        do {
+            DescribeInstancesResult instanceResult = clients.ec2.describeInstances(instancesRequest);
+            for (Reservation currRes : instanceResult.getReservations()) {
+                ownerInstanceMap.computeIfAbsent(currRes.getOwnerId(), owner -> new ArrayList<>()).addAll(currRes.getInstances());
+                currRes.getInstances().forEach(instance -> instanceIds.add(instance.getInstanceId()));
             }
-            instanceList.addAll(currInstanceList);
-        }
+            instancesRequest.setNextToken(instanceResult.getNextToken());
+        } while (instancesRequest.getNextToken() != null);
+
+        Map<String, InstanceMetrics> instanceMetrics = getInstanceMetrics(clients.cloudWatch, instanceIds);
 
         Map<String, List<CloudInstance>> returnList = new HashMap<>();
-        int i = 0;
-        for (String acct : ownerInstanceMap.keySet()) {
-            ArrayList<CloudInstance> rawDataList = new ArrayList<>();
-            for (Instance currInstance : ownerInstanceMap.get(acct)) {
-                i = i + 1;
-                LOGGER.info("Collecting instance details for " + i + " of "
-                        + instanceList.size() + ". Instance ID=" + currInstance.getInstanceId());
-                CloudInstance object = getCloudInstanceDetails(acct,
-                        currInstance, autoScaleMap, repository);
-                rawDataList.add(object);
-            }
-            if (CollectionUtils.isEmpty(returnList.get(acct))) {
-                returnList.put(acct, rawDataList);
-            } else {
-                returnList.get(acct).addAll(rawDataList);
+        for (Map.Entry<String, List<Instance>> entry : ownerInstanceMap.entrySet()) {
+            List<CloudInstance> rawDataList = new ArrayList<>();
+            for (Instance currInstance : entry.getValue()) {
+                rawDataList.add(getCloudInstanceDetails(entry.getKey(),
+                        currInstance, autoScaleMap, instanceMetrics.get(currInstance.getInstanceId())));
             }
+            returnList.put(entry.getKey(), rawDataList);
         }
+        LOGGER.info("Collected details of " + instanceIds.size() + " instances in region " + clients.region
+                + " in " + (System.currentTimeMillis() - start) + " ms");
         return returnList;
     }
 
@@ -151,28 +201,23 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
      *
      * @param account      Cloud Account
      * @param currInstance Cloud Instance
-     * @param repository   CloudInstnceRepository
+     * @param metrics      the CloudWatch metrics of the instance
      * @return A single CloudInstance
      */
     private CloudInstance getCloudInstanceDetails(String account,
-                                                  Instance currInstance, Map<String, String> autoScaleMap, CloudInstanceRepository repository) {
+                                                  Instance currInstance, Map<String, String> autoScaleMap, InstanceMetrics metrics) {
 
-        long lastUpdated = System.currentTimeMillis();
-        CloudInstance instance = repository.findByInstanceId(currInstance.getInstanceId());
-        if (instance != null) {
-            lastUpdated = instance.getLastUpdatedDate();
-        }
         CloudInstance object = new CloudInstance();
         object.setAccountNumber(account);
         object.setLastUpdatedDate(System.currentTimeMillis());
         object.setAge(getInstanceAge(currInstance));
-        object.setCpuUtilization(getInstanceCPUSinceLastRun(currInstance.getInstanceId(), lastUpdated));
+        object.setCpuUtilization(metrics.getCpuUtilization());
         object.setIsTagged(isInstanceTagged(currInstance));
         object.setIsStopped(isInstanceStopped(currInstance));
-        object.setNetworkIn(getLastHourInstanceNetworkIn(currInstance.getInstanceId(), lastUpdated));
-        object.setNetworkOut(getLastHourIntanceNetworkOut(currInstance.getInstanceId(), lastUpdated));
-        object.setDiskRead(getLastHourInstanceDiskRead(currInstance.getInstanceId(), lastUpdated));
-        object.setDiskWrite(getLastInstanceHourDiskWrite(currInstance.getInstanceId()));
+        object.setNetworkIn(metrics.getNetworkIn());
+        object.setNetworkOut(metrics.getNetworkOut());
+        object.setDiskRead(metrics.getDiskRead());
+        object.setDiskWrite(metrics.getDiskWrite());
         // rest of the details
         object.setImageId(currInstance.getImageId());
         object.setInstanceId(currInstance.getInstanceId());
@@ -212,8 +257,9 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
 
     public Map<String, List<CloudVolumeStorage>> getCloudVolumes(Map<String, String> instanceToAccountMap) {
         Map<String, List<CloudVolumeStorage>> returnMap = new HashMap<>();
-        DescribeVolumesResult volumeResult = ec2Client.describeVolumes();
-        for (Volume v : volumeResult.getVolumes()) {
+        List<Volume> volumes = new ArrayList<>();
+        inEachRegion(this::getRegionVolumes).forEach(volumes::addAll);
+        for (Volume v : volumes) {
             CloudVolumeStorage object = new CloudVolumeStorage();
             for (VolumeAttachment va : v.getAttachments()) {
                 object.getAttachInstances().add(va.getInstanceId());
@@ -252,6 +298,154 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
     }
 
 
+    /**
+     * Reads the hourly average CPU, network and disk metrics of the instances from CloudWatch with GetMetricData,
+     * asking for the metrics of as many instances in one call as CloudWatch allows.
+     * The instances of a call that fails are left with 0 metrics.
+     *
+     * @param region      the configured region of the instances, null if no region is configured
+     * @param instanceIds the ids of the instances
+     * @return the metrics of each instance by instance id
+     */
+    @Override
+    public Map<String, InstanceMetrics> getInstanceMetrics(Regions region, Collection<String> instanceIds) {
+        String name = region == null ? DEFAULT_REGION : region.getName();
+        RegionClients clients = regionClients.get(name);
+        if (clients == null) {
+            throw new IllegalArgumentException("Region " + name + " is not configured");
+        }
+        return getInstanceMetrics(clients.cloudWatch, instanceIds);
+    }
+
+    private Map<String, InstanceMetrics> getInstanceMetrics(AmazonCloudWatch cloudWatchClient, Collection<String> instanceIds) {
+        Map<String, InstanceMetrics> metrics = new HashMap<>();
+        List<String> ids = new ArrayList<>(instanceIds);
+        Date endTime = new Date();
+        Date startTime = new Date(endTime.getTime() - TimeUnit.HOURS.toMillis(1));
+        int instancesPerCall = MAX_METRIC_DATA_QUERIES / INSTANCE_METRICS.length;
+
+        for (int from = 0; from < ids.size(); from += instancesPerCall) {
+            List<String> batch = ids.subList(from, Math.min(from + instancesPerCall, ids.size()));
+            List<MetricDataQuery> queries = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                metrics.put(batch.get(i), new InstanceMetrics());
+                Dimension instanceDimension = new Dimension().withName("InstanceId").withValue(batch.get(i));
+                for (int metric = 0; metric < INSTANCE_METRICS.length; metric++) {
+                    queries.add(new MetricDataQuery()
+                            .withId("i" + i + "_" + metric)
+                            .withMetricStat(new MetricStat()
+                                    .withMetric(new Metric().withNamespace("AWS/EC2")
+                                            .withMetricName(INSTANCE_METRICS[metric])
+                                            .withDimensions(instanceDimension))
+                                    .withPeriod(60 * 60)
+                                    .withStat("Average")));
+                }
+            }
+            GetMetricDataRequest request = new GetMetricDataRequest()
+                    .withMetricDataQueries(queries)
+                    .withStartTime(startTime)
+                    .withEndTime(endTime)
+                    .withScanBy(ScanBy.TimestampDescending);
+            try {
+                // the values of a query can span pages, the first one seen is the latest
+                Set<String> read = new HashSet<>();
+                do {
+                    GetMetricDataResult result = cloudWatchClient.getMetricData(request);
+                    for (MetricDataResult metricData : result.getMetricDataResults()) {
+                        if (!CollectionUtils.isEmpty(metricData.getValues()) && read.add(metricData.getId())) {
+                            String[] index = metricData.getId().substring(1).split("_");
+                            setMetric(metrics.get(batch.get(Integer.parseInt(index[0]))), Integer.parseInt(index[1]),
+                                    metricData.getValues().get(0));
+                        }
+                    }
+                    request.setNextToken(result.getNextToken());
+                } while (request.getNextToken() != null);
+            } catch (AmazonClientException e) {
+                LOGGER.error("Failed to get the metrics of " + batch.size() + " instances", e);
+            }
+        }
+        return metrics;
+    }
+
+    private static void setMetric(InstanceMetrics metrics, int metric, double value) {
+        switch (metric) {
+            case 0:
+                metrics.setCpuUtilization(value);
+                break;
+            case 1:
+                metrics.setNetworkIn(value);
+                break;
+            case 2:
+                metrics.setNetworkOut(value);
+                break;
+            case 3:
+                metrics.setDiskRead(value);
+                break;
+            default:
+                metrics.setDiskWrite(value);
+                break;
+        }
+    }
+
+
+    /**
+     * @return the volumes of the region, from every page of the EC2 result
+     */
+    private List<Volume> getRegionVolumes(RegionClients clients) {
+        List<Volume> volumes = new ArrayList<>();
+        DescribeVolumesRequest request = new DescribeVolumesRequest().withMaxResults(MAX_DESCRIBE_RESULTS);
+        do {
+            DescribeVolumesResult volumeResult = clients.ec2.describeVolumes(request);
+            volumes.addAll(volumeResult.getVolumes());
+            request.setNextToken(volumeResult.getNextToken());
+        } while (request.getNextToken() != null);
+        return volumes;
+    }
+
+    /**
+     * Does the work for each region on a pool of at most the configured number of threads, or on the calling
+     * thread when there is one region. A failure in any region fails the whole collection, so that the data
+     * of a region that could not be read is not taken as gone.
+     *
+     * @return the result of each region, in the configured order of the regions
+     */
+    private <T> List<T> inEachRegion(Function<RegionClients, T> work) {
+        List<T> results = new ArrayList<>();
+        if (regionClients.size() == 1) {
+            results.add(work.apply(defaultClients()));
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(settings.getRegionThreads(), regionClients.size())));
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (RegionClients clients : regionClients.values()) {
+                futures.add(executor.submit(() -> work.apply(clients)));
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting regions", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the clients of the first configured region, which serve the calls that are not made per region:
+     * the estimated charge and the deprecated single instance metrics
+     */
+    private RegionClients defaultClients() {
+        return regionClients.values().iterator().next();
+    }
+
+
     //Helper methods
 
     /* Gets the age in days of an instance */
@@ -265,6 +459,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
 
     /* Averages CPUUtil every minute for the last hour */
     @SuppressWarnings("PMD.UnusedFormalParameter")
+    @Deprecated
     @Override
     public Double getInstanceCPUSinceLastRun(String instanceId, long lastUpdated) {
 
@@ -287,7 +482,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
                 .withStatistics("Average")
                 .withStartTime(new Date(new Date().getTime() - 1440 * 1000))
                 .withEndTime(new Date());
-        GetMetricStatisticsResult result = cloudWatchClient
+        GetMetricStatisticsResult result = defaultClients().cloudWatch
                 .getMetricStatistics(request);
         // to read data
         List<Datapoint> datapoints = result.getDatapoints();
@@ -297,6 +492,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
     }
 
     /* Averages CPUUtil every minute for the last hour */
+    @Deprecated
     @Override
     public Double getLastHourInstanceNetworkIn(String instanceId,
                                                long lastUpdated) {
@@ -316,7 +512,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
                 .withStartTime(
                         new Date(new Date().getTime() - offsetInMilliseconds))
                 .withEndTime(new Date());
-        GetMetricStatisticsResult result = cloudWatchClient
+        GetMetricStatisticsResult result = defaultClients().cloudWatch
                 .getMetricStatistics(request);
         // to read data
         List<Datapoint> datapoints = result.getDatapoints();
@@ -326,6 +522,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
     }
 
     /* Averages CPUUtil every minute for the last hour */
+    @Deprecated
     @Override
     public Double getLastHourIntanceNetworkOut(String instanceId, long lastUpdated) {
         long offsetInMilliseconds = Math.min(ONE_DAY_MILLI_SECOND,
@@ -343,7 +540,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
                 .withStatistics("Average")
                 .withStartTime(new Date(new Date().getTime() - offsetInMilliseconds))
                 .withEndTime(new Date());
-        GetMetricStatisticsResult result = cloudWatchClient
+        GetMetricStatisticsResult result = defaultClients().cloudWatch
                 .getMetricStatistics(request);
 
         // to read data
@@ -354,6 +551,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
     }
 
     /* Averages CPUUtil every minute for the last hour */
+    @Deprecated
     @Override
     public Double getLastHourInstanceDiskRead(String instanceId,
                                               long lastUpdated) {
@@ -376,7 +574,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
                 .withStartTime(
                         new Date(new Date().getTime() - offsetInMilliseconds))
                 .withEndTime(new Date());
-        GetMetricStatisticsResult result = cloudWatchClient
+        GetMetricStatisticsResult result = defaultClients().cloudWatch
                 .getMetricStatistics(request);
 
         // to read data
@@ -387,6 +585,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
     }
 
     /* Averages CPUUtil every minute for the last hour */
+    @Deprecated
     @Override
     public Double getLastInstanceHourDiskWrite(String instanceId) {
         Dimension instanceDimension = new Dimension().withName("InstanceId")
@@ -402,7 +601,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
                 .withStatistics("Average")
                 .withStartTime(DateTime.now().minusHours(1).toDate())
                 .withEndTime(new Date());
-        GetMetricStatisticsResult result = cloudWatchClient
+        GetMetricStatisticsResult result = defaultClients().cloudWatch
                 .getMetricStatistics(request);
 
         // to read data
@@ -446,7 +645,7 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
                 .withStatistics("Average")
                 .withStartTime(DateTime.now().minusDays(1).toDate())
                 .withEndTime(new Date());
-        GetMetricStatisticsResult result = cloudWatchClient
+        GetMetricStatisticsResult result = defaultClients().cloudWatch
                 .getMetricStatistics(request);
         // to read data
         List<Datapoint> datapoints = result.getDatapoints();
@@ -468,7 +667,10 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
     }
 
     private DescribeInstancesRequest buildFilterRequest(Map<String,List<String>> filters) {
-        DescribeInstancesRequest instancesRequest = new DescribeInstancesRequest();
+        DescribeInstancesRequest instancesRequest = new DescribeInstancesRequest().withMaxResults(MAX_DESCRIBE_RESULTS);
+        if (CollectionUtils.isEmpty(filters)) {
+            return instancesRequest;
+        }
         List<Filter> allFilters = new ArrayList<>(filters.size());
         for (Map.Entry<String,List<String>> entry: filters.entrySet()) {
             allFilters.add(new Filter(entry.getKey(),entry.getValue()));
@@ -491,15 +693,35 @@ public class DefaultAWSCloudClient implements AWSCloudClient {
         return null;
     }
 
-    public void setEc2Client(AmazonEC2Client ec2Client) {
-        DefaultAWSCloudClient.ec2Client = ec2Client;
+    /* Replaces the EC2 client of every region */
+    public void setEc2Client(AmazonEC2 ec2Client) {
+        regionClients.values().forEach(clients -> clients.ec2 = ec2Client);
+    }
+
+    /* Replaces the CloudWatch client of every region */
+    public  void setCloudWatchClient(AmazonCloudWatch cloudWatchClient) {
+        regionClients.values().forEach(clients -> clients.cloudWatch = cloudWatchClient);
     }
 
-    public  void setCloudWatchClient(AmazonCloudWatchClient cloudWatchClient) {
-        DefaultAWSCloudClient.cloudWatchClient = cloudWatchClient;
+    /* Replaces the AutoScaling client of every region */
+    public  void setAutoScalingClient(AmazonAutoScaling autoScalingClient) {
+        regionClients.values().forEach(clients -> clients.autoScaling = autoScalingClient);
     }
 
-    public  void setAutoScalingClient(AmazonAutoScalingClient autoScalingClient) {
-        DefaultAWSCloudClient.autoScalingClient = autoScalingClient;
+    /**
+     * The clients bound to one region
+     */
+    private static final class RegionClients {
+        private final String region;
+        private AmazonEC2 ec2;
+        private AmazonCloudWatch cloudWatch;
+        private AmazonAutoScaling autoScaling;
+
+        RegionClients(String region, AmazonEC2 ec2, AmazonCloudWatch cloudWatch, AmazonAutoScaling autoScaling) {
+            this.region = region;
+            this.ec2 = ec2;
+            this.cloudWatch = cloudWatch;
+            this.autoScaling = autoScaling;
+        }
     }
 }
@@ -0,0 +1,52 @@
+package com.capitalone.dashboard.collector;
+
+/**
+ * The CloudWatch averages of one instance over the last hour. A metric CloudWatch has no datapoint for is 0.
+ */
+public class InstanceMetrics {
+    private double cpuUtilization;
+    private double networkIn;
+    private double networkOut;
+    private double diskRead;
+    private double diskWrite;
+
+    public double getCpuUtilization() {
+        return cpuUtilization;
+    }
+
+    public void setCpuUtilization(double cpuUtilization) {
+        this.cpuUtilization = cpuUtilization;
+    }
+
+    public double getNetworkIn() {
+        return networkIn;
+    }
+
+    public void setNetworkIn(double networkIn) {
+        this.networkIn = networkIn;
+    }
+
+    public double getNetworkOut() {
+        return networkOut;
+    }
+
+    public void setNetworkOut(double networkOut) {
+        this.networkOut = networkOut;
+    }
+
+    public double getDiskRead() {
+        return diskRead;
+    }
+
+    public void setDiskRead(double diskRead) {
+        this.diskRead = diskRead;
+    }
+
+    public double getDiskWrite() {
+        return diskWrite;
+    }
+
+    public void setDiskWrite(double diskWrite) {
+        this.diskWrite = diskWrite;
+    }
+}
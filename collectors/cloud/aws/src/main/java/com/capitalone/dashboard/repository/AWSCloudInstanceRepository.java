@@ -0,0 +1,22 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CloudInstance;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AWSCloudInstanceRepository extends CrudRepository<CloudInstance, ObjectId> {
+
+    /**
+     * @return the instances of the account and the instances with any of the ids, only the fields kept across
+     * collections are read
+     */
+    @Query(value = "{ $or : [ { 'accountNumber' : ?0 }, { 'instanceId' : { $in : ?1 } } ] }",
+            fields = "{ 'instanceId' : 1, 'accountNumber' : 1, 'imageExpirationDate' : 1, 'imageApproved' : 1 }")
+    List<CloudInstance> findExistingByAccountNumberOrInstanceIdIn(String accountNumber, Collection<String> instanceIds);
+
+    Long deleteByIdIn(Collection<ObjectId> ids);
+}
@@ -0,0 +1,153 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.CloudInstance;
+import com.capitalone.dashboard.repository.AWSCloudInstanceRepository;
+import com.capitalone.dashboard.repository.AWSConfigRepository;
+import com.capitalone.dashboard.repository.BaseCollectorRepository;
+import com.capitalone.dashboard.repository.CloudInstanceHistoryRepository;
+import com.capitalone.dashboard.repository.CloudInstanceRepository;
+import com.capitalone.dashboard.repository.CloudSubNetworkRepository;
+import com.capitalone.dashboard.repository.CloudVirtualNetworkRepository;
+import com.capitalone.dashboard.repository.CloudVolumeRepository;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AWSCloudCollectorTaskTest {
+
+    private static final String ACCOUNT = "123456789123";
+    private static final String OTHER_ACCOUNT = "987654321987";
+
+    @Mock
+    private TaskScheduler taskScheduler;
+    @Mock
+    private BaseCollectorRepository<AWSCloudCollector> collectorRepository;
+    @Mock
+    private AWSCloudSettings settings;
+    @Mock
+    private AWSCloudClient awsClient;
+    @Mock
+    private AWSConfigRepository awsConfigRepository;
+    @Mock
+    private CloudInstanceRepository cloudInstanceRepository;
+    @Mock
+    private CloudVirtualNetworkRepository cloudVirtualNetworkRepository;
+    @Mock
+    private CloudSubNetworkRepository cloudSubNetworkRepository;
+    @Mock
+    private CloudVolumeRepository cloudVolumeRepository;
+    @Mock
+    private CloudInstanceHistoryRepository cloudInstanceHistoryRepository;
+    @Mock
+    private AWSCloudInstanceRepository awsCloudInstanceRepository;
+
+    private AWSCloudCollectorTask task;
+
+    // what is stored before the run
+    private final CloudInstance storedInUse = stored("i-inuse", ACCOUNT);
+    private final CloudInstance storedInUseCopy = stored("i-inuse", ACCOUNT);
+    private final CloudInstance storedMoved = stored("i-moved", OTHER_ACCOUNT);
+    private final CloudInstance storedDuplicate = stored("i-duplicate", ACCOUNT);
+    private final CloudInstance storedStaleDuplicate = stored("i-duplicate", OTHER_ACCOUNT);
+    private final CloudInstance storedGone = stored("i-gone", ACCOUNT);
+
+    @Before
+    public void setup() {
+        task = new AWSCloudCollectorTask(taskScheduler, collectorRepository, settings, awsClient, awsConfigRepository,
+                cloudInstanceRepository, cloudVirtualNetworkRepository, cloudSubNetworkRepository, cloudVolumeRepository,
+                cloudInstanceHistoryRepository, awsCloudInstanceRepository);
+
+        Map<String, List<CloudInstance>> collected = new HashMap<>();
+        collected.put(ACCOUNT, Arrays.asList(collected("i-inuse"), collected("i-new"), collected("i-moved"), collected("i-duplicate")));
+        when(awsClient.getCloudInstances(cloudInstanceRepository)).thenReturn(collected);
+        when(awsClient.getCloudVolumes(any())).thenReturn(Collections.emptyMap());
+        when(awsClient.get24HourInstanceEstimatedCharge()).thenReturn(0.0);
+    }
+
+    @Test
+    public void collectInsertsNewUpdatesExistingAndDeletesGoneInstances() {
+        reconcile(Arrays.asList(storedInUse, storedInUseCopy, storedMoved, storedStaleDuplicate, storedDuplicate, storedGone));
+    }
+
+    @Test
+    public void collectKeepsTheAccountCopyWhateverOrderItIsReadIn() {
+        reconcile(Arrays.asList(storedGone, storedDuplicate, storedStaleDuplicate, storedMoved, storedInUseCopy, storedInUse));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reconcile(List<CloudInstance> stored) {
+        when(awsCloudInstanceRepository.findExistingByAccountNumberOrInstanceIdIn(eq(ACCOUNT), anyCollection())).thenReturn(stored);
+
+        task.collect(AWSCloudCollector.prototype());
+
+        ArgumentCaptor<Iterable> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(cloudInstanceRepository, times(2)).save(saved.capture());
+        List<CloudInstance> inserted = toList(saved.getAllValues().get(0));
+        List<CloudInstance> updated = toList(saved.getAllValues().get(1));
+
+        assertEquals(Collections.singletonList("i-new"), inserted.stream().map(CloudInstance::getInstanceId).collect(Collectors.toList()));
+        assertNull(inserted.get(0).getId());
+
+        Map<String, ObjectId> updatedIds = new HashMap<>();
+        updated.forEach(instance -> updatedIds.put(instance.getInstanceId(), instance.getId()));
+        Map<String, ObjectId> expectedIds = new HashMap<>();
+        // the first copy read of an instance of the account, the account's own copy of a duplicate
+        // and the copy of an instance that moved from another account are kept
+        expectedIds.put("i-inuse", stored.indexOf(storedInUse) < stored.indexOf(storedInUseCopy) ? storedInUse.getId() : storedInUseCopy.getId());
+        expectedIds.put("i-moved", storedMoved.getId());
+        expectedIds.put("i-duplicate", storedDuplicate.getId());
+        assertEquals(expectedIds, updatedIds);
+        updated.forEach(instance -> assertEquals(ACCOUNT, instance.getAccountNumber()));
+
+        ArgumentCaptor<Collection> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(awsCloudInstanceRepository).deleteByIdIn(deleted.capture());
+        ObjectId inUseCopy = expectedIds.get("i-inuse").equals(storedInUse.getId()) ? storedInUseCopy.getId() : storedInUse.getId();
+        assertEquals(new HashSet<>(Arrays.asList(inUseCopy, storedStaleDuplicate.getId(), storedGone.getId())),
+                new HashSet<ObjectId>(deleted.getValue()));
+    }
+
+    private static List<CloudInstance> toList(Iterable<CloudInstance> instances) {
+        return StreamSupport.stream(instances.spliterator(), false).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static CloudInstance stored(String instanceId, String account) {
+        CloudInstance instance = new CloudInstance();
+        instance.setId(ObjectId.get());
+        instance.setInstanceId(instanceId);
+        instance.setAccountNumber(account);
+        return instance;
+    }
+
+    private static CloudInstance collected(String instanceId) {
+        CloudInstance instance = new CloudInstance();
+        instance.setInstanceId(instanceId);
+        instance.setAccountNumber(ACCOUNT);
+        return instance;
+    }
+}
@@ -1,14 +1,17 @@
 package com.capitalone.dashboard.collector;
 
 import com.amazonaws.regions.Regions;
-import com.amazonaws.services.autoscaling.AmazonAutoScalingClient;
+import com.amazonaws.services.autoscaling.AmazonAutoScaling;
+import com.amazonaws.services.autoscaling.model.DescribeAutoScalingInstancesRequest;
 import com.amazonaws.services.autoscaling.model.DescribeAutoScalingInstancesResult;
-import com.amazonaws.services.cloudwatch.AmazonCloudWatchClient;
+import com.amazonaws.services.cloudwatch.AmazonCloudWatch;
+import com.amazonaws.services.cloudwatch.model.GetMetricDataRequest;
 import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsRequest;
 import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsResult;
-import com.amazonaws.services.ec2.AmazonEC2Client;
+import com.amazonaws.services.ec2.AmazonEC2;
 import com.amazonaws.services.ec2.model.DescribeInstancesRequest;
 import com.amazonaws.services.ec2.model.DescribeInstancesResult;
+import com.amazonaws.services.ec2.model.DescribeVolumesRequest;
 import com.amazonaws.services.ec2.model.DescribeVolumesResult;
 import com.amazonaws.services.ec2.model.Filter;
 import com.capitalone.dashboard.model.CloudInstance;
@@ -20,11 +23,7 @@ import com.google.gson.Gson;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
-import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
-import org.powermock.api.mockito.PowerMockito;
-import org.powermock.core.classloader.annotations.PrepareForTest;
-import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.io.IOException;
 import java.util.*;
@@ -36,17 +35,15 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
 
-@RunWith(PowerMockRunner.class)
-@PrepareForTest({DefaultAWSCloudClient.class})
 public class DefaultAWSCloudClientTest {
 
     private AWSCloudSettings settings = mock(AWSCloudSettings.class);
 
-    private AmazonEC2Client ec2Client = mock(AmazonEC2Client.class);
+    private AmazonEC2 ec2Client = mock(AmazonEC2.class);
 
-    private AmazonCloudWatchClient cloudWatchClient = mock(AmazonCloudWatchClient.class);
+    private AmazonCloudWatch cloudWatchClient = mock(AmazonCloudWatch.class);
 
-    private AmazonAutoScalingClient autoScalingClient = mock(AmazonAutoScalingClient.class);
+    private AmazonAutoScaling autoScalingClient = mock(AmazonAutoScaling.class);
 
     private CloudInstanceRepository cloudInstanceRepository = mock(CloudInstanceRepository.class);
 
@@ -99,36 +96,33 @@ public class DefaultAWSCloudClientTest {
         // prevent pollution between tests by having a new one every time
         settings = mock(AWSCloudSettings.class);
 
-        mock(AmazonEC2Client.class);
-
-        mock(AmazonCloudWatchClient.class);
-
-        mock(AmazonAutoScalingClient.class);
-
         mock(CloudInstanceRepository.class);
 
-        PowerMockito.whenNew(AmazonEC2Client.class).withAnyArguments().thenReturn(ec2Client);
-        PowerMockito.whenNew(AmazonAutoScalingClient.class).withAnyArguments().thenReturn(autoScalingClient);
-        PowerMockito.whenNew(AmazonCloudWatchClient.class).withAnyArguments().thenReturn(cloudWatchClient);
-
         when(settings.getProxyHost()).thenReturn("http://myproxy.com");
         when(settings.getProxyPort()).thenReturn("8080");
         when(settings.getProfile()).thenReturn("ABCDEG");
         when(settings.getNonProxy()).thenReturn("localhost");
 
         defaultAWSCloudClient = new DefaultAWSCloudClient(settings);
+        defaultAWSCloudClient.setEc2Client(ec2Client);
+        defaultAWSCloudClient.setAutoScalingClient(autoScalingClient);
+        defaultAWSCloudClient.setCloudWatchClient(cloudWatchClient);
     }
 
     @Test
     public void getCloudInstances() throws Exception {
-        when(ec2Client.describeInstances()).thenReturn(describeInstancesResult);
-        when(autoScalingClient.describeAutoScalingInstances()).thenReturn(describeAutoScalingInstancesResult);
+        when(ec2Client.describeInstances(any(DescribeInstancesRequest.class))).thenReturn(describeInstancesResult);
+        when(autoScalingClient.describeAutoScalingInstances(any(DescribeAutoScalingInstancesRequest.class))).thenReturn(describeAutoScalingInstancesResult);
+
 
+        InMemoryCloudWatch cloudWatch = new InMemoryCloudWatch();
+        cloudWatch.put("i-12345678", "CPUUtilization", 1.263);
+        cloudWatch.put("i-12345678", "NetworkIn", 577673.7166666667);
+        cloudWatch.put("i-23456789", "DiskWriteBytes", 42.0);
 
         defaultAWSCloudClient.setEc2Client(ec2Client);
         defaultAWSCloudClient.setAutoScalingClient(autoScalingClient);
-        defaultAWSCloudClient.setCloudWatchClient(cloudWatchClient);
-        when(cloudWatchClient.getMetricStatistics(any(GetMetricStatisticsRequest.class))).thenReturn(new GetMetricStatisticsResult());
+        defaultAWSCloudClient.setCloudWatchClient(cloudWatch);
         Map<String, List<CloudInstance>> results = defaultAWSCloudClient.getCloudInstances(cloudInstanceRepository);
         assertEquals(results.size(),1);
         assertEquals(results.keySet().size(), 1);
@@ -161,14 +155,91 @@ public class DefaultAWSCloudClientTest {
         assertEquals(tag1_2.getValue(), "MyAwesomeEnv");
         assertEquals(tag2_1.getName(), "Env");
         assertEquals(tag2_1.getValue(), "Env2");
-        verify(cloudWatchClient, times(10)).getMetricStatistics(any(GetMetricStatisticsRequest.class));
+        assertEquals(instance1.getCpuUtilization(), 1.263, 0);
+        assertEquals(instance1.getNetworkIn(), 577673.7166666667, 0);
+        assertEquals(instance1.getDiskWrite(), 0.0, 0);
+        assertEquals(instance2.getDiskWrite(), 42.0, 0);
+        assertEquals(cloudWatch.getRequests().size(), 1);
+        assertEquals(cloudWatch.getRequests().get(0).getMetricDataQueries().size(), 10);
+        verifyZeroInteractions(cloudInstanceRepository);
+    }
+
+    @Test
+    public void getCloudInstancesFollowsNextToken() throws Exception {
+        DescribeInstancesResult firstPage = new DescribeInstancesResult()
+                .withReservations(describeInstancesResult.getReservations().get(0))
+                .withNextToken("next");
+        DescribeInstancesResult lastPage = new DescribeInstancesResult()
+                .withReservations(describeInstancesResult.getReservations().get(1));
+        when(ec2Client.describeInstances(any(DescribeInstancesRequest.class))).thenReturn(firstPage, lastPage);
+        when(autoScalingClient.describeAutoScalingInstances(any(DescribeAutoScalingInstancesRequest.class)))
+                .thenReturn(describeAutoScalingInstancesResult);
+
+        defaultAWSCloudClient.setEc2Client(ec2Client);
+        defaultAWSCloudClient.setAutoScalingClient(autoScalingClient);
+        defaultAWSCloudClient.setCloudWatchClient(new InMemoryCloudWatch());
+        Map<String, List<CloudInstance>> results = defaultAWSCloudClient.getCloudInstances(cloudInstanceRepository);
+
+        assertEquals(results.get(ACCOUNT).size(), 2);
+        assertEquals(results.get(ACCOUNT).get(0).getInstanceId(), "i-12345678");
+        assertEquals(results.get(ACCOUNT).get(1).getInstanceId(), "i-23456789");
+        verify(ec2Client, times(2)).describeInstances(any(DescribeInstancesRequest.class));
+    }
+
+    @Test
+    public void severalRegionsAreCollected() throws Exception {
+        when(settings.getRegions()).thenReturn(Arrays.asList(Regions.US_EAST_1, Regions.EU_WEST_1));
+        when(settings.getRegionThreads()).thenReturn(2);
+        when(ec2Client.describeInstances(any(DescribeInstancesRequest.class))).thenReturn(describeInstancesResult);
+        when(autoScalingClient.describeAutoScalingInstances(any(DescribeAutoScalingInstancesRequest.class)))
+                .thenReturn(describeAutoScalingInstancesResult);
+        InMemoryCloudWatch cloudWatch = new InMemoryCloudWatch();
+
+        defaultAWSCloudClient = new DefaultAWSCloudClient(settings);
+        defaultAWSCloudClient.setEc2Client(ec2Client);
+        defaultAWSCloudClient.setAutoScalingClient(autoScalingClient);
+        defaultAWSCloudClient.setCloudWatchClient(cloudWatch);
+        Map<String, List<CloudInstance>> results = defaultAWSCloudClient.getCloudInstances(cloudInstanceRepository);
+
+        // the same mocks stand in for the clients of both regions
+        assertThat(defaultAWSCloudClient.getRegionNames(), contains(Regions.US_EAST_1.getName(), Regions.EU_WEST_1.getName()));
+        assertEquals(results.get(ACCOUNT).size(), 4);
+        assertEquals(cloudWatch.getRequests().size(), 2);
+        verify(ec2Client, times(2)).describeInstances(any(DescribeInstancesRequest.class));
+    }
+
+    @Test
+    public void getInstanceMetricsInBatches() throws Exception {
+        InMemoryCloudWatch cloudWatch = new InMemoryCloudWatch();
+        List<String> instanceIds = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            instanceIds.add("i-" + i);
+            cloudWatch.put("i-" + i, "NetworkOut", i);
+        }
+        defaultAWSCloudClient.setCloudWatchClient(cloudWatch);
+
+        Map<String, InstanceMetrics> metrics = defaultAWSCloudClient.getInstanceMetrics(null, instanceIds);
+
+        assertEquals(metrics.size(), 101);
+        assertEquals(metrics.get("i-0").getNetworkOut(), 0.0, 0);
+        assertEquals(metrics.get("i-100").getNetworkOut(), 100.0, 0);
+        assertEquals(metrics.get("i-100").getCpuUtilization(), 0.0, 0);
+        List<GetMetricDataRequest> requests = cloudWatch.getRequests();
+        assertEquals(requests.size(), 2);
+        assertEquals(requests.get(0).getMetricDataQueries().size(), DefaultAWSCloudClient.MAX_METRIC_DATA_QUERIES);
+        assertEquals(requests.get(1).getMetricDataQueries().size(), 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceMetricsOfARegionNotConfigured() throws Exception {
+        defaultAWSCloudClient.getInstanceMetrics(Regions.AP_SOUTH_1, Collections.singletonList("i-12345678"));
     }
 
 
     @Test
     public void getCloudInstancesEmpty() throws Exception {
-        when(ec2Client.describeInstances()).thenReturn(new DescribeInstancesResult());
-        when(autoScalingClient.describeAutoScalingInstances()).thenReturn(new DescribeAutoScalingInstancesResult());
+        when(ec2Client.describeInstances(any(DescribeInstancesRequest.class))).thenReturn(new DescribeInstancesResult());
+        when(autoScalingClient.describeAutoScalingInstances(any(DescribeAutoScalingInstancesRequest.class))).thenReturn(new DescribeAutoScalingInstancesResult());
 
         when(settings.getProxyHost()).thenReturn("http://myproxy.com");
         when(settings.getProxyPort()).thenReturn("8080");
@@ -183,11 +254,12 @@ public class DefaultAWSCloudClientTest {
         Map<String, List<CloudInstance>> results = defaultAWSCloudClient.getCloudInstances(cloudInstanceRepository);
         assertEquals(results.size(), 0);
         verify(cloudWatchClient, times(0)).getMetricStatistics(any(GetMetricStatisticsRequest.class));
+        verify(cloudWatchClient, times(0)).getMetricData(any(GetMetricDataRequest.class));
     }
 
     @Test
     public void getCloudVolumes() throws Exception {
-        when(ec2Client.describeVolumes()).thenReturn(describeVolumesResult);
+        when(ec2Client.describeVolumes(any(DescribeVolumesRequest.class))).thenReturn(describeVolumesResult);
         when(settings.getProxyHost()).thenReturn("http://myproxy.com");
         when(settings.getProxyPort()).thenReturn("8080");
         when(settings.getProfile()).thenReturn("ABCDEG");
@@ -233,7 +305,7 @@ public class DefaultAWSCloudClientTest {
 
     @Test
     public void getCloudVolumesEmpty() throws Exception {
-        when(ec2Client.describeVolumes()).thenReturn(new DescribeVolumesResult());
+        when(ec2Client.describeVolumes(any(DescribeVolumesRequest.class))).thenReturn(new DescribeVolumesResult());
         when(settings.getProxyHost()).thenReturn("http://myproxy.com");
         when(settings.getProxyPort()).thenReturn("8080");
         when(settings.getProfile()).thenReturn("ABCDEG");
@@ -345,7 +417,7 @@ public class DefaultAWSCloudClientTest {
         defaultAWSCloudClient = new DefaultAWSCloudClient(settings);
         defaultAWSCloudClient.setEc2Client(ec2Client);
 
-        when(autoScalingClient.describeAutoScalingInstances()).thenReturn(new DescribeAutoScalingInstancesResult());
+        when(autoScalingClient.describeAutoScalingInstances(any(DescribeAutoScalingInstancesRequest.class))).thenReturn(new DescribeAutoScalingInstancesResult());
         defaultAWSCloudClient.setAutoScalingClient(autoScalingClient);
 
         when(ec2Client.describeInstances(any(DescribeInstancesRequest.class))).thenReturn(new DescribeInstancesResult());
@@ -377,10 +449,10 @@ public class DefaultAWSCloudClientTest {
         defaultAWSCloudClient = new DefaultAWSCloudClient(settings);
         defaultAWSCloudClient.setEc2Client(ec2Client);
 
-        when(autoScalingClient.describeAutoScalingInstances()).thenReturn(new DescribeAutoScalingInstancesResult());
+        when(autoScalingClient.describeAutoScalingInstances(any(DescribeAutoScalingInstancesRequest.class))).thenReturn(new DescribeAutoScalingInstancesResult());
         defaultAWSCloudClient.setAutoScalingClient(autoScalingClient);
 
-        when(ec2Client.describeInstances()).thenReturn(new DescribeInstancesResult());
+        when(ec2Client.describeInstances(any(DescribeInstancesRequest.class))).thenReturn(new DescribeInstancesResult());
 
         //do the test
         defaultAWSCloudClient.getCloudInstances(cloudInstanceRepository);
@@ -391,10 +463,6 @@ public class DefaultAWSCloudClientTest {
 
     @Test
     public void regionCanBeSet() throws Exception {
-        PowerMockito.whenNew(AmazonEC2Client.class).withAnyArguments().thenReturn(ec2Client);
-        PowerMockito.whenNew(AmazonAutoScalingClient.class).withAnyArguments().thenReturn(autoScalingClient);
-        PowerMockito.whenNew(AmazonCloudWatchClient.class).withAnyArguments().thenReturn(cloudWatchClient);
-
         when(settings.getProxyHost()).thenReturn("http://myproxy.com");
         when(settings.getProxyPort()).thenReturn("8080");
         when(settings.getProfile()).thenReturn("ABCDEG");
@@ -404,32 +472,21 @@ public class DefaultAWSCloudClientTest {
         //test
         defaultAWSCloudClient = new DefaultAWSCloudClient(settings);
 
-        verify(ec2Client).withRegion(same(Regions.EU_WEST_1));
-        verify(cloudWatchClient).withRegion(same(Regions.EU_WEST_1));
-        verify(autoScalingClient).withRegion(same(Regions.EU_WEST_1));
+        assertThat(defaultAWSCloudClient.getRegionNames(), contains(Regions.EU_WEST_1.getName()));
     }
 
     @Test
     public void nullRegionIgnored() throws Exception {
-        PowerMockito.whenNew(AmazonEC2Client.class).withAnyArguments().thenReturn(ec2Client);
-        PowerMockito.whenNew(AmazonAutoScalingClient.class).withAnyArguments().thenReturn(autoScalingClient);
-        PowerMockito.whenNew(AmazonCloudWatchClient.class).withAnyArguments().thenReturn(cloudWatchClient);
-
-
         when(settings.getProxyHost()).thenReturn("http://myproxy.com");
         when(settings.getProxyPort()).thenReturn("8080");
         when(settings.getProfile()).thenReturn("ABCDEG");
         when(settings.getNonProxy()).thenReturn("localhost");
         when(settings.getRegion()).thenReturn(null);
 
-
-
         //test
         defaultAWSCloudClient = new DefaultAWSCloudClient(settings);
 
-        verify(ec2Client, times(0)).withRegion(same(Regions.EU_WEST_1));
-        verify(autoScalingClient, times(0)).withRegion(same(Regions.EU_WEST_1));
-        verify(cloudWatchClient, times(0)).withRegion(same(Regions.EU_WEST_1));
+        assertThat(defaultAWSCloudClient.getRegionNames(), contains("default"));
     }
 
 }
\ No newline at end of file
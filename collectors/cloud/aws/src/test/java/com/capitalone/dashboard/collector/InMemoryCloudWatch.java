@@ -0,0 +1,50 @@
+package com.capitalone.dashboard.collector;
+
+import com.amazonaws.services.cloudwatch.AbstractAmazonCloudWatch;
+import com.amazonaws.services.cloudwatch.model.Dimension;
+import com.amazonaws.services.cloudwatch.model.GetMetricDataRequest;
+import com.amazonaws.services.cloudwatch.model.GetMetricDataResult;
+import com.amazonaws.services.cloudwatch.model.MetricDataQuery;
+import com.amazonaws.services.cloudwatch.model.MetricDataResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves GetMetricData from metric values held in memory, and records the requests it was sent.
+ */
+class InMemoryCloudWatch extends AbstractAmazonCloudWatch {
+    private final Map<String, Double> values = new HashMap<>();
+    // regions are collected concurrently
+    private final List<GetMetricDataRequest> requests = Collections.synchronizedList(new ArrayList<>());
+
+    void put(String instanceId, String metricName, double value) {
+        values.put(instanceId + "/" + metricName, value);
+    }
+
+    List<GetMetricDataRequest> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public GetMetricDataResult getMetricData(GetMetricDataRequest request) {
+        requests.add(request.clone());
+        List<MetricDataResult> results = new ArrayList<>();
+        for (MetricDataQuery query : request.getMetricDataQueries()) {
+            String instanceId = null;
+            for (Dimension dimension : query.getMetricStat().getMetric().getDimensions()) {
+                if ("InstanceId".equals(dimension.getName())) {
+                    instanceId = dimension.getValue();
+                }
+            }
+            Double value = values.get(instanceId + "/" + query.getMetricStat().getMetric().getMetricName());
+            results.add(new MetricDataResult()
+                    .withId(query.getId())
+                    .withValues(value == null ? Collections.<Double>emptyList() : Collections.singletonList(value)));
+        }
+        return new GetMetricDataResult().withMetricDataResults(results);
+    }
+}
@@ -133,6 +133,12 @@ feature.jiraTeamFieldName=${JIRA_TEAM_FIELD_NAME}
 # Set this to true if you use boards as team
 feature.jiraBoardAsTeam=${JIRA_BOARD_AS_TEAM:-false}
 
+# Number of boards or projects collected at the same time
+feature.jiraThreads=${JIRA_THREADS:-4}
+
+# Number of calls made to the Jira host at the same time
+feature.jiraMaxConcurrentRequests=${JIRA_MAX_CONCURRENT_REQUESTS:-4}
+
 EOF
 
 echo "
@@ -45,6 +45,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
 
 import static com.capitalone.dashboard.utils.Utilities.getLong;
 import static com.capitalone.dashboard.utils.Utilities.getString;
@@ -78,12 +79,15 @@ public class DefaultJiraClient implements JiraClient {
     private final FeatureSettings featureSettings;
     private final RestOperations restOperations;
     private String issueFields;
-    private static JSONParser parser = new JSONParser();
+    // JSONParser keeps state between calls, so each collecting thread gets its own
+    private static final ThreadLocal<JSONParser> PARSER = ThreadLocal.withInitial(JSONParser::new);
+    private final Semaphore requestPermits;
 
     @Autowired
     public DefaultJiraClient(FeatureSettings featureSettings, Supplier<RestOperations> restOperationsSupplier) {
         this.featureSettings = featureSettings;
         this.restOperations = restOperationsSupplier.get();
+        this.requestPermits = new Semaphore(Math.max(1, featureSettings.getJiraMaxConcurrentRequests()));
         issueFields = STATIC_ISSUE_FIELDS + ','
                 + featureSettings.getJiraTeamFieldName() + ','
                 + featureSettings.getJiraSprintDataFieldName() + ','
@@ -106,7 +110,7 @@ public class DefaultJiraClient implements JiraClient {
             ResponseEntity<String> responseEntity = makeRestCall(url);
             String responseBody = responseEntity.getBody();
 
-            JSONArray projects = (JSONArray) parser.parse(responseBody);
+            JSONArray projects = (JSONArray) PARSER.get().parse(responseBody);
 
             return parseAsScopes(projects);
 
@@ -165,7 +169,7 @@ public class DefaultJiraClient implements JiraClient {
             try {
                 ResponseEntity<String> responseEntity = makeRestCall(url);
                 String responseBody = responseEntity.getBody();
-                JSONObject teamsJson = (JSONObject) parser.parse(responseBody);
+                JSONObject teamsJson = (JSONObject) PARSER.get().parse(responseBody);
 
                 if (teamsJson != null) {
                     JSONArray valuesArray = (JSONArray) teamsJson.get("values");
@@ -218,7 +222,7 @@ public class DefaultJiraClient implements JiraClient {
                     + TEMPO_TEAMS_REST_SUFFIX;
             ResponseEntity<String> responseEntity = makeRestCall(url);
             String responseBody = responseEntity.getBody();
-            JSONArray teamsJson = (JSONArray) parser.parse(responseBody);
+            JSONArray teamsJson = (JSONArray) PARSER.get().parse(responseBody);
             if (teamsJson != null) {
                 for (Object obj : teamsJson) {
                     JSONObject jo = (JSONObject) obj;
@@ -341,7 +345,7 @@ public class DefaultJiraClient implements JiraClient {
         try {
             ResponseEntity<String> responseEntity = makeRestCall(url);
             String responseBody = responseEntity.getBody();
-            JSONObject bodyObject = (JSONObject) parser.parse(responseBody);
+            JSONObject bodyObject = (JSONObject) PARSER.get().parse(responseBody);
 
             if (bodyObject != null) {
                 long pageSize = getLong(bodyObject, "maxResults");
@@ -679,7 +683,7 @@ public class DefaultJiraClient implements JiraClient {
             String url = featureSettings.getJiraBaseUrl() + (featureSettings.getJiraBaseUrl().endsWith("/") ? "" : "/") + String.format(EPIC_REST_SUFFIX, epicKey);
             ResponseEntity<String> responseEntity = makeRestCall(url);
             String responseBody = responseEntity.getBody();
-            JSONObject issue = (JSONObject) parser.parse(responseBody);
+            JSONObject issue = (JSONObject) PARSER.get().parse(responseBody);
 
             if (issue == null) {
                 return null;
@@ -718,14 +722,14 @@ public class DefaultJiraClient implements JiraClient {
     }
 
     @Override
-    public List<String> getAllIssueIds(String id, JiraMode mode) {
+    public Set<String> getAllIssueIds(String id, JiraMode mode) {
         int count = 0;
         int startAt = 0;
         boolean isLast = false;
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
         String updatedDate = LocalDateTime.now().minusDays(featureSettings.getFirstRunHistoryDays()).format(formatter);
         String issueTypes = featureSettings.getJiraIssueTypeNames() == null ? DEFAULT_ISSUE_TYPES : String.join(",", featureSettings.getJiraIssueTypeNames());
-        List<String> result = new ArrayList<>();
+        Set<String> result = new HashSet<>();
         while (!isLast) {
 
             String url = featureSettings.getJiraBaseUrl() + (featureSettings.getJiraBaseUrl().endsWith("/") ? "" : "/") + ISSUE_BY_BOARD_FULL_REFRESH_REST_SUFFIX;
@@ -734,7 +738,7 @@ public class DefaultJiraClient implements JiraClient {
                 ResponseEntity<String> responseEntity = makeRestCall(url);
 
                 String responseBody = responseEntity.getBody();
-                JSONObject jsonObject = (JSONObject) parser.parse(responseBody);
+                JSONObject jsonObject = (JSONObject) PARSER.get().parse(responseBody);
 
                 if (jsonObject != null) {
                     JSONArray valuesArray = (JSONArray) jsonObject.get("issues");
@@ -746,7 +750,8 @@ public class DefaultJiraClient implements JiraClient {
                         }
                         long total = getLong(jsonObject, "total");
                         long maxResults = getLong(jsonObject, "maxResults");
-                        isLast = total == result.size();
+                        // count the ids returned rather than the distinct ones, an issue can show up on two pages
+                        isLast = count >= total;
 
                         startAt += maxResults;
                     } else {
@@ -757,11 +762,12 @@ public class DefaultJiraClient implements JiraClient {
                     isLast = true;
                 }
             } catch (ParseException pe) {
-                isLast = true;
                 LOGGER.error("Parser exception when parsing issue refresh json", pe);
+                // a partial list would make the caller delete the issues on the pages not read
+                return null;
             } catch (HygieiaException | HttpClientErrorException | HttpServerErrorException e) {
-                isLast = true;
                 LOGGER.error("Error in calling JIRA API: " + url , e.getMessage());
+                return null;
             }
         }
         return result;
@@ -772,6 +778,16 @@ public class DefaultJiraClient implements JiraClient {
 
 
     private ResponseEntity<String> makeRestCall(String url) throws HygieiaException {
+        // all calls go to the Jira host, cap how many of them the collecting threads make at once
+        requestPermits.acquireUninterruptibly();
+        try {
+            return exchange(url);
+        } finally {
+            requestPermits.release();
+        }
+    }
+
+    private ResponseEntity<String> exchange(String url) throws HygieiaException {
         String jiraAccess = featureSettings.getJiraCredentials();
         if (StringUtils.isEmpty(jiraAccess)) {
             return restOperations.exchange(url, HttpMethod.GET, null, String.class);
@@ -13,6 +13,7 @@ import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.FeatureBoardRepository;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.FeatureRepository;
+import com.capitalone.dashboard.repository.JiraFeatureRepository;
 import com.capitalone.dashboard.repository.ScopeRepository;
 import com.capitalone.dashboard.repository.TeamRepository;
 import com.capitalone.dashboard.util.FeatureCollectorConstants;
@@ -30,12 +31,22 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -48,6 +59,7 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
     private static final Logger LOGGER = LoggerFactory.getLogger(FeatureCollectorTask.class);
     private final FeatureRepository featureRepository;
     private final FeatureBoardRepository featureBoardRepository;
+    private final JiraFeatureRepository jiraFeatureRepository;
     private final TeamRepository teamRepository;
     private final ScopeRepository projectRepository;
     private final FeatureCollectorRepository featureCollectorRepository;
@@ -68,7 +80,8 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
     public FeatureCollectorTask(TaskScheduler taskScheduler, FeatureRepository featureRepository,
                                 TeamRepository teamRepository, ScopeRepository projectRepository,
                                 FeatureCollectorRepository featureCollectorRepository, FeatureSettings featureSettings,
-                                JiraClient jiraClient, FeatureBoardRepository featureBoardRepository) {
+                                JiraClient jiraClient, FeatureBoardRepository featureBoardRepository,
+                                JiraFeatureRepository jiraFeatureRepository) {
         super(taskScheduler, FeatureCollectorConstants.JIRA);
         this.featureCollectorRepository = featureCollectorRepository;
         this.teamRepository = teamRepository;
@@ -77,6 +90,7 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
         this.featureSettings = featureSettings;
         this.jiraClient = jiraClient;
         this.featureBoardRepository = featureBoardRepository;
+        this.jiraFeatureRepository = jiraFeatureRepository;
     }
 
     /**
@@ -239,24 +253,26 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 
 
     /**
-     * Update story/feature information for all the projects one at a time
+     * Update story/feature information for all the projects, {@link FeatureSettings#getJiraThreads()} at a time
      *
      * @param collector
      */
     protected void updateStoryInformation(FeatureCollector collector) {
         long storyDataStart = System.currentTimeMillis();
         AtomicLong count = new AtomicLong();
+        // epics are applied once all boards or projects are saved, so no worker overwrites another's features
+        Map<String, Epic> epics = new ConcurrentHashMap<>();
 
         if (Objects.equals(collector.getMode(), JiraMode.Team)) {
             List<Scope> projects = new ArrayList<>(getScopeList(collector.getId()));
-            projects.forEach(project -> {
+            collectConcurrently(projects, project -> {
                 LOGGER.info("Collecting " + count.incrementAndGet() + " of " + projects.size() + " projects.");
 
                 long lastCollection = System.currentTimeMillis();
                 FeatureEpicResult featureEpicResult = jiraClient.getIssues(project);
                 List<Feature> features = featureEpicResult.getFeatureList();
                 saveFeatures(features, collector);
-                updateFeaturesWithLatestEpics(featureEpicResult.getEpicList(), collector);
+                featureEpicResult.getEpicList().forEach(epic -> addEpic(epics, epic));
                 log("Story Data Collected since " + LocalDateTime.ofInstant(Instant.ofEpochMilli(project.getLastCollected()), ZoneId.systemDefault()), storyDataStart, features.size());
 
                 project.setLastCollected(lastCollection); //set it after everything is successfully done
@@ -265,13 +281,13 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
             });
         } else {
             List<Team> boards = getBoardList(collector.getId());
-            boards.forEach(board -> {
+            collectConcurrently(boards, board -> {
                 LOGGER.info("Collecting " + count.incrementAndGet() + " of " + boards.size() + " boards.");
                 long lastCollection = System.currentTimeMillis();
                 FeatureEpicResult featureEpicResult = jiraClient.getIssues(board);
                 List<Feature> features = featureEpicResult.getFeatureList();
                 saveFeatures(features, collector);
-                updateFeaturesWithLatestEpics(featureEpicResult.getEpicList(), collector);
+                featureEpicResult.getEpicList().forEach(epic -> addEpic(epics, epic));
                 log("Story Data Collected since " + LocalDateTime.ofInstant(Instant.ofEpochMilli(board.getLastCollected()), ZoneId.systemDefault()), storyDataStart, features.size());
 
                 board.setLastCollected(lastCollection); //set it after everything is successfully done
@@ -283,7 +299,34 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
                 }
             });
         }
+        updateFeaturesWithLatestEpics(new ArrayList<>(epics.values()), collector);
+    }
 
+    /**
+     * Runs the collection of each board or project on a pool of {@link FeatureSettings#getJiraThreads()} threads.
+     * A board or project that fails is logged and left for the next run, since it is only marked as collected
+     * once its issues are saved.
+     */
+    private <T> void collectConcurrently(List<T> items, Consumer<T> collect) {
+        if (items.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(featureSettings.getJiraThreads(), items.size())));
+        try {
+            List<Future<?>> futures = new ArrayList<>(items.size());
+            items.forEach(item -> futures.add(executor.submit(() -> collect.accept(item))));
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    LOGGER.error("Failed to collect jira issues", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     /**
@@ -328,6 +371,14 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
         return projects;
     }
 
+    /**
+     * Keeps one copy of each epic. An epic seen on several boards or projects keeps a copy that was
+     * recently updated, so its changes are still applied to the features.
+     */
+    private static void addEpic(Map<String, Epic> epics, Epic epic) {
+        epics.merge(epic.getId(), epic, (current, other) -> current.isRecentUpdate() ? current : other);
+    }
+
     private List<FeatureBoard> enabledFeatureBoards(ObjectId collectorId) {
         return featureBoardRepository.findEnabledFeatureBoards(collectorId);
     }
@@ -339,53 +390,82 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
      */
 
     private void saveFeatures(List<Feature> features, FeatureCollector collector) {
-        features.forEach(f -> {
+        if (features.isEmpty()) {
+            return;
+        }
+        // an issue returned twice is saved once, with its last values
+        Map<List<String>, Feature> byKey = new LinkedHashMap<>();
+        features.forEach(f -> byKey.put(Arrays.asList(f.getsId(), f.getsTeamID()), f));
+
+        Set<String> sIds = features.stream().map(Feature::getsId).collect(Collectors.toSet());
+        Map<List<String>, ObjectId> existingIds = new HashMap<>();
+        jiraFeatureRepository.findIdsByCollectorIdAndSIdIn(collector.getId(), sIds)
+                .forEach(existing -> existingIds.putIfAbsent(Arrays.asList(existing.getsId(), existing.getsTeamID()), existing.getId()));
+
+        byKey.forEach((key, f) -> {
             f.setCollectorId(collector.getId());
-            Feature existing = featureRepository.findByCollectorIdAndSIdAndSTeamID(collector.getId(), f.getsId(), f.getsTeamID());
-            if (existing != null) {
-                f.setId(existing.getId());
+            ObjectId existingId = existingIds.get(key);
+            if (existingId != null) {
+                f.setId(existingId);
             }
-            featureRepository.save(f);
         });
+        // existing features are matched with one query, but Spring Data still saves them one document at a time
+        featureRepository.save(byKey.values());
     }
 
 
     /**
-     * Update all features with the latest Epic Information, if any.
+     * Update all features with the latest Epic Information, if any. Runs after the concurrent collection has
+     * finished, as it saves whole features across boards and projects.
      *
      * @param epicList
      * @param collector
      */
     private void updateFeaturesWithLatestEpics(List<Epic> epicList, FeatureCollector collector) {
+        List<Feature> changed = new ArrayList<>();
         epicList.stream().filter(Epic::isRecentUpdate).forEach(e -> {
             List<Feature> existing = featureRepository.findAllByCollectorIdAndSEpicID(collector.getId(), e.getId());
             existing.stream().filter(ex -> isEpicChanged(ex, e)).forEach(ex -> {
                 ex.setsEpicAssetState(e.getStatus());
                 ex.setsEpicName(e.getName());
-                featureRepository.save(ex);
+                changed.add(ex);
             });
         });
+        if (!changed.isEmpty()) {
+            featureRepository.save(changed);
+        }
     }
 
     /**
-     * Get a list of all issue ids for a given board or project and delete ones that are not in JIRA anymore
+     * Get a list of all issue ids for a given board or project and delete ones that are not in JIRA anymore.
+     * A board or project whose issue ids could not all be read is left as it is.
      *
      * @param collector
      * @param teams
      * @param scopes
      */
-    private void refreshValidIssues(FeatureCollector collector, List<Team> teams, Set<Scope> scopes) {
+    protected void refreshValidIssues(FeatureCollector collector, List<Team> teams, Set<Scope> scopes) {
         long refreshValidIssuesStart = System.currentTimeMillis();
-        List<String> lookUpIds = Objects.equals(collector.getMode(), JiraMode.Board) ? teams.stream().map(Team::getTeamId).collect(Collectors.toList()) : scopes.stream().map(Scope::getpId).collect(Collectors.toList());
-        lookUpIds.forEach(l -> {
+        boolean boardMode = Objects.equals(collector.getMode(), JiraMode.Board);
+        List<String> lookUpIds = boardMode ? teams.stream().map(Team::getTeamId).collect(Collectors.toList()) : scopes.stream().map(Scope::getpId).collect(Collectors.toList());
+        collectConcurrently(lookUpIds, l -> {
+            long refreshStart = System.currentTimeMillis();
             LOGGER.info("Refreshing issues for " + collector.getMode() + " ID:" + l);
-            List<String> issueIds = jiraClient.getAllIssueIds(l, collector.getMode());
-            List<Feature> existingFeatures = Objects.equals(collector.getMode(), JiraMode.Board) ? featureRepository.findAllByCollectorIdAndSTeamID(collector.getId(), l) : featureRepository.findAllByCollectorIdAndSProjectID(collector.getId(), l);
-            List<Feature> deletedFeatures = existingFeatures.stream().filter(e -> !issueIds.contains(e.getsId())).collect(Collectors.toList());
-            deletedFeatures.forEach(d -> {
+            Set<String> issueIds = jiraClient.getAllIssueIds(l, collector.getMode());
+            if (issueIds == null) {
+                LOGGER.warn("Could not read all issues for " + collector.getMode() + " ID:" + l + ", none of its features are deleted");
+                return;
+            }
+            List<Feature> existingFeatures = boardMode ? jiraFeatureRepository.findIdsByCollectorIdAndSTeamID(collector.getId(), l) : jiraFeatureRepository.findIdsByCollectorIdAndSProjectID(collector.getId(), l);
+            List<ObjectId> deletedIds = new ArrayList<>();
+            existingFeatures.stream().filter(e -> !issueIds.contains(e.getsId())).forEach(d -> {
                 LOGGER.info("Deleting Feature " + d.getsId() + ':' + d.getsName());
-                featureRepository.delete(d);
+                deletedIds.add(d.getId());
             });
+            if (!deletedIds.isEmpty()) {
+                jiraFeatureRepository.deleteByIdIn(deletedIds);
+            }
+            log(collector.getMode() + " ID:" + l + " Issues Refreshed. Checked " + existingFeatures.size() + ", Deleted ", refreshStart, deletedIds.size());
         });
         log(collector.getMode() + " Issues Refreshed ", refreshValidIssuesStart);
     }
@@ -86,6 +86,18 @@ public class FeatureSettings {
 	 */
 	@Value("${feature.collectorItemOnlyUpdate:true}")
 	private boolean collectorItemOnlyUpdate;
+
+	/**
+	 * Defines how many boards or projects are collected at the same time
+	 */
+	@Value("${feature.jiraThreads:4}")
+	private int jiraThreads;
+
+	/**
+	 * Defines how many calls to the Jira host can be in flight at the same time, across all collecting threads
+	 */
+	@Value("${feature.jiraMaxConcurrentRequests:4}")
+	private int jiraMaxConcurrentRequests;
 	/**
 	 * In Jira, your instance will have its own Id for the Story
 	 * <p>
@@ -113,6 +125,22 @@ public class FeatureSettings {
 		this.collectorItemOnlyUpdate = collectorItemOnlyUpdate;
 	}
 
+	public int getJiraThreads() {
+		return jiraThreads;
+	}
+
+	public void setJiraThreads(int jiraThreads) {
+		this.jiraThreads = jiraThreads;
+	}
+
+	public int getJiraMaxConcurrentRequests() {
+		return jiraMaxConcurrentRequests;
+	}
+
+	public void setJiraMaxConcurrentRequests(int jiraMaxConcurrentRequests) {
+		this.jiraMaxConcurrentRequests = jiraMaxConcurrentRequests;
+	}
+
 	public int getMaxNumberOfFeaturesPerBoard() {
 		return maxNumberOfFeaturesPerBoard;
 	}
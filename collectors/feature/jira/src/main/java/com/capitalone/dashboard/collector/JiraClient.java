@@ -24,5 +24,8 @@ public interface JiraClient {
 
 	Epic getEpic(String epicKey, Map<String, Epic> epicMap);
 
-	List<String> getAllIssueIds(String id, JiraMode mode);
+	/**
+	 * @return the ids of all issues of the board or project, or null if they could not all be read
+	 */
+	Set<String> getAllIssueIds(String id, JiraMode mode);
 }
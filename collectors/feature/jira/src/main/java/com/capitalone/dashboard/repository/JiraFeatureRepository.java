@@ -0,0 +1,37 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Feature;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface JiraFeatureRepository extends CrudRepository<Feature, ObjectId> {
+
+    /**
+     * @return the features with the given issue ids, only their ids, issue ids and team ids are read
+     */
+    @Query(value = "{ 'collectorId' : ?0, 'sId' : { $in : ?1 } }", fields = "{ 'sId' : 1, 'sTeamID' : 1 }")
+    List<Feature> findIdsByCollectorIdAndSIdIn(ObjectId collectorId, Collection<String> sIds);
+
+    /**
+     * @return the features of the board, only their ids, issue ids and names are read
+     */
+    @Query(value = "{ 'collectorId' : ?0, 'sTeamID' : ?1 }", fields = "{ 'sId' : 1, 'sName' : 1 }")
+    List<Feature> findIdsByCollectorIdAndSTeamID(ObjectId collectorId, String sTeamID);
+
+    /**
+     * @return the features of the project, only their ids, issue ids and names are read
+     */
+    @Query(value = "{ 'collectorId' : ?0, 'sProjectID' : ?1 }", fields = "{ 'sId' : 1, 'sName' : 1 }")
+    List<Feature> findIdsByCollectorIdAndSProjectID(ObjectId collectorId, String sProjectID);
+
+    /**
+     * Removes the features with the given ids with a single delete
+     *
+     * @return the number of features removed
+     */
+    Long deleteByIdIn(Collection<ObjectId> ids);
+}
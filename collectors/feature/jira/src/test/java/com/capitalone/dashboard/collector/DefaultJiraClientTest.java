@@ -22,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestOperations;
 
 import java.io.IOException;
@@ -33,10 +34,12 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -107,9 +110,16 @@ public class DefaultJiraClientTest {
     @Test
     public void getAllIssueIds() throws IOException{
         doReturn(new ResponseEntity<>(getExpectedJSON("response/issuerefreshresponse.json"), HttpStatus.OK)).when(rest).exchange(contains("rest/agile/1.0/"), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
-        List<String> ids = defaultJiraClient.getAllIssueIds("1234", JiraMode.Board);
+        Set<String> ids = defaultJiraClient.getAllIssueIds("1234", JiraMode.Board);
         assertThat(ids.stream().count()).isEqualTo(7);
     }
+    @Test
+    public void getAllIssueIdsIsNullWhenAPageFails() {
+        String firstPage = "{\"startAt\": 0, \"maxResults\": 1, \"total\": 2, \"issues\": [{\"id\": \"2312604\"}]}";
+        doReturn(new ResponseEntity<>(firstPage, HttpStatus.OK)).when(rest).exchange(contains("rest/agile/1.0/"), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        doThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)).when(rest).exchange(contains("startAt=1"), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        assertNull(defaultJiraClient.getAllIssueIds("1234", JiraMode.Board));
+    }
 
 
 
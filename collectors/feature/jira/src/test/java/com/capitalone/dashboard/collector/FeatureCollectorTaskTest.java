@@ -11,6 +11,7 @@ import com.capitalone.dashboard.model.Team;
 import com.capitalone.dashboard.repository.FeatureBoardRepository;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.FeatureRepository;
+import com.capitalone.dashboard.repository.JiraFeatureRepository;
 import com.capitalone.dashboard.repository.ScopeRepository;
 import com.capitalone.dashboard.repository.TeamRepository;
 import com.capitalone.dashboard.testutil.GsonUtil;
@@ -38,12 +39,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestOperations;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,6 +60,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -87,6 +92,8 @@ public class FeatureCollectorTaskTest {
     private ScopeRepository projectRepository;
     @Autowired
     private FeatureRepository featureRepository;
+    @Autowired
+    private JiraFeatureRepository jiraFeatureRepository;
     @Mock
     private FeatureBoardRepository featureBoardRepository =  mock(FeatureBoardRepository.class);;
 
@@ -102,7 +109,7 @@ public class FeatureCollectorTaskTest {
         defaultJiraClient = new DefaultJiraClient(featureSettings,restOperationsSupplier);
         featureSettings.setJiraBoardAsTeam(true);
         featureSettings.setCollectorItemOnlyUpdate(false);
-        featureCollectorTask = new FeatureCollectorTask(null,featureRepository,teamRepository,projectRepository,featureCollectorRepository,featureSettings,defaultJiraClient, featureBoardRepository);
+        featureCollectorTask = new FeatureCollectorTask(null,featureRepository,teamRepository,projectRepository,featureCollectorRepository,featureSettings,defaultJiraClient, featureBoardRepository, jiraFeatureRepository);
 
         featureCollector = featureCollectorTask.getCollector();
         featureCollector.setId(new ObjectId("5c38f2f087cd1f53ca81bd3d"));
@@ -190,6 +197,26 @@ public class FeatureCollectorTaskTest {
 
     }
     @Test
+    public void addStoryInformationTwiceConcurrently() throws IOException{
+        List<Feature> expected = getExpectedFeature("./expected/feature-epic-expected.json");
+        String epicId = expected.get(0).getsEpicID();
+        doReturn(new ResponseEntity<>(getExpectedJSON("response/issueresponse-empty.json"), HttpStatus.OK)).when(rest).exchange(contains("jira"), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        doReturn(new ResponseEntity<>(getExpectedJSON("response/epicresponse.json"), HttpStatus.OK)).when(rest).exchange(contains("/rest/agile/1.0/issue/"+epicId), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        doReturn(new ResponseEntity<>(getExpectedJSON("response/issueresponse-story.json"), HttpStatus.OK)).when(rest).exchange(contains("board/999"), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        int jiraThreads = featureSettings.getJiraThreads();
+        featureSettings.setJiraThreads(4);
+        try {
+            featureCollectorTask.updateStoryInformation(featureCollector);
+            int collected = featureRepository.getStoryByTeamID(expected.get(0).getsTeamID()).size();
+            featureCollectorTask.updateStoryInformation(featureCollector);
+
+            // issues collected again update the features saved the first time
+            assertEquals(collected, featureRepository.getStoryByTeamID(expected.get(0).getsTeamID()).size());
+        } finally {
+            featureSettings.setJiraThreads(jiraThreads);
+        }
+    }
+    @Test
     public void addStoryInformationTypeAll() throws IOException{
 
         List<Feature> expected = getExpectedFeature("./expected/feature-epic-expected.json");
@@ -236,6 +263,41 @@ public class FeatureCollectorTaskTest {
 
     }
 
+    @Test
+    public void refreshValidIssuesDeletesIssuesNoLongerInJira() throws IOException {
+        saveFeature("2312604", "4321");
+        saveFeature("1000001", "4321");
+        doReturn(new ResponseEntity<>(getExpectedJSON("response/issuerefreshresponse.json"), HttpStatus.OK)).when(rest).exchange(contains("board/4321/issue"), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+
+        featureCollectorTask.refreshValidIssues(featureCollector, Collections.singletonList(new Team("4321", "refreshTeam")), Collections.emptySet());
+
+        List<Feature> remaining = jiraFeatureRepository.findIdsByCollectorIdAndSTeamID(featureCollector.getId(), "4321");
+        assertEquals(Collections.singletonList("2312604"), remaining.stream().map(Feature::getsId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void refreshValidIssuesKeepsFeaturesWhenAPageFails() {
+        saveFeature("2312604", "4322");
+        saveFeature("1000001", "4322");
+        String firstPage = "{\"startAt\": 0, \"maxResults\": 1, \"total\": 2, \"issues\": [{\"id\": \"2312604\"}]}";
+        doReturn(new ResponseEntity<>(firstPage, HttpStatus.OK)).when(rest).exchange(contains("board/4322/issue?jql"), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+        doThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)).when(rest).exchange(contains("startAt=1"), eq(HttpMethod.GET), Matchers.any(HttpEntity.class), eq(String.class));
+
+        featureCollectorTask.refreshValidIssues(featureCollector, Collections.singletonList(new Team("4322", "refreshTeam")), Collections.emptySet());
+
+        // the second page was never read, so its issue must not be taken as deleted in Jira
+        assertEquals(2, jiraFeatureRepository.findIdsByCollectorIdAndSTeamID(featureCollector.getId(), "4322").size());
+    }
+
+    private void saveFeature(String sId, String teamId) {
+        Feature feature = new Feature();
+        feature.setCollectorId(featureCollector.getId());
+        feature.setsId(sId);
+        feature.setsName("Story " + sId);
+        feature.setsTeamID(teamId);
+        featureRepository.save(feature);
+    }
+
     private String getExpectedJSON(String fileName) throws IOException {
         String path = "./" + fileName;
         URL fileUrl = Resources.getResource(path);
@@ -20,6 +20,7 @@ github.firstRunHistoryDays=${GITHUB_FIRST_RUN_HISTORY_DAYS:-15}
 github.errorThreshold=${GITHUB_ERROR_THRESHOLD:-1}
 
 github.rateLimitThreshold=${GITHUB_RATE_LIMIT_THRESHOLD:-100}
+github.threads=${GITHUB_THREADS:-1}
 github.personalAccessToken=${PERSONAL_ACCESS_TOKEN}
 EOF
 
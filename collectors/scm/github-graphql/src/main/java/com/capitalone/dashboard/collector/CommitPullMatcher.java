@@ -4,10 +4,11 @@ import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.GitRequest;
 import org.apache.commons.collections.CollectionUtils;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 public class CommitPullMatcher {
 
@@ -21,43 +22,44 @@ public class CommitPullMatcher {
      * For setting type:
      * If PR commit's SHAs are all found in commit stream, then the commit for the merge sha is a merge commit.
      * In all other cases it is a new commit
+     * <p>
+     * The pull requests are indexed once so each commit is matched with a few hash lookups.
+     * When several pull requests match a commit the first one in the list wins.
      */
 
     public static List<Commit> matchCommitToPulls(List<Commit> commits, List<GitRequest> pullRequests) {
-        List<Commit> newCommitList = new LinkedList<>();
         if (CollectionUtils.isEmpty(commits) || CollectionUtils.isEmpty(pullRequests)) {
             return commits;
         }
-        //TODO: Need to optimize this method
-        for (Commit commit : commits) {
-            Iterator<GitRequest> pIter = pullRequests.iterator();
-            boolean foundPull = false;
-            while (!foundPull && pIter.hasNext()) {
-                GitRequest pull = pIter.next();
-                if (Objects.equals(pull.getScmRevisionNumber(), commit.getScmRevisionNumber()) ||
-                        Objects.equals(pull.getScmMergeEventRevisionNumber(), commit.getScmRevisionNumber())) {
-                    foundPull = true;
-                    commit.setPullNumber(pull.getNumber());
-                } else {
-                    List<Commit> prCommits = pull.getCommits();
-                    boolean foundCommit = false;
-                    if (!CollectionUtils.isEmpty(prCommits)) {
-                        Iterator<Commit> cIter = prCommits.iterator();
-                        while (!foundCommit && cIter.hasNext()) {
-                            Commit loopCommit = cIter.next();
-                            if (Objects.equals(commit.getScmAuthor(), loopCommit.getScmAuthor()) &&
-                                    (commit.getScmCommitTimestamp() == loopCommit.getScmCommitTimestamp()) &&
-                                    Objects.equals(commit.getScmCommitLog(), loopCommit.getScmCommitLog())) {
-                                foundCommit = true;
-                                foundPull = true;
-                                commit.setPullNumber(pull.getNumber());
-                            }
-                        }
-                    }
+
+        // position of the first pull request matching by revision/merge sha or by rebased commit
+        Map<String, Integer> pullsBySha = new HashMap<>();
+        Map<List<Object>, Integer> pullsByRebasedCommit = new HashMap<>();
+        for (int i = 0; i < pullRequests.size(); i++) {
+            GitRequest pull = pullRequests.get(i);
+            pullsBySha.putIfAbsent(pull.getScmRevisionNumber(), i);
+            pullsBySha.putIfAbsent(pull.getScmMergeEventRevisionNumber(), i);
+            if (!CollectionUtils.isEmpty(pull.getCommits())) {
+                for (Commit prCommit : pull.getCommits()) {
+                    pullsByRebasedCommit.putIfAbsent(rebaseKey(prCommit), i);
                 }
             }
+        }
+
+        List<Commit> newCommitList = new ArrayList<>(commits.size());
+        for (Commit commit : commits) {
+            Integer bySha = pullsBySha.get(commit.getScmRevisionNumber());
+            Integer byRebase = pullsByRebasedCommit.get(rebaseKey(commit));
+            Integer match = (bySha == null) ? byRebase : (byRebase == null) ? bySha : Math.min(bySha, byRebase);
+            if (match != null) {
+                commit.setPullNumber(pullRequests.get(match).getNumber());
+            }
             newCommitList.add(commit);
         }
         return newCommitList;
     }
+
+    private static List<Object> rebaseKey(Commit commit) {
+        return Arrays.asList(commit.getScmAuthor(), commit.getScmCommitTimestamp(), commit.getScmCommitLog());
+    }
 }
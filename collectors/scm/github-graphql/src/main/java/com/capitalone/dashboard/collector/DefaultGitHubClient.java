@@ -32,14 +32,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestOperations;
 
 import java.net.MalformedURLException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -62,10 +65,10 @@ public class DefaultGitHubClient implements GitHubClient {
 
     private final RestOperations restOperations;
 
-    private List<Commit> commits;
-    private List<GitRequest> pullRequests;
-    private List<GitRequest> issues;
-    private Map<String, String> ldapMap;
+    private final GitHubRateLimitGovernor rateLimitGovernor;
+
+    // what was collected for the repo the current thread is working on
+    private final ThreadLocal<RepoContext> context = ThreadLocal.withInitial(RepoContext::new);
     private final List<Pattern> commitExclusionPatterns = new ArrayList<>();
 
 
@@ -73,9 +76,11 @@ public class DefaultGitHubClient implements GitHubClient {
 
     @Autowired
     public DefaultGitHubClient(GitHubSettings settings,
-                               Supplier<RestOperations> restOperationsSupplier) {
+                               Supplier<RestOperations> restOperationsSupplier,
+                               GitHubRateLimitGovernor rateLimitGovernor) {
         this.settings = settings;
         this.restOperations = restOperationsSupplier.get();
+        this.rateLimitGovernor = rateLimitGovernor;
 
         if (!CollectionUtils.isEmpty(settings.getNotBuiltCommits())) {
             settings.getNotBuiltCommits().stream().map(regExStr -> Pattern.compile(regExStr, Pattern.CASE_INSENSITIVE)).forEach(commitExclusionPatterns::add);
@@ -89,26 +94,26 @@ public class DefaultGitHubClient implements GitHubClient {
 
     @Override
     public List<Commit> getCommits() {
-        return commits;
+        return context.get().commits;
     }
 
     @Override
     public List<GitRequest> getPulls() {
-        return pullRequests;
+        return context.get().pullRequests;
     }
 
     @Override
     public List<GitRequest> getIssues() {
-        return issues;
+        return context.get().issues;
     }
 
 
     protected void setLdapMap(Map<String, String> ldapMap) {
-        this.ldapMap = ldapMap;
+        context.get().ldapMap = ldapMap;
     }
 
     protected Map<String, String> getLdapMap() {
-        return ldapMap;
+        return context.get().ldapMap;
     }
 
     @Override
@@ -120,10 +125,8 @@ public class DefaultGitHubClient implements GitHubClient {
         String graphQLurl = gitHubParsed.getGraphQLUrl();
 
 
-        commits = new LinkedList<>();
-        pullRequests = new LinkedList<>();
-        issues = new LinkedList<>();
-        ldapMap = new HashMap<>();
+        RepoContext repoContext = new RepoContext();
+        context.set(repoContext);
         long historyTimeStamp = getTimeStampMills(getRunDate(repo, firstRun, false));
 
         String decryptedPassword = decryptString(repo.getPassword(), settings.getKey());
@@ -141,14 +144,10 @@ public class DefaultGitHubClient implements GitHubClient {
         int loopCount = 1;
         while (!alldone) {
             LOG.debug("Executing loop " + loopCount + " for " + gitHubParsed.getOrgName() + "/" + gitHubParsed.getRepoName());
-            ResponseEntity<String> response = makeRestCallPost(graphQLurl, repo.getUserId(), decryptedPassword, decryptPersonalAccessToken, query);
-            JSONObject data = (JSONObject) parseAsObject(response).get("data");
-            JSONArray errors = getArray(parseAsObject(response), "errors");
-
-            if (!CollectionUtils.isEmpty(errors)) {
-                throw new HygieiaException("Error in GraphQL query:" + errors.toJSONString(), HygieiaException.JSON_FORMAT_ERROR);
-            }
+            rateLimitGovernor.acquire(repo);
+            JSONObject data = getData(postGraphQL(graphQLurl, repo.getUserId(), decryptedPassword, decryptPersonalAccessToken, query));
             if (data != null) {
+                rateLimitGovernor.update(repo, parseRateLimit(data));
                 JSONObject repository = (JSONObject) data.get("repository");
 
                 GitHubPaging pullPaging = processPullRequest((JSONObject) repository.get("pullRequests"), repo, existingPRMap, historyTimeStamp);
@@ -168,14 +167,14 @@ public class DefaultGitHubClient implements GitHubClient {
             }
         }
 
-        LOG.info("-- Collected " + commits.size() + " Commits, " + pullRequests.size() + " Pull Requests, " + issues.size() + " Issues since " + getRunDate(repo, firstRun, false));
+        LOG.info("-- Collected " + repoContext.commits.size() + " Commits, " + repoContext.pullRequests.size() + " Pull Requests, " + repoContext.issues.size() + " Issues since " + getRunDate(repo, firstRun, false));
 
         if (firstRun) {
             connectCommitToPulls();
             return;
         }
 
-        List<GitRequest> allMergedPrs = pullRequests.stream().filter(pr -> "merged".equalsIgnoreCase(pr.getState())).collect(Collectors.toList());
+        List<GitRequest> allMergedPrs = repoContext.pullRequests.stream().filter(pr -> "merged".equalsIgnoreCase(pr.getState())).collect(Collectors.toList());
         if (CollectionUtils.isEmpty(allMergedPrs)) {
             connectCommitToPulls();
             return;
@@ -197,14 +196,10 @@ public class DefaultGitHubClient implements GitHubClient {
         int missingCommitCount = 0;
         while (!alldone) {
             LOG.debug("Executing loop " + loopCount + " for " + gitHubParsed.getOrgName() + "/" + gitHubParsed.getRepoName());
-            ResponseEntity<String> response = makeRestCallPost(graphQLurl, repo.getUserId(), decryptedPassword, decryptPersonalAccessToken, query);
-            JSONObject data = (JSONObject) parseAsObject(response).get("data");
-            JSONArray errors = getArray(parseAsObject(response), "errors");
-
-            if (!CollectionUtils.isEmpty(errors)) {
-                throw new HygieiaException("Error in GraphQL query:" + errors.toJSONString(), HygieiaException.JSON_FORMAT_ERROR);
-            }
+            rateLimitGovernor.acquire(repo);
+            JSONObject data = getData(postGraphQL(graphQLurl, repo.getUserId(), decryptedPassword, decryptPersonalAccessToken, query));
             if (data != null) {
+                rateLimitGovernor.update(repo, parseRateLimit(data));
                 JSONObject repository = (JSONObject) data.get("repository");
 
                 GitHubPaging commitPaging = processCommits((JSONObject) repository.get("ref"), repo);
@@ -246,14 +241,8 @@ public class DefaultGitHubClient implements GitHubClient {
         query.put("variables", variableJSON.toString());
 
 
-        ResponseEntity<String> response = makeRestCallPost(gitHubParsed.getGraphQLUrl(), repo.getUserId(), decryptedPassword, personalAccessToken, query);
-        JSONObject data = (JSONObject) parseAsObject(response).get("data");
-        JSONArray errors = getArray(parseAsObject(response), "errors");
-
-        if (!CollectionUtils.isEmpty(errors)) {
-            throw new HygieiaException("Error in GraphQL query:" + errors.toJSONString(), HygieiaException.JSON_FORMAT_ERROR);
-        }
-
+        rateLimitGovernor.acquire(repo);
+        JSONObject data = getData(postGraphQL(gitHubParsed.getGraphQLUrl(), repo.getUserId(), decryptedPassword, personalAccessToken, query));
         if (data == null) return paging;
         JSONObject repository = (JSONObject) data.get("repository");
         JSONObject requestObject = "pull".equalsIgnoreCase(type) ? (JSONObject) repository.get("pullRequests") : (JSONObject) repository.get("issues");
@@ -293,7 +282,8 @@ public class DefaultGitHubClient implements GitHubClient {
      */
 
     private void connectCommitToPulls() {
-        commits = CommitPullMatcher.matchCommitToPulls(commits, pullRequests);
+        RepoContext repoContext = context.get();
+        repoContext.commits = CommitPullMatcher.matchCommitToPulls(repoContext.commits, repoContext.pullRequests);
     }
 
     @SuppressWarnings({"PMD.ExcessiveMethodLength", "PMD.NcssMethodCount"})
@@ -551,7 +541,7 @@ public class DefaultGitHubClient implements GitHubClient {
             } else {
                 //add to the list
                 localCount++;
-                pullRequests.add(pull);
+                context.get().pullRequests.add(pull);
             }
         }
         paging.setCurrentCount(localCount);
@@ -611,7 +601,7 @@ public class DefaultGitHubClient implements GitHubClient {
             commit.setScmParentRevisionNumbers(parentShas);
             commit.setFirstEverCommit(CollectionUtils.isEmpty(parentShas));
             commit.setType(getCommitType(CollectionUtils.size(parentShas), message));
-            commits.add(commit);
+            context.get().commits.add(commit);
         }
         return paging;
     }
@@ -688,7 +678,7 @@ public class DefaultGitHubClient implements GitHubClient {
                 break;
             } else {
                 //add to the list
-                issues.add(issue);
+                context.get().issues.add(issue);
                 localCount++;
             }
         }
@@ -924,14 +914,17 @@ public class DefaultGitHubClient implements GitHubClient {
         String decryptPersonalAccessToken = decryptString(personalAccessToken, settings.getKey());
         JSONObject query = new JSONObject();
         query.put("query", GitHubGraphQLQuery.QUERY_RATE_LIMIT);
-        ResponseEntity<String> response = null;
-        response = makeRestCallPost(gitHubParsed.getGraphQLUrl(), repo.getUserId(), decryptedPassword, decryptPersonalAccessToken, query);
-        JSONObject data = (JSONObject) parseAsObject(response).get("data");
-        JSONArray errors = getArray(parseAsObject(response), "errors");
+        JSONObject responseObject = postGraphQL(gitHubParsed.getGraphQLUrl(), repo.getUserId(), decryptedPassword, decryptPersonalAccessToken, query);
+        JSONObject data = (JSONObject) responseObject.get("data");
+        JSONArray errors = getArray(responseObject, "errors");
         if (data == null) return null;
         if (!CollectionUtils.isEmpty(errors)) {
             throw new HygieiaException("Error in GraphQL query:" + errors.toJSONString(), HygieiaException.BAD_DATA);
         }
+        return parseRateLimit(data);
+    }
+
+    private GitHubRateLimit parseRateLimit(JSONObject data) {
         JSONObject rateLimitJSON = (JSONObject) data.get("rateLimit");
         if (rateLimitJSON == null) return null;
         int limit = asInt(rateLimitJSON, "limit");
@@ -950,6 +943,7 @@ public class DefaultGitHubClient implements GitHubClient {
         if (StringUtils.isEmpty(user)) return null;
         //This is weird. Github does replace the _ in commit author with - in the user api!!!
         String formattedUser = user.replace("_", "-");
+        Map<String, String> ldapMap = context.get().ldapMap;
         if (ldapMap.get(formattedUser) != null) {
             return ldapMap.get(formattedUser);
         }
@@ -1020,7 +1014,7 @@ public class DefaultGitHubClient implements GitHubClient {
 
     public long getRepoOffsetTime(GitHubRepo repo) {
         List<Commit> allPrCommits = new ArrayList<>();
-        pullRequests.stream().filter(pr -> "merged".equalsIgnoreCase(pr.getState())).forEach(pr -> {
+        context.get().pullRequests.stream().filter(pr -> "merged".equalsIgnoreCase(pr.getState())).forEach(pr -> {
             allPrCommits.addAll(pr.getCommits().stream().collect(Collectors.toList()));
         });
         if (CollectionUtils.isEmpty(allPrCommits)) {
@@ -1042,17 +1036,38 @@ public class DefaultGitHubClient implements GitHubClient {
         return dateInstance.minusDays(offsetDays).minusMinutes(offsetMinutes);
     }
 
-    private ResponseEntity<String> makeRestCallPost(String url, String userId, String password, String personalAccessToken, JSONObject query) {
+    /**
+     * Posts a GraphQL query and reads the response from the response stream as it arrives, see
+     * {@link GraphQLResponseHandler}.
+     *
+     * @return the data and errors of the response, empty if the response is not valid JSON
+     */
+    private JSONObject postGraphQL(String url, String userId, String password, String personalAccessToken, JSONObject query) {
+        HttpHeaders headers;
         // Basic Auth only.
         if (!Objects.equals("", userId) && !Objects.equals("", password)) {
-            return restOperations.exchange(url, HttpMethod.POST, new HttpEntity<Object>(query, createHeaders(userId, password)), String.class);
+            headers = createHeaders(userId, password);
         }else if (personalAccessToken != null && !Objects.equals("", personalAccessToken)) {
-            return restOperations.exchange(url, HttpMethod.POST, new HttpEntity<Object>(query, createHeaders(personalAccessToken)), String.class);
+            headers = createHeaders(personalAccessToken);
         }else if (settings.getPersonalAccessToken() != null && !Objects.equals("", settings.getPersonalAccessToken())) {
-            return restOperations.exchange(url, HttpMethod.POST, new HttpEntity<Object>(query, createHeaders(settings.getPersonalAccessToken())), String.class);
+            headers = createHeaders(settings.getPersonalAccessToken());
         } else {
-            return restOperations.exchange(url, HttpMethod.POST, new HttpEntity<Object>(query, null), String.class);
+            headers = new HttpHeaders();
         }
+        RequestCallback request = clientRequest -> {
+            clientRequest.getHeaders().putAll(headers);
+            clientRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            clientRequest.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+            clientRequest.getBody().write(query.toJSONString().getBytes(StandardCharsets.UTF_8));
+        };
+        return restOperations.execute(url, HttpMethod.POST, request, response -> {
+            try {
+                return GraphQLResponseHandler.parse(response.getBody());
+            } catch (ParseException pe) {
+                LOG.error(pe.getMessage());
+                return new JSONObject();
+            }
+        });
     }
 
     private ResponseEntity<String> makeRestCallGet(String url) throws RestClientException {
@@ -1085,6 +1100,18 @@ public class DefaultGitHubClient implements GitHubClient {
         return headers;
     }
 
+    /**
+     * @return the data of a GraphQL response
+     * @throws HygieiaException if the response has errors
+     */
+    private JSONObject getData(JSONObject responseObject) throws HygieiaException {
+        JSONArray errors = getArray(responseObject, "errors");
+        if (!CollectionUtils.isEmpty(errors)) {
+            throw new HygieiaException("Error in GraphQL query:" + errors.toJSONString(), HygieiaException.JSON_FORMAT_ERROR);
+        }
+        return (JSONObject) responseObject.get("data");
+    }
+
     private JSONObject parseAsObject(ResponseEntity<String> response) {
         try {
             return (JSONObject) new JSONParser().parse(response.getBody());
@@ -1136,4 +1163,11 @@ public class DefaultGitHubClient implements GitHubClient {
         }
         return "";
     }
-}
\ No newline at end of file
+
+    private static final class RepoContext {
+        private List<Commit> commits = new LinkedList<>();
+        private final List<GitRequest> pullRequests = new LinkedList<>();
+        private final List<GitRequest> issues = new LinkedList<>();
+        private Map<String, String> ldapMap = new HashMap<>();
+    }
+}
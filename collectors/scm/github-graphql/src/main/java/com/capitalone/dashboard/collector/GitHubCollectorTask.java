@@ -14,6 +14,7 @@ import com.capitalone.dashboard.model.GitRequest;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.GitHubCommitRepository;
 import com.capitalone.dashboard.repository.GitHubRepoRepository;
 import com.capitalone.dashboard.repository.GitRequestRepository;
 import com.google.common.collect.Lists;
@@ -33,16 +34,21 @@ import org.springframework.web.client.RestClientException;
 
 import java.net.MalformedURLException;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -55,9 +61,11 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
     private final BaseCollectorRepository<Collector> collectorRepository;
     private final GitHubRepoRepository gitHubRepoRepository;
     private final CommitRepository commitRepository;
+    private final GitHubCommitRepository gitHubCommitRepository;
     private final GitRequestRepository gitRequestRepository;
     private final GitHubClient gitHubClient;
     private final GitHubSettings gitHubSettings;
+    private final GitHubRateLimitGovernor rateLimitGovernor;
     private final ComponentRepository dbComponentRepository;
     private static final long FOURTEEN_DAYS_MILLISECONDS = 14 * 24 * 60 * 60 * 1000;
 
@@ -66,16 +74,20 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
                                BaseCollectorRepository<Collector> collectorRepository,
                                GitHubRepoRepository gitHubRepoRepository,
                                CommitRepository commitRepository,
+                               GitHubCommitRepository gitHubCommitRepository,
                                GitRequestRepository gitRequestRepository,
                                GitHubClient gitHubClient,
                                GitHubSettings gitHubSettings,
+                               GitHubRateLimitGovernor rateLimitGovernor,
                                ComponentRepository dbComponentRepository) {
         super(taskScheduler, "GitHub");
         this.collectorRepository = collectorRepository;
         this.gitHubRepoRepository = gitHubRepoRepository;
         this.commitRepository = commitRepository;
+        this.gitHubCommitRepository = gitHubCommitRepository;
         this.gitHubClient = gitHubClient;
         this.gitHubSettings = gitHubSettings;
+        this.rateLimitGovernor = rateLimitGovernor;
         this.dbComponentRepository = dbComponentRepository;
         this.gitRequestRepository = gitRequestRepository;
     }
@@ -150,90 +162,122 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
 
 
     @Override
-    @SuppressWarnings({"PMD.AvoidDeeplyNestedIfStmts"})
     public void collect(Collector collector) {
 
         logBanner("Starting...");
         long start = System.currentTimeMillis();
-        int repoCount = 0;
-        int commitCount = 0;
-        int pullCount = 0;
-        int issueCount = 0;
+        AtomicInteger repoCount = new AtomicInteger();
+        AtomicInteger commitCount = new AtomicInteger();
+        AtomicInteger pullCount = new AtomicInteger();
+        AtomicInteger issueCount = new AtomicInteger();
 
         clean(collector);
         List<GitHubRepo> enabledRepos = enabledRepos(collector);
-        for (GitHubRepo repo : enabledRepos) {
-            LOG.info("Starting collection: " + (repoCount + 1) + " of " + enabledRepos.size() + ": " + repo.getRepoUrl() + "/tree/" + repo.getBranch());
+        if (!enabledRepos.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(gitHubSettings.getThreads(), enabledRepos.size())));
+            List<Future<?>> futures = new ArrayList<>(enabledRepos.size());
+            try {
+                for (int i = 0; i < enabledRepos.size(); i++) {
+                    GitHubRepo repo = enabledRepos.get(i);
+                    int repoNumber = i + 1;
+                    futures.add(executor.submit(() -> {
+                        LOG.info("Starting collection: " + repoNumber + " of " + enabledRepos.size() + ": " + repo.getRepoUrl() + "/tree/" + repo.getBranch());
+                        if (collectRepo(repo, start, commitCount, pullCount, issueCount)) {
+                            repoCount.incrementAndGet();
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        LOG.error("Error collecting repo", e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                LOG.error("GitHub collection interrupted", e);
+                Thread.currentThread().interrupt();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        log("Repo Count", start, repoCount.get());
+        log("New Commits", start, commitCount.get());
+        log("New Pulls", start, pullCount.get());
+        log("New Issues", start, issueCount.get());
+        log("Finished", start);
+
+    }
 
-            boolean firstRun = ((repo.getLastUpdated() == 0) || ((start - repo.getLastUpdated()) > FOURTEEN_DAYS_MILLISECONDS));
+    /**
+     * Collects the commits, pull requests and issues of one repo. Runs on a worker thread.
+     *
+     * @return false if the repo was skipped because the rate limit was reached
+     */
+    @SuppressWarnings({"PMD.AvoidDeeplyNestedIfStmts"})
+    private boolean collectRepo(GitHubRepo repo, long start, AtomicInteger commitCount, AtomicInteger pullCount, AtomicInteger issueCount) {
+        boolean firstRun = ((repo.getLastUpdated() == 0) || ((start - repo.getLastUpdated()) > FOURTEEN_DAYS_MILLISECONDS));
 
-            if (repo.checkErrorOrReset(gitHubSettings.getErrorResetWindow(), gitHubSettings.getErrorThreshold())) {
+        if (repo.checkErrorOrReset(gitHubSettings.getErrorResetWindow(), gitHubSettings.getErrorThreshold())) {
 
-                try {
-                    if (!isUnderRateLimit(repo)) {
-                        LOG.error("GraphQL API rate limit reached. Stopping processing");
-                        continue;
-                    }
+            try {
+                if (!isUnderRateLimit(repo)) {
+                    LOG.error("GraphQL API rate limit reached. Skipping " + repo.getRepoUrl());
+                    return false;
+                }
 
-                    List<GitRequest> allRequests = gitRequestRepository.findRequestNumberAndLastUpdated(repo.getId());
+                List<GitRequest> allRequests = gitRequestRepository.findRequestNumberAndLastUpdated(repo.getId());
 
-                    Map<Long, String> existingPRMap = allRequests.stream().filter(r -> Objects.equals(r.getRequestType(), "pull")).collect(
-                            Collectors.toMap(GitRequest::getUpdatedAt, GitRequest::getNumber,
-                                    (oldValue, newValue) -> oldValue
-                            )
-                    );
+                Map<Long, String> existingPRMap = allRequests.stream().filter(r -> Objects.equals(r.getRequestType(), "pull")).collect(
+                        Collectors.toMap(GitRequest::getUpdatedAt, GitRequest::getNumber,
+                                (oldValue, newValue) -> oldValue
+                        )
+                );
 
-                    Map<Long, String> existingIssueMap = allRequests.stream().filter(r -> Objects.equals(r.getRequestType(), "issue")).collect(
-                            Collectors.toMap(GitRequest::getUpdatedAt, GitRequest::getNumber,
-                                    (oldValue, newValue) -> oldValue
-                            )
-                    );
+                Map<Long, String> existingIssueMap = allRequests.stream().filter(r -> Objects.equals(r.getRequestType(), "issue")).collect(
+                        Collectors.toMap(GitRequest::getUpdatedAt, GitRequest::getNumber,
+                                (oldValue, newValue) -> oldValue
+                        )
+                );
 
 
-                    gitHubClient.fireGraphQL(repo, firstRun, existingPRMap, existingIssueMap);
+                gitHubClient.fireGraphQL(repo, firstRun, existingPRMap, existingIssueMap);
 
-                    // Get all the commits
-                    commitCount += processCommits(repo);
+                // Get all the commits
+                commitCount.addAndGet(processCommits(repo));
 
-                    //Get all the Pull Requests
-                    pullCount += processPRorIssueList(repo, allRequests.stream().filter(r -> Objects.equals(r.getRequestType(), "pull")).collect(Collectors.toList()), "pull");
-                    //Get all the Issues
-                    issueCount += processPRorIssueList(repo, allRequests.stream().filter(r -> Objects.equals(r.getRequestType(), "issue")).collect(Collectors.toList()), "issue");
+                //Get all the Pull Requests
+                pullCount.addAndGet(processPRorIssueList(repo, allRequests.stream().filter(r -> Objects.equals(r.getRequestType(), "pull")).collect(Collectors.toList()), "pull"));
+                //Get all the Issues
+                issueCount.addAndGet(processPRorIssueList(repo, allRequests.stream().filter(r -> Objects.equals(r.getRequestType(), "issue")).collect(Collectors.toList()), "issue"));
 
-                    // Due to timing of PRs and Commits in PR merge event, some commits may not be included in the response and will not be connected to a PR.
-                    // This is the place attempting to re-connect the commits and PRs in case they were missed during previous run.
+                // Due to timing of PRs and Commits in PR merge event, some commits may not be included in the response and will not be connected to a PR.
+                // This is the place attempting to re-connect the commits and PRs in case they were missed during previous run.
 
-                    processOrphanCommits(repo);
+                processOrphanCommits(repo);
 
-                    repo.setLastUpdated(System.currentTimeMillis());
-                    // if everything went alright, there should be no error!
-                    repo.getErrors().clear();
+                repo.setLastUpdated(System.currentTimeMillis());
+                // if everything went alright, there should be no error!
+                repo.getErrors().clear();
 
-                } catch (HttpStatusCodeException hc) {
-                    LOG.error("Error fetching commits for:" + repo.getRepoUrl(), hc);
-                    CollectionError error = new CollectionError(hc.getStatusCode().toString(), hc.getMessage());
-                    repo.getErrors().add(error);
-                } catch (RestClientException | MalformedURLException ex) {
-                    LOG.error("Error fetching commits for:" + repo.getRepoUrl(), ex);
-                    CollectionError error = new CollectionError(CollectionError.UNKNOWN_HOST, ex.getMessage());
-                    repo.getErrors().add(error);
-                } catch (HygieiaException he) {
-                    LOG.error("Error fetching commits for:" + repo.getRepoUrl(), he);
-                    CollectionError error = new CollectionError(String.valueOf(he.getErrorCode()), he.getMessage());
-                    repo.getErrors().add(error);
-                }
-                gitHubRepoRepository.save(repo);
-            } else {
-                LOG.info(repo.getRepoUrl()+ "::" + repo.getBranch() + ":: errorThreshold exceeded");
+            } catch (HttpStatusCodeException hc) {
+                LOG.error("Error fetching commits for:" + repo.getRepoUrl(), hc);
+                CollectionError error = new CollectionError(hc.getStatusCode().toString(), hc.getMessage());
+                repo.getErrors().add(error);
+            } catch (RestClientException | MalformedURLException ex) {
+                LOG.error("Error fetching commits for:" + repo.getRepoUrl(), ex);
+                CollectionError error = new CollectionError(CollectionError.UNKNOWN_HOST, ex.getMessage());
+                repo.getErrors().add(error);
+            } catch (HygieiaException he) {
+                LOG.error("Error fetching commits for:" + repo.getRepoUrl(), he);
+                CollectionError error = new CollectionError(String.valueOf(he.getErrorCode()), he.getMessage());
+                repo.getErrors().add(error);
             }
-            repoCount++;
+            gitHubRepoRepository.save(repo);
+        } else {
+            LOG.info(repo.getRepoUrl()+ "::" + repo.getBranch() + ":: errorThreshold exceeded");
         }
-        log("Repo Count", start, repoCount);
-        log("New Commits", start, commitCount);
-        log("New Pulls", start, pullCount);
-        log("New Issues", start, issueCount);
-        log("Finished", start);
-
+        return true;
     }
 
     // Retrieves a st of previous commits and Pulls and tries to reconnect them
@@ -249,77 +293,94 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
     }
 
     /**
-     * Process commits
+     * Process commits. The revisions already stored for the repo are looked up with a single
+     * query and only the new commits are inserted, in one batch.
      *
      * @param repo
      * @return count added
      */
     private int processCommits(GitHubRepo repo) {
-        int count = 0;
+        Map<String, Commit> nonDupCommits = gitHubClient.getCommits().stream()
+                .<Map<String, Commit>> collect(LinkedHashMap::new, (m, c) -> m.put(c.getScmRevisionNumber(), c), Map::putAll);
+
         Long existingCount = commitRepository.countCommitsByCollectorItemId(repo.getId());
-        if (existingCount == 0) {
-            List<Commit> newCommits = gitHubClient.getCommits();
-            newCommits.forEach(c -> c.setCollectorItemId(repo.getId()));
+        if (existingCount != null && existingCount > 0 && !nonDupCommits.isEmpty()) {
+            gitHubCommitRepository.findRevisionNumbers(repo.getId(), nonDupCommits.keySet())
+                    .forEach(c -> nonDupCommits.remove(c.getScmRevisionNumber()));
+        }
+
+        List<Commit> newCommits = new ArrayList<>(nonDupCommits.values());
+        newCommits.forEach(c -> {
+            LOG.debug(c.getTimestamp() + ":::" + c.getScmCommitLog());
+            c.setCollectorItemId(repo.getId());
+        });
+        int count = 0;
+        if (!newCommits.isEmpty()) {
             Iterable<Commit> saved = commitRepository.save(newCommits);
-            count = saved != null ? Lists.newArrayList(saved).size() : 0;
-        } else {
-            Collection<Commit> nonDupCommits = gitHubClient.getCommits().stream()
-                    .<Map<String, Commit>> collect(HashMap::new,(m,c)->m.put(c.getScmRevisionNumber(), c), Map::putAll)
-                    .values();
-            for (Commit commit : nonDupCommits) {
-                LOG.debug(commit.getTimestamp() + ":::" + commit.getScmCommitLog());
-                if (isNewCommit(repo, commit)) {
-                    commit.setCollectorItemId(repo.getId());
-                    commitRepository.save(commit);
-                    count++;
-                }
-            }
+            count = saved != null ? Lists.newArrayList(saved).size() : newCommits.size();
         }
         LOG.info("-- Saved Commits = " + count);
         return count;
     }
 
 
+    /**
+     * Checks the rate limit budget shared by the workers, the requests of the repo take their tokens
+     * as they are sent. GitHub is only asked for the rate limit when no GraphQL response has reported
+     * it for the current window yet.
+     */
     private boolean isUnderRateLimit(GitHubRepo repo) throws MalformedURLException, HygieiaException {
-        GitHubRateLimit rateLimit = null;
-        try {
-            rateLimit = gitHubClient.getRateLimit(repo);
-            if(rateLimit!=null){
-                LOG.info("Remaining " + rateLimit.getRemaining() + " of limit " + rateLimit.getLimit()
-                        + " resetTime " + new DateTime(rateLimit.getResetTime()).toString("yyyy-MM-dd hh:mm:ss.SSa"));
-            }else{
-                LOG.info("Rate limit is null");
-            }
+        if (!rateLimitGovernor.isKnown(repo)) {
+            GitHubRateLimit rateLimit = null;
+            try {
+                rateLimit = gitHubClient.getRateLimit(repo);
+                if(rateLimit!=null){
+                    LOG.info("Remaining " + rateLimit.getRemaining() + " of limit " + rateLimit.getLimit()
+                            + " resetTime " + new DateTime(rateLimit.getResetTime()).toString("yyyy-MM-dd hh:mm:ss.SSa"));
+                }else{
+                    LOG.info("Rate limit is null");
+                }
 
-        } catch (HttpClientErrorException hce) {
-            LOG.error("getRateLimit returned " + hce.getStatusCode() + " " + hce.getMessage() + " " + hce);
-            return false;
+            } catch (HttpClientErrorException hce) {
+                LOG.error("getRateLimit returned " + hce.getStatusCode() + " " + hce.getMessage() + " " + hce);
+                return false;
+            }
+            if (rateLimit == null) return false;
+            rateLimitGovernor.update(repo, rateLimit);
         }
-        return rateLimit != null && (rateLimit.getRemaining() > gitHubSettings.getRateLimitThreshold());
+        return rateLimitGovernor.hasRemaining(repo, gitHubSettings.getRateLimitThreshold());
     }
 
     private int processPRorIssueList(GitHubRepo repo, List<GitRequest> existingList, String type) {
-        int count = 0;
-
         List<GitRequest> entries = "pull".equalsIgnoreCase(type) ? gitHubClient.getPulls() : gitHubClient.getIssues();
 
         if (CollectionUtils.isEmpty(entries)) return 0;
 
-        for (GitRequest entry : entries) {
-            Optional<GitRequest> existingOptional = existingList.stream().filter(r -> Objects.equals(r.getNumber(), entry.getNumber())).findFirst();
-            GitRequest existing = existingOptional.orElse(null);
+        Map<String, ObjectId> existingIds = existingList.stream()
+                .collect(Collectors.toMap(GitRequest::getNumber, GitRequest::getId, (oldValue, newValue) -> oldValue));
 
-            if (existing == null) {
-                entry.setCollectorItemId(repo.getId());
-                count++;
+        List<GitRequest> newEntries = new ArrayList<>();
+        List<GitRequest> updatedEntries = new ArrayList<>();
+        for (GitRequest entry : entries) {
+            ObjectId existingId = existingIds.get(entry.getNumber());
+            entry.setCollectorItemId(repo.getId());
+            if (existingId == null) {
+                newEntries.add(entry);
             } else {
-                entry.setId(existing.getId());
-                entry.setCollectorItemId(repo.getId());
+                entry.setId(existingId);
+                updatedEntries.add(entry);
             }
-            gitRequestRepository.save(entry);
         }
-        LOG.info("-- Saved " + type  + ":" + count);
-        return count;
+
+        // new requests are inserted in one batch; kept apart so they are not saved one by one with the updates
+        if (!newEntries.isEmpty()) {
+            gitRequestRepository.save(newEntries);
+        }
+        if (!updatedEntries.isEmpty()) {
+            gitRequestRepository.save(updatedEntries);
+        }
+        LOG.info("-- Saved " + type  + ":" + newEntries.size());
+        return newEntries.size();
     }
 
 
@@ -338,9 +399,4 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
 
         return pulledRepos;
     }
-
-    private boolean isNewCommit(GitHubRepo repo, Commit commit) {
-        return commitRepository.findByCollectorItemIdAndScmRevisionNumber(
-                repo.getId(), commit.getScmRevisionNumber()) == null;
-    }
 }
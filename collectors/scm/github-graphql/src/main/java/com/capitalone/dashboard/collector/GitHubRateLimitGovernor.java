@@ -0,0 +1,99 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.GitHubRateLimit;
+import com.capitalone.dashboard.model.GitHubRepo;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares the GitHub GraphQL rate limit between the repos that are collected concurrently.
+ * <p>
+ * A budget is kept per credential, since repos with their own personal access token or user have
+ * their own limit. The budget is refreshed from the {@code rateLimit} returned with every GraphQL
+ * response, and every GraphQL request takes one token from it before it is sent, so requests still in
+ * flight are counted. Workers stop starting repos once the remaining limit reaches the threshold,
+ * without asking GitHub for the rate limit every time.
+ */
+@Component
+public class GitHubRateLimitGovernor {
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Records a rate limit reported by GitHub for the credential of the repo
+     */
+    public void update(GitHubRepo repo, GitHubRateLimit rateLimit) {
+        if (rateLimit == null) return;
+        budgets.computeIfAbsent(credentialKey(repo), key -> new Budget()).update(rateLimit);
+    }
+
+    /**
+     * @return true if a rate limit was reported for the credential of the repo and it has not been reset since
+     */
+    public boolean isKnown(GitHubRepo repo) {
+        Budget budget = budgets.get(credentialKey(repo));
+        return budget != null && budget.isCurrent(System.currentTimeMillis());
+    }
+
+    /**
+     * @param repo the repo about to be collected
+     * @param threshold the number of calls to leave unused
+     * @return false if the remaining limit of the repo's credential is at or below the threshold
+     */
+    public boolean hasRemaining(GitHubRepo repo, int threshold) {
+        Budget budget = budgets.get(credentialKey(repo));
+        return budget != null && budget.hasRemaining(threshold);
+    }
+
+    /**
+     * Takes one token from the budget of the repo's credential for a request about to be sent. A repo
+     * that was started is collected to the end, so this does not stop at the threshold.
+     */
+    public void acquire(GitHubRepo repo) {
+        Budget budget = budgets.get(credentialKey(repo));
+        if (budget != null) {
+            budget.acquire();
+        }
+    }
+
+    static String credentialKey(GitHubRepo repo) {
+        Object token = repo.getOptions().get(GitHubRepo.PERSONAL_ACCESS_TOKEN);
+        if (token != null && StringUtils.isNotEmpty(token.toString())) {
+            return "token:" + token;
+        }
+        if (StringUtils.isNotEmpty(repo.getUserId())) {
+            return "user:" + repo.getUserId();
+        }
+        return "default";
+    }
+
+    private static final class Budget {
+        private long remaining;
+        private long resetTime = Long.MIN_VALUE;
+
+        synchronized void update(GitHubRateLimit rateLimit) {
+            if (rateLimit.getResetTime() > resetTime) {
+                resetTime = rateLimit.getResetTime();
+                remaining = rateLimit.getRemaining();
+            } else if (rateLimit.getResetTime() == resetTime) {
+                // responses of concurrent workers can arrive out of order, the lowest count is the latest
+                remaining = Math.min(remaining, rateLimit.getRemaining());
+            }
+        }
+
+        synchronized boolean isCurrent(long now) {
+            return resetTime > now;
+        }
+
+        synchronized boolean hasRemaining(int threshold) {
+            return remaining > threshold;
+        }
+
+        synchronized void acquire() {
+            if (remaining > 0) remaining--;
+        }
+    }
+}
@@ -30,6 +30,8 @@ public class GitHubSettings {
 	private int offsetMinutes;
 	@Value("${github.fetchCount:100}")
 	private int fetchCount;
+	@Value("${github.threads:1}")
+	private int threads;
 
 	private String personalAccessToken;
 
@@ -135,6 +137,14 @@ public class GitHubSettings {
 		this.fetchCount = fetchCount;
 	}
 
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
 	public int getReadTimeout() { return readTimeout; }
 
 	public void setReadTimeout(int readTimeout) { this.readTimeout = readTimeout; }
@@ -0,0 +1,136 @@
+package com.capitalone.dashboard.collector;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads a GraphQL response straight from the response stream in a single pass. Only the top level
+ * data and errors entries are built, so the body is never held as a String and any other entry
+ * (extensions, debug output) is skipped as it is read.
+ */
+public class GraphQLResponseHandler implements ContentHandler {
+    private static final Set<String> KEPT_ENTRIES = new HashSet<>(Arrays.asList("data", "errors"));
+
+    private final Deque<Object> containers = new ArrayDeque<>();
+    private final Deque<String> keys = new ArrayDeque<>();
+    private Object root;
+    // set while reading a top level entry that is not kept, with the depth of the containers in it
+    private boolean skipping;
+    private int skippedDepth;
+
+    /**
+     * @return the response with its data and errors entries, empty if the body is not a JSON object
+     */
+    public static JSONObject parse(InputStream body) throws IOException, ParseException {
+        GraphQLResponseHandler handler = new GraphQLResponseHandler();
+        new JSONParser().parse(new InputStreamReader(body, StandardCharsets.UTF_8), handler);
+        return handler.root instanceof JSONObject ? (JSONObject) handler.root : new JSONObject();
+    }
+
+    @Override
+    public void startJSON() {
+        containers.clear();
+        keys.clear();
+        root = null;
+        skipping = false;
+    }
+
+    @Override
+    public void endJSON() {
+        // nothing to release
+    }
+
+    @Override
+    public boolean startObject() {
+        return startContainer(new JSONObject());
+    }
+
+    @Override
+    public boolean endObject() {
+        return endContainer();
+    }
+
+    @Override
+    public boolean startArray() {
+        return startContainer(new JSONArray());
+    }
+
+    @Override
+    public boolean endArray() {
+        return endContainer();
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) {
+        if (skipping) return true;
+        if (containers.size() == 1 && !KEPT_ENTRIES.contains(key)) {
+            skipping = true;
+            skippedDepth = 0;
+            return true;
+        }
+        keys.push(key);
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() {
+        if (skipping) {
+            skipping = skippedDepth > 0;
+            return true;
+        }
+        keys.pop();
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value) {
+        if (!skipping) {
+            add(value);
+        }
+        return true;
+    }
+
+    private boolean startContainer(Object container) {
+        if (skipping) {
+            skippedDepth++;
+            return true;
+        }
+        add(container);
+        containers.push(container);
+        return true;
+    }
+
+    private boolean endContainer() {
+        if (skipping) {
+            skippedDepth--;
+            return true;
+        }
+        containers.pop();
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(Object value) {
+        Object parent = containers.peek();
+        if (parent == null) {
+            root = value;
+        } else if (parent instanceof JSONObject) {
+            ((JSONObject) parent).put(keys.peek(), value);
+        } else {
+            ((JSONArray) parent).add(value);
+        }
+    }
+}
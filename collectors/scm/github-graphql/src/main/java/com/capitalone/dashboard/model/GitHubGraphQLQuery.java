@@ -230,7 +230,8 @@ public class GitHubGraphQLQuery {
 
 
     public static final String QUERY_END =
-            "  }\n" + "}\n";
+            "  }\n" +
+            "  rateLimit {limit remaining resetAt}\n" + "}\n";
 
     public static final String QUERY_NEW_PR_CHECK ="query ($owner: String!, $name: String!, $branch:String!) {\n" +
             "  repository(owner: $owner, name: $name) {\n" +
@@ -0,0 +1,15 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Commit;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GitHubCommitRepository extends CrudRepository<Commit, ObjectId> {
+
+    @Query(value = "{ 'collectorItemId' : ?0, 'scmRevisionNumber' : { $in : ?1 } }", fields = "{ 'scmRevisionNumber' : 1 }")
+    List<Commit> findRevisionNumbers(ObjectId collectorItemId, Collection<String> scmRevisionNumbers);
+}
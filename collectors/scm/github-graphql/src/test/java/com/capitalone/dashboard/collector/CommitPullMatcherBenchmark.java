@@ -0,0 +1,148 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.GitRequest;
+import org.apache.commons.collections.CollectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CommitPullMatcher} with the scan of every pull request and its commits it replaced, on a
+ * synthetic repo where commits match their pull request by revision sha, by merge sha, by a rebased commit, or not
+ * at all. Run it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.capitalone.dashboard.collector.CommitPullMatcherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommitPullMatcherBenchmark {
+    private static final int COMMITS_PER_PULL = 10;
+
+    @Param({"100", "1000"})
+    public int pullCount;
+
+    private List<Commit> commits;
+    private List<GitRequest> pulls;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        pulls = new ArrayList<>(pullCount);
+        commits = new ArrayList<>(pullCount * 2);
+        for (int i = 0; i < pullCount; i++) {
+            GitRequest pull = new GitRequest();
+            pull.setNumber(String.valueOf(i));
+            pull.setScmRevisionNumber("sha-" + i);
+            pull.setScmMergeEventRevisionNumber("merge-" + i);
+            List<Commit> prCommits = new ArrayList<>(COMMITS_PER_PULL);
+            for (int j = 0; j < COMMITS_PER_PULL; j++) {
+                prCommits.add(commit("pr-" + i + "-" + j, "author" + random.nextInt(20), i * COMMITS_PER_PULL + j, "change " + j));
+            }
+            pull.setCommits(prCommits);
+            pulls.add(pull);
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    commits.add(commit("sha-" + i, "author", i, "merged " + i));
+                    break;
+                case 1:
+                    commits.add(commit("merge-" + i, "author", i, "squashed " + i));
+                    break;
+                case 2:
+                    Commit prCommit = prCommits.get(random.nextInt(COMMITS_PER_PULL));
+                    commits.add(commit("rebased-" + i, prCommit.getScmAuthor(), prCommit.getScmCommitTimestamp(), prCommit.getScmCommitLog()));
+                    break;
+                default:
+                    commits.add(commit("direct-" + i, "author", i, "pushed " + i));
+            }
+            // a commit of no pull request
+            commits.add(commit("other-" + i, "author", -i, "other " + i));
+        }
+    }
+
+    @Benchmark
+    public List<Commit> scanEveryPull() {
+        return scanEveryPull(commits, pulls);
+    }
+
+    @Benchmark
+    public List<Commit> indexedPulls() {
+        return CommitPullMatcher.matchCommitToPulls(commits, pulls);
+    }
+
+    /**
+     * The matching as it was before the pull requests were indexed
+     */
+    private static List<Commit> scanEveryPull(List<Commit> commits, List<GitRequest> pullRequests) {
+        List<Commit> newCommitList = new LinkedList<>();
+        if (CollectionUtils.isEmpty(commits) || CollectionUtils.isEmpty(pullRequests)) {
+            return commits;
+        }
+        for (Commit commit : commits) {
+            Iterator<GitRequest> pIter = pullRequests.iterator();
+            boolean foundPull = false;
+            while (!foundPull && pIter.hasNext()) {
+                GitRequest pull = pIter.next();
+                if (Objects.equals(pull.getScmRevisionNumber(), commit.getScmRevisionNumber()) ||
+                        Objects.equals(pull.getScmMergeEventRevisionNumber(), commit.getScmRevisionNumber())) {
+                    foundPull = true;
+                    commit.setPullNumber(pull.getNumber());
+                } else {
+                    List<Commit> prCommits = pull.getCommits();
+                    boolean foundCommit = false;
+                    if (!CollectionUtils.isEmpty(prCommits)) {
+                        Iterator<Commit> cIter = prCommits.iterator();
+                        while (!foundCommit && cIter.hasNext()) {
+                            Commit loopCommit = cIter.next();
+                            if (Objects.equals(commit.getScmAuthor(), loopCommit.getScmAuthor()) &&
+                                    (commit.getScmCommitTimestamp() == loopCommit.getScmCommitTimestamp()) &&
+                                    Objects.equals(commit.getScmCommitLog(), loopCommit.getScmCommitLog())) {
+                                foundCommit = true;
+                                foundPull = true;
+                                commit.setPullNumber(pull.getNumber());
+                            }
+                        }
+                    }
+                }
+            }
+            newCommitList.add(commit);
+        }
+        return newCommitList;
+    }
+
+    private static Commit commit(String sha, String author, long timestamp, String message) {
+        Commit commit = new Commit();
+        commit.setScmRevisionNumber(sha);
+        commit.setScmAuthor(author);
+        commit.setScmCommitTimestamp(timestamp);
+        commit.setScmCommitLog(message);
+        return commit;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CommitPullMatcherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.GitRequest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CommitPullMatcherTest {
+
+    @Test
+    public void matchesNormalSquashAndRebaseMerges() {
+        GitRequest normal = pull("1", "sha-1", null);
+        GitRequest squash = pull("2", "sha-2", "merge-2");
+        GitRequest rebase = pull("3", "sha-3", null);
+        rebase.setCommits(Collections.singletonList(commit("pr-commit", "bob", 100L, "fix it")));
+
+        Commit normalCommit = commit("sha-1", "alice", 10L, "one");
+        Commit squashCommit = commit("merge-2", "alice", 20L, "two");
+        Commit rebasedCommit = commit("rebased", "bob", 100L, "fix it");
+        Commit unmatched = commit("other", "bob", 101L, "fix it");
+
+        List<Commit> result = CommitPullMatcher.matchCommitToPulls(
+                Arrays.asList(normalCommit, squashCommit, rebasedCommit, unmatched),
+                Arrays.asList(normal, squash, rebase));
+
+        assertEquals(4, result.size());
+        assertEquals("1", normalCommit.getPullNumber());
+        assertEquals("2", squashCommit.getPullNumber());
+        assertEquals("3", rebasedCommit.getPullNumber());
+        assertNull(unmatched.getPullNumber());
+    }
+
+    @Test
+    public void firstPullInListWins() {
+        GitRequest rebase = pull("1", "sha-1", null);
+        rebase.setCommits(Collections.singletonList(commit("pr-commit", "bob", 100L, "fix it")));
+        GitRequest squash = pull("2", "sha-2", "target");
+
+        Commit commit = commit("target", "bob", 100L, "fix it");
+        CommitPullMatcher.matchCommitToPulls(Collections.singletonList(commit), Arrays.asList(rebase, squash));
+        assertEquals("1", commit.getPullNumber());
+
+        commit = commit("target", "bob", 100L, "fix it");
+        CommitPullMatcher.matchCommitToPulls(Collections.singletonList(commit), Arrays.asList(squash, rebase));
+        assertEquals("2", commit.getPullNumber());
+    }
+
+    @Test
+    public void emptyInputsAreReturnedAsIs() {
+        List<Commit> commits = new ArrayList<>();
+        assertSame(commits, CommitPullMatcher.matchCommitToPulls(commits, Collections.singletonList(pull("1", "sha-1", null))));
+
+        commits.add(commit("sha-1", "alice", 10L, "one"));
+        assertSame(commits, CommitPullMatcher.matchCommitToPulls(commits, new ArrayList<>()));
+        assertNull(commits.get(0).getPullNumber());
+    }
+
+    @Test
+    public void largeInputs() {
+        int size = 5000;
+        List<GitRequest> pulls = new ArrayList<>(size);
+        List<Commit> commits = new ArrayList<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            GitRequest pull = pull(String.valueOf(i), "sha-" + i, "merge-" + i);
+            pull.setCommits(Collections.singletonList(commit("pr-" + i, "author", i, "message " + i)));
+            pulls.add(pull);
+            commits.add(commit("merge-" + i, "author", -1L, "squashed " + i));
+            commits.add(commit("rebased-" + i, "author", i, "message " + i));
+        }
+
+        List<Commit> result = CommitPullMatcher.matchCommitToPulls(commits, pulls);
+
+        assertEquals(size * 2, result.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(String.valueOf(i), result.get(i * 2).getPullNumber());
+            assertEquals(String.valueOf(i), result.get(i * 2 + 1).getPullNumber());
+        }
+    }
+
+    private static GitRequest pull(String number, String sha, String mergeSha) {
+        GitRequest pull = new GitRequest();
+        pull.setNumber(number);
+        pull.setScmRevisionNumber(sha);
+        pull.setScmMergeEventRevisionNumber(mergeSha);
+        return pull;
+    }
+
+    private static Commit commit(String sha, String author, long timestamp, String message) {
+        Commit commit = new Commit();
+        commit.setScmRevisionNumber(sha);
+        commit.setScmAuthor(author);
+        commit.setScmCommitTimestamp(timestamp);
+        commit.setScmCommitLog(message);
+        return commit;
+    }
+}
@@ -1,7 +1,11 @@
 package com.capitalone.dashboard.collector;
 
+import com.capitalone.dashboard.misc.HygieiaException;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.GitHubRateLimit;
 import com.capitalone.dashboard.model.GitHubRepo;
 import com.capitalone.dashboard.util.Supplier;
+import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -10,11 +14,19 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestOperations;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.when;
 
@@ -26,6 +38,7 @@ public class DefaultGitHubClientTest {
     @Mock private RestOperations rest;
     private GitHubSettings settings;
     private DefaultGitHubClient defaultGitHubClient;
+    private GitHubRateLimitGovernor rateLimitGovernor;
     private static final String URL_USER = "http://mygithub.com/api/v3/users/";
 
 
@@ -33,7 +46,8 @@ public class DefaultGitHubClientTest {
     public void init() {
         when(restOperationsSupplier.get()).thenReturn(rest);
         settings = new GitHubSettings();
-        defaultGitHubClient = new DefaultGitHubClient(settings, restOperationsSupplier);
+        rateLimitGovernor = new GitHubRateLimitGovernor();
+        defaultGitHubClient = new DefaultGitHubClient(settings, restOperationsSupplier, rateLimitGovernor);
         defaultGitHubClient.setLdapMap(new HashMap<>());
 
     }
@@ -106,6 +120,51 @@ public class DefaultGitHubClientTest {
     }
 
 
+    @Test
+    public void fireGraphQL_parsesPageOnce() throws Exception {
+        respondToGraphQL(commitPageResponse());
+        GitHubRepo repo = getGitRepo();
+
+        defaultGitHubClient.fireGraphQL(repo, true, new HashMap<>(), new HashMap<>());
+
+        assertEquals(1, defaultGitHubClient.getCommits().size());
+        Commit commit = defaultGitHubClient.getCommits().get(0);
+        assertEquals("sha1", commit.getScmRevisionNumber());
+        assertEquals("Joe", commit.getScmAuthor());
+        assertEquals(0, defaultGitHubClient.getPulls().size());
+        assertTrue(rateLimitGovernor.isKnown(repo));
+    }
+
+    @Test
+    public void fireGraphQL_takesTokenPerRequest() throws Exception {
+        respondToGraphQL(commitPageResponse());
+        GitHubRepo repo = getGitRepo();
+        GitHubRateLimit rateLimit = new GitHubRateLimit();
+        rateLimit.setLimit(5000);
+        rateLimit.setRemaining(10);
+        rateLimit.setResetTime(new DateTime("2099-01-01T00:00:00Z").getMillis());
+        rateLimitGovernor.update(repo, rateLimit);
+
+        defaultGitHubClient.fireGraphQL(repo, true, new HashMap<>(), new HashMap<>());
+
+        // one page was requested, the higher count reported for the same window is ignored
+        assertTrue(rateLimitGovernor.hasRemaining(repo, 8));
+        assertFalse(rateLimitGovernor.hasRemaining(repo, 9));
+    }
+
+    @Test(expected = HygieiaException.class)
+    public void fireGraphQL_errors() throws Exception {
+        respondToGraphQL("{\"errors\": [{\"message\": \"bad query\"}]}");
+
+        defaultGitHubClient.fireGraphQL(getGitRepo(), true, new HashMap<>(), new HashMap<>());
+    }
+
+    private void respondToGraphQL(String body) {
+        when(rest.execute(anyString(), eq(HttpMethod.POST), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> ((ResponseExtractor<?>) invocation.getArguments()[3])
+                        .extractData(new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+    }
+
     private GitHubRepo getGitRepo() {
         GitHubRepo repo = new GitHubRepo();
         repo.setBranch("master");
@@ -113,6 +172,15 @@ public class DefaultGitHubClientTest {
         return repo;
     }
 
+    private String commitPageResponse() {
+        return "{\"data\": {\"repository\": {\"ref\": {\"target\": {\"history\": {"
+                + "\"pageInfo\": {\"endCursor\": \"c1\", \"hasNextPage\": false},"
+                + "\"edges\": [{\"node\": {\"oid\": \"sha1\", \"message\": \"first\","
+                + "\"author\": {\"name\": \"Joe\", \"date\": \"2019-01-01T00:00:00Z\", \"user\": null},"
+                + "\"parents\": {\"nodes\": []}}}]}}}},"
+                + "\"rateLimit\": {\"limit\": 5000, \"remaining\": 4000, \"resetAt\": \"2099-01-01T00:00:00Z\"}}}";
+    }
+
     private String goodLdapResponse() {
         return "{ \"ldap_dn\": \"CN=ldapUser,OU=Developers,OU=All Users,DC=cof,DC=ds,DC=mycompany,DC=com\"}";
     }
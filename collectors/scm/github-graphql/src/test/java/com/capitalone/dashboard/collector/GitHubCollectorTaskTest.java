@@ -13,6 +13,7 @@ import com.capitalone.dashboard.model.GitHubRepo;
 import com.capitalone.dashboard.model.GitRequest;
 import com.capitalone.dashboard.repository.CommitRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.GitHubCommitRepository;
 import com.capitalone.dashboard.repository.GitHubRepoRepository;
 import com.capitalone.dashboard.repository.GitRequestRepository;
 import org.bson.types.ObjectId;
@@ -21,10 +22,12 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -43,8 +46,10 @@ public class GitHubCollectorTaskTest {
     @Mock private GitRequestRepository gitRequestRepository;
     @Mock private GitHubClient gitHubClient;
     @Mock private GitHubSettings gitHubSettings;
+    @Spy private GitHubRateLimitGovernor rateLimitGovernor = new GitHubRateLimitGovernor();
     @Mock private ComponentRepository dbComponentRepository;
     @Mock private CommitRepository commitRepository;
+    @Mock private GitHubCommitRepository gitHubCommitRepository;
 
     @Mock private GitHubRepo repo1;
     @Mock private GitHubRepo repo2;
@@ -75,8 +80,8 @@ public class GitHubCollectorTaskTest {
         when(gitHubClient.getRateLimit(repo1)).thenReturn(getOkRateLimit());
         when(gitHubClient.getCommits()).thenReturn(getCommits());
 
-        when(commitRepository.findByCollectorItemIdAndScmRevisionNumber(
-                repo1.getId(), "1")).thenReturn(null);
+        when(gitHubCommitRepository.findRevisionNumbers(
+                repo1.getId(), Collections.singleton("1"))).thenReturn(new ArrayList<>());
 
         when(commitRepository.countCommitsByCollectorItemId(repo1.getId())).thenReturn(1L);
         task.collect(collector);
@@ -89,8 +94,8 @@ public class GitHubCollectorTaskTest {
         assertEquals("repo1-ci1", repo1.getNiceName());
         assertEquals(true, repo1.isEnabled());
 
-        //verify that save is called once for the commit item
-        Mockito.verify(commitRepository, times(1)).save(commit);
+        //verify that the new commit is saved in a single batch
+        Mockito.verify(commitRepository, times(1)).save(Collections.singletonList(commit));
     }
 
 
@@ -113,8 +118,8 @@ public class GitHubCollectorTaskTest {
 
         when(gitHubClient.getCommits()).thenReturn(getCommits());
 
-        when(commitRepository.findByCollectorItemIdAndScmRevisionNumber(
-                repo1.getId(), "1")).thenReturn(null);
+        when(gitHubCommitRepository.findRevisionNumbers(
+                repo1.getId(), Collections.singleton("1"))).thenReturn(new ArrayList<>());
         when(gitHubClient.getRateLimit(repo1)).thenReturn(getOkRateLimit());
         when(gitHubClient.getRateLimit(repo2)).thenReturn(getOkRateLimit());
         when(commitRepository.countCommitsByCollectorItemId(repo1.getId())).thenReturn(1L);
@@ -129,8 +134,8 @@ public class GitHubCollectorTaskTest {
         assertEquals("repo1-ci1", repo1.getNiceName());
         assertEquals(true, repo1.isEnabled());
 
-        //verify that save is called once for the commit item
-        Mockito.verify(commitRepository, times(1)).save(commit);
+        //verify that the new commit is saved in a single batch
+        Mockito.verify(commitRepository, times(1)).save(Collections.singletonList(commit));
     }
 
     @Test
@@ -154,8 +159,8 @@ public class GitHubCollectorTaskTest {
         when(gitHubClient.getIssues()).thenReturn(getGitRequests());
 //  Need to correct - Topo - 7/31      when(gitHubClient.getPulls(repo1, "close",true)).thenReturn(getGitRequests());
 
-        when(commitRepository.findByCollectorItemIdAndScmRevisionNumber(
-                repo1.getId(), "1")).thenReturn(null);
+        when(gitHubCommitRepository.findRevisionNumbers(
+                repo1.getId(), Collections.singleton("1"))).thenReturn(new ArrayList<>());
 
         when(gitHubClient.getRateLimit(repo1)).thenReturn(getOkRateLimit());
         when(gitHubClient.getRateLimit(repo2)).thenReturn(getOkRateLimit());
@@ -171,8 +176,8 @@ public class GitHubCollectorTaskTest {
         assertEquals("repo1-ci1", repo1.getNiceName());
         assertEquals(true, repo1.isEnabled());
 
-        //verify that save is called once for the commit item
-        Mockito.verify(commitRepository, times(1)).save(commit);
+        //verify that the new commit is saved in a single batch
+        Mockito.verify(commitRepository, times(1)).save(Collections.singletonList(commit));
     }
 
     @Test
@@ -194,8 +199,8 @@ public class GitHubCollectorTaskTest {
 
         when(gitHubClient.getCommits()).thenReturn(getCommits());
 
-        when(commitRepository.findByCollectorItemIdAndScmRevisionNumber(
-                repo1.getId(), "1")).thenReturn(null);
+        when(gitHubCommitRepository.findRevisionNumbers(
+                repo1.getId(), Collections.singleton("1"))).thenReturn(new ArrayList<>());
 
         when(gitHubClient.getRateLimit(repo1)).thenReturn(getOkRateLimit());
         when(gitHubClient.getRateLimit(repo2)).thenReturn(getOkRateLimit());
@@ -211,8 +216,37 @@ public class GitHubCollectorTaskTest {
         assertEquals("repo1-ci1", repo1.getNiceName());
         assertEquals(true, repo1.isEnabled());
 
-        //verify that save is called once for the commit item
-        Mockito.verify(commitRepository, times(1)).save(commit);
+        //verify that the new commit is saved in a single batch
+        Mockito.verify(commitRepository, times(1)).save(Collections.singletonList(commit));
+    }
+
+    @Test
+    public void collect_savesNewAndExistingRequestsInBatches() throws MalformedURLException, HygieiaException {
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        Collector collector = new Collector();
+        collector.setId(new ObjectId("111ca42a258ad365fbb64ecc"));
+        when(gitHubRepoRepository.findEnabledGitHubRepos(collector.getId())).thenReturn(getEnabledRepos());
+        when(gitHubSettings.getErrorThreshold()).thenReturn(1);
+        when(gitHubClient.getRateLimit(repo1)).thenReturn(getOkRateLimit());
+
+        GitRequest existing = new GitRequest();
+        existing.setId(new ObjectId());
+        existing.setNumber("1");
+        existing.setRequestType("issue");
+        when(gitRequestRepository.findRequestNumberAndLastUpdated(repo1.getId())).thenReturn(Collections.singletonList(existing));
+
+        GitRequest updated = new GitRequest();
+        updated.setNumber("1");
+        GitRequest added = new GitRequest();
+        added.setNumber("2");
+        when(gitHubClient.getIssues()).thenReturn(Arrays.asList(updated, added));
+
+        task.collect(collector);
+
+        assertEquals(existing.getId(), updated.getId());
+        assertEquals(repo1.getId(), added.getCollectorItemId());
+        Mockito.verify(gitRequestRepository, times(1)).save(Collections.singletonList(added));
+        Mockito.verify(gitRequestRepository, times(1)).save(Collections.singletonList(updated));
     }
 
     private ArrayList<Commit> getCommits() {
@@ -0,0 +1,82 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.GitHubRateLimit;
+import com.capitalone.dashboard.model.GitHubRepo;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GitHubRateLimitGovernorTest {
+
+    private final GitHubRateLimitGovernor governor = new GitHubRateLimitGovernor();
+
+    @Test
+    public void acquiresPerRequestUntilThreshold() {
+        GitHubRepo repo = repo(null);
+        assertFalse(governor.isKnown(repo));
+        assertFalse(governor.hasRemaining(repo, 0));
+
+        governor.update(repo, rateLimit(12, inOneHour()));
+        assertTrue(governor.isKnown(repo));
+        assertTrue(governor.hasRemaining(repo, 10));
+        // checking does not use up the budget, requests do
+        assertTrue(governor.hasRemaining(repo, 10));
+        governor.acquire(repo);
+        assertTrue(governor.hasRemaining(repo, 10));
+        governor.acquire(repo);
+        assertFalse(governor.hasRemaining(repo, 10));
+    }
+
+    @Test
+    public void keepsLowestRemainingOfWindow() {
+        GitHubRepo repo = repo(null);
+        long resetTime = inOneHour();
+        governor.update(repo, rateLimit(1, resetTime));
+        // a response from an earlier call arriving late
+        governor.update(repo, rateLimit(100, resetTime));
+        assertFalse(governor.hasRemaining(repo, 1));
+
+        // a new window
+        governor.update(repo, rateLimit(100, resetTime + 1));
+        assertTrue(governor.hasRemaining(repo, 1));
+    }
+
+    @Test
+    public void expiredWindowIsNotKnown() {
+        GitHubRepo repo = repo(null);
+        governor.update(repo, rateLimit(100, System.currentTimeMillis() - 1));
+        assertFalse(governor.isKnown(repo));
+    }
+
+    @Test
+    public void budgetPerCredential() {
+        GitHubRepo defaultRepo = repo(null);
+        GitHubRepo tokenRepo = repo("token");
+        governor.update(defaultRepo, rateLimit(0, inOneHour()));
+        governor.update(tokenRepo, rateLimit(100, inOneHour()));
+
+        assertFalse(governor.hasRemaining(defaultRepo, 0));
+        assertTrue(governor.hasRemaining(tokenRepo, 0));
+    }
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() + 3600000;
+    }
+
+    private static GitHubRepo repo(String personalAccessToken) {
+        GitHubRepo repo = new GitHubRepo();
+        if (personalAccessToken != null) {
+            repo.getOptions().put(GitHubRepo.PERSONAL_ACCESS_TOKEN, personalAccessToken);
+        }
+        return repo;
+    }
+
+    private static GitHubRateLimit rateLimit(long remaining, long resetTime) {
+        GitHubRateLimit rateLimit = new GitHubRateLimit();
+        rateLimit.setLimit(5000);
+        rateLimit.setRemaining(remaining);
+        rateLimit.setResetTime(resetTime);
+        return rateLimit;
+    }
+}
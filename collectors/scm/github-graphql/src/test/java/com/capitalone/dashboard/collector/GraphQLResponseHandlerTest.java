@@ -0,0 +1,62 @@
+package com.capitalone.dashboard.collector;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GraphQLResponseHandlerTest {
+
+    private static final String DATA = "{\"repository\": {\"pullRequests\": {\"totalCount\": 2, \"edges\": ["
+            + "{\"node\": {\"number\": 1, \"title\": \"first\", \"merged\": true, \"mergedAt\": null,"
+            + "\"labels\": {\"nodes\": [{\"name\": \"a\"}, {\"name\": \"b\"}]}}},"
+            + "{\"node\": {\"number\": 2, \"title\": \"s\\u00e9cond\", \"merged\": false, \"mergedAt\": null,"
+            + "\"labels\": {\"nodes\": []}}}]}},"
+            + "\"rateLimit\": {\"limit\": 5000, \"remaining\": 4999.5}}";
+
+    @Test
+    public void buildsTheSameDataAsTheTreeParser() throws Exception {
+        JSONObject response = parse("{\"data\": " + DATA + "}");
+
+        assertEquals(new JSONParser().parse(DATA), response.get("data"));
+        assertEquals(1, response.size());
+    }
+
+    @Test
+    public void keepsErrorsAndSkipsOtherEntries() throws Exception {
+        JSONObject response = parse("{\"extensions\": {\"cost\": {\"nodes\": [1, {\"data\": 2}]}, \"errors\": 3},"
+                + "\"errors\": [{\"message\": \"bad query\", \"locations\": [{\"line\": 1}]}],"
+                + "\"debug\": \"text\", \"data\": null}");
+
+        assertEquals(2, response.size());
+        assertTrue(response.containsKey("data"));
+        assertNull(response.get("data"));
+        JSONArray errors = (JSONArray) response.get("errors");
+        assertEquals(1, errors.size());
+        assertEquals("bad query", ((JSONObject) errors.get(0)).get("message"));
+    }
+
+    @Test
+    public void bodyThatIsNotAnObjectIsEmpty() throws Exception {
+        assertTrue(parse("[{\"data\": 1}]").isEmpty());
+        assertTrue(parse("\"data\"").isEmpty());
+    }
+
+    @Test(expected = ParseException.class)
+    public void truncatedBodyFails() throws Exception {
+        parse("{\"data\": {\"repository\": ");
+    }
+
+    private static JSONObject parse(String body) throws IOException, ParseException {
+        return GraphQLResponseHandler.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
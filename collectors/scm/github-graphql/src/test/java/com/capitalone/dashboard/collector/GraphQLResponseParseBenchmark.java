@@ -0,0 +1,127 @@
+package com.capitalone.dashboard.collector;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a first run GraphQL page (100 pull requests with their commits, reviews and comments, and
+ * 100 commits of history) as a String parsed twice, as a String parsed once, and from the response stream with
+ * {@link GraphQLResponseHandler}. The GC profiler reports the bytes allocated per page (gc.alloc.rate.norm) and
+ * the collections run. Run it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.capitalone.dashboard.collector.GraphQLResponseParseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class GraphQLResponseParseBenchmark {
+    private static final int PAGE_SIZE = 100;
+    private static final int NESTED_SIZE = 50;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        JSONArray pulls = new JSONArray();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            JSONObject pull = new JSONObject();
+            pull.put("number", i);
+            pull.put("title", "Pull request " + i);
+            pull.put("state", "MERGED");
+            pull.put("mergedAt", "2019-01-01T00:00:00Z");
+            pull.put("commits", nodes(i, "oid"));
+            pull.put("reviews", nodes(i, "id"));
+            pull.put("comments", nodes(i, "id"));
+            pulls.add(edge(pull));
+        }
+        JSONObject repository = new JSONObject();
+        repository.put("pullRequests", connection(pulls));
+        repository.put("ref", singleton("target", singleton("history", connection(nodes(-1, "oid")))));
+
+        JSONObject data = new JSONObject();
+        data.put("repository", repository);
+        data.put("rateLimit", singleton("remaining", 4000));
+        body = singleton("data", data).toJSONString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void stringParsedTwice(Blackhole blackhole) throws ParseException {
+        String response = new String(body, StandardCharsets.UTF_8);
+        blackhole.consume(((JSONObject) new JSONParser().parse(response)).get("data"));
+        blackhole.consume(((JSONObject) new JSONParser().parse(response)).get("errors"));
+    }
+
+    @Benchmark
+    public void stringParsedOnce(Blackhole blackhole) throws ParseException {
+        JSONObject response = (JSONObject) new JSONParser().parse(new String(body, StandardCharsets.UTF_8));
+        blackhole.consume(response.get("data"));
+        blackhole.consume(response.get("errors"));
+    }
+
+    @Benchmark
+    public void streamed(Blackhole blackhole) throws IOException, ParseException {
+        JSONObject response = GraphQLResponseHandler.parse(new ByteArrayInputStream(body));
+        blackhole.consume(response.get("data"));
+        blackhole.consume(response.get("errors"));
+    }
+
+    private static JSONArray nodes(int pull, String idField) {
+        JSONArray nodes = new JSONArray();
+        for (int i = 0; i < NESTED_SIZE; i++) {
+            JSONObject node = new JSONObject();
+            node.put(idField, Integer.toHexString(pull * NESTED_SIZE + i) + "0123456789abcdef0123456789abcdef");
+            node.put("message", "Change " + i + " of pull request " + pull + ", with a body long enough to be typical");
+            node.put("author", singleton("name", "Author " + i % 7));
+            node.put("createdAt", "2019-01-01T00:00:00Z");
+            nodes.add(edge(node));
+        }
+        return nodes;
+    }
+
+    private static JSONObject connection(JSONArray edges) {
+        JSONObject connection = new JSONObject();
+        connection.put("totalCount", edges.size());
+        connection.put("pageInfo", singleton("hasNextPage", true));
+        connection.put("edges", edges);
+        return connection;
+    }
+
+    private static JSONObject edge(JSONObject node) {
+        return singleton("node", node);
+    }
+
+    private static JSONObject singleton(String key, Object value) {
+        JSONObject object = new JSONObject();
+        object.put(key, value);
+        return object;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GraphQLResponseParseBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}